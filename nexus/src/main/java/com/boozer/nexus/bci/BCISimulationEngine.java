@@ -3,7 +3,18 @@ package com.boozer.nexus.bci;
 import com.boozer.nexus.ai.service.AIIntegrationService;
 import com.boozer.nexus.consciousness.ConsciousnessEngine;
 import com.boozer.nexus.consciousness.models.ConsciousnessSession;
+import com.boozer.nexus.bci.dsp.FftBandFilter;
+import com.boozer.nexus.bci.dsp.FilterDesign;
+import com.boozer.nexus.bci.dsp.IirFilterBank;
+import com.boozer.nexus.bci.dsp.OverlapSaveFir;
+import com.boozer.nexus.bci.dsp.SpectralFeatureExtractor;
+import com.boozer.nexus.bci.dsp.SpectralFeatures;
+import com.boozer.nexus.bci.decoding.LinearTemplates;
+import com.boozer.nexus.bci.decoding.MotorImageryDecoder;
+import com.boozer.nexus.bci.decoding.ShrinkageLda;
 import com.boozer.nexus.bci.models.*;
+import com.boozer.nexus.bci.scheduling.ScheduledSession;
+import com.boozer.nexus.bci.scheduling.SessionScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -12,6 +23,8 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -58,7 +71,8 @@ public class BCISimulationEngine {
     // BCI Sessions and State Management
     private final Map<String, BCISession> activeSessions;
     private final Map<String, NeuralSignalBuffer> signalBuffers;
-    private final ExecutorService bciProcessingExecutor;
+    private final SessionScheduler sessionScheduler;
+    private final Map<String, ScheduledSession> scheduledSessions;
     private final ScheduledExecutorService bciMonitoringExecutor;
     
     // BCI Configuration and Calibration
@@ -74,18 +88,19 @@ public class BCISimulationEngine {
         logger.info("Initializing Brain-Computer Interface Simulation Engine...");
         
         // Initialize core BCI components
-        this.neuralSignalProcessor = new NeuralSignalProcessor();
-        this.thoughtPatternRecognizer = new ThoughtPatternRecognizer();
         this.motorIntentionPredictor = new MotorIntentionPredictor();
+        this.neuralSignalProcessor = new NeuralSignalProcessor(motorIntentionPredictor::getDecoder);
+        this.thoughtPatternRecognizer = new ThoughtPatternRecognizer();
         this.brainComputerCommunicator = new BrainComputerCommunicator();
         this.neurofeedbackTrainer = new NeurofeedbackTrainer();
         this.signalFilterBank = new SignalFilterBank();
-        this.adaptiveBCIController = new AdaptiveBCIController();
+        this.adaptiveBCIController = new AdaptiveBCIController(signalFilterBank);
         
         // Initialize session management
         this.activeSessions = new ConcurrentHashMap<>();
         this.signalBuffers = new ConcurrentHashMap<>();
         this.sessionMetrics = new ConcurrentHashMap<>();
+        this.scheduledSessions = new ConcurrentHashMap<>();
         
         // Initialize system configuration
         this.systemConfig = new BCISystemConfig();
@@ -93,8 +108,9 @@ public class BCISimulationEngine {
         this.signalQualityAssessment = new SignalQualityAssessment();
         this.performanceAnalyzer = new BCIPerformanceAnalyzer();
         
-        // Initialize thread pools
-        this.bciProcessingExecutor = Executors.newFixedThreadPool(8);
+        // Initialize thread pools: sessions share a few workers, monitored in timer-wheel slices
+        int sessionWorkers = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        this.sessionScheduler = new SessionScheduler("bci-session", sessionWorkers, 1, systemConfig.getProcessingInterval());
         this.bciMonitoringExecutor = Executors.newScheduledThreadPool(4);
         
         // Start BCI monitoring and maintenance
@@ -117,8 +133,9 @@ public class BCISimulationEngine {
                 request.getConfiguration()
             );
             
-            // Initialize signal buffer for the session
+            // Initialize signal buffer for the session: one sample ring per electrode
             NeuralSignalBuffer signalBuffer = new NeuralSignalBuffer(
+                request.getConfiguration().getElectrodePositions().size(),
                 request.getConfiguration().getBufferSize(),
                 request.getConfiguration().getSamplingRate()
             );
@@ -138,6 +155,9 @@ public class BCISimulationEngine {
             );
             session.setCalibrationResult(calibration);
             
+            // Streaming filters keep their state across the session's signal blocks
+            signalFilterBank.configure(session.getSessionId(), request.getConfiguration());
+            
             // Store session and initialize monitoring
             activeSessions.put(session.getSessionId(), session);
             signalBuffers.put(session.getSessionId(), signalBuffer);
@@ -181,12 +201,12 @@ public class BCISimulationEngine {
             
             // Process neural signals
             ProcessedSignal processedSignal = neuralSignalProcessor.processSignal(
-                signalData, session.getConfiguration()
+                sessionId, signalData, session.getConfiguration()
             );
             
             // Apply signal filtering
             FilteredSignal filteredSignal = signalFilterBank.applyFilters(
-                processedSignal, session.getCalibrationResult()
+                sessionId, processedSignal, session.getCalibrationResult()
             );
             
             // Recognize thought patterns
@@ -235,12 +255,12 @@ public class BCISimulationEngine {
             
             // Process signals for motor cortex activity
             MotorCortexSignal motorSignal = neuralSignalProcessor.extractMotorSignals(
-                signalData, session.getConfiguration()
+                sessionId, signalData, session.getConfiguration()
             );
             
             // Predict motor intentions
             MotorIntention prediction = motorIntentionPredictor.predictIntention(
-                motorSignal, session.getMotorCalibration()
+                sessionId, motorSignal, session.getMotorCalibration()
             );
             
             // Apply movement smoothing and prediction refinement
@@ -270,6 +290,45 @@ public class BCISimulationEngine {
         }
     }
     
+    /**
+     * Record a labelled motor imagery calibration trial (e.g. "LEFT", "RIGHT")
+     */
+    public void addMotorCalibrationTrial(String sessionId, String label, NeuralSignalData signalData) {
+        BCISession session = activeSessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("BCI session not found: " + sessionId);
+        }
+        MotorCortexSignal motorSignal = neuralSignalProcessor.extractMotorSignals(
+            sessionId, signalData, session.getConfiguration()
+        );
+        motorIntentionPredictor.addCalibrationTrial(sessionId, label, motorSignal);
+    }
+    
+    /**
+     * Train the session's CSP + LDA motor decoder on every calibration trial so far.
+     * Can be called again as trials accumulate; the learned patterns are replaced.
+     */
+    public CalibrationResult trainMotorDecoder(String sessionId) {
+        BCISession session = activeSessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("BCI session not found: " + sessionId);
+        }
+        List<LearnedPattern> patterns = motorIntentionPredictor.train(sessionId);
+        session.setLearnedPatterns(patterns);
+        
+        CalibrationResult result = new CalibrationResult();
+        result.setSessionId(sessionId);
+        result.setCalibrationType("MOTOR_IMAGERY_CSP_LDA");
+        // Every pattern carries the accuracy of the model they were all taken from
+        result.setAccuracy(patterns.get(0).getAccuracy());
+        result.setTimestamp(LocalDateTime.now());
+        session.setCalibrationResult(result);
+        
+        logger.info("Motor decoder for session {} trained on {} classes, accuracy {}", 
+                   sessionId, patterns.size(), result.getAccuracy());
+        return result;
+    }
+    
     /**
      * Execute BCI-controlled command
      */
@@ -378,33 +437,52 @@ public class BCISimulationEngine {
      * Start real-time BCI signal monitoring and processing
      */
     private void startSessionProcessing(BCISession session) {
-        bciProcessingExecutor.submit(() -> {
-            while (session.isActive()) {
-                try {
-                    // Monitor signal quality
-                    SignalQuality quality = signalQualityAssessment.assessQuality(
-                        signalBuffers.get(session.getSessionId())
-                    );
-                    
-                    // Adaptive filtering based on signal quality
-                    if (quality.getOverallScore() < 0.7) {
-                        adaptiveBCIController.adjustFiltering(session.getSessionId(), quality);
-                    }
-                    
-                    // Update session metrics
-                    BCIMetrics metrics = sessionMetrics.get(session.getSessionId());
-                    metrics.updateSignalQuality(quality.getOverallScore());
-                    
-                    Thread.sleep(systemConfig.getProcessingInterval());
-                    
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    logger.error("Error in session processing: {}", e.getMessage(), e);
-                }
+        ScheduledSession slot = sessionScheduler.schedule(
+            session.getSessionId(), systemConfig.getProcessingInterval(), new SessionSlice(session)
+        );
+        scheduledSessions.put(session.getSessionId(), slot);
+    }
+    
+    /**
+     * One monitoring slice of a session: quality assessment and adaptive
+     * filtering when new signal has arrived, and the session's scheduling lag
+     */
+    private final class SessionSlice implements Consumer<ScheduledSession> {
+        private final BCISession session;
+        private long lastSequence = -1;
+        
+        SessionSlice(BCISession session) {
+            this.session = session;
+        }
+        
+        @Override
+        public void accept(ScheduledSession slot) {
+            BCIMetrics metrics = sessionMetrics.get(session.getSessionId());
+            NeuralSignalBuffer buffer = signalBuffers.get(session.getSessionId());
+            if (!session.isActive() || metrics == null || buffer == null) {
+                slot.cancel();
+                return;
             }
-        });
+            metrics.updateProcessingLag(slot.getLastLagNanos() / 1e6);
+            
+            // An idle session costs one sequence check per slice
+            long sequence = buffer.getRing().getWriteSequence();
+            if (sequence == lastSequence) {
+                return;
+            }
+            lastSequence = sequence;
+            
+            // Monitor signal quality
+            SignalQuality quality = signalQualityAssessment.assessQuality(buffer);
+            
+            // Adaptive filtering based on signal quality
+            if (quality.getOverallScore() < 0.7) {
+                adaptiveBCIController.adjustFiltering(session.getSessionId(), quality);
+            }
+            
+            // Update session metrics
+            metrics.updateSignalQuality(quality.getOverallScore());
+        }
     }
     
     /**
@@ -455,6 +533,11 @@ public class BCISimulationEngine {
                 // Could trigger performance optimization
             }
             
+            // Monitor scheduling lag: slices starting more than an interval late
+            if (metrics.getProcessingLag() > systemConfig.getProcessingInterval()) {
+                logger.warn("BCI session {} processing lags by {} ms", session.getSessionId(), metrics.getProcessingLag());
+            }
+            
         } catch (Exception e) {
             logger.error("Error monitoring session health: {}", e.getMessage(), e);
         }
@@ -475,6 +558,13 @@ public class BCISimulationEngine {
             activeSessions.remove(sessionId);
             signalBuffers.remove(sessionId);
             sessionMetrics.remove(sessionId);
+            neuralSignalProcessor.releaseSession(sessionId);
+            signalFilterBank.releaseSession(sessionId);
+            motorIntentionPredictor.releaseSession(sessionId);
+            ScheduledSession slot = scheduledSessions.remove(sessionId);
+            if (slot != null) {
+                slot.cancel();
+            }
         }
     }
     
@@ -612,6 +702,7 @@ public class BCISimulationEngine {
         status.setActiveSessionCount(activeSessions.size());
         status.setSystemHealth(calculateSystemHealth());
         status.setAverageLatency(calculateAverageLatency());
+        status.setMaxProcessingLag(sessionScheduler.getMaxLagNanos() / 1e6);
         status.setTotalSignalsProcessed(calculateTotalSignalsProcessed());
         status.setUptimeHours(calculateSystemUptime());
         status.setLastUpdate(LocalDateTime.now());
@@ -720,18 +811,18 @@ public class BCISimulationEngine {
         }
         
         // Shutdown thread pools
-        bciProcessingExecutor.shutdown();
+        sessionScheduler.shutdown();
         bciMonitoringExecutor.shutdown();
         
         try {
-            if (!bciProcessingExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                bciProcessingExecutor.shutdownNow();
+            if (!sessionScheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                sessionScheduler.shutdownNow();
             }
             if (!bciMonitoringExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
                 bciMonitoringExecutor.shutdownNow();
             }
         } catch (InterruptedException e) {
-            bciProcessingExecutor.shutdownNow();
+            sessionScheduler.shutdownNow();
             bciMonitoringExecutor.shutdownNow();
             Thread.currentThread().interrupt();
         }
@@ -745,121 +836,168 @@ public class BCISimulationEngine {
  */
 class NeuralSignalProcessor {
     
-    public ProcessedSignal processSignal(NeuralSignalData signalData, BCIConfiguration config) {
+    // Motor rhythms: mu and beta (Hz)
+    private static final double MOTOR_LOW = 8.0;
+    private static final double MOTOR_HIGH = 30.0;
+    // Movement-related cortical potentials are slow shifts below about 3 Hz
+    private static final double MRCP_HIGH = 3.0;
+    
+    // Per-session DSP buffers, sized by the largest window seen
+    private final Map<String, SessionDsp> sessions = new ConcurrentHashMap<>();
+    // Trained motor decoder of a session, or null
+    private final Function<String, MotorImageryDecoder> decoders;
+    
+    public NeuralSignalProcessor(Function<String, MotorImageryDecoder> decoders) {
+        this.decoders = decoders;
+    }
+    
+    public ProcessedSignal processSignal(String sessionId, NeuralSignalData signalData, BCIConfiguration config) {
         // Advanced signal processing implementation
         ProcessedSignal processed = new ProcessedSignal();
         processed.setOriginalSignal(signalData);
         processed.setTimestamp(LocalDateTime.now());
         
-        // Extract frequency domain features
-        FrequencyFeatures freqFeatures = extractFrequencyFeatures(signalData);
-        processed.setFrequencyFeatures(freqFeatures);
-        
-        // Extract time domain features
-        TimeFeatures timeFeatures = extractTimeFeatures(signalData);
-        processed.setTimeFeatures(timeFeatures);
-        
-        // Extract spatial features for multi-electrode setups
-        SpatialFeatures spatialFeatures = extractSpatialFeatures(signalData);
+        double[] samples = signalData.getSignalData();
+        int channels = channelCount(signalData, samples.length);
+        SessionDsp dsp = session(sessionId, channels, Math.max(1, samples.length / channels), signalData.getSamplingRate());
+        SpatialFeatures spatialFeatures;
+        synchronized (dsp) {
+            // Moments, Welch PSD and band powers for every channel in one sweep
+            dsp.features.extractInterleaved(samples, 0, samples.length / channels);
+            
+            // Extract frequency domain features
+            processed.setFrequencyFeatures(extractFrequencyFeatures(dsp.features));
+            
+            // Extract time domain features
+            processed.setTimeFeatures(extractTimeFeatures(dsp.features));
+            
+            // Extract spatial features for multi-electrode setups
+            spatialFeatures = extractSpatialFeatures(sessionId, samples, channels, dsp);
+        }
         processed.setSpatialFeatures(spatialFeatures);
         
         return processed;
     }
     
-    public MotorCortexSignal extractMotorSignals(NeuralSignalData signalData, BCIConfiguration config) {
+    public MotorCortexSignal extractMotorSignals(String sessionId, NeuralSignalData signalData, BCIConfiguration config) {
         // Extract motor cortex specific signals
         MotorCortexSignal motorSignal = new MotorCortexSignal();
         motorSignal.setSourceSignal(signalData);
         
-        // Focus on motor cortex frequency bands (8-30 Hz)
-        double[] motorBandSignal = filterMotorBand(signalData.getSignalData());
+        double[] samples = signalData.getSignalData();
+        int channels = channelCount(signalData, samples.length);
+        int frames = samples.length / channels;
+        SessionDsp dsp = session(sessionId, channels, Math.max(1, frames), signalData.getSamplingRate());
+        double[] motorBandSignal = new double[samples.length];
+        double[] mrcp = new double[samples.length];
+        synchronized (dsp) {
+            // Focus on motor cortex frequency bands (8-30 Hz)
+            dsp.bandFilter.apply(samples, motorBandSignal, channels, frames, MOTOR_LOW, MOTOR_HIGH);
+            
+            // Extract movement-related cortical potentials
+            dsp.bandFilter.apply(samples, mrcp, channels, frames, 0.0, MRCP_HIGH);
+        }
         motorSignal.setMotorBandSignal(motorBandSignal);
-        
-        // Extract movement-related cortical potentials
-        double[] mrcp = extractMRCP(signalData.getSignalData());
         motorSignal.setMovementPotentials(mrcp);
         
         return motorSignal;
     }
     
-    private FrequencyFeatures extractFrequencyFeatures(NeuralSignalData signalData) {
-        // Implementation of FFT and frequency analysis
+    /**
+     * Drop a session's DSP buffers
+     */
+    public void releaseSession(String sessionId) {
+        sessions.remove(sessionId);
+    }
+    
+    private SessionDsp session(String sessionId, int channels, int frames, double samplingRate) {
+        return sessions.compute(sessionId, (id, dsp) -> 
+            dsp != null && dsp.fits(channels, frames, samplingRate) ? dsp : new SessionDsp(channels, frames, samplingRate));
+    }
+    
+    private static int channelCount(NeuralSignalData signalData, int samples) {
+        // Samples are interleaved by electrode
+        int channels = Math.max(1, signalData.getElectrodeLabels().length);
+        return samples % channels == 0 ? channels : 1;
+    }
+    
+    private FrequencyFeatures extractFrequencyFeatures(SpectralFeatureExtractor extractor) {
+        // Welch band powers, averaged over the electrodes
         FrequencyFeatures features = new FrequencyFeatures();
+        features.setDeltaPower(extractor.meanBandPower(SpectralFeatures.DELTA));
+        features.setThetaPower(extractor.meanBandPower(SpectralFeatures.THETA));
         
         // Alpha band (8-13 Hz)
-        features.setAlphaPower(calculateBandPower(signalData.getSignalData(), 8, 13));
+        features.setAlphaPower(extractor.meanBandPower(SpectralFeatures.ALPHA));
         
         // Beta band (13-30 Hz)
-        features.setBetaPower(calculateBandPower(signalData.getSignalData(), 13, 30));
+        features.setBetaPower(extractor.meanBandPower(SpectralFeatures.BETA));
         
         // Gamma band (30-100 Hz)
-        features.setGammaPower(calculateBandPower(signalData.getSignalData(), 30, 100));
+        features.setGammaPower(extractor.meanBandPower(SpectralFeatures.GAMMA));
         
         return features;
     }
     
-    private TimeFeatures extractTimeFeatures(NeuralSignalData signalData) {
-        // Implementation of time domain feature extraction
+    private TimeFeatures extractTimeFeatures(SpectralFeatureExtractor extractor) {
+        // Single-pass moments, averaged over the electrodes
         TimeFeatures features = new TimeFeatures();
-        double[] signal = signalData.getSignalData();
+        double mean = extractor.meanMoment(SpectralFeatures.MEAN);
+        double variance = extractor.meanMoment(SpectralFeatures.VARIANCE);
         
-        features.setMean(calculateMean(signal));
-        features.setVariance(calculateVariance(signal));
-        features.setSkewness(calculateSkewness(signal));
-        features.setKurtosis(calculateKurtosis(signal));
+        features.setMean(mean);
+        features.setVariance(variance);
+        features.setSkewness(extractor.meanMoment(SpectralFeatures.SKEWNESS));
+        features.setKurtosis(extractor.meanMoment(SpectralFeatures.KURTOSIS));
+        features.setRms(Math.sqrt(variance + mean * mean));
         
         return features;
     }
     
-    private SpatialFeatures extractSpatialFeatures(NeuralSignalData signalData) {
+    private SpatialFeatures extractSpatialFeatures(String sessionId, double[] samples, int channels, SessionDsp dsp) {
         // Implementation of spatial pattern analysis
         SpatialFeatures features = new SpatialFeatures();
         
         // Common Spatial Patterns (CSP)
-        double[] cspFeatures = extractCSPFeatures(signalData);
+        double[] cspFeatures = extractCSPFeatures(sessionId, samples, channels, dsp);
         features.setCspFeatures(cspFeatures);
         
         return features;
     }
     
-    // Helper methods for signal processing
-    private double calculateBandPower(double[] signal, double lowFreq, double highFreq) {
-        // FFT-based band power calculation
-        return 0.5; // Placeholder implementation
-    }
-    
-    private double calculateMean(double[] signal) {
-        return Arrays.stream(signal).average().orElse(0.0);
-    }
-    
-    private double calculateVariance(double[] signal) {
-        double mean = calculateMean(signal);
-        return Arrays.stream(signal).map(x -> Math.pow(x - mean, 2)).average().orElse(0.0);
-    }
-    
-    private double calculateSkewness(double[] signal) {
-        // Statistical skewness calculation
-        return 0.0; // Placeholder implementation
-    }
-    
-    private double calculateKurtosis(double[] signal) {
-        // Statistical kurtosis calculation
-        return 0.0; // Placeholder implementation
-    }
-    
-    private double[] filterMotorBand(double[] signal) {
-        // Band-pass filter for motor cortex frequencies
-        return signal; // Placeholder implementation
-    }
-    
-    private double[] extractMRCP(double[] signal) {
-        // Movement-related cortical potential extraction
-        return signal; // Placeholder implementation
+    private double[] extractCSPFeatures(String sessionId, double[] samples, int channels, SessionDsp dsp) {
+        // Log-variance of the session decoder's spatial filters over the motor band;
+        // empty until a decoder for this montage has been trained
+        MotorImageryDecoder decoder = decoders.apply(sessionId);
+        int frames = samples.length / channels;
+        if (decoder == null || !decoder.isTrained() || decoder.getChannels() != channels || frames < 2) {
+            return new double[0];
+        }
+        double[] motorBand = new double[samples.length];
+        dsp.bandFilter.apply(samples, motorBand, channels, frames, MOTOR_LOW, MOTOR_HIGH);
+        // One model snapshot sizes and fills the features, even if a retrain lands meanwhile
+        return decoder.classify(motorBand, 0, frames).getFeatures();
     }
     
-    private double[] extractCSPFeatures(NeuralSignalData signalData) {
-        // Common Spatial Patterns feature extraction
-        return new double[10]; // Placeholder implementation
+    /**
+     * Preallocated feature and filter buffers of one session
+     */
+    private static final class SessionDsp {
+        final int channels;
+        final double samplingRate;
+        final SpectralFeatureExtractor features;
+        final FftBandFilter bandFilter;
+        
+        SessionDsp(int channels, int frames, double samplingRate) {
+            this.channels = channels;
+            this.samplingRate = samplingRate;
+            this.features = new SpectralFeatureExtractor(channels, samplingRate, frames);
+            this.bandFilter = new FftBandFilter(frames, samplingRate);
+        }
+        
+        boolean fits(int channels, int frames, double samplingRate) {
+            return this.channels == channels && this.samplingRate == samplingRate && frames <= features.getFrames();
+        }
     }
 }
 
@@ -891,28 +1029,68 @@ class ThoughtPatternRecognizer {
     }
     
     private PatternClassification classifyPattern(FilteredSignal signal, List<LearnedPattern> patterns) {
-        // Machine learning-based pattern classification
+        // Linear templates over the CSP features, scored in a single pass
         PatternClassification classification = new PatternClassification();
+        classification.setPatternType("UNKNOWN");
+        classification.setConfidence(0.0);
         
-        // Find best matching pattern
-        LearnedPattern bestMatch = patterns.stream()
-            .max(Comparator.comparing(p -> calculateSimilarity(signal, p)))
-            .orElse(null);
+        double[] features = cspFeatures(signal);
+        if (features == null || features.length == 0 || patterns.isEmpty()) {
+            return classification;
+        }
+        double[] scores = new double[patterns.size()];
+        int best = -1;
+        for (int k = 0; k < scores.length; k++) {
+            scores[k] = score(patterns.get(k), features);
+            if (Double.isNaN(scores[k])) {
+                // Patterns learned for another feature space
+                return classification;
+            }
+            if (best < 0 || scores[k] > scores[best]) {
+                best = k;
+            }
+        }
         
-        if (bestMatch != null) {
-            classification.setPatternType(bestMatch.getPatternType());
-            classification.setConfidence(calculateSimilarity(signal, bestMatch));
-        } else {
-            classification.setPatternType("UNKNOWN");
-            classification.setConfidence(0.0);
+        // Scores are log-posteriors up to a constant; softmax gives the confidence
+        double total = 0.0;
+        for (double score : scores) {
+            total += Math.exp(score - scores[best]);
         }
+        classification.setPatternType(patterns.get(best).getPatternType());
+        classification.setConfidence(1.0 / total);
         
         return classification;
     }
     
-    private double calculateSimilarity(FilteredSignal signal, LearnedPattern pattern) {
-        // Pattern similarity calculation
-        return 0.85; // Placeholder implementation
+    private static double[] cspFeatures(FilteredSignal signal) {
+        ProcessedSignal processed = signal.getOriginalSignal();
+        SpatialFeatures spatial = processed != null ? processed.getSpatialFeatures() : null;
+        return spatial != null ? spatial.getCspFeatures() : null;
+    }
+    
+    private static double score(LearnedPattern pattern, double[] features) {
+        // Compiled template w . x + b; patterns without one fall back to the
+        // nearest-mean template mu . x - |mu|^2 / 2
+        double[] weights = pattern.getTemplateWeights();
+        double bias = pattern.getTemplateBias();
+        if (weights == null) {
+            weights = pattern.getFeatureVector();
+            if (weights == null) {
+                return Double.NaN;
+            }
+            bias = 0.0;
+            for (double w : weights) {
+                bias -= 0.5 * w * w;
+            }
+        }
+        if (weights.length != features.length) {
+            return Double.NaN;
+        }
+        double score = bias;
+        for (int i = 0; i < features.length; i++) {
+            score += weights[i] * features[i];
+        }
+        return score;
     }
     
     private double calculatePatternIntensity(FilteredSignal signal) {
@@ -961,7 +1139,13 @@ class ThoughtPatternRecognizer {
  */
 class MotorIntentionPredictor {
     
-    public MotorIntention predictIntention(MotorCortexSignal motorSignal, MotorCalibration calibration) {
+    // Spatial filters kept from each end of the CSP spectrum
+    private static final int MAX_FILTERS_PER_SIDE = 3;
+    
+    // Per-session CSP + LDA decoders, trained from labelled calibration trials
+    private final Map<String, MotorImageryDecoder> decoders = new ConcurrentHashMap<>();
+    
+    public MotorIntention predictIntention(String sessionId, MotorCortexSignal motorSignal, MotorCalibration calibration) {
         // Motor intention prediction implementation
         MotorIntention intention = new MotorIntention();
         intention.setTimestamp(LocalDateTime.now());
@@ -970,6 +1154,17 @@ class MotorIntentionPredictor {
         MovementVector vector = decodeMovementVector(motorSignal, calibration);
         intention.setMovementVector(vector);
         
+        MotorImageryDecoder decoder = decoders.get(sessionId);
+        int channels = channelCount(motorSignal);
+        if (decoder != null && decoder.isTrained() && decoder.getChannels() == channels) {
+            // Trained decoder: imagined class and its posterior
+            double[] samples = motorSignal.getMotorBandSignal();
+            MotorImageryDecoder.Decoding decoded = decoder.classify(samples, 0, samples.length / channels);
+            intention.setAction(decoded.getLabel());
+            intention.setConfidence(decoded.getPosterior());
+            return intention;
+        }
+        
         // Predict action type
         String action = predictActionType(motorSignal, calibration);
         intention.setAction(action);
@@ -981,6 +1176,64 @@ class MotorIntentionPredictor {
         return intention;
     }
     
+    /**
+     * Add a labelled calibration trial to the session's decoder
+     */
+    public void addCalibrationTrial(String sessionId, String label, MotorCortexSignal motorSignal) {
+        int channels = channelCount(motorSignal);
+        double[] samples = motorSignal.getMotorBandSignal();
+        if (channels < 2 || samples.length % channels != 0) {
+            throw new IllegalArgumentException("Motor decoding needs interleaved samples of at least 2 electrodes");
+        }
+        MotorImageryDecoder decoder = decoders.computeIfAbsent(sessionId, id -> 
+            new MotorImageryDecoder(channels, Math.min(MAX_FILTERS_PER_SIDE, channels / 2), ShrinkageLda.AUTOMATIC));
+        if (decoder.getChannels() != channels) {
+            throw new IllegalArgumentException("Session decoder expects " + decoder.getChannels() + 
+                " electrodes, got " + channels);
+        }
+        decoder.addTrial(label, samples, 0, samples.length / channels);
+    }
+    
+    /**
+     * Retrain the session's decoder; one learned pattern per class
+     */
+    public List<LearnedPattern> train(String sessionId) {
+        MotorImageryDecoder decoder = decoders.get(sessionId);
+        if (decoder == null) {
+            throw new IllegalStateException("No motor calibration trials for session " + sessionId);
+        }
+        // Patterns come from the model this call trained, not whatever a concurrent retrain published
+        MotorImageryDecoder.Model model = decoder.train();
+        
+        String[] labels = model.getLabels();
+        LinearTemplates templates = model.getTemplates();
+        List<LearnedPattern> patterns = new ArrayList<>();
+        for (int k = 0; k < labels.length; k++) {
+            LearnedPattern pattern = new LearnedPattern();
+            pattern.setPatternType(labels[k]);
+            pattern.setFeatureVector(model.getClassMean(k));
+            pattern.setTemplateWeights(templates.getWeights(k));
+            pattern.setTemplateBias(templates.getBias(k));
+            pattern.setAccuracy(model.getTrainingAccuracy());
+            pattern.setLearnedAt(LocalDateTime.now());
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+    
+    public MotorImageryDecoder getDecoder(String sessionId) {
+        return decoders.get(sessionId);
+    }
+    
+    public void releaseSession(String sessionId) {
+        decoders.remove(sessionId);
+    }
+    
+    private static int channelCount(MotorCortexSignal signal) {
+        NeuralSignalData source = signal.getSourceSignal();
+        return source != null ? Math.max(1, source.getElectrodeLabels().length) : 1;
+    }
+    
     public RefinedMotorIntention refineIntention(MotorIntention intention, List<MotorIntention> history) {
         // Refine prediction using movement history and smoothing
         RefinedMotorIntention refined = new RefinedMotorIntention();
@@ -1203,19 +1456,180 @@ class NeurofeedbackTrainer {
     }
 }
 
+/**
+ * Signal Filter Bank - streaming band-pass and notch filtering per session.
+ * Filter state persists from block to block, so a session's windows are
+ * filtered as one continuous recording, and band changes crossfade in.
+ */
 class SignalFilterBank {
-    public FilteredSignal applyFilters(ProcessedSignal signal, CalibrationResult calibration) {
+    
+    // Used when the configuration leaves a filter unset (Hz)
+    private static final double DEFAULT_HIGH_PASS = 1.0;
+    private static final double DEFAULT_LOW_PASS = 50.0;
+    private static final double NOTCH_Q = 30.0;
+    // Band-pass (4), notch (1) and headroom for a longer design
+    private static final int MAX_SECTIONS = 6;
+    
+    private final Map<String, SessionFilters> sessions = new ConcurrentHashMap<>();
+    
+    /**
+     * Build a session's filters from its configuration: "highPass" and
+     * "lowPass" edges, a "notch" frequency, and optional "firTaps" to band-limit
+     * with a linear-phase FIR instead of the IIR band-pass
+     */
+    public void configure(String sessionId, BCIConfiguration config) {
+        Map<String, Double> settings = config.getFilterSettings();
+        sessions.put(sessionId, new SessionFilters(
+            Math.max(1, config.getElectrodePositions().size()),
+            config.getSamplingRate(),
+            settings.getOrDefault("highPass", DEFAULT_HIGH_PASS),
+            settings.getOrDefault("lowPass", DEFAULT_LOW_PASS),
+            settings.getOrDefault("notch", 0.0),
+            settings.getOrDefault("firTaps", 0.0).intValue()
+        ));
+    }
+    
+    public FilteredSignal applyFilters(String sessionId, ProcessedSignal signal, CalibrationResult calibration) {
+        NeuralSignalData source = signal.getOriginalSignal();
+        double[] samples = source.getSignalData();
+        int labels = Math.max(1, source.getElectrodeLabels().length);
+        int channels = samples.length % labels == 0 ? labels : 1;
+        double samplingRate = source.getSamplingRate();
+        SessionFilters filters = sessions.compute(sessionId, (id, current) -> {
+            if (current == null) {
+                return new SessionFilters(channels, samplingRate, DEFAULT_HIGH_PASS, DEFAULT_LOW_PASS, 0.0, 0);
+            }
+            return current.fits(channels, samplingRate) ? current : current.resize(channels, samplingRate);
+        });
+        
+        double rawPower = power(samples);
+        synchronized (filters) {
+            filters.process(samples, samples.length / channels);
+        }
+        double filteredPower = power(samples);
+        
         FilteredSignal filtered = new FilteredSignal();
         filtered.setOriginalSignal(signal);
-        filtered.setFilteredData(signal.getOriginalSignal().getSignalData()); // Placeholder
-        filtered.setNoiseLevel(0.1);
+        filtered.setFilteredData(samples);
+        // Share of the raw power the filters removed: drift, line noise, out-of-band activity
+        filtered.setNoiseLevel(rawPower > 0 ? Math.max(0.0, Math.min(1.0, 1.0 - filteredPower / rawPower)) : 0.0);
+        filtered.setTimestamp(LocalDateTime.now());
         return filtered;
     }
+    
+    /**
+     * Move a session's pass band; the filters crossfade to it at the next block
+     */
+    public void updateBand(String sessionId, double low, double high) {
+        SessionFilters filters = sessions.get(sessionId);
+        if (filters != null) {
+            filters.setBand(low, high);
+        }
+    }
+    
+    /**
+     * Drop a session's filter state
+     */
+    public void releaseSession(String sessionId) {
+        sessions.remove(sessionId);
+    }
+    
+    private static double power(double[] samples) {
+        double sum = 0.0;
+        for (double sample : samples) {
+            sum += sample * sample;
+        }
+        return sum;
+    }
+    
+    private static final class SessionFilters {
+        final int channels;
+        final double samplingRate;
+        final double notch;
+        final int firTaps;
+        final IirFilterBank iir;
+        final OverlapSaveFir fir;
+        private volatile double low;
+        private volatile double high;
+        
+        SessionFilters(int channels, double samplingRate, double low, double high, double notch, int firTaps) {
+            this.channels = channels;
+            this.samplingRate = samplingRate;
+            this.notch = notch > 0 && notch < samplingRate / 2 ? notch : 0.0;
+            this.firTaps = firTaps;
+            this.low = low;
+            this.high = clampHigh(high);
+            this.iir = new IirFilterBank(channels, iirSections(), MAX_SECTIONS, IirFilterBank.DEFAULT_FADE);
+            this.fir = firTaps > 0 ? new OverlapSaveFir(channels, firTaps()) : null;
+        }
+        
+        boolean fits(int channels, double samplingRate) {
+            return this.channels == channels && this.samplingRate == samplingRate;
+        }
+        
+        SessionFilters resize(int channels, double samplingRate) {
+            return new SessionFilters(channels, samplingRate, low, high, notch, firTaps);
+        }
+        
+        void process(double[] samples, int frames) {
+            iir.processInterleaved(samples, 0, frames);
+            if (fir != null) {
+                fir.processInterleaved(samples, 0, frames);
+            }
+        }
+        
+        void setBand(double low, double high) {
+            double clamped = clampHigh(high);
+            if (low == this.low && clamped == this.high) {
+                return;
+            }
+            this.low = low;
+            this.high = clamped;
+            if (fir != null) {
+                fir.setTaps(firTaps());
+            } else {
+                iir.setCoefficients(iirSections());
+            }
+        }
+        
+        private double clampHigh(double high) {
+            return Math.min(high, 0.45 * samplingRate);
+        }
+        
+        private double[] iirSections() {
+            double[] notchSection = notch > 0 ? FilterDesign.notch(samplingRate, notch, NOTCH_Q) : null;
+            if (firTaps > 0) {
+                // The FIR does the band-limiting; keep the notch, or pass through
+                return notchSection != null ? notchSection : new double[] {1.0, 0.0, 0.0, 0.0, 0.0};
+            }
+            double[] band = FilterDesign.bandPass(samplingRate, low, high);
+            return notchSection != null ? FilterDesign.cascade(band, notchSection) : band;
+        }
+        
+        private double[] firTaps() {
+            return FilterDesign.firBandPass(samplingRate, low, high, firTaps);
+        }
+    }
 }
 
+/**
+ * Adaptive BCI Controller - retunes session filters as signal quality changes
+ */
 class AdaptiveBCIController {
+    
+    // Pass band for poor-quality signal: drops drift below and muscle and line noise above (Hz)
+    private static final double NOISY_LOW = 4.0;
+    private static final double NOISY_HIGH = 40.0;
+    
+    private final SignalFilterBank signalFilterBank;
+    
+    public AdaptiveBCIController(SignalFilterBank signalFilterBank) {
+        this.signalFilterBank = signalFilterBank;
+    }
+    
     public void adjustFiltering(String sessionId, SignalQuality quality) {
-        // Adjust filtering parameters based on signal quality
+        // Narrow the band; repeated calls with the same band leave the filters alone
+        signalFilterBank.updateBand(sessionId, NOISY_LOW, NOISY_HIGH);
     }
     
     public void updateGlobalParameters(SystemPerformanceMetrics metrics) {
@@ -0,0 +1,171 @@
+package com.boozer.nexus.bci.decoding;
+
+/**
+ * Common Spatial Patterns
+ *
+ * Spatial filters w that maximise the variance of one class relative to the
+ * others, from the generalised eigenproblem C_a w = lambda (C_a + C_b) w on
+ * class-mean covariance matrices. The composite matrix is Cholesky-factored,
+ * C_a is whitened by it, and a symmetric Jacobi decomposition gives the
+ * eigenvectors, so every filter satisfies w^T (C_a + C_b) w = 1 and
+ * w^T C_a w = lambda. The {@code filtersPerSide} filters at each end of the
+ * spectrum are kept.
+ *
+ * Two classes give one problem; more classes give one per class, that class
+ * against the mean of the rest. Features are the log of each filter's share of
+ * the total filtered variance, computed either from a trial's samples or from
+ * its covariance matrix.
+ *
+ * Instances are immutable and may be shared between threads.
+ */
+public final class CommonSpatialPatterns {
+
+    /** Ridge added to the composite covariance, relative to its mean eigenvalue */
+    private static final double REGULARIZATION = 1e-6;
+
+    private final int channels;
+    private final int filterCount;
+    /** Row-major filterCount x channels */
+    private final double[] filters;
+    private final double[] eigenvalues;
+
+    private CommonSpatialPatterns(int channels, double[] filters, double[] eigenvalues) {
+        this.channels = channels;
+        this.filterCount = eigenvalues.length;
+        this.filters = filters;
+        this.eigenvalues = eigenvalues;
+    }
+
+    /**
+     * Fit filters to class-mean covariances, each a row-major channels x channels matrix
+     */
+    public static CommonSpatialPatterns fit(double[][] classCovariances, int channels, int filtersPerSide) {
+        int classes = classCovariances.length;
+        if (classes < 2 || filtersPerSide < 1 || 2 * filtersPerSide > channels) {
+            throw new IllegalArgumentException("CSP needs at least 2 classes and 1 to " + channels / 2
+                + " filters per side, got " + classes + " classes and " + filtersPerSide);
+        }
+        int problems = classes == 2 ? 1 : classes;
+        int perProblem = 2 * filtersPerSide;
+        double[] filters = new double[problems * perProblem * channels];
+        double[] eigenvalues = new double[problems * perProblem];
+
+        int n = channels;
+        double[] composite = new double[n * n];
+        double[] target = new double[n * n];
+        double[] values = new double[n];
+        double[] vectors = new double[n * n];
+        double[] column = new double[n];
+        for (int problem = 0; problem < problems; problem++) {
+            // Target class against the mean of the others
+            double[] own = classCovariances[problem];
+            for (int i = 0; i < n * n; i++) {
+                double rest = 0.0;
+                for (int c = 0; c < classes; c++) {
+                    rest += c != problem ? classCovariances[c][i] : 0.0;
+                }
+                target[i] = own[i];
+                composite[i] = own[i] + rest / (classes - 1);
+            }
+            double trace = 0.0;
+            for (int i = 0; i < n; i++) {
+                trace += composite[i * n + i];
+            }
+            for (int i = 0; i < n; i++) {
+                composite[i * n + i] += REGULARIZATION * trace / n;
+            }
+
+            Matrices.cholesky(composite, n);
+            Matrices.whiten(composite, n, target);
+            Matrices.symmetricEigen(target, n, values, vectors);
+
+            // Eigenvalue order, largest first
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            for (int i = 1; i < n; i++) {
+                int current = order[i];
+                int j = i - 1;
+                while (j >= 0 && values[order[j]] < values[current]) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = current;
+            }
+
+            for (int f = 0; f < perProblem; f++) {
+                int index = f < filtersPerSide ? order[f] : order[n - perProblem + f];
+                for (int i = 0; i < n; i++) {
+                    column[i] = vectors[i * n + index];
+                }
+                // w = L^-T v
+                Matrices.solveUpper(composite, n, column, 0);
+                int row = problem * perProblem + f;
+                System.arraycopy(column, 0, filters, row * n, n);
+                eigenvalues[row] = values[index];
+            }
+        }
+        return new CommonSpatialPatterns(channels, filters, eigenvalues);
+    }
+
+    /**
+     * Log-variance features of {@code frames} interleaved frames from {@code offset}
+     */
+    public void features(double[] data, int offset, int frames, double[] out) {
+        for (int f = 0; f < filterCount; f++) {
+            out[f] = 0.0;
+        }
+        for (int t = 0, base = offset; t < frames; t++, base += channels) {
+            for (int f = 0, row = 0; f < filterCount; f++, row += channels) {
+                double y = 0.0;
+                for (int c = 0; c < channels; c++) {
+                    y += filters[row + c] * data[base + c];
+                }
+                out[f] += y * y;
+            }
+        }
+        normalizeLog(out);
+    }
+
+    /**
+     * Log-variance features from a row-major channels x channels covariance
+     * (w^T C w for every filter)
+     */
+    public void featuresFromCovariance(double[] covariance, double[] out) {
+        for (int f = 0, row = 0; f < filterCount; f++, row += channels) {
+            double variance = 0.0;
+            for (int i = 0; i < channels; i++) {
+                double sum = 0.0;
+                for (int j = 0; j < channels; j++) {
+                    sum += covariance[i * channels + j] * filters[row + j];
+                }
+                variance += filters[row + i] * sum;
+            }
+            out[f] = variance;
+        }
+        normalizeLog(out);
+    }
+
+    private void normalizeLog(double[] out) {
+        double total = 0.0;
+        for (int f = 0; f < filterCount; f++) {
+            total += out[f];
+        }
+        for (int f = 0; f < filterCount; f++) {
+            out[f] = Math.log(Math.max(out[f], Double.MIN_NORMAL) / Math.max(total, Double.MIN_NORMAL));
+        }
+    }
+
+    /** Filter {@code f} as a copy of its channel weights */
+    public double[] getFilter(int f) {
+        double[] filter = new double[channels];
+        System.arraycopy(filters, f * channels, filter, 0, channels);
+        return filter;
+    }
+
+    // Getters
+    public int getChannels() { return channels; }
+    public int getFeatureCount() { return filterCount; }
+    public double getEigenvalue(int f) { return eigenvalues[f]; }
+}
@@ -0,0 +1,81 @@
+package com.boozer.nexus.bci.decoding;
+
+/**
+ * Linear Templates
+ *
+ * Compiled linear classifier: one weight row and bias per class in a single
+ * row-major matrix, so scoring every class is one small matrix-vector product.
+ * Scores are treated as log-posteriors up to a constant, as LDA produces them,
+ * and turned into class probabilities with a softmax.
+ *
+ * Instances are immutable and may be shared between threads.
+ */
+public final class LinearTemplates {
+
+    private final int classes;
+    private final int features;
+    private final double[] weights;
+    private final double[] bias;
+
+    /**
+     * Templates from a row-major classes x features weight matrix and per-class biases
+     */
+    public LinearTemplates(double[] weights, double[] bias, int features) {
+        if (features < 1 || bias.length < 1 || weights.length != bias.length * features) {
+            throw new IllegalArgumentException("Expected " + bias.length + " x " + features + " weights, got "
+                + weights.length);
+        }
+        this.classes = bias.length;
+        this.features = features;
+        this.weights = weights.clone();
+        this.bias = bias.clone();
+    }
+
+    /**
+     * Index of the best-scoring class; fills {@code posteriors} with class
+     * probabilities when it is not null
+     */
+    public int classify(double[] x, double[] posteriors) {
+        if (x.length != features) {
+            throw new IllegalArgumentException("Expected " + features + " features, got " + x.length);
+        }
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int k = 0, row = 0; k < classes; k++, row += features) {
+            double score = bias[k];
+            for (int i = 0; i < features; i++) {
+                score += weights[row + i] * x[i];
+            }
+            if (posteriors != null) {
+                posteriors[k] = score;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = k;
+            }
+        }
+        if (posteriors != null) {
+            double total = 0.0;
+            for (int k = 0; k < classes; k++) {
+                posteriors[k] = Math.exp(posteriors[k] - bestScore);
+                total += posteriors[k];
+            }
+            for (int k = 0; k < classes; k++) {
+                posteriors[k] /= total;
+            }
+        }
+        return best;
+    }
+
+    /** Class {@code k}'s weight row as a copy */
+    public double[] getWeights(int k) {
+        double[] row = new double[features];
+        System.arraycopy(weights, k * features, row, 0, features);
+        return row;
+    }
+
+    // Getters
+    public int getClasses() { return classes; }
+    public int getFeatures() { return features; }
+    public double getBias(int k) { return bias[k]; }
+}
@@ -0,0 +1,161 @@
+package com.boozer.nexus.bci.decoding;
+
+/**
+ * Dense symmetric-matrix kernels on row-major {@code double[n * n]} arrays:
+ * Cholesky factorisation, triangular solves and Jacobi eigen-decomposition.
+ */
+final class Matrices {
+
+    private static final int MAX_SWEEPS = 64;
+
+    private Matrices() {
+    }
+
+    /**
+     * Factor a symmetric positive-definite {@code a} in place into its lower
+     * Cholesky factor L (a = L L^T); the upper triangle is zeroed
+     */
+    static void cholesky(double[] a, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            if (diagonal <= 0) {
+                throw new IllegalArgumentException("Matrix is not positive definite at row " + j);
+            }
+            double root = Math.sqrt(diagonal);
+            a[j * n + j] = root;
+            for (int i = j + 1; i < n; i++) {
+                double sum = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = sum / root;
+                a[j * n + i] = 0.0;
+            }
+        }
+    }
+
+    /**
+     * Solve L L^T x = b in place for a Cholesky factor L
+     */
+    static void choleskySolve(double[] l, int n, double[] b) {
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int k = 0; k < i; k++) {
+                sum -= l[i * n + k] * b[k];
+            }
+            b[i] = sum / l[i * n + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= l[k * n + i] * b[k];
+            }
+            b[i] = sum / l[i * n + i];
+        }
+    }
+
+    /**
+     * M = L^-1 A L^-T for a Cholesky factor L; {@code a} is overwritten with M
+     */
+    static void whiten(double[] l, int n, double[] a) {
+        // Columns: A <- L^-1 A
+        for (int column = 0; column < n; column++) {
+            for (int i = 0; i < n; i++) {
+                double sum = a[i * n + column];
+                for (int k = 0; k < i; k++) {
+                    sum -= l[i * n + k] * a[k * n + column];
+                }
+                a[i * n + column] = sum / l[i * n + i];
+            }
+        }
+        // Rows: A <- A L^-T
+        for (int row = 0; row < n; row++) {
+            for (int j = 0; j < n; j++) {
+                double sum = a[row * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[row * n + k] * l[j * n + k];
+                }
+                a[row * n + j] = sum / l[j * n + j];
+            }
+        }
+    }
+
+    /**
+     * Solve L^T x = b in place for a lower-triangular L
+     */
+    static void solveUpper(double[] l, int n, double[] b, int offset) {
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[offset + i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= l[k * n + i] * b[offset + k];
+            }
+            b[offset + i] = sum / l[i * n + i];
+        }
+    }
+
+    /**
+     * Eigen-decomposition of a symmetric matrix by cyclic Jacobi rotations.
+     * {@code a} is destroyed; eigenvalues go to {@code values} and the matching
+     * unit eigenvectors to the columns of {@code vectors}.
+     */
+    static void symmetricEigen(double[] a, int n, double[] values, double[] vectors) {
+        for (int i = 0; i < n * n; i++) {
+            vectors[i] = 0.0;
+        }
+        for (int i = 0; i < n; i++) {
+            vectors[i * n + i] = 1.0;
+        }
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double offDiagonal = 0.0;
+            double diagonal = 0.0;
+            for (int p = 0; p < n; p++) {
+                diagonal += a[p * n + p] * a[p * n + p];
+                for (int q = p + 1; q < n; q++) {
+                    offDiagonal += a[p * n + q] * a[p * n + q];
+                }
+            }
+            if (offDiagonal <= 1e-30 * diagonal) {
+                break;
+            }
+            for (int p = 0; p < n - 1; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double apq = a[p * n + q];
+                    if (apq == 0.0) {
+                        continue;
+                    }
+                    double theta = (a[q * n + q] - a[p * n + p]) / (2.0 * apq);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1.0));
+                    if (theta == 0.0) {
+                        t = 1.0;
+                    }
+                    double c = 1.0 / Math.sqrt(t * t + 1.0);
+                    double s = t * c;
+                    for (int k = 0; k < n; k++) {
+                        double akp = a[k * n + p];
+                        double akq = a[k * n + q];
+                        a[k * n + p] = c * akp - s * akq;
+                        a[k * n + q] = s * akp + c * akq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double apk = a[p * n + k];
+                        double aqk = a[q * n + k];
+                        a[p * n + k] = c * apk - s * aqk;
+                        a[q * n + k] = s * apk + c * aqk;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double vkp = vectors[k * n + p];
+                        double vkq = vectors[k * n + q];
+                        vectors[k * n + p] = c * vkp - s * vkq;
+                        vectors[k * n + q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            values[i] = a[i * n + i];
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.boozer.nexus.bci.decoding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Motor Imagery Decoder
+ *
+ * CSP log-variance features classified by shrinkage LDA, trained from labelled
+ * calibration trials of band-passed, interleaved multichannel signal.
+ *
+ * Each trial's spatial covariance is accumulated frame by frame as rank-one
+ * updates, trace-normalised, added to its class sum and kept. {@link #train}
+ * solves CSP on the class means, computes every kept trial's features straight
+ * from its covariance, fits the LDA and compiles the result. Trials can keep
+ * arriving during a session and a retrain costs a few small eigenproblems,
+ * never a pass over old samples.
+ *
+ * Training is synchronised; decoding reads an immutable trained model and may
+ * run on any number of threads while the next one is trained. A retrain can
+ * change the class and feature counts, so callers that need several results
+ * of one model take a {@link Model} snapshot or call {@link #classify}.
+ */
+public final class MotorImageryDecoder {
+
+    private final int channels;
+    private final int filtersPerSide;
+    private final double shrinkage;
+    private final List<String> labels = new ArrayList<>();
+    private final List<double[]> covarianceSums = new ArrayList<>();
+    private final List<int[]> trialCounts = new ArrayList<>();
+    private final double[] scatter;
+    private double[] trialCovariances;
+    private int[] trialLabels = new int[16];
+    private int trials;
+    private volatile Model model;
+
+    /**
+     * Decoder for {@code channels} electrodes; {@code shrinkage} in [0, 1] or
+     * {@link ShrinkageLda#AUTOMATIC}
+     */
+    public MotorImageryDecoder(int channels, int filtersPerSide, double shrinkage) {
+        if (channels < 2 || filtersPerSide < 1 || 2 * filtersPerSide > channels) {
+            throw new IllegalArgumentException("Decoder needs at least 2 channels and 1 to " + channels / 2
+                + " filters per side, got " + channels + " and " + filtersPerSide);
+        }
+        this.channels = channels;
+        this.filtersPerSide = filtersPerSide;
+        this.shrinkage = shrinkage;
+        this.scatter = new double[channels * channels];
+        this.trialCovariances = new double[16 * packedSize()];
+    }
+
+    /**
+     * Add a calibration trial of {@code frames} interleaved frames from {@code offset}
+     */
+    public synchronized void addTrial(String label, double[] data, int offset, int frames) {
+        if (frames < 2 || offset < 0 || offset + frames * channels > data.length) {
+            throw new IllegalArgumentException("Trial of " + frames + " frames at " + offset + " does not fit "
+                + data.length + " samples of " + channels + " channels");
+        }
+        int index = classIndex(label);
+
+        // Upper triangle of the sum of x x^T over the trial's frames
+        Arrays.fill(scatter, 0.0);
+        for (int t = 0, base = offset; t < frames; t++, base += channels) {
+            for (int i = 0; i < channels; i++) {
+                double xi = data[base + i];
+                int row = i * channels;
+                for (int j = i; j < channels; j++) {
+                    scatter[row + j] += xi * data[base + j];
+                }
+            }
+        }
+        double trace = 0.0;
+        for (int i = 0; i < channels; i++) {
+            trace += scatter[i * channels + i];
+        }
+        if (trace <= 0) {
+            throw new IllegalArgumentException("Trial has no signal");
+        }
+
+        if (trials == trialLabels.length) {
+            trialLabels = Arrays.copyOf(trialLabels, 2 * trialLabels.length);
+            trialCovariances = Arrays.copyOf(trialCovariances, 2 * trialCovariances.length);
+        }
+        double[] sum = covarianceSums.get(index);
+        int packed = trials * packedSize();
+        for (int i = 0; i < channels; i++) {
+            for (int j = i; j < channels; j++) {
+                double value = scatter[i * channels + j] / trace;
+                sum[i * channels + j] += value;
+                trialCovariances[packed++] = value;
+            }
+        }
+        trialLabels[trials++] = index;
+        trialCounts.get(index)[0]++;
+    }
+
+    private int classIndex(String label) {
+        int index = labels.indexOf(label);
+        if (index < 0) {
+            index = labels.size();
+            labels.add(label);
+            covarianceSums.add(new double[channels * channels]);
+            trialCounts.add(new int[1]);
+        }
+        return index;
+    }
+
+    /**
+     * Fit CSP and LDA to every trial so far and publish the new model; returns it
+     */
+    public synchronized Model train() {
+        int classes = labels.size();
+        if (classes < 2) {
+            throw new IllegalStateException("Training needs trials of at least 2 classes, got " + classes);
+        }
+        for (int k = 0; k < classes; k++) {
+            if (trialCounts.get(k)[0] < 2) {
+                throw new IllegalStateException("Class " + labels.get(k) + " needs at least 2 trials");
+            }
+        }
+
+        double[][] means = new double[classes][];
+        for (int k = 0; k < classes; k++) {
+            means[k] = symmetric(covarianceSums.get(k));
+            double count = trialCounts.get(k)[0];
+            for (int i = 0; i < means[k].length; i++) {
+                means[k][i] /= count;
+            }
+        }
+        CommonSpatialPatterns csp = CommonSpatialPatterns.fit(means, channels, filtersPerSide);
+
+        int features = csp.getFeatureCount();
+        ShrinkageLda lda = new ShrinkageLda(features, classes);
+        double[][] trialFeatures = new double[trials][features];
+        double[] covariance = new double[channels * channels];
+        for (int n = 0; n < trials; n++) {
+            unpack(n, covariance);
+            csp.featuresFromCovariance(covariance, trialFeatures[n]);
+            lda.add(trialLabels[n], trialFeatures[n]);
+        }
+        LinearTemplates templates = lda.compile(shrinkage);
+
+        int correct = 0;
+        for (int n = 0; n < trials; n++) {
+            correct += templates.classify(trialFeatures[n], null) == trialLabels[n] ? 1 : 0;
+        }
+        double[][] classMeans = new double[classes][];
+        for (int k = 0; k < classes; k++) {
+            classMeans[k] = lda.getClassMean(k);
+        }
+        Model trained = new Model(csp, templates, labels.toArray(new String[0]), classMeans,
+            correct / (double) trials, lda.getShrinkage());
+        model = trained;
+        return trained;
+    }
+
+    /**
+     * Classify a trial; fills {@code posteriors} (one per trained class) when not null
+     */
+    public int decode(double[] data, int offset, int frames, double[] posteriors) {
+        Model current = trained();
+        double[] features = new double[current.csp.getFeatureCount()];
+        current.csp.features(data, offset, frames, features);
+        return current.templates.classify(features, posteriors);
+    }
+
+    /**
+     * Classify a trial; its label, posteriors and CSP features all come from one model
+     */
+    public Decoding classify(double[] data, int offset, int frames) {
+        return trained().classify(data, offset, frames);
+    }
+
+    /**
+     * CSP features of a trial under the current model
+     */
+    public void features(double[] data, int offset, int frames, double[] out) {
+        trained().csp.features(data, offset, frames, out);
+    }
+
+    private Model trained() {
+        Model current = model;
+        if (current == null) {
+            throw new IllegalStateException("Decoder is not trained");
+        }
+        return current;
+    }
+
+    private double[] symmetric(double[] upper) {
+        double[] full = new double[channels * channels];
+        for (int i = 0; i < channels; i++) {
+            for (int j = i; j < channels; j++) {
+                full[i * channels + j] = upper[i * channels + j];
+                full[j * channels + i] = upper[i * channels + j];
+            }
+        }
+        return full;
+    }
+
+    private void unpack(int trial, double[] covariance) {
+        int index = trial * packedSize();
+        for (int i = 0; i < channels; i++) {
+            for (int j = i; j < channels; j++) {
+                double value = trialCovariances[index++];
+                covariance[i * channels + j] = value;
+                covariance[j * channels + i] = value;
+            }
+        }
+    }
+
+    private int packedSize() {
+        return channels * (channels + 1) / 2;
+    }
+
+    public boolean isTrained() {
+        return model != null;
+    }
+
+    /** The current trained model, unaffected by later retraining */
+    public Model getModel() {
+        return trained();
+    }
+
+    /** Labels of the trained model, in class-index order */
+    public String[] getLabels() {
+        return trained().labels.clone();
+    }
+
+    /** Mean CSP feature vector of trained class {@code k} */
+    public double[] getClassMean(int k) {
+        return trained().classMeans[k].clone();
+    }
+
+    public LinearTemplates getTemplates() { return trained().templates; }
+    public CommonSpatialPatterns getSpatialPatterns() { return trained().csp; }
+    /** Share of training trials the trained model classifies correctly */
+    public double getTrainingAccuracy() { return trained().accuracy; }
+    /** Covariance shrinkage the trained model's LDA used */
+    public double getShrinkage() { return trained().shrinkage; }
+    public int getFeatureCount() { return trained().csp.getFeatureCount(); }
+    public synchronized int getTrialCount() { return trials; }
+    public int getChannels() { return channels; }
+
+    /**
+     * Immutable trained model: CSP filters, LDA templates and what they were fitted to
+     */
+    public static final class Model {
+        final CommonSpatialPatterns csp;
+        final LinearTemplates templates;
+        final String[] labels;
+        final double[][] classMeans;
+        final double accuracy;
+        final double shrinkage;
+
+        Model(CommonSpatialPatterns csp, LinearTemplates templates, String[] labels, double[][] classMeans,
+                double accuracy, double shrinkage) {
+            this.csp = csp;
+            this.templates = templates;
+            this.labels = labels;
+            this.classMeans = classMeans;
+            this.accuracy = accuracy;
+            this.shrinkage = shrinkage;
+        }
+
+        /**
+         * Classify a trial of {@code frames} interleaved frames from {@code offset}
+         */
+        public Decoding classify(double[] data, int offset, int frames) {
+            double[] features = new double[csp.getFeatureCount()];
+            csp.features(data, offset, frames, features);
+            double[] posteriors = new double[labels.length];
+            int decoded = templates.classify(features, posteriors);
+            return new Decoding(labels[decoded], decoded, posteriors, features);
+        }
+
+        /** Labels in class-index order */
+        public String[] getLabels() { return labels.clone(); }
+        /** Mean CSP feature vector of class {@code k} */
+        public double[] getClassMean(int k) { return classMeans[k].clone(); }
+        public LinearTemplates getTemplates() { return templates; }
+        public CommonSpatialPatterns getSpatialPatterns() { return csp; }
+        public double getTrainingAccuracy() { return accuracy; }
+        public double getShrinkage() { return shrinkage; }
+        public int getFeatureCount() { return csp.getFeatureCount(); }
+    }
+
+    /**
+     * One decoded trial: the winning class with its posterior, every class
+     * posterior and the CSP features it was classified from
+     */
+    public static final class Decoding {
+        private final String label;
+        private final int classIndex;
+        private final double[] posteriors;
+        private final double[] features;
+
+        Decoding(String label, int classIndex, double[] posteriors, double[] features) {
+            this.label = label;
+            this.classIndex = classIndex;
+            this.posteriors = posteriors;
+            this.features = features;
+        }
+
+        public String getLabel() { return label; }
+        public int getClassIndex() { return classIndex; }
+        public double getPosterior() { return posteriors[classIndex]; }
+        public double[] getPosteriors() { return posteriors.clone(); }
+        public double[] getFeatures() { return features.clone(); }
+    }
+}
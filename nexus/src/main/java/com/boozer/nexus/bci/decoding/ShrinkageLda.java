@@ -0,0 +1,197 @@
+package com.boozer.nexus.bci.decoding;
+
+import java.util.Arrays;
+
+/**
+ * Shrinkage LDA
+ *
+ * Linear discriminant analysis trained one sample at a time. Class means and
+ * the pooled within-class scatter are kept with Welford's update, a symmetric
+ * rank-one correction per sample, so the statistics are always current and
+ * {@link #compile} only has to factor a features x features matrix.
+ *
+ * The pooled covariance is shrunk towards a scaled identity,
+ * (1 - gamma) S + gamma nu I, which keeps it well conditioned when trials are
+ * few compared with features. Gamma is either given or chosen by the
+ * Ledoit-Wolf formula from the centred samples, which are kept for that.
+ *
+ * Not thread-safe; compiled {@link LinearTemplates} are.
+ */
+public final class ShrinkageLda {
+
+    /** Shrinkage argument asking for the Ledoit-Wolf estimate */
+    public static final double AUTOMATIC = -1.0;
+
+    private final int features;
+    private final int classes;
+    private final long[] counts;
+    private final double[] means;
+    private final double[] scatter;
+    private final double[] delta;
+    private double[] samples;
+    private int[] labels;
+    private int size;
+    private double shrinkage = Double.NaN;
+
+    public ShrinkageLda(int features, int classes) {
+        if (features < 1 || classes < 2) {
+            throw new IllegalArgumentException("LDA needs at least one feature and two classes, got " + features
+                + " and " + classes);
+        }
+        this.features = features;
+        this.classes = classes;
+        this.counts = new long[classes];
+        this.means = new double[classes * features];
+        this.scatter = new double[features * features];
+        this.delta = new double[features];
+        this.samples = new double[16 * features];
+        this.labels = new int[16];
+    }
+
+    /**
+     * Add one labelled feature vector
+     */
+    public void add(int label, double[] x) {
+        if (label < 0 || label >= classes || x.length != features) {
+            throw new IllegalArgumentException("Sample needs a class below " + classes + " and " + features
+                + " features, got class " + label + " with " + x.length);
+        }
+        long n = ++counts[label];
+        int mean = label * features;
+        for (int i = 0; i < features; i++) {
+            delta[i] = x[i] - means[mean + i];
+            means[mean + i] += delta[i] / n;
+        }
+        // Pooled scatter grows by (n - 1) / n * delta delta^T
+        double weight = (n - 1) / (double) n;
+        for (int i = 0; i < features; i++) {
+            double scaled = weight * delta[i];
+            for (int j = 0; j < features; j++) {
+                scatter[i * features + j] += scaled * delta[j];
+            }
+        }
+
+        if (size == labels.length) {
+            samples = Arrays.copyOf(samples, 2 * samples.length);
+            labels = Arrays.copyOf(labels, 2 * labels.length);
+        }
+        System.arraycopy(x, 0, samples, size * features, features);
+        labels[size++] = label;
+    }
+
+    /**
+     * Compile the current statistics into per-class templates; {@code shrinkage}
+     * in [0, 1], or {@link #AUTOMATIC}
+     */
+    public LinearTemplates compile(double shrinkage) {
+        for (int k = 0; k < classes; k++) {
+            if (counts[k] == 0) {
+                throw new IllegalStateException("LDA class " + k + " has no samples");
+            }
+        }
+        if (size <= classes) {
+            throw new IllegalStateException("LDA needs more samples than classes, got " + size);
+        }
+        if (shrinkage != AUTOMATIC && (shrinkage < 0 || shrinkage > 1)) {
+            throw new IllegalArgumentException("Shrinkage must lie in [0, 1], got " + shrinkage);
+        }
+        double gamma = shrinkage == AUTOMATIC ? ledoitWolf() : shrinkage;
+        this.shrinkage = gamma;
+
+        double[] covariance = new double[features * features];
+        double trace = 0.0;
+        for (int i = 0; i < features; i++) {
+            trace += scatter[i * features + i];
+        }
+        double scale = 1.0 / (size - classes);
+        double identity = gamma * trace * scale / features;
+        for (int i = 0; i < features * features; i++) {
+            covariance[i] = (1.0 - gamma) * scatter[i] * scale;
+        }
+        for (int i = 0; i < features; i++) {
+            covariance[i * features + i] += identity;
+        }
+        Matrices.cholesky(covariance, features);
+
+        double[] weights = new double[classes * features];
+        double[] bias = new double[classes];
+        for (int k = 0; k < classes; k++) {
+            double[] row = new double[features];
+            System.arraycopy(means, k * features, row, 0, features);
+            Matrices.choleskySolve(covariance, features, row);
+            double quadratic = 0.0;
+            for (int i = 0; i < features; i++) {
+                quadratic += means[k * features + i] * row[i];
+            }
+            System.arraycopy(row, 0, weights, k * features, features);
+            bias[k] = -0.5 * quadratic + Math.log(counts[k] / (double) size);
+        }
+        return new LinearTemplates(weights, bias, features);
+    }
+
+    /**
+     * Ledoit-Wolf shrinkage intensity for the pooled, class-centred samples
+     */
+    private double ledoitWolf() {
+        double[] s = new double[features * features];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = scatter[i] / size;
+        }
+        double nu = 0.0;
+        for (int i = 0; i < features; i++) {
+            nu += s[i * features + i];
+        }
+        nu /= features;
+        double dispersion = 0.0;
+        double frobenius = 0.0;
+        for (int i = 0; i < features; i++) {
+            for (int j = 0; j < features; j++) {
+                double value = s[i * features + j];
+                double target = value - (i == j ? nu : 0.0);
+                dispersion += target * target;
+                frobenius += value * value;
+            }
+        }
+        if (dispersion <= 0) {
+            return 1.0;
+        }
+
+        // sum over samples of ||z z^T - S||^2 = |z|^4 - 2 z^T S z + ||S||^2
+        double variance = 0.0;
+        double[] z = delta;
+        for (int n = 0; n < size; n++) {
+            int mean = labels[n] * features;
+            double norm = 0.0;
+            for (int i = 0; i < features; i++) {
+                z[i] = samples[n * features + i] - means[mean + i];
+                norm += z[i] * z[i];
+            }
+            double quadratic = 0.0;
+            for (int i = 0; i < features; i++) {
+                double sum = 0.0;
+                for (int j = 0; j < features; j++) {
+                    sum += s[i * features + j] * z[j];
+                }
+                quadratic += z[i] * sum;
+            }
+            variance += norm * norm - 2.0 * quadratic + frobenius;
+        }
+        variance /= (double) size * size;
+        return Math.min(variance, dispersion) / dispersion;
+    }
+
+    /** Mean feature vector of class {@code k} */
+    public double[] getClassMean(int k) {
+        double[] mean = new double[features];
+        System.arraycopy(means, k * features, mean, 0, features);
+        return mean;
+    }
+
+    // Getters
+    public int getFeatures() { return features; }
+    public int getClasses() { return classes; }
+    public int getSize() { return size; }
+    public long getCount(int k) { return counts[k]; }
+    /** Shrinkage used by the last {@link #compile}, NaN before the first */
+    public double getShrinkage() { return shrinkage; }
+}
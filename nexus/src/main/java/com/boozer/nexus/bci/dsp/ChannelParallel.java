@@ -0,0 +1,66 @@
+package com.boozer.nexus.bci.dsp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a per-channel kernel over channel ranges on the common fork-join pool.
+ * The range tasks are created once and reinitialised for every block, so a
+ * parallel block allocates nothing. Small blocks run on the caller.
+ */
+final class ChannelParallel {
+
+    /** Samples below which a block is not worth splitting */
+    static final long PARALLEL_THRESHOLD = 1 << 14;
+
+    /** Filters a range of channels of the current block */
+    interface Kernel {
+        void run(int fromChannel, int toChannel);
+    }
+
+    private final int channels;
+    private final Kernel kernel;
+    private final RangeTask[] tasks;
+
+    ChannelParallel(int channels, Kernel kernel) {
+        this.channels = channels;
+        this.kernel = kernel;
+        int count = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), channels));
+        this.tasks = new RangeTask[count];
+        for (int t = 0; t < count; t++) {
+            tasks[t] = new RangeTask(t * channels / count, (t + 1) * channels / count);
+        }
+    }
+
+    /**
+     * Run the kernel over every channel; {@code samples} is the block's total size
+     */
+    void run(long samples) {
+        if (tasks.length == 1 || samples < PARALLEL_THRESHOLD) {
+            kernel.run(0, channels);
+            return;
+        }
+        for (RangeTask task : tasks) {
+            task.reinitialize();
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        RangeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            kernel.run(from, to);
+        }
+    }
+}
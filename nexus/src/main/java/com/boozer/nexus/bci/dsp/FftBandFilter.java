@@ -0,0 +1,72 @@
+package com.boozer.nexus.bci.dsp;
+
+/**
+ * FFT Band Filter
+ *
+ * Zero-phase band-limiting of whole windows: each channel is zero-padded to at
+ * least twice its length (so the circular transform does not wrap), transformed,
+ * stripped of the bins outside [low, high] Hz and transformed back. Suited to
+ * offline feature windows; streaming paths should use stateful filters.
+ *
+ * Buffers are preallocated for windows of up to {@code frames} samples per
+ * channel. Not thread safe.
+ */
+public final class FftBandFilter {
+
+    private final int frames;
+    private final double samplingRate;
+    private final RealFft fft;
+    private final double[] buffer;
+
+    public FftBandFilter(int frames, double samplingRate) {
+        if (frames < 1 || samplingRate <= 0) {
+            throw new IllegalArgumentException("Invalid band filter: " + frames + " frames at " + samplingRate + " Hz");
+        }
+        this.frames = frames;
+        this.samplingRate = samplingRate;
+        this.fft = new RealFft(Math.max(4, Integer.highestOneBit(frames) << 2));
+        this.buffer = new double[fft.getSize()];
+    }
+
+    /**
+     * Band-limit {@code length} frames interleaved over {@code channels} from
+     * {@code in} into {@code out} (same layout; may be the same array)
+     */
+    public void apply(double[] in, double[] out, int channels, int length, double low, double high) {
+        if (length > frames) {
+            throw new IllegalArgumentException("Window of " + length + " frames exceeds the filter's " + frames);
+        }
+        int n = fft.getSize();
+        double binWidth = samplingRate / n;
+        for (int c = 0; c < channels; c++) {
+            for (int i = 0; i < length; i++) {
+                buffer[i] = in[i * channels + c];
+            }
+            for (int i = length; i < n; i++) {
+                buffer[i] = 0.0;
+            }
+            fft.forward(buffer);
+            if (low > 0.0) {
+                buffer[0] = 0.0;
+            }
+            if (n / 2 * binWidth > high) {
+                buffer[1] = 0.0;
+            }
+            for (int k = 1; k < n / 2; k++) {
+                double frequency = k * binWidth;
+                if (frequency < low || frequency > high) {
+                    buffer[2 * k] = 0.0;
+                    buffer[2 * k + 1] = 0.0;
+                }
+            }
+            fft.inverse(buffer);
+            for (int i = 0; i < length; i++) {
+                out[i * channels + c] = buffer[i];
+            }
+        }
+    }
+
+    // Getters
+    public int getFrames() { return frames; }
+    public double getSamplingRate() { return samplingRate; }
+}
@@ -0,0 +1,152 @@
+package com.boozer.nexus.bci.dsp;
+
+/**
+ * Filter Design
+ *
+ * Coefficient design for the streaming filters. IIR designs are cascades of
+ * biquad sections, five normalised coefficients per section
+ * {@code {b0, b1, b2, a1, a2}} (a0 = 1), after the RBJ audio-EQ formulas; FIR
+ * designs are windowed-sinc taps.
+ */
+public final class FilterDesign {
+
+    /** Section Qs of a 4th-order Butterworth response */
+    private static final double[] BUTTERWORTH_4 = {0.54119610, 1.30656296};
+
+    private FilterDesign() {
+    }
+
+    /**
+     * 4th-order Butterworth low-pass (two sections)
+     */
+    public static double[] lowPass(double samplingRate, double cutoff) {
+        checkFrequency(samplingRate, cutoff);
+        double[] sections = new double[10];
+        for (int s = 0; s < 2; s++) {
+            double w0 = 2.0 * Math.PI * cutoff / samplingRate;
+            double cos = Math.cos(w0);
+            double alpha = Math.sin(w0) / (2.0 * BUTTERWORTH_4[s]);
+            set(sections, s, (1.0 - cos) / 2.0, 1.0 - cos, (1.0 - cos) / 2.0, 1.0 + alpha, -2.0 * cos, 1.0 - alpha);
+        }
+        return sections;
+    }
+
+    /**
+     * 4th-order Butterworth high-pass (two sections)
+     */
+    public static double[] highPass(double samplingRate, double cutoff) {
+        checkFrequency(samplingRate, cutoff);
+        double[] sections = new double[10];
+        for (int s = 0; s < 2; s++) {
+            double w0 = 2.0 * Math.PI * cutoff / samplingRate;
+            double cos = Math.cos(w0);
+            double alpha = Math.sin(w0) / (2.0 * BUTTERWORTH_4[s]);
+            set(sections, s, (1.0 + cos) / 2.0, -(1.0 + cos), (1.0 + cos) / 2.0, 1.0 + alpha, -2.0 * cos,
+                1.0 - alpha);
+        }
+        return sections;
+    }
+
+    /**
+     * Band-pass as a 4th-order high-pass at {@code low} followed by a 4th-order
+     * low-pass at {@code high} (four sections)
+     */
+    public static double[] bandPass(double samplingRate, double low, double high) {
+        if (low >= high) {
+            throw new IllegalArgumentException("Band [" + low + ", " + high + "] Hz is empty");
+        }
+        return cascade(highPass(samplingRate, low), lowPass(samplingRate, high));
+    }
+
+    /**
+     * Notch at {@code frequency} with quality {@code q} (bandwidth frequency / q; one section)
+     */
+    public static double[] notch(double samplingRate, double frequency, double q) {
+        checkFrequency(samplingRate, frequency);
+        if (q <= 0) {
+            throw new IllegalArgumentException("Notch quality must be positive, got " + q);
+        }
+        double w0 = 2.0 * Math.PI * frequency / samplingRate;
+        double cos = Math.cos(w0);
+        double alpha = Math.sin(w0) / (2.0 * q);
+        double[] section = new double[5];
+        set(section, 0, 1.0, -2.0 * cos, 1.0, 1.0 + alpha, -2.0 * cos, 1.0 - alpha);
+        return section;
+    }
+
+    /**
+     * Sections of several designs, applied in the given order
+     */
+    public static double[] cascade(double[]... designs) {
+        int length = 0;
+        for (double[] design : designs) {
+            length += design.length;
+        }
+        double[] sections = new double[length];
+        int offset = 0;
+        for (double[] design : designs) {
+            System.arraycopy(design, 0, sections, offset, design.length);
+            offset += design.length;
+        }
+        return sections;
+    }
+
+    /**
+     * Linear-phase band-pass taps: windowed sinc with a Blackman window. The
+     * count is made odd so the delay is a whole (taps - 1) / 2 samples.
+     */
+    public static double[] firBandPass(double samplingRate, double low, double high, int taps) {
+        checkFrequency(samplingRate, high);
+        if (low < 0 || low >= high || taps < 3) {
+            throw new IllegalArgumentException("Invalid FIR band [" + low + ", " + high + "] Hz with " + taps
+                + " taps");
+        }
+        int count = taps | 1;
+        int middle = count / 2;
+        double[] h = new double[count];
+        double fl = low / samplingRate;
+        double fh = high / samplingRate;
+        for (int i = 0; i < count; i++) {
+            int k = i - middle;
+            double ideal = k == 0 ? 2.0 * (fh - fl)
+                : (Math.sin(2.0 * Math.PI * fh * k) - Math.sin(2.0 * Math.PI * fl * k)) / (Math.PI * k);
+            double window = 0.42 - 0.5 * Math.cos(2.0 * Math.PI * i / (count - 1))
+                + 0.08 * Math.cos(4.0 * Math.PI * i / (count - 1));
+            h[i] = ideal * window;
+        }
+        return h;
+    }
+
+    /**
+     * Magnitude response of a biquad cascade at {@code frequency}
+     */
+    public static double magnitude(double[] sections, double samplingRate, double frequency) {
+        double w = 2.0 * Math.PI * frequency / samplingRate;
+        double gain = 1.0;
+        for (int s = 0; s < sections.length / 5; s++) {
+            int c = 5 * s;
+            double numRe = sections[c] + sections[c + 1] * Math.cos(w) + sections[c + 2] * Math.cos(2 * w);
+            double numIm = -sections[c + 1] * Math.sin(w) - sections[c + 2] * Math.sin(2 * w);
+            double denRe = 1.0 + sections[c + 3] * Math.cos(w) + sections[c + 4] * Math.cos(2 * w);
+            double denIm = -sections[c + 3] * Math.sin(w) - sections[c + 4] * Math.sin(2 * w);
+            gain *= Math.hypot(numRe, numIm) / Math.hypot(denRe, denIm);
+        }
+        return gain;
+    }
+
+    private static void set(double[] sections, int s, double b0, double b1, double b2, double a0, double a1,
+            double a2) {
+        sections[5 * s] = b0 / a0;
+        sections[5 * s + 1] = b1 / a0;
+        sections[5 * s + 2] = b2 / a0;
+        sections[5 * s + 3] = a1 / a0;
+        sections[5 * s + 4] = a2 / a0;
+    }
+
+    private static void checkFrequency(double samplingRate, double frequency) {
+        if (samplingRate <= 0 || frequency <= 0 || frequency >= samplingRate / 2) {
+            throw new IllegalArgumentException("Frequency " + frequency + " Hz must lie strictly between 0 and "
+                + "Nyquist at " + samplingRate + " Hz");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.boozer.nexus.bci.dsp;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * IIR Filter Bank
+ *
+ * Streaming biquad cascade applied to every channel of a multichannel signal,
+ * with per-channel state carried from block to block so consecutive windows
+ * filter as one continuous signal. Sections run in direct form I, whose state
+ * is the recent inputs and outputs rather than coefficient-dependent internals.
+ *
+ * Coefficients may be replaced from any thread with {@link #setCoefficients};
+ * the swap happens at the start of the next block. For {@code fadeLength}
+ * samples after it the old cascade keeps running on its own copy of the state
+ * and the output crossfades linearly from old to new, so a band change causes
+ * no step or transient burst.
+ *
+ * Blocks are filtered in place, channels in parallel when the block is large;
+ * once the scratch buffers fit the block size, processing allocates nothing.
+ * The process methods must be called by one thread at a time.
+ */
+public final class IirFilterBank {
+
+    public static final int DEFAULT_FADE = 64;
+
+    private final int channels;
+    private final int maxSections;
+    private final int fadeLength;
+    private final double[][] state;
+    private final double[][] fadeState;
+    private double[][] scratch = new double[0][];
+    private final ChannelParallel parallel;
+    private final AtomicReference<double[]> pending = new AtomicReference<>();
+    private double[] coefficients;
+    private double[] fadingFrom;
+    private int fadePosition;
+
+    // Block being filtered, read by the channel kernel
+    private double[][] blockChannels;
+    private double[] blockData;
+    private int blockOffset;
+    private int blockFrames;
+
+    public IirFilterBank(int channels, double[] sections) {
+        this(channels, sections, sections.length / 5, DEFAULT_FADE);
+    }
+
+    /**
+     * Filter bank whose cascades may hold up to {@code maxSections} sections
+     */
+    public IirFilterBank(int channels, double[] sections, int maxSections, int fadeLength) {
+        if (channels < 1 || maxSections < 1 || fadeLength < 1) {
+            throw new IllegalArgumentException("Invalid filter bank: " + channels + " channels, " + maxSections
+                + " sections, fade " + fadeLength);
+        }
+        this.channels = channels;
+        this.maxSections = maxSections;
+        this.fadeLength = fadeLength;
+        this.coefficients = checkSections(sections);
+        this.state = new double[channels][4 * maxSections];
+        this.fadeState = new double[channels][4 * maxSections];
+        this.parallel = new ChannelParallel(channels, this::filterChannels);
+    }
+
+    /**
+     * Replace the cascade from the next block on, crossfading from the current one
+     */
+    public void setCoefficients(double[] sections) {
+        pending.set(checkSections(sections));
+    }
+
+    private double[] checkSections(double[] sections) {
+        if (sections.length == 0 || sections.length % 5 != 0 || sections.length / 5 > maxSections) {
+            throw new IllegalArgumentException("Cascade needs 1 to " + maxSections + " sections of 5 coefficients, got "
+                + sections.length + " values");
+        }
+        return sections.clone();
+    }
+
+    /**
+     * Filter {@code frames} samples of every channel in place, from {@code offset}
+     * of each {@code data[channel]}
+     */
+    public void process(double[][] data, int offset, int frames) {
+        if (data.length != channels) {
+            throw new IllegalArgumentException("Expected " + channels + " channels, got " + data.length);
+        }
+        begin(frames);
+        blockChannels = data;
+        blockData = null;
+        blockOffset = offset;
+        parallel.run((long) frames * channels);
+        end(frames);
+    }
+
+    /**
+     * Filter {@code frames} frames in place, samples interleaved by channel from {@code offset}
+     */
+    public void processInterleaved(double[] data, int offset, int frames) {
+        begin(frames);
+        blockChannels = null;
+        blockData = data;
+        blockOffset = offset;
+        parallel.run((long) frames * channels);
+        end(frames);
+    }
+
+    private void begin(int frames) {
+        blockFrames = frames;
+        if (fadingFrom == null) {
+            double[] next = pending.getAndSet(null);
+            if (next != null) {
+                // The old cascade continues from its own copy of the state while fading out
+                fadingFrom = coefficients;
+                coefficients = next;
+                fadePosition = 0;
+                for (int c = 0; c < channels; c++) {
+                    System.arraycopy(state[c], 0, fadeState[c], 0, state[c].length);
+                }
+            }
+        }
+        if (fadingFrom != null && (scratch.length == 0 || scratch[0].length < frames)) {
+            scratch = new double[channels][frames];
+        }
+    }
+
+    private void end(int frames) {
+        blockChannels = null;
+        blockData = null;
+        if (fadingFrom != null) {
+            fadePosition += frames;
+            if (fadePosition >= fadeLength) {
+                fadingFrom = null;
+            }
+        }
+    }
+
+    private void filterChannels(int from, int to) {
+        for (int c = from; c < to; c++) {
+            double[] data = blockChannels != null ? blockChannels[c] : blockData;
+            int offset = blockChannels != null ? blockOffset : blockOffset + c;
+            int stride = blockChannels != null ? 1 : channels;
+            if (fadingFrom == null) {
+                run(coefficients, state[c], data, offset, stride, blockFrames);
+                continue;
+            }
+
+            double[] old = scratch[c];
+            for (int i = 0, index = offset; i < blockFrames; i++, index += stride) {
+                old[i] = data[index];
+            }
+            run(fadingFrom, fadeState[c], old, 0, 1, blockFrames);
+            run(coefficients, state[c], data, offset, stride, blockFrames);
+            for (int i = 0, index = offset; i < blockFrames; i++, index += stride) {
+                double weight = Math.min(1.0, (fadePosition + i + 1) / (double) fadeLength);
+                data[index] = old[i] + weight * (data[index] - old[i]);
+            }
+        }
+    }
+
+    /**
+     * Run the cascade over one channel in place, a section at a time
+     */
+    private static void run(double[] sections, double[] state, double[] data, int offset, int stride, int frames) {
+        int end = offset + frames * stride;
+        for (int s = 0; s < sections.length / 5; s++) {
+            double b0 = sections[5 * s];
+            double b1 = sections[5 * s + 1];
+            double b2 = sections[5 * s + 2];
+            double a1 = sections[5 * s + 3];
+            double a2 = sections[5 * s + 4];
+            double x1 = state[4 * s];
+            double x2 = state[4 * s + 1];
+            double y1 = state[4 * s + 2];
+            double y2 = state[4 * s + 3];
+            for (int index = offset; index < end; index += stride) {
+                double x = data[index];
+                double y = b0 * x + b1 * x1 + b2 * x2 - a1 * y1 - a2 * y2;
+                x2 = x1;
+                x1 = x;
+                y2 = y1;
+                y1 = y;
+                data[index] = y;
+            }
+            state[4 * s] = x1;
+            state[4 * s + 1] = x2;
+            state[4 * s + 2] = y1;
+            state[4 * s + 3] = y2;
+        }
+    }
+
+    /**
+     * Forget every channel's history
+     */
+    public void reset() {
+        for (int c = 0; c < channels; c++) {
+            java.util.Arrays.fill(state[c], 0.0);
+        }
+        fadingFrom = null;
+    }
+
+    /** Whether a coefficient swap is still crossfading */
+    public boolean isFading() {
+        return fadingFrom != null;
+    }
+
+    // Getters
+    public int getChannels() { return channels; }
+    public int getMaxSections() { return maxSections; }
+    public int getFadeLength() { return fadeLength; }
+}
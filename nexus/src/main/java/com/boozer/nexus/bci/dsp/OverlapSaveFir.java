@@ -0,0 +1,207 @@
+package com.boozer.nexus.bci.dsp;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Overlap-Save FIR
+ *
+ * Streaming FIR filter for long tap sets, convolving through the FFT. Each
+ * channel collects L = N - M + 1 new samples behind the last M - 1 inputs; when
+ * the frame is full it is transformed, multiplied by the precomputed spectrum of
+ * the M taps and transformed back, and the last L outputs are valid linear
+ * convolution. Output therefore lags input by exactly {@link #getLatency} samples
+ * on top of the taps' own group delay, and costs O(log N) per sample instead of
+ * O(M).
+ *
+ * {@link #setTaps} may be called from any thread; the new taps take over at the
+ * next frame, whose outputs are computed with both tap sets and crossfaded
+ * across the frame. The process methods must be called by one thread at a time
+ * and allocate nothing.
+ */
+public final class OverlapSaveFir {
+
+    private final int channels;
+    private final int taps;
+    private final int size;
+    private final int blockLength;
+    private final RealFft fft;
+    private final double[][] frames;
+    private final double[][] outputs;
+    private final double[][] work;
+    private final double[][] fadeWork;
+    private final ChannelParallel parallel;
+    private final AtomicReference<double[]> pending = new AtomicReference<>();
+    private double[] spectrum;
+    private double[] fadingFrom;
+    private int fill;
+
+    // Block being filtered, read by the channel kernel
+    private double[][] blockChannels;
+    private double[] blockData;
+    private int blockOffset;
+    private int blockFrames;
+
+    public OverlapSaveFir(int channels, double[] taps) {
+        if (channels < 1 || taps.length < 2) {
+            throw new IllegalArgumentException("FIR needs at least one channel and two taps, got " + channels
+                + " channels and " + taps.length + " taps");
+        }
+        this.channels = channels;
+        this.taps = taps.length;
+        this.size = Math.max(8, Integer.highestOneBit(2 * taps.length - 1) << 1);
+        this.blockLength = size - this.taps + 1;
+        this.fft = new RealFft(size);
+        this.spectrum = transform(taps);
+        this.frames = new double[channels][size];
+        this.outputs = new double[channels][blockLength];
+        this.work = new double[channels][size];
+        this.fadeWork = new double[channels][size];
+        this.parallel = new ChannelParallel(channels, this::filterChannels);
+    }
+
+    /**
+     * Replace the taps from the next frame on; the count must stay the same
+     */
+    public void setTaps(double[] taps) {
+        if (taps.length != this.taps) {
+            throw new IllegalArgumentException("Expected " + this.taps + " taps, got " + taps.length);
+        }
+        pending.set(transform(taps));
+    }
+
+    private double[] transform(double[] taps) {
+        double[] packed = new double[size];
+        System.arraycopy(taps, 0, packed, 0, taps.length);
+        fft.forward(packed);
+        return packed;
+    }
+
+    /**
+     * Filter {@code frames} samples of every channel in place, from {@code offset}
+     * of each {@code data[channel]}
+     */
+    public void process(double[][] data, int offset, int frames) {
+        if (data.length != channels) {
+            throw new IllegalArgumentException("Expected " + channels + " channels, got " + data.length);
+        }
+        begin(frames);
+        blockChannels = data;
+        blockOffset = offset;
+        parallel.run((long) frames * channels);
+        end(frames);
+    }
+
+    /**
+     * Filter {@code frames} frames in place, samples interleaved by channel from {@code offset}
+     */
+    public void processInterleaved(double[] data, int offset, int frames) {
+        begin(frames);
+        blockData = data;
+        blockOffset = offset;
+        parallel.run((long) frames * channels);
+        end(frames);
+    }
+
+    private void begin(int frames) {
+        blockFrames = frames;
+        if (fadingFrom == null) {
+            double[] next = pending.getAndSet(null);
+            if (next != null) {
+                fadingFrom = spectrum;
+                spectrum = next;
+            }
+        }
+    }
+
+    private void end(int frames) {
+        blockChannels = null;
+        blockData = null;
+        // Every channel convolved at the same points, so the swap is complete once any frame closed
+        if (fill + frames >= blockLength) {
+            fadingFrom = null;
+        }
+        fill = (fill + frames) % blockLength;
+    }
+
+    private void filterChannels(int from, int to) {
+        int history = taps - 1;
+        for (int c = from; c < to; c++) {
+            double[] data = blockChannels != null ? blockChannels[c] : blockData;
+            int stride = blockChannels != null ? 1 : channels;
+            int index = blockChannels != null ? blockOffset : blockOffset + c;
+            double[] frame = frames[c];
+            double[] output = outputs[c];
+            boolean fading = fadingFrom != null;
+            int position = fill;
+            for (int i = 0; i < blockFrames; i++, index += stride) {
+                double x = data[index];
+                data[index] = output[position];
+                frame[history + position] = x;
+                if (++position == blockLength) {
+                    convolve(c, fading);
+                    fading = false;
+                    position = 0;
+                }
+            }
+        }
+    }
+
+    private void convolve(int channel, boolean fading) {
+        double[] frame = frames[channel];
+        double[] buffer = work[channel];
+        double[] output = outputs[channel];
+        int history = taps - 1;
+        System.arraycopy(frame, 0, buffer, 0, size);
+        fft.forward(buffer);
+        if (fading) {
+            double[] old = fadeWork[channel];
+            System.arraycopy(buffer, 0, old, 0, size);
+            multiply(old, fadingFrom);
+            fft.inverse(old);
+            multiply(buffer, spectrum);
+            fft.inverse(buffer);
+            for (int i = 0; i < blockLength; i++) {
+                double weight = (i + 1) / (double) blockLength;
+                output[i] = old[history + i] + weight * (buffer[history + i] - old[history + i]);
+            }
+        } else {
+            multiply(buffer, spectrum);
+            fft.inverse(buffer);
+            System.arraycopy(buffer, history, output, 0, blockLength);
+        }
+        System.arraycopy(frame, blockLength, frame, 0, history);
+    }
+
+    /**
+     * Multiply a packed spectrum by another in place; DC and Nyquist are real
+     */
+    private static void multiply(double[] data, double[] by) {
+        data[0] *= by[0];
+        data[1] *= by[1];
+        for (int k = 2; k < data.length; k += 2) {
+            double re = data[k] * by[k] - data[k + 1] * by[k + 1];
+            double im = data[k] * by[k + 1] + data[k + 1] * by[k];
+            data[k] = re;
+            data[k + 1] = im;
+        }
+    }
+
+    /**
+     * Forget every channel's history and queued output
+     */
+    public void reset() {
+        for (int c = 0; c < channels; c++) {
+            java.util.Arrays.fill(frames[c], 0.0);
+            java.util.Arrays.fill(outputs[c], 0.0);
+        }
+        fadingFrom = null;
+        fill = 0;
+    }
+
+    // Getters
+    public int getChannels() { return channels; }
+    public int getTaps() { return taps; }
+    public int getFftSize() { return size; }
+    /** Samples between an input and its filtered output, excluding the taps' group delay */
+    public int getLatency() { return blockLength; }
+}
@@ -0,0 +1,183 @@
+package com.boozer.nexus.bci.dsp;
+
+/**
+ * Real FFT
+ *
+ * In-place radix-2 FFT of real sequences of one power-of-two length n, with the
+ * bit-reversal and twiddle tables computed once per instance. The n real samples
+ * are transformed as n/2 complex points, and a final split pass separates the
+ * even and odd halves, so a real transform costs about half a complex one.
+ *
+ * The spectrum is packed into the same array: {@code data[0]} is bin 0 (DC),
+ * {@code data[1]} bin n/2 (Nyquist), and {@code data[2k]}, {@code data[2k + 1]}
+ * are the real and imaginary parts of bin k for 0 < k < n/2. The transform is
+ * unnormalised; {@link #inverse} undoes {@link #forward} exactly.
+ *
+ * Instances hold no per-call state and may be shared between threads.
+ */
+public final class RealFft {
+
+    private final int size;
+    private final int half;
+    private final int[] bitReverse;
+    /** Complex twiddles e^(-2 pi i j / (n/2)) for the half-length transform */
+    private final double[] cos;
+    private final double[] sin;
+    /** Split twiddles e^(-2 pi i k / n) */
+    private final double[] splitCos;
+    private final double[] splitSin;
+
+    public RealFft(int size) {
+        if (size < 4 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("FFT size must be a power of two of at least 4, got " + size);
+        }
+        this.size = size;
+        this.half = size / 2;
+        this.bitReverse = new int[half];
+        int bits = Integer.numberOfTrailingZeros(half);
+        for (int i = 0; i < half; i++) {
+            bitReverse[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+        this.cos = new double[Math.max(1, half / 2)];
+        this.sin = new double[cos.length];
+        for (int j = 0; j < cos.length; j++) {
+            cos[j] = Math.cos(2.0 * Math.PI * j / half);
+            sin[j] = Math.sin(2.0 * Math.PI * j / half);
+        }
+        this.splitCos = new double[half / 2 + 1];
+        this.splitSin = new double[half / 2 + 1];
+        for (int k = 0; k <= half / 2; k++) {
+            splitCos[k] = Math.cos(2.0 * Math.PI * k / size);
+            splitSin[k] = Math.sin(2.0 * Math.PI * k / size);
+        }
+    }
+
+    /**
+     * Transform {@code data[0 .. n)} in place into the packed spectrum
+     */
+    public void forward(double[] data) {
+        checkLength(data);
+        complexTransform(data, -1.0);
+
+        // Split: X[k] = E + W O and X[n/2 - k] = conj(E - W O)
+        double re0 = data[0];
+        double im0 = data[1];
+        data[0] = re0 + im0;
+        data[1] = re0 - im0;
+        for (int k = 1; k <= half / 2; k++) {
+            int m = half - k;
+            double a = data[2 * k];
+            double b = data[2 * k + 1];
+            double c = data[2 * m];
+            double d = data[2 * m + 1];
+            double evenRe = 0.5 * (a + c);
+            double evenIm = 0.5 * (b - d);
+            double oddRe = 0.5 * (b + d);
+            double oddIm = -0.5 * (a - c);
+            double wr = splitCos[k];
+            double wi = -splitSin[k];
+            double productRe = wr * oddRe - wi * oddIm;
+            double productIm = wr * oddIm + wi * oddRe;
+            data[2 * k] = evenRe + productRe;
+            data[2 * k + 1] = evenIm + productIm;
+            if (m != k) {
+                data[2 * m] = evenRe - productRe;
+                data[2 * m + 1] = -(evenIm - productIm);
+            }
+        }
+    }
+
+    /**
+     * Transform a packed spectrum in place back into n real samples
+     */
+    public void inverse(double[] data) {
+        checkLength(data);
+        double x0 = data[0];
+        double xHalf = data[1];
+        data[0] = 0.5 * (x0 + xHalf);
+        data[1] = 0.5 * (x0 - xHalf);
+        for (int k = 1; k <= half / 2; k++) {
+            int m = half - k;
+            double a = data[2 * k];
+            double b = data[2 * k + 1];
+            double c = data[2 * m];
+            double d = data[2 * m + 1];
+            // E = (X[k] + conj(X[m])) / 2, W O = (X[k] - conj(X[m])) / 2
+            double evenRe = 0.5 * (a + c);
+            double evenIm = 0.5 * (b - d);
+            double productRe = 0.5 * (a - c);
+            double productIm = 0.5 * (b + d);
+            double wr = splitCos[k];
+            double wi = splitSin[k];
+            double oddRe = wr * productRe - wi * productIm;
+            double oddIm = wr * productIm + wi * productRe;
+            // Z[k] = E + i O, Z[m] = conj(E) + i conj(O)
+            data[2 * k] = evenRe - oddIm;
+            data[2 * k + 1] = evenIm + oddRe;
+            if (m != k) {
+                data[2 * m] = evenRe + oddIm;
+                data[2 * m + 1] = -evenIm + oddRe;
+            }
+        }
+        complexTransform(data, 1.0);
+        double scale = 1.0 / half;
+        for (int i = 0; i < size; i++) {
+            data[i] *= scale;
+        }
+    }
+
+    /**
+     * Power |X[k]|^2 of bins 0 .. n/2 of a packed spectrum
+     */
+    public void power(double[] spectrum, double[] power) {
+        power[0] = spectrum[0] * spectrum[0];
+        power[half] = spectrum[1] * spectrum[1];
+        for (int k = 1; k < half; k++) {
+            power[k] = spectrum[2 * k] * spectrum[2 * k] + spectrum[2 * k + 1] * spectrum[2 * k + 1];
+        }
+    }
+
+    /**
+     * Iterative radix-2 transform of n/2 interleaved complex points; sign -1
+     * forward, +1 inverse (unscaled)
+     */
+    private void complexTransform(double[] data, double sign) {
+        for (int i = 0; i < half; i++) {
+            int j = bitReverse[i];
+            if (j > i) {
+                double re = data[2 * i];
+                double im = data[2 * i + 1];
+                data[2 * i] = data[2 * j];
+                data[2 * i + 1] = data[2 * j + 1];
+                data[2 * j] = re;
+                data[2 * j + 1] = im;
+            }
+        }
+        for (int span = 1; span < half; span <<= 1) {
+            int stride = half / (2 * span);
+            // Twiddle outermost, so each is loaded once and early stages get long inner loops
+            for (int j = 0; j < span; j++) {
+                double wr = cos[j * stride];
+                double wi = sign * sin[j * stride];
+                for (int p = 2 * j; p < 2 * half; p += 4 * span) {
+                    int q = p + 2 * span;
+                    double tr = wr * data[q] - wi * data[q + 1];
+                    double ti = wr * data[q + 1] + wi * data[q];
+                    data[q] = data[p] - tr;
+                    data[q + 1] = data[p + 1] - ti;
+                    data[p] += tr;
+                    data[p + 1] += ti;
+                }
+            }
+        }
+    }
+
+    private void checkLength(double[] data) {
+        if (data.length < size) {
+            throw new IllegalArgumentException("FFT of size " + size + " needs " + size + " values, got "
+                + data.length);
+        }
+    }
+
+    public int getSize() { return size; }
+}
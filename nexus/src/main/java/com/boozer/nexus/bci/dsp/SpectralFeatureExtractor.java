@@ -0,0 +1,119 @@
+package com.boozer.nexus.bci.dsp;
+
+import com.boozer.nexus.bci.signal.SignalWindow;
+
+/**
+ * Spectral Feature Extractor
+ *
+ * Per-session feature pipeline over windows of up to {@code frames} samples per
+ * channel: for each channel the four moments in one pass, a Welch PSD and the
+ * EEG band powers (delta .. gamma) in one pass over the PSD. Welch segments are
+ * the largest power of two up to half the window (at least 8 samples), so a
+ * window averages about three overlapping segments.
+ *
+ * All buffers are allocated up front and reused for every window; results stay
+ * readable until the next call. Not thread safe: use one extractor per session.
+ */
+public final class SpectralFeatureExtractor {
+
+    private static final int MIN_SEGMENT = 8;
+
+    private final int channels;
+    private final int frames;
+    private final WelchEstimator welch;
+    private final double[] psd;
+    private final double[] scratch;
+    private final double[][] bandPowers;
+    private final double[][] moments;
+    private final double[] edges;
+
+    public SpectralFeatureExtractor(int channels, double samplingRate, int frames) {
+        this(channels, samplingRate, frames, SpectralFeatures.EEG_BAND_EDGES);
+    }
+
+    public SpectralFeatureExtractor(int channels, double samplingRate, int frames, double[] edges) {
+        if (channels < 1 || frames < 1 || edges.length < 2) {
+            throw new IllegalArgumentException("Invalid feature extractor: " + channels + " channels, " + frames
+                + " frames, " + (edges.length - 1) + " bands");
+        }
+        this.channels = channels;
+        this.frames = frames;
+        this.welch = new WelchEstimator(Math.max(MIN_SEGMENT, Integer.highestOneBit(Math.max(1, frames / 2))),
+            samplingRate);
+        this.psd = new double[welch.getBins()];
+        this.scratch = new double[frames];
+        this.bandPowers = new double[channels][edges.length - 1];
+        this.moments = new double[channels][4];
+        this.edges = edges.clone();
+    }
+
+    /**
+     * Features of a block whose samples are interleaved by channel
+     */
+    public void extractInterleaved(double[] data, int offset, int length) {
+        checkLength(length);
+        for (int c = 0; c < channels; c++) {
+            int source = offset + c;
+            for (int i = 0; i < length; i++) {
+                scratch[i] = data[source];
+                source += channels;
+            }
+            extractChannel(c, length);
+        }
+    }
+
+    /**
+     * Features of a ring window; check {@link SignalWindow#isValid()} afterwards
+     */
+    public void extract(SignalWindow window) {
+        checkLength(window.getLength());
+        for (int c = 0; c < channels; c++) {
+            window.copyChannel(c, scratch, 0);
+            extractChannel(c, window.getLength());
+        }
+    }
+
+    private void extractChannel(int channel, int length) {
+        SpectralFeatures.moments(scratch, 0, length, moments[channel]);
+        welch.estimate(scratch, 0, length, psd);
+        SpectralFeatures.bandPowers(psd, psd.length, welch.getBinWidth(), edges, bandPowers[channel]);
+    }
+
+    private void checkLength(int length) {
+        if (length > frames) {
+            throw new IllegalArgumentException("Window of " + length + " frames exceeds the extractor's "
+                + frames);
+        }
+    }
+
+    public double getBandPower(int channel, int band) {
+        return bandPowers[channel][band];
+    }
+
+    public double getMoment(int channel, int moment) {
+        return moments[channel][moment];
+    }
+
+    /** Band power averaged over the channels */
+    public double meanBandPower(int band) {
+        double sum = 0.0;
+        for (int c = 0; c < channels; c++) {
+            sum += bandPowers[c][band];
+        }
+        return sum / channels;
+    }
+
+    /** Moment averaged over the channels */
+    public double meanMoment(int moment) {
+        double sum = 0.0;
+        for (int c = 0; c < channels; c++) {
+            sum += moments[c][moment];
+        }
+        return sum / channels;
+    }
+
+    // Getters
+    public int getChannels() { return channels; }
+    public int getFrames() { return frames; }
+    public WelchEstimator getWelch() { return welch; }
+}
@@ -0,0 +1,91 @@
+package com.boozer.nexus.bci.dsp;
+
+/**
+ * Spectral Features
+ *
+ * Single-pass reductions used by the feature pipeline: band powers from a PSD
+ * and the first four moments of a signal.
+ */
+public final class SpectralFeatures {
+
+    public static final int DELTA = 0;
+    public static final int THETA = 1;
+    public static final int ALPHA = 2;
+    public static final int BETA = 3;
+    public static final int GAMMA = 4;
+
+    /** Contiguous EEG bands (Hz): delta, theta, alpha, beta, gamma */
+    public static final double[] EEG_BAND_EDGES = {0.5, 4.0, 8.0, 13.0, 30.0, 100.0};
+
+    public static final int MEAN = 0;
+    public static final int VARIANCE = 1;
+    public static final int SKEWNESS = 2;
+    public static final int KURTOSIS = 3;
+
+    private SpectralFeatures() {
+    }
+
+    /**
+     * Power in the contiguous bands [edges[b], edges[b + 1]) of a PSD with bins
+     * {@code binWidth} Hz apart, in one pass over the bins. Bin k covers
+     * [(k - 1/2) binWidth, (k + 1/2) binWidth) and is shared between bands in
+     * proportion to the overlap, so bands narrower than a bin still get power.
+     */
+    public static void bandPowers(double[] psd, int bins, double binWidth, double[] edges, double[] out) {
+        int bands = edges.length - 1;
+        for (int b = 0; b < bands; b++) {
+            out[b] = 0.0;
+        }
+        int band = 0;
+        for (int k = 0; k < bins && band < bands; k++) {
+            double low = Math.max(0.0, (k - 0.5) * binWidth);
+            double high = (k + 0.5) * binWidth;
+            while (band < bands && edges[band + 1] <= low) {
+                band++;
+            }
+            // Spread the bin over every band it overlaps
+            for (int b = band; b < bands && edges[b] < high; b++) {
+                double overlap = Math.min(high, edges[b + 1]) - Math.max(low, edges[b]);
+                if (overlap > 0) {
+                    out[b] += psd[k] * overlap;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mean, variance, skewness and excess kurtosis of {@code data[offset .. offset + length)}
+     * in one pass. Sums are taken about the first sample to keep them small.
+     */
+    public static void moments(double[] data, int offset, int length, double[] out) {
+        if (length == 0) {
+            out[MEAN] = 0.0;
+            out[VARIANCE] = 0.0;
+            out[SKEWNESS] = 0.0;
+            out[KURTOSIS] = 0.0;
+            return;
+        }
+        double shift = data[offset];
+        double s1 = 0.0;
+        double s2 = 0.0;
+        double s3 = 0.0;
+        double s4 = 0.0;
+        for (int i = offset; i < offset + length; i++) {
+            double d = data[i] - shift;
+            double d2 = d * d;
+            s1 += d;
+            s2 += d2;
+            s3 += d2 * d;
+            s4 += d2 * d2;
+        }
+        double n = length;
+        double mu = s1 / n;
+        double m2 = Math.max(0.0, s2 / n - mu * mu);
+        double m3 = s3 / n - 3.0 * mu * s2 / n + 2.0 * mu * mu * mu;
+        double m4 = s4 / n - 4.0 * mu * s3 / n + 6.0 * mu * mu * s2 / n - 3.0 * mu * mu * mu * mu;
+        out[MEAN] = shift + mu;
+        out[VARIANCE] = m2;
+        out[SKEWNESS] = m2 > 0 ? m3 / (m2 * Math.sqrt(m2)) : 0.0;
+        out[KURTOSIS] = m2 > 0 ? m4 / (m2 * m2) - 3.0 : 0.0;
+    }
+}
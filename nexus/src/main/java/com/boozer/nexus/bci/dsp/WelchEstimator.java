@@ -0,0 +1,136 @@
+package com.boozer.nexus.bci.dsp;
+
+import com.boozer.nexus.bci.signal.SignalWindow;
+
+/**
+ * Welch Estimator
+ *
+ * One-sided power spectral density by Welch's method: Hann-windowed segments of
+ * {@code segmentLength} samples with 50% overlap, each with its mean removed,
+ * transformed by a cached {@link RealFft} and averaged. The PSD has
+ * segmentLength / 2 + 1 bins spaced {@link #getBinWidth()} Hz apart, in units^2
+ * per Hz, so that it integrates to the signal variance. Input shorter than one
+ * segment is zero-padded into a single segment.
+ *
+ * Scratch buffers are preallocated; an estimator is not thread safe.
+ */
+public final class WelchEstimator {
+
+    private final int segmentLength;
+    private final int step;
+    private final double samplingRate;
+    private final RealFft fft;
+    private final double[] window;
+    private final double windowPower;
+    private final double[] segment;
+    private final double[] power;
+
+    public WelchEstimator(int segmentLength, double samplingRate) {
+        if (samplingRate <= 0) {
+            throw new IllegalArgumentException("Sampling rate must be positive, got " + samplingRate);
+        }
+        this.fft = new RealFft(segmentLength);
+        this.segmentLength = segmentLength;
+        this.step = segmentLength / 2;
+        this.samplingRate = samplingRate;
+        this.window = new double[segmentLength];
+        double sum = 0.0;
+        for (int i = 0; i < segmentLength; i++) {
+            // Periodic Hann
+            window[i] = 0.5 - 0.5 * Math.cos(2.0 * Math.PI * i / segmentLength);
+            sum += window[i] * window[i];
+        }
+        this.windowPower = sum;
+        this.segment = new double[segmentLength];
+        this.power = new double[segmentLength / 2 + 1];
+    }
+
+    /**
+     * PSD of {@code signal[offset .. offset + length)} into {@code psd}
+     * (at least segmentLength / 2 + 1 values)
+     */
+    public void estimate(double[] signal, int offset, int length, double[] psd) {
+        int segments = segmentCount(length);
+        clear(psd);
+        for (int s = 0; s < segments; s++) {
+            int start = offset + s * step;
+            int count = Math.min(segmentLength, length);
+            System.arraycopy(signal, start, segment, 0, count);
+            accumulate(count, psd);
+        }
+        scale(segments, psd);
+    }
+
+    /**
+     * PSD of one channel of a ring window, read in place
+     */
+    public void estimate(SignalWindow signal, int channel, double[] psd) {
+        int length = signal.getLength();
+        int segments = segmentCount(length);
+        clear(psd);
+        for (int s = 0; s < segments; s++) {
+            int start = s * step;
+            int count = Math.min(segmentLength, length);
+            for (int i = 0; i < count; i++) {
+                segment[i] = signal.get(channel, start + i);
+            }
+            accumulate(count, psd);
+        }
+        scale(segments, psd);
+    }
+
+    private int segmentCount(int length) {
+        return length <= segmentLength ? 1 : 1 + (length - segmentLength) / step;
+    }
+
+    private void clear(double[] psd) {
+        for (int k = 0; k < power.length; k++) {
+            psd[k] = 0.0;
+        }
+    }
+
+    /**
+     * Window the first {@code count} samples of the segment, transform, add the power
+     */
+    private void accumulate(int count, double[] psd) {
+        double mean = 0.0;
+        for (int i = 0; i < count; i++) {
+            mean += segment[i];
+        }
+        mean /= Math.max(1, count);
+        for (int i = 0; i < count; i++) {
+            segment[i] = (segment[i] - mean) * window[i];
+        }
+        for (int i = count; i < segmentLength; i++) {
+            segment[i] = 0.0;
+        }
+        fft.forward(segment);
+        fft.power(segment, power);
+        for (int k = 0; k < power.length; k++) {
+            psd[k] += power[k];
+        }
+    }
+
+    private void scale(int segments, double[] psd) {
+        double scale = 1.0 / (samplingRate * windowPower * segments);
+        psd[0] *= scale;
+        psd[power.length - 1] *= scale;
+        for (int k = 1; k < power.length - 1; k++) {
+            // One-sided: fold in the negative frequencies
+            psd[k] *= 2.0 * scale;
+        }
+    }
+
+    /** Frequency spacing of the PSD bins (Hz) */
+    public double getBinWidth() {
+        return samplingRate / segmentLength;
+    }
+
+    public int getBins() {
+        return power.length;
+    }
+
+    // Getters
+    public int getSegmentLength() { return segmentLength; }
+    public double getSamplingRate() { return samplingRate; }
+}
@@ -6,10 +6,13 @@ public class BCIMetrics {
     private double averageSignalQuality;
     private int commandsExecuted;
     private double accuracy;
+    private double processingLag;
+    private double maxProcessingLag;
 
     public void incrementSignalsProcessed() { totalSignalsProcessed++; }
     public void updateLatency(long latency) { averageLatency = (averageLatency + latency) / 2.0; }
     public void updateSignalQuality(double quality) { averageSignalQuality = (averageSignalQuality + quality) / 2.0; }
+    public void updateProcessingLag(double lag) { processingLag = lag; maxProcessingLag = Math.max(maxProcessingLag, lag); }
 
     public long getTotalSignalsProcessed() { return totalSignalsProcessed; }
     public double getAverageLatency() { return averageLatency; }
@@ -18,4 +21,6 @@ public class BCIMetrics {
     public void setCommandsExecuted(int commandsExecuted) { this.commandsExecuted = commandsExecuted; }
     public double getAccuracy() { return accuracy; }
     public void setAccuracy(double accuracy) { this.accuracy = accuracy; }
+    public double getProcessingLag() { return processingLag; }
+    public double getMaxProcessingLag() { return maxProcessingLag; }
 }
@@ -57,6 +57,15 @@ public class BCISession {
         }
     }
 
+    /** Replace the learned patterns, e.g. after the motor decoder is retrained */
+    public void setLearnedPatterns(List<LearnedPattern> patterns) {
+        learnedPatterns.clear();
+        if (patterns != null) {
+            learnedPatterns.addAll(patterns);
+        }
+        touch();
+    }
+
     public void terminate() {
         this.active = false;
         this.endTime = LocalDateTime.now();
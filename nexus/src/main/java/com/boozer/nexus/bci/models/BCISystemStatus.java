@@ -6,6 +6,7 @@ public class BCISystemStatus {
     private int activeSessionCount;
     private double systemHealth;
     private double averageLatency;
+    private double maxProcessingLag;
     private long totalSignalsProcessed;
     private long uptimeHours;
     private LocalDateTime lastUpdate;
@@ -16,6 +17,8 @@ public class BCISystemStatus {
     public void setSystemHealth(double systemHealth) { this.systemHealth = systemHealth; }
     public double getAverageLatency() { return averageLatency; }
     public void setAverageLatency(double averageLatency) { this.averageLatency = averageLatency; }
+    public double getMaxProcessingLag() { return maxProcessingLag; }
+    public void setMaxProcessingLag(double maxProcessingLag) { this.maxProcessingLag = maxProcessingLag; }
     public long getTotalSignalsProcessed() { return totalSignalsProcessed; }
     public void setTotalSignalsProcessed(long totalSignalsProcessed) { this.totalSignalsProcessed = totalSignalsProcessed; }
     public long getUptimeHours() { return uptimeHours; }
@@ -6,6 +6,9 @@ public class LearnedPattern {
     private String patternType;
     private double[] featureVector;
     private double accuracy;
+    /** Linear template (score = weights . features + bias) compiled by the decoder; null if none */
+    private double[] templateWeights;
+    private double templateBias;
     private LocalDateTime learnedAt;
 
     public String getPatternType() { return patternType; }
@@ -14,6 +17,10 @@ public class LearnedPattern {
     public void setFeatureVector(double[] featureVector) { this.featureVector = featureVector; }
     public double getAccuracy() { return accuracy; }
     public void setAccuracy(double accuracy) { this.accuracy = accuracy; }
+    public double[] getTemplateWeights() { return templateWeights; }
+    public void setTemplateWeights(double[] templateWeights) { this.templateWeights = templateWeights; }
+    public double getTemplateBias() { return templateBias; }
+    public void setTemplateBias(double templateBias) { this.templateBias = templateBias; }
     public LocalDateTime getLearnedAt() { return learnedAt; }
     public void setLearnedAt(LocalDateTime learnedAt) { this.learnedAt = learnedAt; }
 }
@@ -1,36 +1,60 @@
 package com.boozer.nexus.bci.models;
 
+import com.boozer.nexus.bci.signal.SignalRingBuffer;
+import com.boozer.nexus.bci.signal.SignalWindow;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.time.ZoneId;
 
+/**
+ * Per-session sample history: a preallocated ring of the last {@code bufferSize}
+ * samples per electrode. One thread adds signal data while others read windows
+ * of it in place.
+ */
 public class NeuralSignalBuffer {
     private final int bufferSize;
     private final double samplingRate;
-    private final Queue<NeuralSignalData> buffer;
-    private LocalDateTime lastUpdate;
+    private final SignalRingBuffer ring;
+    private volatile long lastUpdate;
 
     public NeuralSignalBuffer(int bufferSize, double samplingRate) {
+        this(1, bufferSize, samplingRate);
+    }
+
+    public NeuralSignalBuffer(int channels, int bufferSize, double samplingRate) {
         this.bufferSize = bufferSize;
         this.samplingRate = samplingRate;
-        this.buffer = new LinkedList<>();
-        this.lastUpdate = LocalDateTime.now();
+        this.ring = new SignalRingBuffer(channels, bufferSize);
+        this.lastUpdate = System.currentTimeMillis();
     }
 
+    /**
+     * Append a block whose samples are interleaved by electrode
+     */
     public void addSignalData(NeuralSignalData data) {
-        if (buffer.size() >= bufferSize) buffer.poll();
-        buffer.offer(data);
-        lastUpdate = LocalDateTime.now();
+        double[] samples = data.samples();
+        int channels = ring.getChannels();
+        if (samples.length % channels != 0) {
+            throw new IllegalArgumentException("Signal of " + samples.length + " samples does not split into "
+                + channels + " channels");
+        }
+        ring.writeInterleaved(samples, 0, samples.length / channels);
+        lastUpdate = System.currentTimeMillis();
     }
 
-    public List<NeuralSignalData> getRecentSignals(int count) {
-        return buffer.stream().skip(Math.max(0, buffer.size() - count)).collect(Collectors.toList());
+    /**
+     * Point the window at the latest {@code count} samples per channel; false if
+     * fewer are held
+     */
+    public boolean getRecentSignals(int count, SignalWindow window) {
+        return ring.latest(Math.min(count, ring.size()), window);
     }
 
+    public SignalRingBuffer getRing() { return ring; }
     public int getBufferSize() { return bufferSize; }
     public double getSamplingRate() { return samplingRate; }
-    public int getCurrentSize() { return buffer.size(); }
-    public LocalDateTime getLastUpdate() { return lastUpdate; }
+    public int getChannels() { return ring.getChannels(); }
+    public int getCurrentSize() { return ring.size(); }
+    public LocalDateTime getLastUpdate() { return LocalDateTime.ofInstant(Instant.ofEpochMilli(lastUpdate), ZoneId.systemDefault()); }
 }
@@ -0,0 +1,169 @@
+package com.boozer.nexus.bci.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Scheduled Session
+ *
+ * One session's recurring work in a {@link SessionScheduler}. A session is idle,
+ * queued or running, and is queued at most once however often it becomes due:
+ * timer ticks and {@link #wake()} calls while it waits are merged, and a wake
+ * while it runs queues exactly one more run behind everyone already waiting.
+ * That keeps the run queue a round robin over ready sessions.
+ *
+ * Lag is the time from becoming due to starting to run, recorded on every run.
+ */
+public final class ScheduledSession implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledSession.class);
+
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int RUNNING = 2;
+    private static final int RUNNING_WOKEN = 3;
+
+    private final String name;
+    private final Consumer<ScheduledSession> task;
+    private final SessionScheduler scheduler;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private volatile boolean cancelled;
+    private volatile long readyNanos;
+    private volatile long wokenNanos;
+
+    // Timer wheel bookkeeping, owned by the ticker thread
+    final long periodNanos;
+    long dueNanos;
+    long targetTick;
+    ScheduledSession nextInBucket;
+
+    // Statistics, written only by the running turn
+    private volatile long runs;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    private volatile long totalLagNanos;
+    private volatile long lastRunNanos;
+    private volatile long missedTicks;
+    private volatile long overruns;
+
+    ScheduledSession(String name, long periodNanos, Consumer<ScheduledSession> task, SessionScheduler scheduler) {
+        this.name = name;
+        this.periodNanos = periodNanos;
+        this.task = task;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Ask for a run as soon as a worker is free, e.g. because new data arrived
+     */
+    public void wake() {
+        ready(System.nanoTime(), false);
+    }
+
+    /**
+     * Stop running the session; a run in progress finishes
+     */
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            scheduler.removed(this);
+        }
+    }
+
+    /**
+     * Timer tick or wake: queue the session unless it is already waiting
+     */
+    void ready(long since, boolean tick) {
+        while (!cancelled && scheduler.isRunning()) {
+            int current = state.get();
+            if (current == IDLE) {
+                if (state.compareAndSet(IDLE, QUEUED)) {
+                    readyNanos = since;
+                    scheduler.submit(this);
+                    return;
+                }
+            } else if (current == RUNNING) {
+                wokenNanos = since;
+                if (state.compareAndSet(RUNNING, RUNNING_WOKEN)) {
+                    return;
+                }
+            } else {
+                // Already queued or due again after this run
+                if (tick) {
+                    missedTicks++;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Periods skipped because the ticker fell behind
+     */
+    void missed(long ticks) {
+        missedTicks += ticks;
+    }
+
+    @Override
+    public void run() {
+        if (stopped()) {
+            state.set(IDLE);
+            return;
+        }
+        state.set(RUNNING);
+        long start = System.nanoTime();
+        long lag = Math.max(0, start - readyNanos);
+        lastLagNanos = lag;
+        maxLagNanos = Math.max(maxLagNanos, lag);
+        totalLagNanos += lag;
+        runs++;
+        try {
+            task.accept(this);
+        } catch (Exception e) {
+            logger.error("Error in session {}: {}", name, e.getMessage(), e);
+        }
+        long end = System.nanoTime();
+        lastRunNanos = end - start;
+        if (lastRunNanos > scheduler.getSliceNanos()) {
+            overruns++;
+        }
+
+        if (!state.compareAndSet(RUNNING, IDLE)) {
+            // Woken while running: go to the back of the queue
+            readyNanos = wokenNanos;
+            state.set(QUEUED);
+            if (stopped()) {
+                state.set(IDLE);
+            } else {
+                scheduler.submit(this);
+            }
+        }
+    }
+
+    private boolean stopped() {
+        return cancelled || !scheduler.isRunning();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Mean lag over all runs so far */
+    public long getMeanLagNanos() {
+        long count = runs;
+        return count == 0 ? 0 : totalLagNanos / count;
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public long getPeriodNanos() { return periodNanos; }
+    public long getRuns() { return runs; }
+    public long getLastLagNanos() { return lastLagNanos; }
+    public long getMaxLagNanos() { return maxLagNanos; }
+    public long getLastRunNanos() { return lastRunNanos; }
+    public long getMissedTicks() { return missedTicks; }
+    public long getOverruns() { return overruns; }
+}
@@ -0,0 +1,232 @@
+package com.boozer.nexus.bci.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Session Scheduler
+ *
+ * Runs the recurring work of many sessions on a small shared worker pool. Periodic
+ * sessions sit in a hashed timer wheel turned by one ticker thread: each tick
+ * looks only at its own bucket, so the cost per tick is the number of sessions
+ * due rather than the number scheduled. Due sessions, and sessions woken by new
+ * data, join one FIFO run queue; because a session is never queued twice, every
+ * ready session gets one slice before any gets a second.
+ *
+ * A session whose previous run has not started or finished when it falls due
+ * again skips that tick instead of piling up. Overruns of the slice budget and
+ * missed ticks are counted per session, alongside its lag.
+ */
+public final class SessionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionScheduler.class);
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final long tickNanos;
+    private final long sliceNanos;
+    private final long startNanos;
+    private final ScheduledSession[] buckets = new ScheduledSession[WHEEL_SIZE];
+    private final ConcurrentLinkedQueue<ScheduledSession> additions = new ConcurrentLinkedQueue<>();
+    private final Set<ScheduledSession> sessions = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor workers;
+    private final Thread ticker;
+    // Cleared once by shutdown; every session checks it before queueing or running
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Scheduler with {@code workers} threads, a timer resolution of
+     * {@code tickMillis} and a per-run budget of {@code sliceMillis}
+     */
+    public SessionScheduler(String name, int workers, long tickMillis, long sliceMillis) {
+        if (workers < 1 || tickMillis < 1 || sliceMillis < 1) {
+            throw new IllegalArgumentException("Invalid scheduler: " + workers + " workers, " + tickMillis
+                + " ms ticks, " + sliceMillis + " ms slices");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.sliceNanos = TimeUnit.MILLISECONDS.toNanos(sliceMillis);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, name + "-worker-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::turnWheel, name + "-timer");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Run {@code task} every {@code periodMillis}, starting one period from now
+     */
+    public ScheduledSession schedule(String name, long periodMillis, Consumer<ScheduledSession> task) {
+        long period = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        if (period < tickNanos) {
+            throw new IllegalArgumentException("Period " + periodMillis + " ms is shorter than one tick");
+        }
+        ScheduledSession session = new ScheduledSession(name, period, task, this);
+        session.dueNanos = System.nanoTime() + period;
+        sessions.add(session);
+        additions.offer(session);
+        return session;
+    }
+
+    /**
+     * Register {@code task} to run only when woken with {@link ScheduledSession#wake()}
+     */
+    public ScheduledSession register(String name, Consumer<ScheduledSession> task) {
+        ScheduledSession session = new ScheduledSession(name, 0L, task, this);
+        sessions.add(session);
+        return session;
+    }
+
+    void submit(ScheduledSession session) {
+        try {
+            workers.execute(session);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Scheduler stopped, dropping run of session {}", session.getName());
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void removed(ScheduledSession session) {
+        // Cancelled sessions still in the wheel are dropped when their bucket comes round
+        sessions.remove(session);
+    }
+
+    private void turnWheel() {
+        long nextTick = startNanos + tickNanos;
+        while (running) {
+            long now = System.nanoTime();
+            if (now < nextTick) {
+                LockSupport.parkNanos(nextTick - now);
+                continue;
+            }
+            // Catch up on every tick that has passed, e.g. after a GC pause
+            while (nextTick <= now) {
+                ScheduledSession added;
+                while ((added = additions.poll()) != null) {
+                    insert(added, now);
+                }
+                tick++;
+                expire(now);
+                nextTick += tickNanos;
+            }
+        }
+    }
+
+    private void insert(ScheduledSession session, long now) {
+        if (session.isCancelled()) {
+            return;
+        }
+        long target = (session.dueNanos - startNanos + tickNanos - 1) / tickNanos;
+        if (target <= tick) {
+            fire(session, now);
+            return;
+        }
+        session.targetTick = target;
+        int bucket = (int) (target & (WHEEL_SIZE - 1));
+        session.nextInBucket = buckets[bucket];
+        buckets[bucket] = session;
+    }
+
+    private void expire(long now) {
+        int bucket = (int) (tick & (WHEEL_SIZE - 1));
+        ScheduledSession session = buckets[bucket];
+        buckets[bucket] = null;
+        while (session != null) {
+            ScheduledSession next = session.nextInBucket;
+            session.nextInBucket = null;
+            // Cancelled sessions are dropped here
+            if (!session.isCancelled() && session.targetTick <= tick) {
+                fire(session, now);
+            } else if (!session.isCancelled()) {
+                // Due in a later turn of the wheel
+                session.nextInBucket = buckets[bucket];
+                buckets[bucket] = session;
+            }
+            session = next;
+        }
+    }
+
+    private void fire(ScheduledSession session, long now) {
+        session.ready(session.dueNanos, true);
+        session.dueNanos += session.periodNanos;
+        if (session.dueNanos <= now) {
+            // Fell more than a period behind: skip to the next period in the future
+            long skipped = (now - session.dueNanos) / session.periodNanos + 1;
+            session.dueNanos += skipped * session.periodNanos;
+            session.missed(skipped);
+        }
+        insert(session, now);
+    }
+
+    /**
+     * Stop the timer and every session at once; a run in progress finishes,
+     * queued runs are dropped
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(ticker);
+        for (ScheduledSession session : sessions) {
+            session.cancel();
+        }
+        workers.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ticker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        return workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+            && !ticker.isAlive();
+    }
+
+    public void shutdownNow() {
+        shutdown();
+        workers.shutdownNow();
+    }
+
+    /** Largest most-recent lag over all sessions */
+    public long getMaxLagNanos() {
+        long max = 0;
+        for (ScheduledSession session : sessions) {
+            max = Math.max(max, session.getLastLagNanos());
+        }
+        return max;
+    }
+
+    /** Mean of the sessions' most recent lags */
+    public long getMeanLagNanos() {
+        long total = 0;
+        int count = 0;
+        for (ScheduledSession session : sessions) {
+            total += session.getLastLagNanos();
+            count++;
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    // Getters
+    public int getSessionCount() { return sessions.size(); }
+    public int getWorkerCount() { return workers.getCorePoolSize(); }
+    public int getQueuedRuns() { return workers.getQueue().size(); }
+    public long getSliceNanos() { return sliceNanos; }
+    public long getTickNanos() { return tickNanos; }
+}
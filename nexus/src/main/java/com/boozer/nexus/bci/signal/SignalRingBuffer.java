@@ -0,0 +1,167 @@
+package com.boozer.nexus.bci.signal;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signal Ring Buffer
+ *
+ * Preallocated multichannel sample ring for one producer and any number of
+ * readers. Each channel is a primitive array of {@code capacity} samples, and
+ * every sample frame has a sequence number: frame s of channel c lives at
+ * {@code samples[c][s & mask]}. Readers never consume; they take windows of
+ * frames by sequence and see them in place through a {@link SignalWindow}.
+ *
+ * Writes follow a sequence lock: the producer announces the frames it is about
+ * to overwrite ({@code claimed}), writes them, then publishes them. A reader
+ * takes frames up to the published sequence and, after reading, checks that the
+ * producer has not claimed its frames in the meantime ({@link #isIntact}).
+ * Neither side blocks or allocates.
+ *
+ * Write methods must only be called by one thread at a time.
+ */
+public final class SignalRingBuffer {
+
+    private final int channels;
+    private final int capacity;
+    private final int mask;
+    private final double[][] samples;
+    /** Frames written so far: readers may use frames below this */
+    private final AtomicLong published = new AtomicLong();
+    /** Frames being written: frames at or above this minus capacity are overwritten */
+    private final AtomicLong claimed = new AtomicLong();
+
+    /**
+     * Ring holding at least {@code capacity} frames per channel (rounded up to a power of two)
+     */
+    public SignalRingBuffer(int channels, int capacity) {
+        if (channels < 1 || capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid ring buffer: " + channels + " channels, capacity "
+                + capacity);
+        }
+        this.channels = channels;
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.samples = new double[channels][this.capacity];
+    }
+
+    /**
+     * Append frames stored channel-fastest ({@code data[offset + f * channels + c]});
+     * returns the sequence after the last frame
+     */
+    public long writeInterleaved(double[] data, int offset, int frames) {
+        checkBlock(frames);
+        if (offset < 0 || (long) offset + (long) frames * channels > data.length) {
+            throw new IllegalArgumentException("Block of " + frames + " frames at " + offset
+                + " exceeds the data length " + data.length);
+        }
+        long start = begin(frames);
+        for (int c = 0; c < channels; c++) {
+            double[] channel = samples[c];
+            int source = offset + c;
+            for (int f = 0; f < frames; f++) {
+                channel[(int) ((start + f) & mask)] = data[source];
+                source += channels;
+            }
+        }
+        return publish(start + frames);
+    }
+
+    /**
+     * Append frames stored one array per channel ({@code data[c][offset + f]});
+     * returns the sequence after the last frame
+     */
+    public long writeChannels(double[][] data, int offset, int frames) {
+        checkBlock(frames);
+        if (data.length != channels) {
+            throw new IllegalArgumentException("Expected " + channels + " channels, got " + data.length);
+        }
+        // Check every channel before claiming, so a short one cannot leave a half-written block
+        for (int c = 0; c < channels; c++) {
+            if (offset < 0 || (long) offset + frames > data[c].length) {
+                throw new IllegalArgumentException("Block of " + frames + " frames at " + offset
+                    + " exceeds the length " + data[c].length + " of channel " + c);
+            }
+        }
+        long start = begin(frames);
+        int first = (int) (start & mask);
+        int head = Math.min(frames, capacity - first);
+        for (int c = 0; c < channels; c++) {
+            System.arraycopy(data[c], offset, samples[c], first, head);
+            System.arraycopy(data[c], offset + head, samples[c], 0, frames - head);
+        }
+        return publish(start + frames);
+    }
+
+    private void checkBlock(int frames) {
+        if (frames < 0 || frames > capacity) {
+            throw new IllegalArgumentException("Block of " + frames + " frames does not fit a ring of "
+                + capacity);
+        }
+    }
+
+    private long begin(int frames) {
+        long start = published.get();
+        claimed.set(start + frames);
+        // The claim must be visible before any sample is overwritten
+        VarHandle.storeStoreFence();
+        return start;
+    }
+
+    private long publish(long end) {
+        published.lazySet(end);
+        return end;
+    }
+
+    /**
+     * Point the window at frames [start, start + length); false if any of them is
+     * not yet written or already overwritten
+     */
+    public boolean view(long start, int length, SignalWindow window) {
+        long end = published.get();
+        if (length < 0 || length > capacity || start < 0 || start + length > end || !isIntact(start)) {
+            return false;
+        }
+        window.set(this, start, length);
+        return true;
+    }
+
+    /**
+     * Point the window at the latest {@code length} frames; false if fewer are held
+     */
+    public boolean latest(int length, SignalWindow window) {
+        return view(published.get() - length, length, window);
+    }
+
+    /**
+     * Whether frames from {@code start} on are still unchanged; call after reading them
+     */
+    public boolean isIntact(long start) {
+        // Sample reads must complete before the claim is checked
+        VarHandle.loadLoadFence();
+        return claimed.get() - capacity <= start;
+    }
+
+    /** Sequence of the next frame to be written */
+    public long getWriteSequence() {
+        return published.get();
+    }
+
+    /** Sequence of the oldest frame still held */
+    public long getOldestSequence() {
+        return Math.max(0, published.get() - capacity);
+    }
+
+    /** Frames currently held per channel */
+    public int size() {
+        return (int) Math.min(capacity, published.get());
+    }
+
+    double[] channel(int channel) {
+        return samples[channel];
+    }
+
+    // Getters
+    public int getChannels() { return channels; }
+    public int getCapacity() { return capacity; }
+}
@@ -0,0 +1,64 @@
+package com.boozer.nexus.bci.signal;
+
+/**
+ * Signal Window
+ *
+ * Zero-copy view of consecutive frames of a {@link SignalRingBuffer}. A window
+ * object is reusable: point it with {@link SignalRingBuffer#view} or
+ * {@link SignalRingBuffer#latest} and read the samples in place. In the ring a
+ * channel's frames form at most two segments: {@link #firstLength()} samples
+ * from {@link #firstOffset()}, then {@link #secondLength()} samples from index 0
+ * of {@link #array(int)}.
+ *
+ * The producer may overwrite the frames while they are read; check
+ * {@link #isValid()} after reading and discard the results if it is false.
+ */
+public final class SignalWindow {
+
+    private SignalRingBuffer buffer;
+    private long start;
+    private int length;
+    private int firstOffset;
+    private int firstLength;
+
+    void set(SignalRingBuffer buffer, long start, int length) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = length;
+        this.firstOffset = (int) (start & (buffer.getCapacity() - 1));
+        this.firstLength = Math.min(length, buffer.getCapacity() - firstOffset);
+    }
+
+    /** Sample i (0 .. length - 1) of a channel */
+    public double get(int channel, int i) {
+        return buffer.channel(channel)[(int) ((start + i) & (buffer.getCapacity() - 1))];
+    }
+
+    /** Backing ring array of a channel; see the class comment for the segments */
+    public double[] array(int channel) {
+        return buffer.channel(channel);
+    }
+
+    /**
+     * Copy a channel's frames to {@code dest} from {@code offset}
+     */
+    public void copyChannel(int channel, double[] dest, int offset) {
+        double[] source = buffer.channel(channel);
+        System.arraycopy(source, firstOffset, dest, offset, firstLength);
+        System.arraycopy(source, 0, dest, offset + firstLength, length - firstLength);
+    }
+
+    /** Whether no frame of the window was overwritten so far */
+    public boolean isValid() {
+        return buffer != null && buffer.isIntact(start);
+    }
+
+    public int firstOffset() { return firstOffset; }
+    public int firstLength() { return firstLength; }
+    public int secondLength() { return length - firstLength; }
+
+    // Getters
+    public long getStart() { return start; }
+    public int getLength() { return length; }
+    public int getChannels() { return buffer.getChannels(); }
+}
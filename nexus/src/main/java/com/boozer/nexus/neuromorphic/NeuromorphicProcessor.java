@@ -1,13 +1,25 @@
 package com.boozer.nexus.neuromorphic;
 
+import com.boozer.nexus.neuromorphic.network.NetworkSnapshot;
+import com.boozer.nexus.neuromorphic.runtime.NetworkActor;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -15,13 +27,24 @@ import java.util.stream.Collectors;
  * 
  * Brain-inspired computing system with spike-based neural networks,
  * temporal processing, and adaptive learning mechanisms.
+ * 
+ * Each network is owned by a {@link NetworkActor}: every operation on it runs on
+ * the actor's turn, one at a time, so network state needs no locks, while
+ * different networks run in parallel on a shared pool.
  */
 @Service
 public class NeuromorphicProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(NeuromorphicProcessor.class);
     
-    private final Map<String, SpikingNeuralNetwork> networks = new ConcurrentHashMap<>();
+    /** Messages waiting per network before submissions are rejected */
+    private static final int INBOX_CAPACITY = 1024;
+    
+    /** Messages a network processes before yielding its thread */
+    private static final int ACTOR_BATCH_SIZE = 16;
+    
+    private final Map<String, NetworkActor<SpikingNeuralNetwork>> networks = new ConcurrentHashMap<>();
+    private final ExecutorService actorExecutor;
     private final SynapticPlasticityEngine plasticityEngine;
     private final TemporalProcessor temporalProcessor;
     private final AdaptiveLearningSystem adaptiveLearning;
@@ -31,12 +54,20 @@ public class NeuromorphicProcessor {
         this.temporalProcessor = new TemporalProcessor();
         this.adaptiveLearning = new AdaptiveLearningSystem();
         
+        AtomicInteger threads = new AtomicInteger();
+        this.actorExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "neuromorphic-actor-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
         // Initialize default networks
         initializeDefaultNetworks();
     }
     
     /**
-     * Process information using spike-based neural networks
+     * Process information using spike-based neural networks. Runs on the network's
+     * actor; the caller waits for the result.
      */
     public NeuromorphicResult processSpikes(String networkId, List<SpikeEvent> inputSpikes, NeuromorphicConfig config) {
         logger.debug("Processing {} spikes on network {}", inputSpikes.size(), networkId);
@@ -44,48 +75,129 @@ public class NeuromorphicProcessor {
         long startTime = System.currentTimeMillis();
         
         try {
-            SpikingNeuralNetwork network = networks.get(networkId);
-            if (network == null) {
-                throw new IllegalArgumentException("Network not found: " + networkId);
+            return actor(networkId).call(network -> processOnNetwork(network, inputSpikes, config));
+        } catch (Exception e) {
+            return failedResult(networkId, startTime, e);
+        }
+    }
+    
+    /**
+     * Queue a spike train on the network's actor without waiting
+     */
+    public CompletableFuture<NeuromorphicResult> processSpikesAsync(String networkId, List<SpikeEvent> inputSpikes,
+                                                                    NeuromorphicConfig config) {
+        long startTime = System.currentTimeMillis();
+        try {
+            return actor(networkId).ask(network -> processOnNetwork(network, inputSpikes, config))
+                .exceptionally(e -> failedResult(networkId, startTime, e));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failedResult(networkId, startTime, e));
+        }
+    }
+    
+    /**
+     * Queue several spike trains for one network as a single message. They are
+     * processed in order within one turn of the network's actor.
+     */
+    public CompletableFuture<List<NeuromorphicResult>> submitSpikeTrains(String networkId,
+                                                                         List<List<SpikeEvent>> spikeTrains,
+                                                                         NeuromorphicConfig config) {
+        long startTime = System.currentTimeMillis();
+        try {
+            return actor(networkId).ask(network -> {
+                List<NeuromorphicResult> results = new ArrayList<>(spikeTrains.size());
+                for (List<SpikeEvent> train : spikeTrains) {
+                    results.add(processOnNetwork(network, train, config));
+                }
+                return results;
+            }).exceptionally(e -> Collections.singletonList(failedResult(networkId, startTime, e)));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(
+                Collections.singletonList(failedResult(networkId, startTime, e)));
+        }
+    }
+    
+    /**
+     * Queue spike trains for several networks at once; the networks process
+     * their batches in parallel. Completes when every network is done.
+     */
+    public CompletableFuture<Map<String, List<NeuromorphicResult>>> processBatch(
+            Map<String, List<List<SpikeEvent>>> spikeTrainsByNetwork, NeuromorphicConfig config) {
+        Map<String, CompletableFuture<List<NeuromorphicResult>>> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, List<List<SpikeEvent>>> entry : spikeTrainsByNetwork.entrySet()) {
+            pending.put(entry.getKey(), submitSpikeTrains(entry.getKey(), entry.getValue(), config));
+        }
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<String, List<NeuromorphicResult>> results = new LinkedHashMap<>();
+            pending.forEach((networkId, future) -> results.put(networkId, future.join()));
+            return results;
+        });
+    }
+    
+    /**
+     * Message load of each network's actor
+     */
+    public Map<String, Map<String, Long>> getActorStatistics() {
+        Map<String, Map<String, Long>> statistics = new HashMap<>();
+        networks.forEach((networkId, actor) -> {
+            Map<String, Long> counts = new HashMap<>();
+            counts.put("queued", (long) actor.getQueuedMessages());
+            counts.put("processed", actor.getProcessedMessages());
+            counts.put("rejected", actor.getRejectedMessages());
+            statistics.put(networkId, counts);
+        });
+        return statistics;
+    }
+    
+    /**
+     * Stream every output spike of the network to a spike-train file until
+     * {@link #stopRecording} is called. Spikes are recorded with their
+     * timestamps, so the trains processed meanwhile must not go back in time.
+     */
+    public void startRecording(String networkId, Path file) {
+        actor(networkId).call(network -> {
+            try {
+                network.startRecording(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot record network " + networkId + " to " + file, e);
             }
-            
-            // Process temporal spike patterns
-            TemporalPattern temporalPattern = temporalProcessor.analyzeSpikes(inputSpikes);
-            
-            // Propagate spikes through network
-            List<SpikeEvent> outputSpikes = propagateSpikes(network, inputSpikes, config);
-            
-            // Apply synaptic plasticity
-            if (config.isLearningEnabled()) {
-                plasticityEngine.updateSynapses(network, inputSpikes, outputSpikes, temporalPattern);
+            return file;
+        });
+    }
+    
+    /**
+     * Close the network's recording; returns the number of spikes recorded
+     */
+    public long stopRecording(String networkId) {
+        return actor(networkId).call(network -> {
+            try {
+                return network.stopRecording();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close recording of network " + networkId, e);
             }
-            
-            // Adaptive learning
-            if (config.isAdaptiveEnabled()) {
-                adaptiveLearning.adapt(network, temporalPattern, outputSpikes);
+        });
+    }
+    
+    /**
+     * Close open recordings and stop the actor threads
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (String networkId : networks.keySet()) {
+            try {
+                stopRecording(networkId);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to close recording of network {}: {}", networkId, e.getMessage());
             }
-            
-            // Create result
-            NeuromorphicResult result = new NeuromorphicResult();
-            result.setNetworkId(networkId);
-            result.setInputSpikes(inputSpikes);
-            result.setOutputSpikes(outputSpikes);
-            result.setTemporalPattern(temporalPattern);
-            result.setProcessingTime(System.currentTimeMillis() - startTime);
-            result.setNetworkState(network.getState());
-            result.setSuccessful(true);
-            
-            return result;
-            
-        } catch (Exception e) {
-            logger.error("Neuromorphic processing failed: {}", e.getMessage(), e);
-            
-            NeuromorphicResult errorResult = new NeuromorphicResult();
-            errorResult.setNetworkId(networkId);
-            errorResult.setSuccessful(false);
-            errorResult.setProcessingTime(System.currentTimeMillis() - startTime);
-            
-            return errorResult;
+        }
+        actorExecutor.shutdown();
+        try {
+            if (!actorExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                actorExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            actorExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
     
@@ -95,10 +207,7 @@ public class NeuromorphicProcessor {
     public LearningResult learnTemporalPattern(String networkId, List<TemporalSequence> sequences, LearningConfig config) {
         logger.debug("Learning temporal patterns on network {}", networkId);
         
-        SpikingNeuralNetwork network = networks.get(networkId);
-        if (network == null) {
-            throw new IllegalArgumentException("Network not found: " + networkId);
-        }
+        NetworkActor<SpikingNeuralNetwork> actor = actor(networkId);
         
         LearningResult result = new LearningResult();
         result.setNetworkId(networkId);
@@ -120,7 +229,7 @@ public class NeuromorphicProcessor {
             }
         }
         
-        result.setLearningAccuracy(calculateLearningAccuracy(network, sequences));
+        result.setLearningAccuracy(actor.call(network -> calculateLearningAccuracy(network, sequences)));
         result.setTimestamp(LocalDateTime.now());
         
         return result;
@@ -132,10 +241,11 @@ public class NeuromorphicProcessor {
     public BrainSimulationResult simulateBrainDynamics(String networkId, BrainSimulationConfig config) {
         logger.debug("Simulating brain dynamics on network {}", networkId);
         
-        SpikingNeuralNetwork network = networks.get(networkId);
-        if (network == null) {
-            throw new IllegalArgumentException("Network not found: " + networkId);
-        }
+        return actor(networkId).call(network -> simulateBrainDynamics(network, config));
+    }
+    
+    private BrainSimulationResult simulateBrainDynamics(SpikingNeuralNetwork network, BrainSimulationConfig config) {
+        String networkId = network.getNetworkId();
         
         BrainSimulationResult result = new BrainSimulationResult();
         result.setNetworkId(networkId);
@@ -170,22 +280,66 @@ public class NeuromorphicProcessor {
         String networkId = UUID.randomUUID().toString();
         
         SpikingNeuralNetwork network = new SpikingNeuralNetwork(networkId, topology, neuronConfig);
-        networks.put(networkId, network);
+        networks.put(networkId, new NetworkActor<>(networkId, network, actorExecutor, INBOX_CAPACITY,
+            ACTOR_BATCH_SIZE));
         
         logger.info("Created neuromorphic network {} with {} neurons", networkId, topology.getNeuronCount());
         
         return networkId;
     }
     
+    /**
+     * Write the network's topology, parameters, learned synapses and neuron state
+     * to a snapshot file
+     */
+    public void saveSnapshot(String networkId, Path file) {
+        actor(networkId).call(network -> {
+            try {
+                network.snapshot().write(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write snapshot of network " + networkId + " to " + file, e);
+            }
+            return file;
+        });
+        
+        logger.info("Saved snapshot of network {} to {}", networkId, file);
+    }
+    
+    /**
+     * Register a network restored from a snapshot file, checksums verified
+     */
+    public String restoreNetwork(Path file) {
+        NetworkSnapshot snapshot;
+        try {
+            snapshot = NetworkSnapshot.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot restore network from " + file, e);
+        }
+        String networkId = UUID.randomUUID().toString();
+        SpikingNeuralNetwork network = new SpikingNeuralNetwork(networkId, snapshot);
+        networks.put(networkId, new NetworkActor<>(networkId, network, actorExecutor, INBOX_CAPACITY,
+            ACTOR_BATCH_SIZE));
+        
+        logger.info("Restored neuromorphic network {} with {} neurons from {}", networkId,
+            snapshot.getNeuronCount(), file);
+        
+        return networkId;
+    }
+    
     /**
      * Get network information
      */
     public NetworkInfo getNetworkInfo(String networkId) {
-        SpikingNeuralNetwork network = networks.get(networkId);
-        if (network == null) {
+        NetworkActor<SpikingNeuralNetwork> actor = networks.get(networkId);
+        if (actor == null) {
             return null;
         }
         
+        return actor.call(this::describeNetwork);
+    }
+    
+    private NetworkInfo describeNetwork(SpikingNeuralNetwork network) {
+        String networkId = network.getNetworkId();
         NetworkInfo info = new NetworkInfo();
         info.setNetworkId(networkId);
         info.setNeuronCount(network.getNeuronCount());
@@ -199,6 +353,66 @@ public class NeuromorphicProcessor {
     
     // Private helper methods
     
+    private NetworkActor<SpikingNeuralNetwork> actor(String networkId) {
+        NetworkActor<SpikingNeuralNetwork> actor = networks.get(networkId);
+        if (actor == null) {
+            throw new IllegalArgumentException("Network not found: " + networkId);
+        }
+        return actor;
+    }
+    
+    /**
+     * Process one spike train; runs on the network's actor
+     */
+    private NeuromorphicResult processOnNetwork(SpikingNeuralNetwork network, List<SpikeEvent> inputSpikes,
+                                                NeuromorphicConfig config) {
+        long startTime = System.currentTimeMillis();
+        
+        // Sort once: the analyzer resets its window on a backwards timestamp, and
+        // propagation and plasticity expect time order too
+        List<SpikeEvent> sortedSpikes = sortByTime(inputSpikes);
+        
+        // Update the network's running temporal pattern with this train
+        TemporalPattern temporalPattern = temporalProcessor.analyzeSpikes(network.getTemporalAnalyzer(), sortedSpikes);
+        
+        // Propagate spikes through network
+        List<SpikeEvent> outputSpikes = propagateSpikes(network, sortedSpikes, config);
+        
+        // Apply synaptic plasticity
+        if (config.isLearningEnabled()) {
+            plasticityEngine.updateSynapses(network, sortedSpikes, outputSpikes, temporalPattern);
+        }
+        
+        // Adaptive learning
+        if (config.isAdaptiveEnabled()) {
+            adaptiveLearning.adapt(network, temporalPattern, outputSpikes);
+        }
+        
+        // Create result
+        NeuromorphicResult result = new NeuromorphicResult();
+        result.setNetworkId(network.getNetworkId());
+        result.setInputSpikes(inputSpikes);
+        result.setOutputSpikes(outputSpikes);
+        result.setTemporalPattern(temporalPattern);
+        result.setProcessingTime(System.currentTimeMillis() - startTime);
+        result.setNetworkState(network.getState());
+        result.setSuccessful(true);
+        
+        return result;
+    }
+    
+    private NeuromorphicResult failedResult(String networkId, long startTime, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        logger.error("Neuromorphic processing failed: {}", cause.getMessage(), cause);
+        
+        NeuromorphicResult errorResult = new NeuromorphicResult();
+        errorResult.setNetworkId(networkId);
+        errorResult.setSuccessful(false);
+        errorResult.setProcessingTime(System.currentTimeMillis() - startTime);
+        
+        return errorResult;
+    }
+    
     private void initializeDefaultNetworks() {
         // Create cortical network
         NetworkTopology corticalTopology = new NetworkTopology("cortical", 1000, 0.1, true);
@@ -213,21 +427,19 @@ public class NeuromorphicProcessor {
         logger.info("Initialized default neuromorphic networks");
     }
     
-    private List<SpikeEvent> propagateSpikes(SpikingNeuralNetwork network, List<SpikeEvent> inputSpikes, NeuromorphicConfig config) {
-        List<SpikeEvent> outputSpikes = new ArrayList<>();
-        
-        // Sort spikes by timestamp
-        List<SpikeEvent> sortedSpikes = inputSpikes.stream()
+    /**
+     * Spikes sorted by timestamp
+     */
+    private static List<SpikeEvent> sortByTime(List<SpikeEvent> spikes) {
+        return spikes.stream()
             .sorted(Comparator.comparing(SpikeEvent::getTimestamp))
             .collect(Collectors.toList());
-        
-        // Simulate spike propagation
-        for (SpikeEvent spike : sortedSpikes) {
-            List<SpikeEvent> propagatedSpikes = network.propagateSpike(spike, config);
-            outputSpikes.addAll(propagatedSpikes);
-        }
-        
-        return outputSpikes;
+    }
+    
+    private List<SpikeEvent> propagateSpikes(SpikingNeuralNetwork network, List<SpikeEvent> sortedSpikes, NeuromorphicConfig config) {
+        // Event-driven propagation through the spike queue, or the fixed-timestep
+        // simulator when the config selects the clock_driven processing mode
+        return network.propagateSpikes(sortedSpikes, config);
     }
     
     private List<SpikeEvent> convertSequenceToSpikes(TemporalSequence sequence) {
@@ -262,7 +474,7 @@ public class NeuromorphicProcessor {
             NeuromorphicConfig testConfig = new NeuromorphicConfig();
             testConfig.setLearningEnabled(false);
             
-            List<SpikeEvent> outputSpikes = propagateSpikes(network, inputSpikes, testConfig);
+            List<SpikeEvent> outputSpikes = propagateSpikes(network, sortByTime(inputSpikes), testConfig);
             
             // Calculate prediction accuracy
             double accuracy = calculateSequenceAccuracy(sequence, outputSpikes);
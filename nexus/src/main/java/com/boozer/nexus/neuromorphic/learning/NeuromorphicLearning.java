@@ -2,6 +2,7 @@ package com.boozer.nexus.neuromorphic.learning;
 
 import com.boozer.nexus.neuromorphic.models.*;
 import com.boozer.nexus.neuromorphic.network.*;
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,13 +12,16 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * Synaptic Plasticity Engine
  * 
- * Implements various forms of synaptic plasticity including Hebbian learning,
- * spike-timing dependent plasticity (STDP), and homeostatic mechanisms.
+ * Implements synaptic plasticity on the network's synapse weights: trace-based
+ * spike-timing dependent plasticity (STDP), homeostatic scaling and metaplasticity.
  */
 class SynapticPlasticityEngine {
     
     private static final Logger logger = LoggerFactory.getLogger(SynapticPlasticityEngine.class);
     
+    private static final double TARGET_FIRING_RATE = 10.0; // Hz
+    private static final double HOMEOSTATIC_RATE = 0.0001;
+    
     /**
      * Update synapses based on spike patterns
      */
@@ -25,11 +29,8 @@ class SynapticPlasticityEngine {
                               List<SpikeEvent> outputSpikes, TemporalPattern pattern) {
         logger.debug("Updating synapses for network {}", network.getNetworkId());
         
-        // Apply Hebbian learning
-        applyHebbianLearning(network, inputSpikes, outputSpikes);
-        
         // Apply STDP
-        applySTDP(network, inputSpikes, outputSpikes);
+        applySTDP(network, outputSpikes);
         
         // Apply homeostatic plasticity
         applyHomeostaticPlasticity(network, pattern);
@@ -39,60 +40,39 @@ class SynapticPlasticityEngine {
     }
     
     /**
-     * Apply Hebbian learning rule
+     * Apply Spike-Timing Dependent Plasticity (STDP) with per-neuron traces.
+     * Every spike the network emitted updates the synapses into and out of its
+     * neuron; inputs shape the weights through the spikes they cause.
      */
-    private void applyHebbianLearning(SpikingNeuralNetwork network, List<SpikeEvent> inputSpikes, List<SpikeEvent> outputSpikes) {
-        double learningRate = 0.001;
-        
-        // Create spike correlation matrix
-        Map<String, Double> correlations = calculateSpikeCorrelations(inputSpikes, outputSpikes);
-        
-        // Update synaptic weights based on correlations
-        for (Map.Entry<String, Double> entry : correlations.entrySet()) {
-            String[] neuronPair = entry.getKey().split("-");
-            int preNeuron = Integer.parseInt(neuronPair[0]);
-            int postNeuron = Integer.parseInt(neuronPair[1]);
-            double correlation = entry.getValue();
-            
-            // Find synapse and update weight
-            updateSynapticWeight(network, preNeuron, postNeuron, learningRate * correlation);
+    private void applySTDP(SpikingNeuralNetwork network, List<SpikeEvent> outputSpikes) {
+        if (outputSpikes.isEmpty()) {
+            return;
         }
-    }
-    
-    /**
-     * Apply Spike-Timing Dependent Plasticity (STDP)
-     */
-    private void applySTDP(SpikingNeuralNetwork network, List<SpikeEvent> inputSpikes, List<SpikeEvent> outputSpikes) {
-        double timeWindow = 20.0; // 20ms window
-        double maxWeight = 0.01;
-        
-        for (SpikeEvent preSpike : inputSpikes) {
-            for (SpikeEvent postSpike : outputSpikes) {
-                double timeDiff = postSpike.getTimestamp() - preSpike.getTimestamp();
-                
-                if (Math.abs(timeDiff) <= timeWindow) {
-                    double weightChange = calculateSTDPWeightChange(timeDiff, maxWeight);
-                    updateSynapticWeight(network, preSpike.getNeuronId(), postSpike.getNeuronId(), weightChange);
-                }
-            }
+        SpikeBuffer spikes = new SpikeBuffer(outputSpikes.size());
+        for (SpikeEvent spike : outputSpikes) {
+            spikes.add(spike.getTimestamp(), spike.getNeuronId(), spike.getAmplitude());
         }
+        
+        StdpLearner stdp = network.getStdp();
+        long nanos = stdp.getLearningNanos();
+        stdp.learn(spikes);
+        double seconds = (stdp.getLearningNanos() - nanos) / 1e9;
+        logger.debug("STDP on network {}: {} spikes in {} us ({} spikes/s overall)", network.getNetworkId(),
+            spikes.size(), (long) (seconds * 1e6), (long) stdp.spikesPerSecond());
     }
     
     /**
      * Apply homeostatic plasticity
      */
     private void applyHomeostaticPlasticity(SpikingNeuralNetwork network, TemporalPattern pattern) {
-        double targetFiringRate = 10.0; // Hz
-        double homeostaticRate = 0.0001;
-        
         // Adjust synaptic weights to maintain target firing rate
         NetworkState state = network.getState();
         double currentRate = state.getAverageFiringRate();
         
-        double scalingFactor = 1.0 + homeostaticRate * (targetFiringRate - currentRate) / targetFiringRate;
+        double scalingFactor = 1.0 + HOMEOSTATIC_RATE * (TARGET_FIRING_RATE - currentRate) / TARGET_FIRING_RATE;
         
-        // Apply global scaling to all synapses
-        scaleAllSynapses(network, scalingFactor);
+        // Apply global scaling to all synapses in one sweep
+        network.getStdp().scaleWeights(scalingFactor);
     }
     
     /**
@@ -103,92 +83,87 @@ class SynapticPlasticityEngine {
         
         if (pattern.getFrequency() > activityThreshold) {
             // Reduce plasticity during high activity
-            modulatePlasticity(network, 0.8);
+            network.getSynapses().scalePlasticity(0.8);
         } else {
             // Increase plasticity during low activity
-            modulatePlasticity(network, 1.2);
+            network.getSynapses().scalePlasticity(1.2);
         }
     }
+}
+
+/**
+ * Temporal Processor
+ * 
+ * Analyzes temporal patterns in spike trains and neural activity. Metrics come
+ * from a {@link StreamingTemporalAnalyzer}: a network keeps one that follows its
+ * continuous input, and a standalone spike list gets a fresh one sized to it.
+ */
+class TemporalProcessor {
     
-    /**
-     * Calculate spike correlations
-     */
-    private Map<String, Double> calculateSpikeCorrelations(List<SpikeEvent> inputSpikes, List<SpikeEvent> outputSpikes) {
-        Map<String, Double> correlations = new HashMap<>();
-        double timeWindow = 10.0; // 10ms correlation window
-        
-        for (SpikeEvent inputSpike : inputSpikes) {
-            for (SpikeEvent outputSpike : outputSpikes) {
-                if (Math.abs(outputSpike.getTimestamp() - inputSpike.getTimestamp()) <= timeWindow) {
-                    String key = inputSpike.getNeuronId() + "-" + outputSpike.getNeuronId();
-                    double correlation = inputSpike.getAmplitude() * outputSpike.getAmplitude();
-                    correlations.put(key, correlations.getOrDefault(key, 0.0) + correlation);
-                }
-            }
-        }
-        
-        return correlations;
-    }
+    private static final Logger logger = LoggerFactory.getLogger(TemporalProcessor.class);
+    
+    /** Most spectrum bins for a standalone spike list; longer lists get wider bins */
+    private static final long MAX_BATCH_BINS = 4096;
     
     /**
-     * Calculate STDP weight change
+     * Analyze a standalone spike list in one pass; the list may be in any order
      */
-    private double calculateSTDPWeightChange(double timeDiff, double maxWeight) {
-        double tau = 10.0; // Time constant
+    public TemporalPattern analyzeSpikes(List<SpikeEvent> spikes) {
+        logger.debug("Analyzing temporal pattern from {} spikes", spikes.size());
+        List<SpikeEvent> sorted = inTimeOrder(spikes);
         
-        if (timeDiff > 0) {
-            // Post before pre - depression
-            return -maxWeight * Math.exp(-timeDiff / tau);
-        } else {
-            // Pre before post - potentiation
-            return maxWeight * Math.exp(timeDiff / tau);
+        long duration = sorted.size() > 1 ? 
+            Math.max(0, sorted.get(sorted.size() - 1).getTimestamp() - sorted.get(0).getTimestamp()) : 0;
+        long bin = Math.max(StreamingTemporalAnalyzer.DEFAULT_BIN, (duration + MAX_BATCH_BINS) / MAX_BATCH_BINS);
+        long window = Math.max(StreamingTemporalAnalyzer.DEFAULT_WINDOW, duration + 1 + bin);
+        StreamingTemporalAnalyzer analyzer = new StreamingTemporalAnalyzer(window, bin, 
+            StreamingTemporalAnalyzer.DEFAULT_BURST_INTERVAL, StreamingTemporalAnalyzer.DEFAULT_MIN_BURST_SPIKES);
+        
+        for (SpikeEvent spike : sorted) {
+            analyzer.onSpike(spike.getTimestamp(), spike.getAmplitude());
         }
+        if (!sorted.isEmpty()) {
+            // Close the last spectrum bin
+            analyzer.advanceTo(sorted.get(sorted.size() - 1).getTimestamp() + bin);
+        }
+        
+        return describe(analyzer, sorted);
     }
     
     /**
-     * Update synaptic weight
-     */
-    private void updateSynapticWeight(SpikingNeuralNetwork network, int preNeuron, int postNeuron, double weightChange) {
-        // This would update the actual synapse in the network
-        // Implementation depends on network structure
-        logger.trace("Updating synapse {}->{} with change {}", preNeuron, postNeuron, weightChange);
-    }
-    
-    /**
-     * Scale all synapses
+     * Feed time-ordered spikes to a running analyzer and describe its current
+     * window; each spike updates the metrics in O(1). A spike earlier than the
+     * analyzer's last one resets its window, so sort the train first.
      */
-    private void scaleAllSynapses(SpikingNeuralNetwork network, double scalingFactor) {
-        // Scale all synaptic weights by the factor
-        logger.trace("Scaling all synapses by factor {}", scalingFactor);
+    public TemporalPattern analyzeSpikes(StreamingTemporalAnalyzer analyzer, List<SpikeEvent> spikes) {
+        for (SpikeEvent spike : spikes) {
+            analyzer.onSpike(spike.getTimestamp(), spike.getAmplitude());
+        }
+        
+        return describe(analyzer, spikes);
     }
     
     /**
-     * Modulate plasticity levels
+     * The spikes sorted by timestamp; an already sorted list is returned as is
      */
-    private void modulatePlasticity(SpikingNeuralNetwork network, double modulation) {
-        // Adjust plasticity parameters
-        logger.trace("Modulating plasticity by factor {}", modulation);
+    private static List<SpikeEvent> inTimeOrder(List<SpikeEvent> spikes) {
+        for (int i = 1; i < spikes.size(); i++) {
+            if (spikes.get(i).getTimestamp() < spikes.get(i - 1).getTimestamp()) {
+                List<SpikeEvent> sorted = new ArrayList<>(spikes);
+                sorted.sort(Comparator.comparingLong(SpikeEvent::getTimestamp));
+                return sorted;
+            }
+        }
+        return spikes;
     }
-}
-
-/**
- * Temporal Processor
- * 
- * Analyzes temporal patterns in spike trains and neural activity.
- */
-class TemporalProcessor {
-    
-    private static final Logger logger = LoggerFactory.getLogger(TemporalProcessor.class);
     
     /**
-     * Analyze spike patterns
+     * Temporal pattern of the analyzer's window; spike times are those of the batch
      */
-    public TemporalPattern analyzeSpikes(List<SpikeEvent> spikes) {
-        logger.debug("Analyzing temporal pattern from {} spikes", spikes.size());
-        
+    private TemporalPattern describe(StreamingTemporalAnalyzer analyzer, List<SpikeEvent> spikes) {
         TemporalPattern pattern = new TemporalPattern();
         
-        if (spikes.isEmpty()) {
+        if (analyzer.getSpikeCount() == 0) {
             pattern.setPatternType("silent");
             pattern.setFrequency(0.0);
             pattern.setAmplitude(0.0);
@@ -197,99 +172,32 @@ class TemporalProcessor {
         }
         
         // Extract spike times
-        List<Long> spikeTimes = new ArrayList<>();
+        List<Long> spikeTimes = new ArrayList<>(spikes.size());
         for (SpikeEvent spike : spikes) {
             spikeTimes.add(spike.getTimestamp());
         }
         pattern.setSpikeTimes(spikeTimes);
         
-        // Calculate frequency
-        double frequency = calculateDominantFrequency(spikes);
+        // Dominant oscillation, or the firing rate when no spectral peak stands out
+        double dominant = analyzer.dominantFrequency();
+        double frequency = dominant > 0 ? dominant : analyzer.intervalRate();
         pattern.setFrequency(frequency);
+        pattern.setAmplitude(analyzer.meanAmplitude());
+        pattern.setPhase(analyzer.dominantPhase());
         
-        // Calculate amplitude
-        double amplitude = calculateAverageAmplitude(spikes);
-        pattern.setAmplitude(amplitude);
-        
-        // Calculate phase
-        double phase = calculatePhase(spikes);
-        pattern.setPhase(phase);
-        
-        // Calculate coherence
-        double coherence = calculateCoherence(spikes);
-        pattern.setCoherence(coherence);
+        // Higher coherence = lower coefficient of variation of the intervals
+        pattern.setCoherence(analyzer.regularity());
         
         // Determine pattern type
-        String patternType = classifyPattern(frequency, amplitude, coherence);
+        String patternType = classifyPattern(frequency, pattern.getAmplitude(), pattern.getCoherence());
         pattern.setPatternType(patternType);
         
         // Extract features
-        Map<String, Double> features = extractTemporalFeatures(spikes);
-        pattern.setFeatures(features);
+        pattern.setFeatures(extractTemporalFeatures(analyzer, dominant));
         
         return pattern;
     }
     
-    /**
-     * Calculate dominant frequency
-     */
-    private double calculateDominantFrequency(List<SpikeEvent> spikes) {
-        if (spikes.size() < 2) return 0.0;
-        
-        // Calculate inter-spike intervals
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < spikes.size(); i++) {
-            double interval = (spikes.get(i).getTimestamp() - spikes.get(i - 1).getTimestamp()) / 1000.0; // Convert to seconds
-            intervals.add(interval);
-        }
-        
-        // Calculate mean interval
-        double meanInterval = intervals.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        
-        return meanInterval > 0 ? 1.0 / meanInterval : 0.0; // Frequency = 1/period
-    }
-    
-    /**
-     * Calculate average amplitude
-     */
-    private double calculateAverageAmplitude(List<SpikeEvent> spikes) {
-        return spikes.stream().mapToDouble(SpikeEvent::getAmplitude).average().orElse(0.0);
-    }
-    
-    /**
-     * Calculate phase
-     */
-    private double calculatePhase(List<SpikeEvent> spikes) {
-        if (spikes.isEmpty()) return 0.0;
-        
-        // Use first spike time to calculate phase
-        long firstSpikeTime = spikes.get(0).getTimestamp();
-        return (firstSpikeTime % 1000) / 1000.0 * 2 * Math.PI; // Phase within 1 second cycle
-    }
-    
-    /**
-     * Calculate coherence
-     */
-    private double calculateCoherence(List<SpikeEvent> spikes) {
-        if (spikes.size() < 2) return 0.0;
-        
-        // Calculate coefficient of variation of inter-spike intervals
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < spikes.size(); i++) {
-            double interval = spikes.get(i).getTimestamp() - spikes.get(i - 1).getTimestamp();
-            intervals.add(interval);
-        }
-        
-        double mean = intervals.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        double variance = intervals.stream().mapToDouble(x -> Math.pow(x - mean, 2)).average().orElse(0.0);
-        double stdDev = Math.sqrt(variance);
-        
-        double cv = mean > 0 ? stdDev / mean : 0.0;
-        
-        // Higher coherence = lower coefficient of variation
-        return 1.0 / (1.0 + cv);
-    }
-    
     /**
      * Classify pattern type
      */
@@ -312,70 +220,31 @@ class TemporalProcessor {
     }
     
     /**
-     * Extract temporal features
+     * Extract temporal features of the analyzer's window
      */
-    private Map<String, Double> extractTemporalFeatures(List<SpikeEvent> spikes) {
+    private Map<String, Double> extractTemporalFeatures(StreamingTemporalAnalyzer analyzer, double dominant) {
         Map<String, Double> features = new HashMap<>();
         
-        if (spikes.isEmpty()) {
-            return features;
-        }
-        
         // Basic statistics
-        features.put("spike_count", (double) spikes.size());
-        features.put("duration", (double) (spikes.get(spikes.size() - 1).getTimestamp() - spikes.get(0).getTimestamp()));
-        features.put("firing_rate", features.get("spike_count") / (features.get("duration") / 1000.0));
+        double duration = analyzer.span();
+        features.put("spike_count", (double) analyzer.getSpikeCount());
+        features.put("duration", duration);
+        features.put("firing_rate", duration > 0 ? analyzer.getSpikeCount() / (duration / 1000.0) : 0.0);
         
         // Amplitude statistics
-        List<Double> amplitudes = spikes.stream().mapToDouble(SpikeEvent::getAmplitude).boxed().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-        features.put("mean_amplitude", amplitudes.stream().mapToDouble(Double::doubleValue).average().orElse(0.0));
-        features.put("max_amplitude", amplitudes.stream().mapToDouble(Double::doubleValue).max().orElse(0.0));
-        features.put("min_amplitude", amplitudes.stream().mapToDouble(Double::doubleValue).min().orElse(0.0));
+        features.put("mean_amplitude", analyzer.meanAmplitude());
+        features.put("max_amplitude", analyzer.maxAmplitude());
+        features.put("min_amplitude", analyzer.minAmplitude());
         
         // Temporal regularity
-        features.put("regularity", calculateRegularity(spikes));
-        features.put("burstiness", calculateBurstiness(spikes));
+        features.put("regularity", analyzer.regularity());
+        features.put("burstiness", analyzer.burstiness());
+        features.put("burst_count", (double) analyzer.getBurstCount());
+        features.put("burst_fraction", analyzer.burstFraction());
+        features.put("dominant_frequency", dominant);
         
         return features;
     }
-    
-    /**
-     * Calculate regularity of spike train
-     */
-    private double calculateRegularity(List<SpikeEvent> spikes) {
-        if (spikes.size() < 3) return 0.0;
-        
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < spikes.size(); i++) {
-            double interval = spikes.get(i).getTimestamp() - spikes.get(i - 1).getTimestamp();
-            intervals.add(interval);
-        }
-        
-        double mean = intervals.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        double variance = intervals.stream().mapToDouble(x -> Math.pow(x - mean, 2)).average().orElse(0.0);
-        
-        return mean > 0 ? 1.0 / (1.0 + Math.sqrt(variance) / mean) : 0.0;
-    }
-    
-    /**
-     * Calculate burstiness of spike train
-     */
-    private double calculateBurstiness(List<SpikeEvent> spikes) {
-        if (spikes.size() < 2) return 0.0;
-        
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < spikes.size(); i++) {
-            double interval = spikes.get(i).getTimestamp() - spikes.get(i - 1).getTimestamp();
-            intervals.add(interval);
-        }
-        
-        double mean = intervals.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        double variance = intervals.stream().mapToDouble(x -> Math.pow(x - mean, 2)).average().orElse(0.0);
-        double stdDev = Math.sqrt(variance);
-        
-        // Burstiness index
-        return mean > 0 ? (stdDev - mean) / (stdDev + mean) : 0.0;
-    }
 }
 
 /**
@@ -0,0 +1,219 @@
+package com.boozer.nexus.neuromorphic.learning;
+
+import com.boozer.nexus.neuromorphic.network.SynapseMatrix;
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
+
+import java.util.Arrays;
+
+/**
+ * STDP Learner
+ *
+ * Online pair-based spike-timing dependent plasticity with one presynaptic and
+ * one postsynaptic trace per neuron. A trace jumps by one at each spike of its
+ * neuron and decays with its time constant, so it sums the contributions of all
+ * earlier spikes without keeping them. When neuron i spikes at time t:
+ *
+ * - every incoming synapse p → i is potentiated by A+ · x_p(t) (pre before post)
+ * - every outgoing synapse i → j is depressed by A− · y_j(t) (post before pre)
+ *
+ * Each change is scaled by the synapse plasticity and written straight into the
+ * {@link SynapseMatrix} weight array, clipped to [minWeight, maxWeight]. A spike
+ * therefore costs O(in-degree + out-degree), and learning cost grows linearly
+ * with activity. Traces decay lazily: a neuron's traces are brought forward only
+ * when it spikes or a neighbour reads them, with decay factors precomputed per
+ * whole time step.
+ *
+ * Spikes must arrive in time order; a spike earlier than the previous one starts
+ * a new episode and clears the traces. Not thread safe.
+ */
+public class StdpLearner {
+
+    /** Decay factors are tabulated up to this many time constants */
+    private static final int TABLE_TIME_CONSTANTS = 8;
+
+    private final SynapseMatrix synapses;
+    private final int[] incomingOffsets;
+    private final int[] incomingSynapses;
+    private final int[] presynaptic;
+
+    private final double potentiation;
+    private final double depression;
+    private final double tauPlus;
+    private final double tauMinus;
+    private final double[] decayPlus;
+    private final double[] decayMinus;
+    private double minWeight = -1.0;
+    private double maxWeight = 1.0;
+
+    private final double[] preTrace;
+    private final double[] postTrace;
+    private final long[] lastSpike;
+    private long currentTime = Long.MIN_VALUE;
+
+    private long spikesProcessed;
+    private long synapsesUpdated;
+    private long learningNanos;
+
+    public StdpLearner(SynapseMatrix synapses) {
+        this(synapses, 0.01, 0.0105, 10.0, 10.0);
+    }
+
+    /**
+     * Learner with amplitudes A+ and A− and trace time constants in timestamp units
+     */
+    public StdpLearner(SynapseMatrix synapses, double potentiation, double depression,
+                       double tauPlus, double tauMinus) {
+        if (tauPlus <= 0.0 || tauMinus <= 0.0) {
+            throw new IllegalArgumentException("STDP time constants must be positive");
+        }
+        this.synapses = synapses;
+        this.potentiation = potentiation;
+        this.depression = depression;
+        this.tauPlus = tauPlus;
+        this.tauMinus = tauMinus;
+        this.decayPlus = decayTable(tauPlus);
+        this.decayMinus = decayTable(tauMinus);
+
+        // Transpose the CSR rows into incoming synapse lists
+        int n = synapses.getNumNeurons();
+        int[] rowOffsets = synapses.getRowOffsets();
+        int[] targets = synapses.getTargets();
+        this.incomingOffsets = new int[n + 1];
+        for (int target : targets) {
+            incomingOffsets[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            incomingOffsets[i + 1] += incomingOffsets[i];
+        }
+        int[] fill = Arrays.copyOf(incomingOffsets, n);
+        this.incomingSynapses = new int[targets.length];
+        this.presynaptic = new int[targets.length];
+        for (int pre = 0; pre < n; pre++) {
+            for (int k = rowOffsets[pre]; k < rowOffsets[pre + 1]; k++) {
+                int slot = fill[targets[k]]++;
+                incomingSynapses[slot] = k;
+                presynaptic[slot] = pre;
+            }
+        }
+
+        this.preTrace = new double[n];
+        this.postTrace = new double[n];
+        this.lastSpike = new long[n];
+    }
+
+    /**
+     * Apply the spike of a neuron to its incoming and outgoing synapses
+     */
+    public void onSpike(int neuron, long time) {
+        long start = System.nanoTime();
+        apply(neuron, time);
+        learningNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Apply a time-ordered batch of spikes
+     */
+    public void learn(SpikeBuffer spikes) {
+        long start = System.nanoTime();
+        for (int k = 0; k < spikes.size(); k++) {
+            apply(spikes.neuron(k), spikes.time(k));
+        }
+        learningNanos += System.nanoTime() - start;
+    }
+
+    private void apply(int neuron, long time) {
+        if (neuron < 0 || neuron >= preTrace.length) {
+            return;
+        }
+        if (time < currentTime) {
+            resetTraces();
+        }
+        currentTime = time;
+
+        double[] weights = synapses.getWeights();
+        double[] plasticity = synapses.getPlasticity();
+
+        // Pre before post: potentiate incoming synapses by the presynaptic traces
+        for (int s = incomingOffsets[neuron]; s < incomingOffsets[neuron + 1]; s++) {
+            int pre = presynaptic[s];
+            double trace = preTrace[pre];
+            if (trace != 0.0) {
+                trace *= decay(decayPlus, tauPlus, time - lastSpike[pre]);
+                int k = incomingSynapses[s];
+                weights[k] = clip(weights[k] + potentiation * plasticity[k] * trace);
+            }
+        }
+
+        // Post before pre: depress outgoing synapses by the postsynaptic traces
+        int[] rowOffsets = synapses.getRowOffsets();
+        int[] targets = synapses.getTargets();
+        for (int k = rowOffsets[neuron]; k < rowOffsets[neuron + 1]; k++) {
+            int post = targets[k];
+            double trace = postTrace[post];
+            if (trace != 0.0) {
+                trace *= decay(decayMinus, tauMinus, time - lastSpike[post]);
+                weights[k] = clip(weights[k] - depression * plasticity[k] * trace);
+            }
+        }
+
+        long elapsed = time - lastSpike[neuron];
+        preTrace[neuron] = preTrace[neuron] * decay(decayPlus, tauPlus, elapsed) + 1.0;
+        postTrace[neuron] = postTrace[neuron] * decay(decayMinus, tauMinus, elapsed) + 1.0;
+        lastSpike[neuron] = time;
+
+        spikesProcessed++;
+        synapsesUpdated += (incomingOffsets[neuron + 1] - incomingOffsets[neuron]) + synapses.outDegree(neuron);
+    }
+
+    /**
+     * Homeostatic synaptic scaling: one sweep over all weights
+     */
+    public void scaleWeights(double factor) {
+        synapses.scaleWeights(factor, minWeight, maxWeight);
+    }
+
+    /**
+     * Forget every trace, as if no neuron had spiked yet
+     */
+    public void resetTraces() {
+        Arrays.fill(preTrace, 0.0);
+        Arrays.fill(postTrace, 0.0);
+        Arrays.fill(lastSpike, 0L);
+        currentTime = Long.MIN_VALUE;
+    }
+
+    /**
+     * Learning throughput since creation, in spikes per second of learning time
+     */
+    public double spikesPerSecond() {
+        return learningNanos > 0 ? spikesProcessed * 1e9 / learningNanos : 0.0;
+    }
+
+    private double clip(double weight) {
+        return Math.min(maxWeight, Math.max(minWeight, weight));
+    }
+
+    private static double decay(double[] table, double tau, long elapsed) {
+        return elapsed < table.length ? table[(int) elapsed] : Math.exp(-elapsed / tau);
+    }
+
+    private static double[] decayTable(double tau) {
+        double[] table = new double[(int) Math.ceil(TABLE_TIME_CONSTANTS * tau) + 1];
+        for (int t = 0; t < table.length; t++) {
+            table[t] = Math.exp(-t / tau);
+        }
+        return table;
+    }
+
+    // Getters and Setters
+    public SynapseMatrix getSynapses() { return synapses; }
+    public long getSpikesProcessed() { return spikesProcessed; }
+    public long getSynapsesUpdated() { return synapsesUpdated; }
+    public long getLearningNanos() { return learningNanos; }
+
+    public double getMinWeight() { return minWeight; }
+    public void setMinWeight(double minWeight) { this.minWeight = minWeight; }
+
+    public double getMaxWeight() { return maxWeight; }
+    public void setMaxWeight(double maxWeight) { this.maxWeight = maxWeight; }
+}
@@ -0,0 +1,525 @@
+package com.boozer.nexus.neuromorphic.learning;
+
+import java.util.Arrays;
+
+/**
+ * Streaming Temporal Analyzer
+ *
+ * Temporal pattern metrics of a spike stream over a sliding window, updated as
+ * spikes arrive instead of re-scanning a spike list:
+ *
+ * - Inter-spike intervals: exact running sums for mean, variance, regularity
+ *   and burstiness, plus a histogram with power-of-two bins (ms)
+ * - Amplitudes: running mean and monotonic queues for the window min and max
+ * - Spectrum: spike counts per bin feed a sliding DFT bank over the window,
+ *   one complex update per frequency when a bin completes, so the dominant
+ *   frequency and its phase are read without a transform. The bank is
+ *   recomputed exactly once per window length to cancel rounding drift.
+ * - Bursts: runs of at least {@code minBurstSpikes} spikes separated by at most
+ *   {@code burstInterval} ms, detected as the run closes
+ *
+ * A spike costs O(1) amortised plus O(window / bin) per completed bin. Times are
+ * in ms and must not decrease; a spike earlier than the previous one starts a
+ * new stream (the analyzer resets). Not thread safe.
+ */
+public class StreamingTemporalAnalyzer {
+
+    public static final long DEFAULT_WINDOW = 1000;
+    public static final long DEFAULT_BIN = 5;
+    public static final long DEFAULT_BURST_INTERVAL = 10;
+    public static final int DEFAULT_MIN_BURST_SPIKES = 3;
+
+    /** Spectral peak must exceed the median power by this factor to count as an oscillation */
+    private static final double PEAK_RATIO = 12.0;
+    /** Harmonics of a spike train carry power like its fundamental; take the lowest this close to the peak */
+    private static final double HARMONIC_RATIO = 0.5;
+    private static final int ISI_BINS = 48;
+
+    private final long window;
+    private final long binWidth;
+    private final long burstInterval;
+    private final int minBurstSpikes;
+
+    // Spikes in the window: ring indexed by sequence number
+    private long[] times = new long[64];
+    private double[] amplitudes = new double[64];
+    private long head;
+    private long tail;
+    private long end = Long.MIN_VALUE;
+    private final LongRing maxQueue = new LongRing();
+    private final LongRing minQueue = new LongRing();
+
+    // Running window statistics
+    private long intervalSum;
+    private long intervalSquares;
+    private double amplitudeSum;
+    private final long[] isiHistogram = new long[ISI_BINS];
+    private long totalSpikes;
+
+    // Sliding DFT over the last `bins` completed bins
+    private final int bins;
+    private final int frequencies;
+    private final double[] binCounts;
+    private final double[] cosTable;
+    private final double[] sinTable;
+    private final double[] real;
+    private final double[] imaginary;
+    private final double[] power;
+    private int peak = -1;
+    private long currentBin = Long.MIN_VALUE;
+    private double pendingCount;
+    private long committedBins;
+    private double spectrumSpikes;
+
+    // Bursts: closed bursts in the window as (end time, spike count), plus the open run
+    private final LongRing burstEnds = new LongRing();
+    private final LongRing burstSizes = new LongRing();
+    private long burstSpikes;
+    private int runLength;
+
+    public StreamingTemporalAnalyzer() {
+        this(DEFAULT_WINDOW, DEFAULT_BIN, DEFAULT_BURST_INTERVAL, DEFAULT_MIN_BURST_SPIKES);
+    }
+
+    public StreamingTemporalAnalyzer(long window, long binWidth, long burstInterval, int minBurstSpikes) {
+        if (binWidth < 1 || window < 4 * binWidth || window / binWidth > 1 << 16 || minBurstSpikes < 2) {
+            throw new IllegalArgumentException("Invalid analyzer: window " + window + " ms, bin " + binWidth
+                + " ms, minimum burst " + minBurstSpikes + " spikes");
+        }
+        this.window = window;
+        this.binWidth = binWidth;
+        this.burstInterval = burstInterval;
+        this.minBurstSpikes = minBurstSpikes;
+        this.bins = (int) (window / binWidth);
+        this.frequencies = bins / 2;
+        this.binCounts = new double[bins];
+        this.cosTable = new double[bins];
+        this.sinTable = new double[bins];
+        for (int j = 0; j < bins; j++) {
+            cosTable[j] = Math.cos(2.0 * Math.PI * j / bins);
+            sinTable[j] = Math.sin(2.0 * Math.PI * j / bins);
+        }
+        this.real = new double[frequencies + 1];
+        this.imaginary = new double[frequencies + 1];
+        this.power = new double[frequencies];
+    }
+
+    /**
+     * Add one spike at the given time (ms)
+     */
+    public void onSpike(long time, double amplitude) {
+        if (tail > head && time < times[(int) ((tail - 1) & (times.length - 1))]) {
+            reset();
+        }
+        advanceTo(time);
+
+        // Interval to the previous spike, and burst runs
+        if (tail > head) {
+            long interval = time - times[(int) ((tail - 1) & (times.length - 1))];
+            intervalSum += interval;
+            intervalSquares += interval * interval;
+            isiHistogram[isiBin(interval)]++;
+            if (interval <= burstInterval) {
+                runLength++;
+            } else {
+                closeRun(times[(int) ((tail - 1) & (times.length - 1))]);
+                runLength = 1;
+            }
+        } else {
+            runLength = 1;
+        }
+
+        if (tail - head == times.length) {
+            grow();
+        }
+        int slot = (int) (tail & (times.length - 1));
+        times[slot] = time;
+        amplitudes[slot] = amplitude;
+        amplitudeSum += amplitude;
+        while (!maxQueue.isEmpty() && amplitudes[(int) (maxQueue.last() & (times.length - 1))] <= amplitude) {
+            maxQueue.removeLast();
+        }
+        maxQueue.addLast(tail);
+        while (!minQueue.isEmpty() && amplitudes[(int) (minQueue.last() & (times.length - 1))] >= amplitude) {
+            minQueue.removeLast();
+        }
+        minQueue.addLast(tail);
+        tail++;
+        totalSpikes++;
+
+        pendingCount++;
+        // A late spike may already lie before the window
+        expire();
+    }
+
+    /**
+     * Move the window end to the given time (ms), expiring old spikes, bursts and
+     * spectrum bins; the end never moves back
+     */
+    public void advanceTo(long now) {
+        long bin = Math.floorDiv(now, binWidth);
+        if (currentBin == Long.MIN_VALUE) {
+            currentBin = bin;
+        }
+        if (bin > currentBin) {
+            commitBins(bin);
+        }
+        end = Math.max(end, now);
+        expire();
+    }
+
+    private void expire() {
+        long oldest = end - window;
+        while (tail > head && times[(int) (head & (times.length - 1))] <= oldest) {
+            expireOldest();
+        }
+        if (tail == head) {
+            runLength = 0;
+        }
+        while (!burstEnds.isEmpty() && burstEnds.first() <= oldest) {
+            burstEnds.removeFirst();
+            burstSpikes -= burstSizes.removeFirst();
+        }
+    }
+
+    private void expireOldest() {
+        int slot = (int) (head & (times.length - 1));
+        if (tail - head > 1) {
+            long interval = times[(int) ((head + 1) & (times.length - 1))] - times[slot];
+            intervalSum -= interval;
+            intervalSquares -= interval * interval;
+            isiHistogram[isiBin(interval)]--;
+        }
+        amplitudeSum -= amplitudes[slot];
+        if (maxQueue.first() == head) {
+            maxQueue.removeFirst();
+        }
+        if (minQueue.first() == head) {
+            minQueue.removeFirst();
+        }
+        head++;
+        if (head == tail) {
+            amplitudeSum = 0.0;
+        }
+    }
+
+    /**
+     * Slide the finished bins, then empty bins up to {@code bin}, into the DFT bank
+     */
+    private void commitBins(long bin) {
+        peak = -1;
+        if (bin - currentBin > bins) {
+            // The whole window is empty bins after the one being closed
+            Arrays.fill(binCounts, 0.0);
+            Arrays.fill(real, 0.0);
+            Arrays.fill(imaginary, 0.0);
+            spectrumSpikes = 0.0;
+            pendingCount = 0.0;
+            committedBins = 0;
+            currentBin = bin;
+            return;
+        }
+        for (; currentBin < bin; currentBin++) {
+            int slot = (int) Math.floorMod(currentBin, (long) bins);
+            double delta = pendingCount - binCounts[slot];
+            binCounts[slot] = pendingCount;
+            spectrumSpikes += delta;
+            pendingCount = 0.0;
+            // X_k <- (X_k + x_new - x_old) * e^(i 2 pi k / N)
+            for (int k = 1; k <= frequencies; k++) {
+                double re = real[k] + delta;
+                double im = imaginary[k];
+                real[k] = re * cosTable[k] - im * sinTable[k];
+                imaginary[k] = re * sinTable[k] + im * cosTable[k];
+            }
+            if (++committedBins % bins == 0) {
+                resynchronise();
+            }
+        }
+    }
+
+    /**
+     * Recompute the bank exactly from the bin counts: oldest bin at phase 0
+     */
+    private void resynchronise() {
+        int oldest = (int) Math.floorMod(currentBin + 1, (long) bins);
+        for (int k = 1; k <= frequencies; k++) {
+            double re = 0.0;
+            double im = 0.0;
+            int index = 0;
+            for (int m = 0; m < bins; m++) {
+                double count = binCounts[(oldest + m) % bins];
+                if (count != 0.0) {
+                    re += count * cosTable[index];
+                    im -= count * sinTable[index];
+                }
+                index += k;
+                if (index >= bins) {
+                    index -= bins;
+                }
+            }
+            real[k] = re;
+            imaginary[k] = im;
+        }
+    }
+
+    private void closeRun(long endTime) {
+        if (runLength >= minBurstSpikes && endTime > end - window) {
+            burstEnds.addLast(endTime);
+            burstSizes.addLast(runLength);
+            burstSpikes += runLength;
+        }
+    }
+
+    /**
+     * Forget every spike and start a new stream
+     */
+    public void reset() {
+        head = 0;
+        tail = 0;
+        end = Long.MIN_VALUE;
+        maxQueue.clear();
+        minQueue.clear();
+        intervalSum = 0;
+        intervalSquares = 0;
+        amplitudeSum = 0.0;
+        Arrays.fill(isiHistogram, 0);
+        Arrays.fill(binCounts, 0.0);
+        Arrays.fill(real, 0.0);
+        Arrays.fill(imaginary, 0.0);
+        currentBin = Long.MIN_VALUE;
+        pendingCount = 0.0;
+        committedBins = 0;
+        spectrumSpikes = 0.0;
+        peak = -1;
+        burstEnds.clear();
+        burstSizes.clear();
+        burstSpikes = 0;
+        runLength = 0;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        long[] newTimes = new long[capacity];
+        double[] newAmplitudes = new double[capacity];
+        for (long s = head; s < tail; s++) {
+            newTimes[(int) (s & (capacity - 1))] = times[(int) (s & (times.length - 1))];
+            newAmplitudes[(int) (s & (capacity - 1))] = amplitudes[(int) (s & (times.length - 1))];
+        }
+        times = newTimes;
+        amplitudes = newAmplitudes;
+    }
+
+    private static int isiBin(long interval) {
+        return Math.min(ISI_BINS - 1, 64 - Long.numberOfLeadingZeros(interval));
+    }
+
+    // Metrics over the current window
+
+    public int getSpikeCount() {
+        return (int) (tail - head);
+    }
+
+    /** Mean inter-spike interval (ms) */
+    public double meanInterval() {
+        long intervals = tail - head - 1;
+        return intervals > 0 ? (double) intervalSum / intervals : 0.0;
+    }
+
+    /** Coefficient of variation of the inter-spike intervals */
+    public double intervalCv() {
+        long intervals = tail - head - 1;
+        if (intervals < 1 || intervalSum == 0) {
+            return 0.0;
+        }
+        double mean = (double) intervalSum / intervals;
+        double variance = Math.max(0.0, (double) intervalSquares / intervals - mean * mean);
+        return Math.sqrt(variance) / mean;
+    }
+
+    /** Spikes per second from the mean interval */
+    public double intervalRate() {
+        double mean = meanInterval();
+        return mean > 0 ? 1000.0 / mean : 0.0;
+    }
+
+    /** 1 / (1 + CV): 1 for a perfectly regular train */
+    public double regularity() {
+        return tail - head > 1 && intervalSum > 0 ? 1.0 / (1.0 + intervalCv()) : 0.0;
+    }
+
+    /** (sigma - mu) / (sigma + mu) of the intervals: -1 regular, 0 Poisson, towards 1 bursty */
+    public double burstiness() {
+        long intervals = tail - head - 1;
+        if (intervals < 1 || intervalSum == 0) {
+            return 0.0;
+        }
+        double mean = (double) intervalSum / intervals;
+        double sigma = mean * intervalCv();
+        return (sigma - mean) / (sigma + mean);
+    }
+
+    /** Histogram of intervals; bin b holds intervals in [2^(b-1), 2^b) ms, bin 0 zero intervals */
+    public long[] intervalHistogram() {
+        return isiHistogram.clone();
+    }
+
+    public double meanAmplitude() {
+        return tail > head ? amplitudeSum / (tail - head) : 0.0;
+    }
+
+    public double maxAmplitude() {
+        return maxQueue.isEmpty() ? 0.0 : amplitudes[(int) (maxQueue.first() & (times.length - 1))];
+    }
+
+    public double minAmplitude() {
+        return minQueue.isEmpty() ? 0.0 : amplitudes[(int) (minQueue.first() & (times.length - 1))];
+    }
+
+    /**
+     * Strongest frequency (Hz) of the binned spike counts over the last full
+     * window, or 0 if no peak stands above the spectral median
+     */
+    public double dominantFrequency() {
+        int k = peak();
+        return k > 0 ? k * 1000.0 / (bins * binWidth) : 0.0;
+    }
+
+    /** Phase (radians, 0 .. 2 pi) of the dominant frequency at the window start */
+    public double dominantPhase() {
+        int k = peak();
+        if (k == 0) {
+            return 0.0;
+        }
+        double phase = Math.atan2(imaginary[k], real[k]);
+        return phase < 0 ? phase + 2.0 * Math.PI : phase;
+    }
+
+    /**
+     * Lowest frequency bin near the spectral maximum, cached until the next bin completes
+     */
+    private int peak() {
+        if (peak >= 0) {
+            return peak;
+        }
+        peak = 0;
+        if (spectrumSpikes < 2 || frequencies < 1) {
+            return peak;
+        }
+        double max = 0.0;
+        for (int k = 1; k <= frequencies; k++) {
+            power[k - 1] = real[k] * real[k] + imaginary[k] * imaginary[k];
+            max = Math.max(max, power[k - 1]);
+        }
+        int fundamental = 1;
+        while (power[fundamental - 1] < HARMONIC_RATIO * max) {
+            fundamental++;
+        }
+        double median = select(power, frequencies / 2);
+        if (max > PEAK_RATIO * median && max > 1e-9) {
+            peak = fundamental;
+        }
+        return peak;
+    }
+
+    /**
+     * k-th smallest value (quickselect); reorders the array
+     */
+    private static double select(double[] values, int k) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            double pivot = values[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+
+    /** Closed bursts in the window, plus the open run if it is long enough */
+    public int getBurstCount() {
+        return burstEnds.size() + (runLength >= minBurstSpikes ? 1 : 0);
+    }
+
+    /** Fraction of the window's spikes that belong to bursts */
+    public double burstFraction() {
+        long spikes = tail - head;
+        long inBursts = burstSpikes + (runLength >= minBurstSpikes ? runLength : 0);
+        return spikes > 0 ? Math.min(1.0, (double) inBursts / spikes) : 0.0;
+    }
+
+    /** Time span (ms) between the oldest and newest spike in the window */
+    public long span() {
+        return tail - head > 1 ? times[(int) ((tail - 1) & (times.length - 1))]
+            - times[(int) (head & (times.length - 1))] : 0;
+    }
+
+    // Getters
+    public long getWindow() { return window; }
+    public long getBinWidth() { return binWidth; }
+    public long getTotalSpikes() { return totalSpikes; }
+
+    /**
+     * Growable ring deque of longs
+     */
+    private static final class LongRing {
+        private long[] values = new long[16];
+        private int start;
+        private int size;
+
+        void addLast(long value) {
+            if (size == values.length) {
+                long[] grown = new long[size * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = values[(start + i) & (values.length - 1)];
+                }
+                values = grown;
+                start = 0;
+            }
+            values[(start + size) & (values.length - 1)] = value;
+            size++;
+        }
+
+        long first() { return values[start]; }
+        long last() { return values[(start + size - 1) & (values.length - 1)]; }
+
+        long removeFirst() {
+            long value = values[start];
+            start = (start + 1) & (values.length - 1);
+            size--;
+            return value;
+        }
+
+        void removeLast() {
+            size--;
+        }
+
+        void clear() {
+            start = 0;
+            size = 0;
+        }
+
+        boolean isEmpty() { return size == 0; }
+        int size() { return size; }
+    }
+}
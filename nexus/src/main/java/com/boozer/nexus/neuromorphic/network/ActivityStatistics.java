@@ -0,0 +1,131 @@
+package com.boozer.nexus.neuromorphic.network;
+
+import java.util.Arrays;
+
+/**
+ * Activity Statistics
+ *
+ * Sliding-window firing statistics of a population, kept incrementally. The
+ * window is split into buckets arranged as a ring; each bucket lists the neurons
+ * that spiked during it. Recording a spike increments its neuron's count, and
+ * when a bucket leaves the window its spikes are decremented again, so every
+ * spike is touched twice in total, whatever the population size.
+ *
+ * Each count change also updates the population mean and the sum of squared
+ * deviations with a Welford-style replace step, plus the number of neurons
+ * with a non-zero count. Mean rate, rate variance and active neuron count are
+ * then O(1) reads. Time only moves forward: a spike stamped before the current
+ * bucket counts in the current bucket.
+ */
+public final class ActivityStatistics {
+
+    private final int numNeurons;
+    private final long bucketWidth;
+    private final int[] counts;
+    private final int[][] bucketNeurons;
+    private final int[] bucketSizes;
+    private final double ratePerSpike;
+
+    private long currentBucket = Long.MIN_VALUE;
+    private int activeNeurons;
+    private double mean;
+    private double squaredDeviations;
+    private long totalSpikes;
+
+    /**
+     * Statistics over a window of {@code windowLength} timestamp units (ms) split
+     * into {@code buckets} buckets; rates are in spikes per second
+     */
+    public ActivityStatistics(int numNeurons, long windowLength, int buckets) {
+        if (numNeurons < 1 || buckets < 1 || windowLength < buckets) {
+            throw new IllegalArgumentException("Need at least one neuron, one bucket and a window of one unit per bucket");
+        }
+        this.numNeurons = numNeurons;
+        this.bucketWidth = windowLength / buckets;
+        this.counts = new int[numNeurons];
+        this.bucketNeurons = new int[buckets][16];
+        this.bucketSizes = new int[buckets];
+        this.ratePerSpike = 1000.0 / (bucketWidth * buckets);
+    }
+
+    /**
+     * Count a spike of the neuron at the given time
+     */
+    public void record(int neuron, long time) {
+        if (neuron < 0 || neuron >= numNeurons) {
+            return;
+        }
+        advanceTo(time);
+        int slot = slot(currentBucket);
+        int size = bucketSizes[slot];
+        if (size == bucketNeurons[slot].length) {
+            bucketNeurons[slot] = Arrays.copyOf(bucketNeurons[slot], size * 2);
+        }
+        bucketNeurons[slot][size] = neuron;
+        bucketSizes[slot] = size + 1;
+        change(neuron, 1);
+        totalSpikes++;
+    }
+
+    /**
+     * Move the window forward so that it ends at the given time, expiring buckets
+     */
+    public void advanceTo(long time) {
+        long bucket = Math.floorDiv(time, bucketWidth);
+        if (currentBucket == Long.MIN_VALUE) {
+            currentBucket = bucket;
+            return;
+        }
+        if (bucket <= currentBucket) {
+            return;
+        }
+        long expire = Math.min(bucket - currentBucket, bucketSizes.length);
+        for (long b = 1; b <= expire; b++) {
+            int slot = slot(currentBucket + b);
+            int[] neurons = bucketNeurons[slot];
+            for (int s = 0; s < bucketSizes[slot]; s++) {
+                change(neurons[s], -1);
+            }
+            bucketSizes[slot] = 0;
+        }
+        currentBucket = bucket;
+    }
+
+    /**
+     * Welford replace step for one neuron's count moving by delta
+     */
+    private void change(int neuron, int delta) {
+        int before = counts[neuron];
+        int after = before + delta;
+        counts[neuron] = after;
+        if (before == 0) {
+            activeNeurons++;
+        } else if (after == 0) {
+            activeNeurons--;
+        }
+        double previousMean = mean;
+        mean += (double) delta / numNeurons;
+        squaredDeviations += delta * (after - mean + before - previousMean);
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) bucketSizes.length);
+    }
+
+    /** Firing rate of a neuron over the window, in spikes per second */
+    public double rate(int neuron) { return counts[neuron] * ratePerSpike; }
+
+    /** Mean firing rate over the population, in spikes per second */
+    public double meanRate() { return mean * ratePerSpike; }
+
+    /** Population variance of the firing rates */
+    public double rateVariance() {
+        return Math.max(0.0, squaredDeviations / numNeurons) * ratePerSpike * ratePerSpike;
+    }
+
+    // Getters
+    public int getNumNeurons() { return numNeurons; }
+    public int getActiveNeurons() { return activeNeurons; }
+    public long getTotalSpikes() { return totalSpikes; }
+    public long getWindowLength() { return bucketWidth * bucketSizes.length; }
+}
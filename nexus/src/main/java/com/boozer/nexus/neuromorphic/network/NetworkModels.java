@@ -1,9 +1,18 @@
 package com.boozer.nexus.neuromorphic.network;
 
+import com.boozer.nexus.neuromorphic.learning.StdpLearner;
+import com.boozer.nexus.neuromorphic.learning.StreamingTemporalAnalyzer;
 import com.boozer.nexus.neuromorphic.models.*;
+import com.boozer.nexus.neuromorphic.recording.SpikeRecorder;
+import com.boozer.nexus.neuromorphic.simulator.ClockDrivenSimulator;
+import com.boozer.nexus.neuromorphic.simulator.EventDrivenPropagator;
+import com.boozer.nexus.neuromorphic.simulator.NeuronParameters;
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
@@ -119,13 +128,30 @@ class NetworkInfo {
 class SpikingNeuralNetwork {
     private static final Logger logger = LoggerFactory.getLogger(SpikingNeuralNetwork.class);
     
+    /** Processing mode selecting the fixed-timestep simulator */
+    public static final String CLOCK_DRIVEN_MODE = "clock_driven";
+    
+    /** Topology parameter holding the connectivity seed; drawn at random and stored when absent */
+    public static final String SEED_PARAMETER = "seed";
+    
+    /** Firing rates are counted over this window (ms) in ACTIVITY_BUCKETS steps */
+    private static final long ACTIVITY_WINDOW = 1000;
+    private static final int ACTIVITY_BUCKETS = 10;
+    
     private final String networkId;
     private final NetworkTopology topology;
     private final NeuronConfig neuronConfig;
     private final List<SpikingNeuron> neurons;
-    private final List<Synapse> synapses;
     private final LocalDateTime creationTime;
-    private NetworkState currentState;
+    private SynapseMatrix synapses;
+    private EventDrivenPropagator propagator;
+    private ClockDrivenSimulator clockSimulator;
+    private StdpLearner stdp;
+    private StreamingTemporalAnalyzer temporalAnalyzer;
+    private final ActivityStatistics activity;
+    private final SpikeBuffer inputBuffer = new SpikeBuffer();
+    private final SpikeBuffer firedBuffer = new SpikeBuffer();
+    private SpikeRecorder recorder;
     
     public SpikingNeuralNetwork(String networkId, NetworkTopology topology, NeuronConfig neuronConfig) {
         this.networkId = networkId;
@@ -133,10 +159,39 @@ class SpikingNeuralNetwork {
         this.neuronConfig = neuronConfig;
         this.creationTime = LocalDateTime.now();
         this.neurons = new ArrayList<>();
-        this.synapses = new ArrayList<>();
+        this.activity = new ActivityStatistics(Math.max(1, topology.getNeuronCount()), ACTIVITY_WINDOW,
+            ACTIVITY_BUCKETS);
         
         initializeNetwork();
-        updateNetworkState();
+    }
+    
+    /**
+     * Restore a network from a snapshot: same topology, neuron parameters,
+     * synapses (with learned weights) and neuron state
+     */
+    public SpikingNeuralNetwork(String networkId, NetworkSnapshot snapshot) {
+        this.networkId = networkId;
+        this.topology = new NetworkTopology(snapshot.getTopologyType(), snapshot.getNeuronCount(),
+            snapshot.getConnectivity(), snapshot.isPlasticityEnabled());
+        this.topology.getParameters().put(SEED_PARAMETER, snapshot.getSeed());
+        this.neuronConfig = new NeuronConfig(snapshot.getNeuronType(), snapshot.getRestingPotential(),
+            snapshot.getThreshold(), snapshot.getTimeConstant());
+        this.neuronConfig.getParameters().putAll(snapshot.getNeuronParameters());
+        this.creationTime = LocalDateTime.now();
+        this.neurons = new ArrayList<>(snapshot.getNeuronCount());
+        this.activity = new ActivityStatistics(Math.max(1, snapshot.getNeuronCount()), ACTIVITY_WINDOW,
+            ACTIVITY_BUCKETS);
+        
+        for (int i = 0; i < snapshot.getNeuronCount(); i++) {
+            SpikingNeuron neuron = new SpikingNeuron(i, neuronConfig);
+            neuron.restore(snapshot.getMembranePotentials()[i], snapshot.getLastSpikeTimes()[i]);
+            neurons.add(neuron);
+        }
+        this.synapses = snapshot.getSynapses();
+        this.propagator = new EventDrivenPropagator(synapses);
+        
+        logger.debug("Restored network {} with {} neurons and {} synapses", 
+            networkId, neurons.size(), synapses.size());
     }
     
     /**
@@ -149,68 +204,143 @@ class SpikingNeuralNetwork {
             neurons.add(neuron);
         }
         
-        // Create synapses based on connectivity
-        int targetSynapseCount = (int) (topology.getNeuronCount() * topology.getNeuronCount() * topology.getConnectivity());
-        
-        for (int i = 0; i < targetSynapseCount; i++) {
-            int preNeuron = ThreadLocalRandom.current().nextInt(topology.getNeuronCount());
-            int postNeuron = ThreadLocalRandom.current().nextInt(topology.getNeuronCount());
-            
-            if (preNeuron != postNeuron) { // No self-connections
-                double weight = ThreadLocalRandom.current().nextGaussian() * 0.1;
-                double delay = ThreadLocalRandom.current().nextDouble() * 5.0 + 1.0; // 1-6ms delay
-                
-                Synapse synapse = new Synapse(preNeuron, postNeuron, weight, delay);
-                synapses.add(synapse);
-            }
-        }
+        // Create synapses based on connectivity: seeded, built row by row in parallel, 1-5ms delays
+        synapses = SynapseMatrix.random(topology.getNeuronCount(), topology.getConnectivity(), seed(), 0.1, 5);
+        propagator = new EventDrivenPropagator(synapses);
         
         logger.debug("Initialized network {} with {} neurons and {} synapses", 
             networkId, neurons.size(), synapses.size());
     }
     
+    /**
+     * Connectivity seed from the topology parameters, recorded there if drawn here
+     */
+    private long seed() {
+        Object seed = topology.getParameters().get(SEED_PARAMETER);
+        if (seed instanceof Number) {
+            return ((Number) seed).longValue();
+        }
+        long drawn = ThreadLocalRandom.current().nextLong();
+        topology.getParameters().put(SEED_PARAMETER, drawn);
+        return drawn;
+    }
+    
+    /**
+     * Capture topology, neuron parameters, synapses and neuron state. The synapse
+     * arrays are shared with the live network, so write the snapshot before the
+     * network processes more spikes.
+     */
+    public NetworkSnapshot snapshot() {
+        NetworkSnapshot snapshot = new NetworkSnapshot();
+        snapshot.setTopologyType(topology.getTopologyType());
+        snapshot.setNeuronCount(neurons.size());
+        snapshot.setConnectivity(topology.getConnectivity());
+        snapshot.setPlasticityEnabled(topology.isPlasticityEnabled());
+        snapshot.setSeed(seed());
+        snapshot.setNeuronType(neuronConfig.getNeuronType());
+        snapshot.setRestingPotential(neuronConfig.getRestingPotential());
+        snapshot.setThreshold(neuronConfig.getThreshold());
+        snapshot.setTimeConstant(neuronConfig.getTimeConstant());
+        snapshot.setNeuronParameters(new HashMap<>(neuronConfig.getParameters()));
+        snapshot.setSynapses(synapses);
+        
+        double[] potentials = new double[neurons.size()];
+        long[] lastSpikes = new long[neurons.size()];
+        for (int i = 0; i < neurons.size(); i++) {
+            potentials[i] = neurons.get(i).getMembranePotential();
+            lastSpikes[i] = neurons.get(i).getLastSpikeTime();
+        }
+        snapshot.setMembranePotentials(potentials);
+        snapshot.setLastSpikeTimes(lastSpikes);
+        return snapshot;
+    }
+    
     /**
      * Propagate spike through network
      */
     public List<SpikeEvent> propagateSpike(SpikeEvent inputSpike, NeuromorphicConfig config) {
-        List<SpikeEvent> outputSpikes = new ArrayList<>();
-        
-        // Find target neuron
-        int neuronId = inputSpike.getNeuronId();
-        if (neuronId >= 0 && neuronId < neurons.size()) {
-            SpikingNeuron neuron = neurons.get(neuronId);
-            
-            // Process input spike
-            if (neuron.processInput(inputSpike)) {
-                // Neuron fired, propagate to connected neurons
-                List<SpikeEvent> propagatedSpikes = propagateToConnectedNeurons(neuronId, inputSpike.getTimestamp());
-                outputSpikes.addAll(propagatedSpikes);
-            }
+        return propagateSpikes(Collections.singletonList(inputSpike), config);
+    }
+    
+    /**
+     * Propagate time-ordered input spikes through the network. Synaptic events
+     * travel through the event queue and re-enter their target neurons, so chains
+     * of firing unfold within one call; every spike a neuron emits is returned.
+     */
+    public List<SpikeEvent> propagateSpikes(List<SpikeEvent> inputSpikes, NeuromorphicConfig config) {
+        if (CLOCK_DRIVEN_MODE.equals(config.getProcessingMode())) {
+            return simulateClockDriven(inputSpikes, config);
         }
+        inputBuffer.clear();
+        for (SpikeEvent spike : inputSpikes) {
+            inputBuffer.add(spike.getTimestamp(), spike.getNeuronId(), spike.getAmplitude());
+        }
+        firedBuffer.clear();
+        propagator.run(inputBuffer, (neuron, time, amplitude) -> neurons.get(neuron).processInput(time, amplitude),
+            firedBuffer);
         
-        return outputSpikes;
+        return toOutputSpikes(0, 1.0);
     }
     
     /**
-     * Propagate spike to connected neurons
+     * Simulate the window spanned by the time-ordered input spikes with the
+     * fixed-timestep integrator, starting from rest. The window runs from the
+     * first input until the last input plus the longest synaptic delay, or for
+     * the "simulation_steps" parameter of the config when given.
      */
-    private List<SpikeEvent> propagateToConnectedNeurons(int sourceNeuronId, long timestamp) {
-        List<SpikeEvent> outputSpikes = new ArrayList<>();
+    public List<SpikeEvent> simulateClockDriven(List<SpikeEvent> inputSpikes, NeuromorphicConfig config) {
+        if (inputSpikes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        double timeStep = config.getTimeStep();
+        if (clockSimulator == null || clockSimulator.getTimeStep() != timeStep) {
+            clockSimulator = new ClockDrivenSimulator(synapses, neuronParameters(), timeStep);
+        }
         
-        // Find all outgoing synapses
-        for (Synapse synapse : synapses) {
-            if (synapse.getPreNeuronId() == sourceNeuronId) {
-                // Calculate arrival time with synaptic delay
-                long arrivalTime = timestamp + (long) synapse.getDelay();
-                
-                // Create output spike
-                SpikeEvent outputSpike = new SpikeEvent();
-                outputSpike.setNeuronId(synapse.getPostNeuronId());
-                outputSpike.setTimestamp(arrivalTime);
-                outputSpike.setAmplitude(synapse.getWeight());
-                outputSpike.setType("synaptic");
-                
-                outputSpikes.add(outputSpike);
+        long origin = inputSpikes.get(0).getTimestamp();
+        inputBuffer.clear();
+        for (SpikeEvent spike : inputSpikes) {
+            inputBuffer.add(Math.round((spike.getTimestamp() - origin) / timeStep), spike.getNeuronId(),
+                spike.getAmplitude());
+        }
+        long steps = inputBuffer.time(inputBuffer.size() - 1) + 1 + synapses.getMaxDelay();
+        Object requested = config.getParameters() != null ? config.getParameters().get("simulation_steps") : null;
+        if (requested instanceof Number) {
+            steps = Math.max(steps, ((Number) requested).longValue());
+        }
+        
+        firedBuffer.clear();
+        clockSimulator.reset(0);
+        clockSimulator.run(inputBuffer, steps, firedBuffer);
+        
+        return toOutputSpikes(origin, timeStep);
+    }
+    
+    /**
+     * Neuron model of the clock-driven simulator. Time constants of the neuron
+     * config are in seconds, as in {@link SpikingNeuron}.
+     */
+    private NeuronParameters neuronParameters() {
+        double tauMs = neuronConfig.getTimeConstant() * 1000.0;
+        if ("adaptive_exponential".equals(neuronConfig.getNeuronType())) {
+            return NeuronParameters.adex(neuronConfig.getRestingPotential(), neuronConfig.getThreshold(), tauMs);
+        }
+        return NeuronParameters.lif(neuronConfig.getRestingPotential(), neuronConfig.getThreshold(), tauMs);
+    }
+    
+    private List<SpikeEvent> toOutputSpikes(long origin, double timeStep) {
+        List<SpikeEvent> outputSpikes = new ArrayList<>(firedBuffer.size());
+        for (int k = 0; k < firedBuffer.size(); k++) {
+            SpikeEvent outputSpike = new SpikeEvent();
+            outputSpike.setNeuronId(firedBuffer.neuron(k));
+            outputSpike.setTimestamp(origin + Math.round(firedBuffer.time(k) * timeStep));
+            outputSpike.setAmplitude(firedBuffer.amplitude(k));
+            outputSpike.setType("output");
+            outputSpikes.add(outputSpike);
+            activity.record(outputSpike.getNeuronId(), outputSpike.getTimestamp());
+            if (recorder != null) {
+                // A train's delayed tail can outlast the next train's first spikes; the file keeps time order
+                recorder.offer(outputSpike.getTimestamp(), outputSpike.getNeuronId());
             }
         }
         
@@ -218,49 +348,79 @@ class SpikingNeuralNetwork {
     }
     
     /**
-     * Update network state
+     * Current network state, read from the running activity statistics in O(1)
      */
-    private void updateNetworkState() {
+    public NetworkState getState() {
         NetworkState state = new NetworkState();
         
-        // Calculate active neurons
-        int activeNeurons = (int) neurons.stream().mapToLong(n -> n.isActive() ? 1 : 0).sum();
-        state.setActiveNeurons(activeNeurons);
+        // Neurons that fired within the activity window
+        state.setActiveNeurons(activity.getActiveNeurons());
         
-        // Calculate average firing rate
-        double avgFiringRate = neurons.stream().mapToDouble(SpikingNeuron::getFiringRate).average().orElse(0.0);
-        state.setAverageFiringRate(avgFiringRate);
+        // Average firing rate
+        state.setAverageFiringRate(activity.meanRate());
         
-        // Calculate network synchrony (simplified)
-        state.setNetworkSynchrony(calculateSynchrony());
+        // Network synchrony (simplified): higher synchrony = lower rate variance
+        state.setNetworkSynchrony(1.0 / (1.0 + activity.rateVariance()));
         
-        // Calculate plasticity level
-        state.setPlasticityLevel(calculatePlasticityLevel());
+        // Average plasticity across all synapses
+        state.setPlasticityLevel(synapses.meanPlasticity());
         
-        this.currentState = state;
+        return state;
     }
     
-    private double calculateSynchrony() {
-        // Simplified synchrony calculation
-        double variance = neurons.stream().mapToDouble(SpikingNeuron::getFiringRate).map(rate -> {
-            double avg = neurons.stream().mapToDouble(SpikingNeuron::getFiringRate).average().orElse(0.0);
-            return Math.pow(rate - avg, 2);
-        }).average().orElse(0.0);
-        
-        return 1.0 / (1.0 + variance); // Higher synchrony = lower variance
+    /**
+     * STDP learner bound to this network's synapses, created on first use
+     */
+    public StdpLearner getStdp() {
+        if (stdp == null) {
+            stdp = new StdpLearner(synapses);
+        }
+        return stdp;
     }
     
-    private double calculatePlasticityLevel() {
-        // Average plasticity across all synapses
-        return synapses.stream().mapToDouble(Synapse::getPlasticity).average().orElse(0.0);
+    /**
+     * Record every output spike to the file from now on, replacing any current
+     * recording. Spikes are stored in time order; one earlier than the last
+     * recorded, as when consecutive trains overlap, is dropped and counted by
+     * the recorder rather than failing the processing that produced it.
+     */
+    public void startRecording(Path file) throws IOException {
+        stopRecording();
+        recorder = new SpikeRecorder(file, 1.0);
+        logger.debug("Recording spikes of network {} to {}", networkId, file);
+    }
+    
+    /**
+     * Close the current recording; returns the number of spikes it holds
+     */
+    public long stopRecording() throws IOException {
+        if (recorder == null) {
+            return 0;
+        }
+        SpikeRecorder closing = recorder;
+        recorder = null;
+        closing.close();
+        return closing.getSpikeCount();
+    }
+    
+    /**
+     * Sliding-window analyzer of the network's input stream, created on first use
+     */
+    public StreamingTemporalAnalyzer getTemporalAnalyzer() {
+        if (temporalAnalyzer == null) {
+            temporalAnalyzer = new StreamingTemporalAnalyzer();
+        }
+        return temporalAnalyzer;
     }
     
     // Getters
     public String getNetworkId() { return networkId; }
     public int getNeuronCount() { return neurons.size(); }
     public int getSynapseCount() { return synapses.size(); }
+    public SynapseMatrix getSynapses() { return synapses; }
     public NetworkTopology getTopology() { return topology; }
-    public NetworkState getState() { return currentState; }
+    public ActivityStatistics getActivity() { return activity; }
+    public SpikeRecorder getRecorder() { return recorder; }
     public LocalDateTime getCreationTime() { return creationTime; }
     public double getConnectivity() { return topology.getConnectivity(); }
 }
@@ -273,29 +433,29 @@ class SpikingNeuron {
     private final NeuronConfig config;
     private double membranePotential;
     private long lastSpikeTime;
-    private double firingRate;
     private boolean active;
-    private List<Long> spikeHistory;
     
     public SpikingNeuron(int neuronId, NeuronConfig config) {
         this.neuronId = neuronId;
         this.config = config;
         this.membranePotential = config.getRestingPotential();
         this.lastSpikeTime = 0;
-        this.firingRate = 0.0;
         this.active = false;
-        this.spikeHistory = new ArrayList<>();
     }
     
     /**
      * Process input spike
      */
     public boolean processInput(SpikeEvent inputSpike) {
-        // Update membrane potential
-        double inputCurrent = inputSpike.getAmplitude();
-        
+        return processInput(inputSpike.getTimestamp(), inputSpike.getAmplitude());
+    }
+    
+    /**
+     * Process an input of the given amplitude arriving at the given time
+     */
+    public boolean processInput(long timestamp, double inputCurrent) {
         // Leaky integrate-and-fire dynamics
-        double timeDelta = (inputSpike.getTimestamp() - lastSpikeTime) / 1000.0; // Convert to seconds
+        double timeDelta = (timestamp - lastSpikeTime) / 1000.0; // Convert to seconds
         double decay = Math.exp(-timeDelta / config.getTimeConstant());
         
         membranePotential = config.getRestingPotential() + 
@@ -304,7 +464,7 @@ class SpikingNeuron {
         // Check if threshold is reached
         if (membranePotential >= config.getThreshold()) {
             // Fire spike
-            spike(inputSpike.getTimestamp());
+            spike(timestamp);
             return true;
         }
         
@@ -312,69 +472,26 @@ class SpikingNeuron {
     }
     
     /**
-     * Generate spike
+     * Generate spike. Firing rates are counted by the network's
+     * {@link ActivityStatistics}, not per neuron.
      */
     private void spike(long timestamp) {
         lastSpikeTime = timestamp;
         membranePotential = config.getRestingPotential(); // Reset potential
         active = true;
-        
-        // Update spike history
-        spikeHistory.add(timestamp);
-        
-        // Keep only recent spikes (last 1 second)
-        spikeHistory.removeIf(time -> timestamp - time > 1000);
-        
-        // Update firing rate
-        firingRate = spikeHistory.size(); // Spikes per second
-    }
-    
-    // Getters
-    public int getNeuronId() { return neuronId; }
-    public double getMembranePotential() { return membranePotential; }
-    public double getFiringRate() { return firingRate; }
-    public boolean isActive() { return active; }
-    public List<Long> getSpikeHistory() { return new ArrayList<>(spikeHistory); }
-}
-
-/**
- * Synapse implementation
- */
-class Synapse {
-    private final int preNeuronId;
-    private final int postNeuronId;
-    private double weight;
-    private final double delay;
-    private double plasticity;
-    private long lastUpdateTime;
-    
-    public Synapse(int preNeuronId, int postNeuronId, double weight, double delay) {
-        this.preNeuronId = preNeuronId;
-        this.postNeuronId = postNeuronId;
-        this.weight = weight;
-        this.delay = delay;
-        this.plasticity = 0.5; // Initial plasticity
-        this.lastUpdateTime = System.currentTimeMillis();
     }
     
     /**
-     * Update synaptic weight based on plasticity
+     * Set the state captured in a snapshot
      */
-    public void updateWeight(double delta, long timestamp) {
-        weight += delta * plasticity;
-        lastUpdateTime = timestamp;
-        
-        // Bounds checking
-        weight = Math.max(-2.0, Math.min(2.0, weight));
+    void restore(double membranePotential, long lastSpikeTime) {
+        this.membranePotential = membranePotential;
+        this.lastSpikeTime = lastSpikeTime;
     }
     
-    // Getters and Setters
-    public int getPreNeuronId() { return preNeuronId; }
-    public int getPostNeuronId() { return postNeuronId; }
-    public double getWeight() { return weight; }
-    public void setWeight(double weight) { this.weight = weight; }
-    public double getDelay() { return delay; }
-    public double getPlasticity() { return plasticity; }
-    public void setPlasticity(double plasticity) { this.plasticity = plasticity; }
-    public long getLastUpdateTime() { return lastUpdateTime; }
+    // Getters
+    public int getNeuronId() { return neuronId; }
+    public double getMembranePotential() { return membranePotential; }
+    public long getLastSpikeTime() { return lastSpikeTime; }
+    public boolean isActive() { return active; }
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+package com.boozer.nexus.neuromorphic.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Network Snapshot
+ *
+ * Complete state of a spiking network in one file: topology and neuron
+ * parameters, the CSR synapse arrays of the {@link SynapseMatrix} (learned
+ * weights and plasticity included) and the neuron state. Layout, little endian:
+ *
+ * <pre>
+ * header         magic int, version int, section count int, (unused int)
+ * section table  per section: id int, CRC32 int, offset long, length long
+ * sections       metadata, row offsets, targets, weights, delays,
+ *                plasticity, membrane potentials, last spike times;
+ *                each starts on a 64-byte boundary
+ * </pre>
+ *
+ * Every section carries its own CRC32, checked on restore. Restoring maps the
+ * file and bulk-copies each section into its array, so loading runs at memory
+ * bandwidth instead of regenerating the network.
+ */
+public final class NetworkSnapshot {
+
+    /** "NXSN" */
+    public static final int MAGIC = 0x4E58534E;
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 24;
+    private static final int ALIGNMENT = 64;
+    private static final int IO_BUFFER = 1 << 20;
+    /** Largest mapped chunk, a multiple of every element size */
+    private static final int MAP_CHUNK = 1 << 30;
+
+    private static final int META = 0;
+    private static final int ROW_OFFSETS = 1;
+    private static final int TARGETS = 2;
+    private static final int WEIGHTS = 3;
+    private static final int DELAYS = 4;
+    private static final int PLASTICITY = 5;
+    private static final int POTENTIALS = 6;
+    private static final int LAST_SPIKES = 7;
+    private static final int SECTIONS = 8;
+
+    // Topology
+    private String topologyType;
+    private int neuronCount;
+    private double connectivity;
+    private boolean plasticityEnabled;
+    private long seed;
+
+    // Neuron parameters
+    private String neuronType;
+    private double restingPotential;
+    private double threshold;
+    private double timeConstant;
+    private Map<String, Double> neuronParameters = new HashMap<>();
+
+    // State
+    private SynapseMatrix synapses;
+    private double[] membranePotentials;
+    private long[] lastSpikeTimes;
+
+    /**
+     * Write the snapshot, replacing any existing file
+     */
+    public void write(Path file) throws IOException {
+        if (synapses == null || membranePotentials == null || lastSpikeTimes == null
+                || synapses.getNumNeurons() != neuronCount || membranePotentials.length != neuronCount
+                || lastSpikeTimes.length != neuronCount) {
+            throw new IllegalArgumentException("Snapshot state does not match its " + neuronCount + " neurons");
+        }
+        ByteBuffer meta = encodeMeta();
+        long[] lengths = {
+            meta.remaining(),
+            4L * (neuronCount + 1),
+            4L * synapses.size(),
+            8L * synapses.size(),
+            4L * synapses.size(),
+            8L * synapses.size(),
+            8L * neuronCount,
+            8L * neuronCount
+        };
+        long[] offsets = new long[SECTIONS];
+        long position = HEADER_SIZE + (long) ENTRY_SIZE * SECTIONS;
+        for (int s = 0; s < SECTIONS; s++) {
+            position = align(position);
+            offsets[s] = position;
+            position += lengths[s];
+        }
+
+        int[] checksums = new int[SECTIONS];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            for (int s = 0; s < SECTIONS; s++) {
+                crc.reset();
+                channel.position(offsets[s]);
+                switch (s) {
+                    case META:
+                        crc.update(meta.duplicate());
+                        writeFully(channel, meta);
+                        break;
+                    case ROW_OFFSETS: writeInts(channel, buffer, crc, synapses.getRowOffsets()); break;
+                    case TARGETS: writeInts(channel, buffer, crc, synapses.getTargets()); break;
+                    case WEIGHTS: writeDoubles(channel, buffer, crc, synapses.getWeights()); break;
+                    case DELAYS: writeInts(channel, buffer, crc, synapses.getDelays()); break;
+                    case PLASTICITY: writeDoubles(channel, buffer, crc, synapses.getPlasticity()); break;
+                    case POTENTIALS: writeDoubles(channel, buffer, crc, membranePotentials); break;
+                    default: writeLongs(channel, buffer, crc, lastSpikeTimes); break;
+                }
+                checksums[s] = (int) crc.getValue();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + ENTRY_SIZE * SECTIONS)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(SECTIONS).putInt(0);
+            for (int s = 0; s < SECTIONS; s++) {
+                header.putInt(s).putInt(checksums[s]).putLong(offsets[s]).putLong(lengths[s]);
+            }
+            header.flip();
+            channel.position(0);
+            writeFully(channel, header);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Read a snapshot, verifying every section checksum
+     */
+    public static NetworkSnapshot read(Path file) throws IOException {
+        return read(file, true);
+    }
+
+    /**
+     * Read a snapshot; with {@code verify} false the checksums are skipped, for
+     * files known to be intact
+     */
+    public static NetworkSnapshot read(Path file, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int tableSize = HEADER_SIZE + ENTRY_SIZE * SECTIONS;
+            if (size < tableSize) {
+                throw new IllegalArgumentException(file + " is too short for a network snapshot");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, tableSize)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != SECTIONS) {
+                throw new IllegalArgumentException(file + " is not a version " + VERSION + " network snapshot");
+            }
+            long[] offsets = new long[SECTIONS];
+            long[] lengths = new long[SECTIONS];
+            int[] checksums = new int[SECTIONS];
+            for (int s = 0; s < SECTIONS; s++) {
+                int entry = HEADER_SIZE + ENTRY_SIZE * s;
+                checksums[s] = header.getInt(entry + 4);
+                offsets[s] = header.getLong(entry + 8);
+                lengths[s] = header.getLong(entry + 16);
+                if (header.getInt(entry) != s || offsets[s] < tableSize || lengths[s] < 0
+                        || offsets[s] + lengths[s] > size) {
+                    throw new IOException("Corrupt section table in " + file + " at section " + s);
+                }
+            }
+
+            NetworkSnapshot snapshot = new NetworkSnapshot();
+            ByteBuffer meta = ByteBuffer.allocate((int) lengths[META]).order(ByteOrder.LITTLE_ENDIAN);
+            while (meta.hasRemaining()) {
+                if (channel.read(meta, offsets[META] + meta.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+            meta.flip();
+            if (verify) {
+                CRC32 crc = new CRC32();
+                crc.update(meta.duplicate());
+                check(file, META, checksums[META], crc);
+            }
+            snapshot.decodeMeta(meta);
+
+            int n = snapshot.neuronCount;
+            long synapseCount = lengths[TARGETS] / 4;
+            if (lengths[ROW_OFFSETS] != 4L * (n + 1) || synapseCount > Integer.MAX_VALUE
+                    || lengths[WEIGHTS] != 8 * synapseCount || lengths[DELAYS] != 4 * synapseCount
+                    || lengths[PLASTICITY] != 8 * synapseCount || lengths[POTENTIALS] != 8L * n
+                    || lengths[LAST_SPIKES] != 8L * n) {
+                throw new IOException("Section lengths in " + file + " do not match " + n + " neurons");
+            }
+            int m = (int) synapseCount;
+            int[] rowOffsets = new int[n + 1];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            int[] delays = new int[m];
+            double[] plasticity = new double[m];
+            snapshot.membranePotentials = new double[n];
+            snapshot.lastSpikeTimes = new long[n];
+
+            CRC32 crc = verify ? new CRC32() : null;
+            readInts(channel, offsets[ROW_OFFSETS], rowOffsets, crc);
+            check(file, ROW_OFFSETS, checksums[ROW_OFFSETS], crc);
+            readInts(channel, offsets[TARGETS], targets, crc);
+            check(file, TARGETS, checksums[TARGETS], crc);
+            readDoubles(channel, offsets[WEIGHTS], weights, crc);
+            check(file, WEIGHTS, checksums[WEIGHTS], crc);
+            readInts(channel, offsets[DELAYS], delays, crc);
+            check(file, DELAYS, checksums[DELAYS], crc);
+            readDoubles(channel, offsets[PLASTICITY], plasticity, crc);
+            check(file, PLASTICITY, checksums[PLASTICITY], crc);
+            readDoubles(channel, offsets[POTENTIALS], snapshot.membranePotentials, crc);
+            check(file, POTENTIALS, checksums[POTENTIALS], crc);
+            readLongs(channel, offsets[LAST_SPIKES], snapshot.lastSpikeTimes, crc);
+            check(file, LAST_SPIKES, checksums[LAST_SPIKES], crc);
+
+            snapshot.synapses = new SynapseMatrix(n, rowOffsets, targets, weights, delays, plasticity);
+            return snapshot;
+        }
+    }
+
+    private static void check(Path file, int section, int expected, CRC32 crc) throws IOException {
+        if (crc == null) {
+            return;
+        }
+        if ((int) crc.getValue() != expected) {
+            throw new IOException("Checksum mismatch in section " + section + " of " + file);
+        }
+        crc.reset();
+    }
+
+    private ByteBuffer encodeMeta() {
+        byte[] topology = bytes(topologyType);
+        byte[] neuron = bytes(neuronType);
+        int size = 4 + 8 + 1 + 8 + 4 + topology.length + 8 * 3 + 4 + neuron.length + 4;
+        byte[][] keys = new byte[neuronParameters.size()][];
+        double[] values = new double[keys.length];
+        int k = 0;
+        for (Map.Entry<String, Double> entry : neuronParameters.entrySet()) {
+            keys[k] = bytes(entry.getKey());
+            values[k] = entry.getValue() != null ? entry.getValue() : Double.NaN;
+            size += 4 + keys[k].length + 8;
+            k++;
+        }
+        ByteBuffer meta = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        meta.putInt(neuronCount).putDouble(connectivity).put((byte) (plasticityEnabled ? 1 : 0)).putLong(seed);
+        meta.putInt(topology.length).put(topology);
+        meta.putDouble(restingPotential).putDouble(threshold).putDouble(timeConstant);
+        meta.putInt(neuron.length).put(neuron);
+        meta.putInt(keys.length);
+        for (k = 0; k < keys.length; k++) {
+            meta.putInt(keys[k].length).put(keys[k]).putDouble(values[k]);
+        }
+        meta.flip();
+        return meta;
+    }
+
+    private void decodeMeta(ByteBuffer meta) {
+        neuronCount = meta.getInt();
+        connectivity = meta.getDouble();
+        plasticityEnabled = meta.get() != 0;
+        seed = meta.getLong();
+        topologyType = string(meta);
+        restingPotential = meta.getDouble();
+        threshold = meta.getDouble();
+        timeConstant = meta.getDouble();
+        neuronType = string(meta);
+        int count = meta.getInt();
+        neuronParameters = new HashMap<>();
+        for (int k = 0; k < count; k++) {
+            String key = string(meta);
+            neuronParameters.put(key, meta.getDouble());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    // Array sections go through a direct buffer in IO_BUFFER pieces, checksummed on the way
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, CRC32 crc, int[] values)
+            throws IOException {
+        int step = buffer.capacity() / 4;
+        for (int from = 0; from < values.length; from += step) {
+            int length = Math.min(step, values.length - from);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, from, length);
+            flush(channel, buffer, crc, 4 * length);
+        }
+    }
+
+    private static void writeDoubles(FileChannel channel, ByteBuffer buffer, CRC32 crc, double[] values)
+            throws IOException {
+        int step = buffer.capacity() / 8;
+        for (int from = 0; from < values.length; from += step) {
+            int length = Math.min(step, values.length - from);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, from, length);
+            flush(channel, buffer, crc, 8 * length);
+        }
+    }
+
+    private static void writeLongs(FileChannel channel, ByteBuffer buffer, CRC32 crc, long[] values)
+            throws IOException {
+        int step = buffer.capacity() / 8;
+        for (int from = 0; from < values.length; from += step) {
+            int length = Math.min(step, values.length - from);
+            buffer.clear();
+            buffer.asLongBuffer().put(values, from, length);
+            flush(channel, buffer, crc, 8 * length);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc, int bytes) throws IOException {
+        buffer.limit(bytes);
+        crc.update(buffer.duplicate());
+        writeFully(channel, buffer);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Array sections are mapped in MAP_CHUNK pieces and bulk-copied out
+
+    private static void readInts(FileChannel channel, long offset, int[] values, CRC32 crc) throws IOException {
+        int step = MAP_CHUNK / 4;
+        for (int from = 0; from < values.length; from += step) {
+            int length = Math.min(step, values.length - from);
+            map(channel, offset + 4L * from, 4 * length, crc).asIntBuffer().get(values, from, length);
+        }
+    }
+
+    private static void readDoubles(FileChannel channel, long offset, double[] values, CRC32 crc)
+            throws IOException {
+        int step = MAP_CHUNK / 8;
+        for (int from = 0; from < values.length; from += step) {
+            int length = Math.min(step, values.length - from);
+            map(channel, offset + 8L * from, 8 * length, crc).asDoubleBuffer().get(values, from, length);
+        }
+    }
+
+    private static void readLongs(FileChannel channel, long offset, long[] values, CRC32 crc) throws IOException {
+        int step = MAP_CHUNK / 8;
+        for (int from = 0; from < values.length; from += step) {
+            int length = Math.min(step, values.length - from);
+            map(channel, offset + 8L * from, 8 * length, crc).asLongBuffer().get(values, from, length);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, int length, CRC32 crc) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        if (crc != null) {
+            crc.update(mapped.duplicate());
+        }
+        return mapped.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Getters and Setters
+    public String getTopologyType() { return topologyType; }
+    public void setTopologyType(String topologyType) { this.topologyType = topologyType; }
+
+    public int getNeuronCount() { return neuronCount; }
+    public void setNeuronCount(int neuronCount) { this.neuronCount = neuronCount; }
+
+    public double getConnectivity() { return connectivity; }
+    public void setConnectivity(double connectivity) { this.connectivity = connectivity; }
+
+    public boolean isPlasticityEnabled() { return plasticityEnabled; }
+    public void setPlasticityEnabled(boolean plasticityEnabled) { this.plasticityEnabled = plasticityEnabled; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public String getNeuronType() { return neuronType; }
+    public void setNeuronType(String neuronType) { this.neuronType = neuronType; }
+
+    public double getRestingPotential() { return restingPotential; }
+    public void setRestingPotential(double restingPotential) { this.restingPotential = restingPotential; }
+
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+
+    public double getTimeConstant() { return timeConstant; }
+    public void setTimeConstant(double timeConstant) { this.timeConstant = timeConstant; }
+
+    public Map<String, Double> getNeuronParameters() { return neuronParameters; }
+    public void setNeuronParameters(Map<String, Double> neuronParameters) { this.neuronParameters = neuronParameters; }
+
+    public SynapseMatrix getSynapses() { return synapses; }
+    public void setSynapses(SynapseMatrix synapses) { this.synapses = synapses; }
+
+    public double[] getMembranePotentials() { return membranePotentials; }
+    public void setMembranePotentials(double[] membranePotentials) { this.membranePotentials = membranePotentials; }
+
+    public long[] getLastSpikeTimes() { return lastSpikeTimes; }
+    public void setLastSpikeTimes(long[] lastSpikeTimes) { this.lastSpikeTimes = lastSpikeTimes; }
+}
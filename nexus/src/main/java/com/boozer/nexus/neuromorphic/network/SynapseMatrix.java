@@ -0,0 +1,250 @@
+package com.boozer.nexus.neuromorphic.network;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Synapse Matrix
+ *
+ * Synapses of a spiking network as compressed sparse rows: the outgoing synapses
+ * of neuron i are entries rowOffsets[i] .. rowOffsets[i + 1] of the parallel
+ * target, weight, delay and plasticity arrays. Fan-out of a spike therefore walks
+ * one contiguous slice, O(out-degree), with no per-synapse objects.
+ *
+ * Delays are whole time steps (the spike timestamp unit) and at least one, so a
+ * spike never arrives in the step it was emitted. The arrays are shared, not
+ * copied: learning rules update weights and plasticity in place, and the running
+ * plasticity sum behind {@link #meanPlasticity()} is kept by the sweeps here.
+ */
+public final class SynapseMatrix {
+
+    /** Plasticity of a newly created synapse */
+    public static final double INITIAL_PLASTICITY = 0.5;
+
+    /** Rows per parallel task when generating a random matrix */
+    private static final int GENERATION_CHUNK = 1024;
+
+    private final int numNeurons;
+    private final int[] rowOffsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] delays;
+    private final double[] plasticity;
+    private final int maxDelay;
+    private double plasticitySum;
+
+    public SynapseMatrix(int numNeurons, int[] rowOffsets, int[] targets, double[] weights, int[] delays,
+                         double[] plasticity) {
+        int count = targets.length;
+        if (rowOffsets.length != numNeurons + 1 || rowOffsets[0] != 0 || rowOffsets[numNeurons] != count
+                || weights.length != count || delays.length != count || plasticity.length != count) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays for " + numNeurons + " neurons and "
+                + count + " synapses");
+        }
+        int max = 0;
+        for (int k = 0; k < count; k++) {
+            if (targets[k] < 0 || targets[k] >= numNeurons) {
+                throw new IllegalArgumentException("Synapse " + k + " targets missing neuron " + targets[k]);
+            }
+            if (delays[k] < 1) {
+                throw new IllegalArgumentException("Synapse " + k + " has delay " + delays[k] + ", must be at least 1");
+            }
+            max = Math.max(max, delays[k]);
+        }
+        this.numNeurons = numNeurons;
+        this.rowOffsets = rowOffsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.delays = delays;
+        this.plasticity = plasticity;
+        this.maxDelay = max;
+        refreshPlasticity();
+    }
+
+    /**
+     * Build from the first {@code count} entries of an edge list, grouping by
+     * presynaptic neuron with a counting sort; edges keep their order within a row
+     */
+    public static SynapseMatrix fromEdges(int numNeurons, int[] pre, int[] post, double[] weight, int[] delay,
+                                          int count) {
+        int[] rowOffsets = new int[numNeurons + 1];
+        for (int e = 0; e < count; e++) {
+            if (pre[e] < 0 || pre[e] >= numNeurons) {
+                throw new IllegalArgumentException("Edge " + e + " starts at missing neuron " + pre[e]);
+            }
+            rowOffsets[pre[e] + 1]++;
+        }
+        for (int i = 0; i < numNeurons; i++) {
+            rowOffsets[i + 1] += rowOffsets[i];
+        }
+        int[] fill = new int[numNeurons];
+        System.arraycopy(rowOffsets, 0, fill, 0, numNeurons);
+
+        int[] targets = new int[count];
+        double[] weights = new double[count];
+        int[] delays = new int[count];
+        double[] plasticity = new double[count];
+        for (int e = 0; e < count; e++) {
+            int k = fill[pre[e]]++;
+            targets[k] = post[e];
+            weights[k] = weight[e];
+            delays[k] = delay[e];
+            plasticity[k] = INITIAL_PLASTICITY;
+        }
+        return new SynapseMatrix(numNeurons, rowOffsets, targets, weights, delays, plasticity);
+    }
+
+    /**
+     * Random network in which each ordered pair of distinct neurons is connected
+     * with the given probability, with Gaussian weights of standard deviation
+     * {@code weightScale} and delays uniform in 1 .. maxDelay.
+     *
+     * Each row draws from its own generator seeded from (seed, row), so the
+     * result depends on the seed alone and rows are built in parallel. Targets
+     * are found by geometric skipping over the candidates, O(out-degree) per row
+     * rather than one draw per candidate pair. A first pass counts the row
+     * lengths, a second fills the rows in place, already sorted by target.
+     */
+    public static SynapseMatrix random(int numNeurons, double connectivity, long seed, double weightScale,
+                                       int maxDelay) {
+        if (numNeurons < 0 || connectivity < 0.0 || connectivity > 1.0 || maxDelay < 1) {
+            throw new IllegalArgumentException("Invalid random network: " + numNeurons + " neurons, connectivity "
+                + connectivity + ", max delay " + maxDelay);
+        }
+        int chunks = (numNeurons + GENERATION_CHUNK - 1) / GENERATION_CHUNK;
+        int[] rowOffsets = new int[numNeurons + 1];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int end = Math.min(numNeurons, (c + 1) * GENERATION_CHUNK);
+            for (int i = c * GENERATION_CHUNK; i < end; i++) {
+                rowOffsets[i + 1] = connect(i, numNeurons, connectivity, seed, null, 0);
+            }
+        });
+        long total = 0;
+        for (int i = 0; i < numNeurons; i++) {
+            total += rowOffsets[i + 1];
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Random network of " + numNeurons + " neurons at connectivity "
+                    + connectivity + " exceeds the synapse array limit");
+            }
+            rowOffsets[i + 1] = (int) total;
+        }
+
+        int count = (int) total;
+        int[] targets = new int[count];
+        double[] weights = new double[count];
+        int[] delays = new int[count];
+        double[] plasticity = new double[count];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int end = Math.min(numNeurons, (c + 1) * GENERATION_CHUNK);
+            for (int i = c * GENERATION_CHUNK; i < end; i++) {
+                connect(i, numNeurons, connectivity, seed, targets, rowOffsets[i]);
+                SplittableRandom values = new SplittableRandom(rowSeed(seed, 2L * i + 1));
+                for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+                    weights[k] = gaussian(values) * weightScale;
+                    delays[k] = 1 + values.nextInt(maxDelay);
+                    plasticity[k] = INITIAL_PLASTICITY;
+                }
+            }
+        });
+        return new SynapseMatrix(numNeurons, rowOffsets, targets, weights, delays, plasticity);
+    }
+
+    /**
+     * Walk the targets of row i (every neuron but i, each kept with probability p),
+     * writing them from {@code offset} when {@code targets} is given; returns the
+     * row length
+     */
+    private static int connect(int i, int numNeurons, double p, long seed, int[] targets, int offset) {
+        int candidates = numNeurons - 1;
+        if (p <= 0.0 || candidates == 0) {
+            return 0;
+        }
+        SplittableRandom random = new SplittableRandom(rowSeed(seed, 2L * i));
+        double logMiss = Math.log1p(-p);
+        int count = 0;
+        long candidate = -1;
+        while (true) {
+            // Candidates skipped before the next hit are geometric with parameter p
+            double skip = p >= 1.0 ? 0.0 : Math.log(1.0 - random.nextDouble()) / logMiss;
+            if (candidate + 1 + skip >= candidates) {
+                return count;
+            }
+            candidate += 1 + (long) skip;
+            if (targets != null) {
+                targets[offset + count] = candidate < i ? (int) candidate : (int) candidate + 1;
+            }
+            count++;
+        }
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * Decorrelated seed of one row stream (MurmurHash3 finaliser)
+     */
+    private static long rowSeed(long seed, long stream) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Mean plasticity over all synapses, maintained by {@link #scalePlasticity}
+     */
+    public double meanPlasticity() {
+        return plasticity.length > 0 ? plasticitySum / plasticity.length : 0.0;
+    }
+
+    /**
+     * Recompute the plasticity sum after writing the plasticity array directly
+     */
+    public void refreshPlasticity() {
+        double sum = 0.0;
+        for (double value : plasticity) {
+            sum += value;
+        }
+        plasticitySum = sum;
+    }
+
+    /**
+     * Multiply every weight by the factor and clip to [minWeight, maxWeight]. A
+     * straight pass over the weight array, which the JIT vectorises.
+     */
+    public void scaleWeights(double factor, double minWeight, double maxWeight) {
+        double[] w = weights;
+        for (int k = 0; k < w.length; k++) {
+            w[k] = Math.min(maxWeight, Math.max(minWeight, w[k] * factor));
+        }
+    }
+
+    /**
+     * Multiply every plasticity by the factor, keeping it within [0, 1]
+     */
+    public void scalePlasticity(double factor) {
+        double[] p = plasticity;
+        double sum = 0.0;
+        for (int k = 0; k < p.length; k++) {
+            p[k] = Math.min(1.0, Math.max(0.0, p[k] * factor));
+            sum += p[k];
+        }
+        plasticitySum = sum;
+    }
+
+    public int outDegree(int neuron) {
+        return rowOffsets[neuron + 1] - rowOffsets[neuron];
+    }
+
+    // Getters
+    public int getNumNeurons() { return numNeurons; }
+    public int size() { return targets.length; }
+    public int getMaxDelay() { return maxDelay; }
+    public int[] getRowOffsets() { return rowOffsets; }
+    public int[] getTargets() { return targets; }
+    public double[] getWeights() { return weights; }
+    public int[] getDelays() { return delays; }
+    public double[] getPlasticity() { return plasticity; }
+}
@@ -0,0 +1,238 @@
+package com.boozer.nexus.neuromorphic.recording;
+
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.boozer.nexus.neuromorphic.recording.SpikeTrainFormat.*;
+
+/**
+ * Spike Recorder
+ *
+ * Appends spikes to a file in the {@link SpikeTrainFormat}, writing straight into
+ * memory-mapped regions of the file. Spike times are encoded into the current
+ * block as they arrive; neuron ids wait in a fixed staging array and are written
+ * behind the time column when the block is sealed. Recording a spike therefore
+ * allocates nothing; a new region of {@code regionBlocks} blocks is mapped when
+ * the previous one fills.
+ *
+ * The file header is rewritten whenever a block is sealed, so a run that dies
+ * keeps every sealed block readable. {@link #close()} seals the last block and
+ * trims the file to its content. Not thread safe: one simulator writes.
+ */
+public class SpikeRecorder implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpikeRecorder.class);
+
+    /** 64 MiB regions with the default block size */
+    public static final int DEFAULT_REGION_BLOCKS = 16_384;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int blockSize;
+    private final int regionBlocks;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer region;
+    private int regionIndex = -1;
+
+    // Block being filled
+    private final int[] pendingIds;
+    private int pendingCount;
+    private int blockOffset;
+    private int timeBytes;
+    private int idBytes;
+    private long blockFirstTime;
+    private long previousTime;
+
+    private long blockCount;
+    private long spikeCount;
+    private long droppedCount;
+    private long firstTime;
+    private long lastTime = Long.MIN_VALUE;
+    private boolean closed;
+
+    public SpikeRecorder(Path file, double timeStep) throws IOException {
+        this(file, timeStep, DEFAULT_BLOCK_SIZE, DEFAULT_REGION_BLOCKS);
+    }
+
+    /**
+     * Create (or truncate) the file; spike times are in units of {@code timeStep} ms
+     */
+    public SpikeRecorder(Path file, double timeStep, int blockSize, int regionBlocks) throws IOException {
+        checkBlockSize(blockSize);
+        if (regionBlocks < 1 || (long) regionBlocks * blockSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region must hold between 1 block and 2 GiB, got " + regionBlocks
+                + " blocks");
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+        this.regionBlocks = regionBlocks;
+        // Smallest spike is one byte of time delta and one of neuron id
+        this.pendingIds = new int[(blockSize - BLOCK_HEADER_SIZE) / 2];
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, blockSize);
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(BLOCK_SIZE_OFFSET, blockSize);
+        header.putDouble(TIME_STEP_OFFSET, timeStep);
+        writeHeader();
+    }
+
+    /**
+     * Append one spike; times must not decrease and neuron ids must not be negative
+     */
+    public void record(long time, int neuron) {
+        if (closed) {
+            throw new IllegalStateException("Recorder for " + file + " is closed");
+        }
+        if (time < lastTime || neuron < 0) {
+            throw new IllegalArgumentException("Cannot record spike of neuron " + neuron + " at " + time
+                + " after time " + lastTime);
+        }
+        if (pendingCount == 0) {
+            startBlock(time);
+        }
+        long delta = time - previousTime;
+        int timeSize = varintSize(delta);
+        int idSize = varintSize(neuron);
+        if (BLOCK_HEADER_SIZE + timeBytes + idBytes + timeSize + idSize > blockSize) {
+            sealBlock();
+            startBlock(time);
+            delta = 0;
+            timeSize = 1;
+        }
+        putVarint(region, blockOffset + BLOCK_HEADER_SIZE + timeBytes, delta);
+        timeBytes += timeSize;
+        idBytes += idSize;
+        pendingIds[pendingCount++] = neuron;
+        previousTime = time;
+
+        if (spikeCount == 0) {
+            firstTime = time;
+        }
+        lastTime = time;
+        spikeCount++;
+    }
+
+    /**
+     * Append one spike unless it is earlier than the last one recorded, in which
+     * case it is counted and dropped; returns whether it was recorded. For
+     * producers whose successive outputs may overlap in time.
+     */
+    public boolean offer(long time, int neuron) {
+        if (time < lastTime) {
+            droppedCount++;
+            return false;
+        }
+        record(time, neuron);
+        return true;
+    }
+
+    /**
+     * Append every spike of a time-ordered buffer (amplitudes are not stored)
+     */
+    public void record(SpikeBuffer spikes) {
+        for (int k = 0; k < spikes.size(); k++) {
+            record(spikes.time(k), spikes.neuron(k));
+        }
+    }
+
+    private void startBlock(long time) {
+        long block = blockCount + 1;
+        int index = (int) ((block - 1) / regionBlocks);
+        if (index != regionIndex) {
+            mapRegion(index);
+        }
+        blockOffset = (int) ((block - 1) % regionBlocks) * blockSize;
+        blockFirstTime = time;
+        previousTime = time;
+        timeBytes = 0;
+        idBytes = 0;
+    }
+
+    private void mapRegion(int index) {
+        if (region != null) {
+            region.force();
+        }
+        long position = (long) blockSize * (1 + (long) index * regionBlocks);
+        try {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) regionBlocks * blockSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map region " + index + " of " + file, e);
+        }
+        regionIndex = index;
+    }
+
+    /**
+     * Write the staged ids behind the time column and the block header
+     */
+    private void sealBlock() {
+        int offset = blockOffset + BLOCK_HEADER_SIZE + timeBytes;
+        for (int k = 0; k < pendingCount; k++) {
+            offset = putVarint(region, offset, pendingIds[k]);
+        }
+        region.putLong(blockOffset + BLOCK_FIRST_TIME, blockFirstTime);
+        region.putLong(blockOffset + BLOCK_LAST_TIME, previousTime);
+        region.putInt(blockOffset + BLOCK_COUNT, pendingCount);
+        region.putInt(blockOffset + BLOCK_TIME_BYTES, timeBytes);
+        pendingCount = 0;
+        blockCount++;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        long sealed = spikeCount - pendingCount;
+        header.putLong(BLOCK_COUNT_OFFSET, blockCount);
+        header.putLong(SPIKE_COUNT_OFFSET, sealed);
+        header.putLong(FIRST_TIME_OFFSET, sealed > 0 ? firstTime : 0);
+        header.putLong(LAST_TIME_OFFSET, sealed > 0 ? lastTime : 0);
+    }
+
+    /**
+     * Seal the current block and force everything written so far to disk
+     */
+    public void flush() {
+        if (pendingCount > 0) {
+            sealBlock();
+        }
+        if (region != null) {
+            region.force();
+        }
+        header.force();
+    }
+
+    /**
+     * Flush and trim the file to the sealed blocks
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        channel.truncate((long) blockSize * (1 + blockCount));
+        channel.close();
+        logger.debug("Recorded {} spikes in {} blocks to {}, dropped {} out of order", spikeCount, blockCount,
+            file, droppedCount);
+    }
+
+    // Getters
+    public Path getFile() { return file; }
+    public int getBlockSize() { return blockSize; }
+    public long getSpikeCount() { return spikeCount; }
+    /** Spikes {@link #offer} dropped for arriving earlier than the last recorded one */
+    public long getDroppedCount() { return droppedCount; }
+    public long getBlockCount() { return blockCount; }
+    public long getLastTime() { return lastTime; }
+    public boolean isClosed() { return closed; }
+}
@@ -0,0 +1,85 @@
+package com.boozer.nexus.neuromorphic.recording;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Spike Train Format
+ *
+ * On-disk layout shared by {@link SpikeRecorder} and {@link SpikeTrainReader}.
+ * A file is a sequence of fixed-size blocks; block 0 is the file header and
+ * block k (k >= 1) holds spikes in non-decreasing time order:
+ *
+ * <pre>
+ * file header   magic int, version int, block size int, (unused int),
+ *               time step double, block count long, spike count long,
+ *               first time long, last time long
+ * block header  first time long, last time long, spike count int,
+ *               time column bytes int
+ * time column   varint delta of each spike time from the previous one
+ *               (the first from the block's first time, so 0)
+ * id column     varint neuron id of each spike
+ * </pre>
+ *
+ * Varints are unsigned LEB128: seven bits per byte, low group first, high bit set
+ * on every byte but the last. A spike a step after its predecessor with a neuron
+ * id below 16384 takes three bytes. Block headers carry the time range, so a
+ * reader finds a time window by binary search over blocks without decoding them.
+ */
+public final class SpikeTrainFormat {
+
+    /** "NXSP" */
+    public static final int MAGIC = 0x4E585350;
+    public static final int VERSION = 1;
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+    public static final int MIN_BLOCK_SIZE = 256;
+    public static final int BLOCK_HEADER_SIZE = 24;
+
+    // File header offsets
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int BLOCK_SIZE_OFFSET = 8;
+    static final int TIME_STEP_OFFSET = 16;
+    static final int BLOCK_COUNT_OFFSET = 24;
+    static final int SPIKE_COUNT_OFFSET = 32;
+    static final int FIRST_TIME_OFFSET = 40;
+    static final int LAST_TIME_OFFSET = 48;
+
+    // Block header offsets
+    static final int BLOCK_FIRST_TIME = 0;
+    static final int BLOCK_LAST_TIME = 8;
+    static final int BLOCK_COUNT = 16;
+    static final int BLOCK_TIME_BYTES = 20;
+
+    private SpikeTrainFormat() {
+    }
+
+    /**
+     * Check that a block size is a power of two no smaller than {@link #MIN_BLOCK_SIZE}
+     */
+    static void checkBlockSize(int blockSize) {
+        if (blockSize < MIN_BLOCK_SIZE || Integer.bitCount(blockSize) != 1) {
+            throw new IllegalArgumentException("Block size must be a power of two of at least " + MIN_BLOCK_SIZE
+                + " bytes, got " + blockSize);
+        }
+    }
+
+    /**
+     * Encoded length of a non-negative value
+     */
+    static int varintSize(long value) {
+        return value < 0x80 ? 1 : (70 - Long.numberOfLeadingZeros(value)) / 7;
+    }
+
+    /**
+     * Write a non-negative value at the offset; returns the offset after it
+     */
+    static int putVarint(ByteBuffer buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put(offset++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(offset++, (byte) value);
+        return offset;
+    }
+}
@@ -0,0 +1,240 @@
+package com.boozer.nexus.neuromorphic.recording;
+
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.boozer.nexus.neuromorphic.recording.SpikeTrainFormat.*;
+
+/**
+ * Spike Train Reader
+ *
+ * Read-only, memory-mapped view of a file written by {@link SpikeRecorder}.
+ * Queries take a half-open time window [from, to): the first block that can
+ * hold the window is found by binary search over the block headers, and blocks
+ * are decoded in place until one starts at or after {@code to}. Only the blocks
+ * overlapping the window are touched, and nothing is loaded onto the heap beyond
+ * what a query returns. Counting skips decoding of blocks lying wholly inside
+ * the window.
+ *
+ * Reads use absolute positions only, so queries may run concurrently.
+ */
+public class SpikeTrainReader implements Closeable {
+
+    /** Receives decoded spikes in time order */
+    @FunctionalInterface
+    public interface SpikeVisitor {
+        void visit(long time, int neuron);
+    }
+
+    /** Largest mapping, kept a whole number of blocks */
+    private static final long MAX_REGION = 1L << 30;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int blockSize;
+    private final double timeStep;
+    private final long blockCount;
+    private final long spikeCount;
+    private final long firstTime;
+    private final long lastTime;
+    private final int regionBlocks;
+    private final MappedByteBuffer[] regions;
+
+    public SpikeTrainReader(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < MIN_BLOCK_SIZE) {
+                throw new IllegalArgumentException(file + " is too short for a spike train header");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, MIN_BLOCK_SIZE);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IllegalArgumentException(file + " is not a version " + VERSION + " spike train");
+            }
+            this.blockSize = header.getInt(BLOCK_SIZE_OFFSET);
+            checkBlockSize(blockSize);
+            this.timeStep = header.getDouble(TIME_STEP_OFFSET);
+            this.blockCount = header.getLong(BLOCK_COUNT_OFFSET);
+            this.spikeCount = header.getLong(SPIKE_COUNT_OFFSET);
+            this.firstTime = header.getLong(FIRST_TIME_OFFSET);
+            this.lastTime = header.getLong(LAST_TIME_OFFSET);
+            if (blockCount < 0 || (1 + blockCount) * blockSize > size) {
+                throw new IllegalArgumentException(file + " holds fewer than the " + blockCount
+                    + " blocks its header lists");
+            }
+
+            this.regionBlocks = (int) (MAX_REGION / blockSize);
+            int count = (int) ((blockCount + regionBlocks - 1) / regionBlocks);
+            this.regions = new MappedByteBuffer[count];
+            for (int r = 0; r < count; r++) {
+                long first = (long) r * regionBlocks;
+                long blocks = Math.min(regionBlocks, blockCount - first);
+                regions[r] = channel.map(FileChannel.MapMode.READ_ONLY, (long) blockSize * (1 + first),
+                    blocks * blockSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Visit every spike with from <= time < to, in recorded order; returns how
+     * many were visited
+     */
+    public long scan(long from, long to, SpikeVisitor visitor) {
+        long visited = 0;
+        for (long block = firstBlock(from); block < blockCount && blockFirstTime(block) < to; block++) {
+            visited += decodeBlock(block, from, to, visitor);
+        }
+        return visited;
+    }
+
+    private long decodeBlock(long block, long from, long to, SpikeVisitor visitor) {
+        MappedByteBuffer region = regions[(int) (block / regionBlocks)];
+        int base = (int) (block % regionBlocks) * blockSize;
+        long time = region.getLong(base + BLOCK_FIRST_TIME);
+        int count = region.getInt(base + BLOCK_COUNT);
+        int timeOffset = base + BLOCK_HEADER_SIZE;
+        int idOffset = timeOffset + region.getInt(base + BLOCK_TIME_BYTES);
+        long visited = 0;
+        for (int k = 0; k < count; k++) {
+            // Time delta varint
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = region.get(timeOffset++);
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            time += delta;
+            // Neuron id varint
+            int neuron = 0;
+            shift = 0;
+            do {
+                b = region.get(idOffset++);
+                neuron |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            if (time >= to) {
+                break;
+            }
+            if (time >= from) {
+                visitor.visit(time, neuron);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Append the spikes with from <= time < to to the buffer (amplitude 1);
+     * returns how many were added
+     */
+    public long query(long from, long to, SpikeBuffer out) {
+        return scan(from, to, (time, neuron) -> out.add(time, neuron, 1.0));
+    }
+
+    /**
+     * Number of spikes with from <= time < to
+     */
+    public long count(long from, long to) {
+        long total = 0;
+        for (long block = firstBlock(from); block < blockCount && blockFirstTime(block) < to; block++) {
+            MappedByteBuffer region = regions[(int) (block / regionBlocks)];
+            int base = (int) (block % regionBlocks) * blockSize;
+            if (region.getLong(base + BLOCK_FIRST_TIME) >= from && region.getLong(base + BLOCK_LAST_TIME) < to) {
+                total += region.getInt(base + BLOCK_COUNT);
+            } else {
+                total += decodeBlock(block, from, to, (time, neuron) -> { });
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Spike counts of neurons firstNeuron .. firstNeuron + neuronCount - 1 in bins
+     * of {@code binWidth} time units from {@code from}; row = neuron, column = bin
+     */
+    public int[][] raster(long from, long to, long binWidth, int firstNeuron, int neuronCount) {
+        int bins = bins(from, to, binWidth);
+        if (firstNeuron < 0 || neuronCount < 0) {
+            throw new IllegalArgumentException("Invalid neuron range " + firstNeuron + " + " + neuronCount);
+        }
+        int[][] raster = new int[neuronCount][bins];
+        scan(from, to, (time, neuron) -> {
+            int row = neuron - firstNeuron;
+            if (row >= 0 && row < neuronCount) {
+                raster[row][(int) ((time - from) / binWidth)]++;
+            }
+        });
+        return raster;
+    }
+
+    /**
+     * Spike counts over all neurons in bins of {@code binWidth} time units
+     */
+    public long[] populationCounts(long from, long to, long binWidth) {
+        long[] counts = new long[bins(from, to, binWidth)];
+        scan(from, to, (time, neuron) -> counts[(int) ((time - from) / binWidth)]++);
+        return counts;
+    }
+
+    private static int bins(long from, long to, long binWidth) {
+        if (binWidth <= 0 || to < from) {
+            throw new IllegalArgumentException("Invalid window [" + from + ", " + to + ") with bin width "
+                + binWidth);
+        }
+        long bins = (to - from + binWidth - 1) / binWidth;
+        if (bins > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Window [" + from + ", " + to + ") has too many bins");
+        }
+        return (int) bins;
+    }
+
+    /**
+     * First block whose last time is at or after the given time
+     */
+    private long firstBlock(long time) {
+        long low = 0;
+        long high = blockCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            MappedByteBuffer region = regions[(int) (mid / regionBlocks)];
+            if (region.getLong((int) (mid % regionBlocks) * blockSize + BLOCK_LAST_TIME) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long blockFirstTime(long block) {
+        return regions[(int) (block / regionBlocks)].getLong((int) (block % regionBlocks) * blockSize
+            + BLOCK_FIRST_TIME);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Getters
+    public Path getFile() { return file; }
+    public int getBlockSize() { return blockSize; }
+    public double getTimeStep() { return timeStep; }
+    public long getBlockCount() { return blockCount; }
+    public long getSpikeCount() { return spikeCount; }
+    public long getFirstTime() { return firstTime; }
+    public long getLastTime() { return lastTime; }
+}
@@ -0,0 +1,93 @@
+package com.boozer.nexus.neuromorphic.runtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * MPSC Bounded Queue
+ *
+ * Lock-free bounded queue for many producers and a single consumer, after
+ * Vyukov's bounded ring. Every slot carries a sequence number: a producer claims
+ * a position with one CAS on the tail and publishes its element by advancing
+ * the slot sequence; the consumer reads a slot once its sequence shows it is
+ * published. No producer ever waits for another to finish, and a full queue
+ * rejects the offer instead of blocking.
+ *
+ * {@link #poll()} must only be called by one thread at a time.
+ */
+public final class MpscBoundedQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    /**
+     * Queue holding at least {@code capacity} elements (rounded up to a power of two)
+     */
+    public MpscBoundedQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Queue capacity must be between 1 and 2^30, got " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Enqueue from any thread; returns false if the queue is full
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Queue elements must not be null");
+        }
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Dequeue on the consumer thread; returns null if nothing is published yet
+     */
+    public E poll() {
+        int slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1) {
+            return null;
+        }
+        E element = elements.get(slot);
+        elements.lazySet(slot, null);
+        sequences.set(slot, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /** Approximate number of queued elements */
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, mask + 1L));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,124 @@
+package com.boozer.nexus.neuromorphic.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Network Actor
+ *
+ * Owns one piece of mutable state (a spiking network) and runs every operation on
+ * it one at a time. Callers on any thread post messages to a bounded
+ * {@link MpscBoundedQueue} and get a future back. The actor is scheduled on a
+ * shared executor only while it has mail, drains up to {@code batchSize} messages
+ * per turn and then yields the thread, so many actors share a small pool and
+ * different actors run in parallel.
+ *
+ * Only one turn is ever active, and turns hand over through the scheduling flag,
+ * so the state needs no locks. A full inbox fails the future at once with
+ * {@link RejectedExecutionException}; callers decide whether to retry.
+ */
+public class NetworkActor<S> {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkActor.class);
+
+    private final String name;
+    private final S state;
+    private final Executor executor;
+    private final MpscBoundedQueue<Runnable> inbox;
+    private final int batchSize;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile Thread turnThread;
+
+    public NetworkActor(String name, S state, Executor executor, int inboxCapacity, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Actor batch size must be positive, got " + batchSize);
+        }
+        this.name = name;
+        this.state = state;
+        this.executor = executor;
+        this.inbox = new MpscBoundedQueue<>(inboxCapacity);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Run the operation on the actor's state; the future completes with its result
+     */
+    public <R> CompletableFuture<R> ask(Function<S, R> operation) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Runnable message = () -> {
+            try {
+                future.complete(operation.apply(state));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+        if (!inbox.offer(message)) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Inbox of actor " + name + " is full ("
+                + inbox.capacity() + " messages)"));
+            return future;
+        }
+        schedule();
+        return future;
+    }
+
+    /**
+     * Ask and wait. Called from the actor's own turn, the operation runs in place,
+     * since waiting for a later turn would never return.
+     */
+    public <R> R call(Function<S, R> operation) {
+        if (Thread.currentThread() == turnThread) {
+            return operation.apply(state);
+        }
+        return ask(operation).join();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::turn);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.warn("Executor rejected actor {}, {} messages left queued", name, inbox.size());
+            }
+        }
+    }
+
+    /**
+     * Process a batch of messages, then give the thread back
+     */
+    private void turn() {
+        turnThread = Thread.currentThread();
+        int count = 0;
+        try {
+            Runnable message;
+            while (count < batchSize && (message = inbox.poll()) != null) {
+                message.run();
+                count++;
+            }
+        } finally {
+            processed.addAndGet(count);
+            turnThread = null;
+            scheduled.set(false);
+        }
+        if (!inbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public int getQueuedMessages() { return inbox.size(); }
+    public int getInboxCapacity() { return inbox.capacity(); }
+    public long getProcessedMessages() { return processed.get(); }
+    public long getRejectedMessages() { return rejected.get(); }
+}
@@ -0,0 +1,112 @@
+package com.boozer.nexus.neuromorphic.simulator;
+
+import com.boozer.nexus.neuromorphic.network.SynapseMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event-Driven Propagator
+ *
+ * Delivers spikes through a {@link SynapseMatrix} in time order. External input
+ * spikes are merged with the synaptic events waiting in a {@link SpikeQueue}; at
+ * each time step queued events are delivered first, then inputs. When a delivery
+ * makes a neuron fire, its outgoing row is walked once and every synapse schedules
+ * an event at t + delay carrying the synapse weight, so a spike costs O(out-degree)
+ * and allocates nothing. Emitted spikes are re-injected until the queue drains or
+ * the event budget is spent.
+ *
+ * Neuron dynamics stay with the caller through {@link SpikeTarget}. Not thread
+ * safe: one propagator per network, used by one thread at a time.
+ */
+public class EventDrivenPropagator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDrivenPropagator.class);
+
+    /** Neuron model receiving deliveries */
+    @FunctionalInterface
+    public interface SpikeTarget {
+        /**
+         * Deliver an input of the given amplitude; return true if the neuron fires
+         */
+        boolean receive(int neuron, long time, double amplitude);
+    }
+
+    private final SynapseMatrix synapses;
+    private final SpikeQueue queue;
+    private long maxEvents = 10_000_000L;
+
+    public EventDrivenPropagator(SynapseMatrix synapses) {
+        this.synapses = synapses;
+        this.queue = new SpikeQueue(Math.max(1, synapses.getMaxDelay()));
+    }
+
+    /**
+     * Run the time-ordered inputs through the network, appending every spike a
+     * neuron emits to {@code fired} (amplitude 1). Returns the number of deliveries.
+     */
+    public long run(SpikeBuffer inputs, SpikeTarget target, SpikeBuffer fired) {
+        if (!inputs.isTimeOrdered()) {
+            throw new IllegalArgumentException("Input spikes must be in time order");
+        }
+        int count = inputs.size();
+        if (count == 0) {
+            return 0;
+        }
+        int[] rowOffsets = synapses.getRowOffsets();
+        int[] targets = synapses.getTargets();
+        double[] weights = synapses.getWeights();
+        int[] delays = synapses.getDelays();
+        int numNeurons = synapses.getNumNeurons();
+
+        queue.reset(inputs.time(0));
+        int next = 0;
+        long delivered = 0;
+        while (next < count || !queue.isEmpty()) {
+            long time = Math.min(queue.nextTime(), next < count ? inputs.time(next) : Long.MAX_VALUE);
+            queue.advanceTo(time);
+
+            int size = queue.currentSize();
+            int[] neurons = queue.currentNeurons();
+            double[] amplitudes = queue.currentAmplitudes();
+            for (int k = 0; k < size; k++) {
+                deliver(neurons[k], time, amplitudes[k], target, fired, rowOffsets, targets, weights, delays);
+            }
+            queue.clearCurrent();
+            delivered += size;
+
+            while (next < count && inputs.time(next) == time) {
+                int neuron = inputs.neuron(next);
+                if (neuron >= 0 && neuron < numNeurons) {
+                    deliver(neuron, time, inputs.amplitude(next), target, fired, rowOffsets, targets, weights, delays);
+                    delivered++;
+                }
+                next++;
+            }
+
+            if (delivered >= maxEvents) {
+                logger.warn("Spike propagation stopped at t={} after {} deliveries, {} events dropped",
+                    time, delivered, queue.size());
+                queue.reset(time);
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    private void deliver(int neuron, long time, double amplitude, SpikeTarget target, SpikeBuffer fired,
+                         int[] rowOffsets, int[] targets, double[] weights, int[] delays) {
+        if (!target.receive(neuron, time, amplitude)) {
+            return;
+        }
+        fired.add(time, neuron, 1.0);
+        for (int k = rowOffsets[neuron]; k < rowOffsets[neuron + 1]; k++) {
+            queue.schedule(time + delays[k], targets[k], weights[k]);
+        }
+    }
+
+    // Configuration
+    public long getMaxEvents() { return maxEvents; }
+    public void setMaxEvents(long maxEvents) { this.maxEvents = maxEvents; }
+
+    public SynapseMatrix getSynapses() { return synapses; }
+}
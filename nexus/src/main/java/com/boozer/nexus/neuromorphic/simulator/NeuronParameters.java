@@ -0,0 +1,89 @@
+package com.boozer.nexus.neuromorphic.simulator;
+
+/**
+ * Neuron Parameters
+ *
+ * Membrane parameters shared by every neuron of a population. Potentials are in
+ * mV and times in ms. Synaptic inputs are instantaneous jumps of the membrane
+ * potential by the synapse weight.
+ *
+ * LIF: v relaxes to the resting potential with the membrane time constant and
+ * fires at the threshold. AdEx adds the exponential spike-initiation current
+ * Δ_T·exp((v − V_T)/Δ_T), with the threshold as V_T, and an adaptation variable
+ * w (in mV) obeying τ_w·dw/dt = a·(v − E_L) − w. An AdEx spike is registered when
+ * v reaches the peak potential, after which w jumps by b. Both models reset to the
+ * reset potential and stay clamped there for the refractory steps that follow.
+ */
+public class NeuronParameters {
+
+    public enum Model { LIF, ADEX }
+
+    private Model model = Model.LIF;
+    private double restingPotential = -70.0;
+    private double resetPotential = -70.0;
+    private double threshold = -55.0;
+    private double membraneTimeConstant = 20.0;
+    private int refractorySteps = 0;
+
+    private double slopeFactor = 2.0;
+    private double peakPotential = 0.0;
+    private double adaptationCoupling = 0.5;
+    private double adaptationIncrement = 2.0;
+    private double adaptationTimeConstant = 100.0;
+
+    public static NeuronParameters lif(double restingPotential, double threshold, double membraneTimeConstant) {
+        NeuronParameters parameters = new NeuronParameters();
+        parameters.setRestingPotential(restingPotential);
+        parameters.setResetPotential(restingPotential);
+        parameters.setThreshold(threshold);
+        parameters.setMembraneTimeConstant(membraneTimeConstant);
+        return parameters;
+    }
+
+    public static NeuronParameters adex(double restingPotential, double threshold, double membraneTimeConstant) {
+        NeuronParameters parameters = lif(restingPotential, threshold, membraneTimeConstant);
+        parameters.setModel(Model.ADEX);
+        return parameters;
+    }
+
+    /**
+     * Potential at which a spike is registered
+     */
+    public double spikePotential() {
+        return model == Model.ADEX ? peakPotential : threshold;
+    }
+
+    // Getters and Setters
+    public Model getModel() { return model; }
+    public void setModel(Model model) { this.model = model; }
+
+    public double getRestingPotential() { return restingPotential; }
+    public void setRestingPotential(double restingPotential) { this.restingPotential = restingPotential; }
+
+    public double getResetPotential() { return resetPotential; }
+    public void setResetPotential(double resetPotential) { this.resetPotential = resetPotential; }
+
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+
+    public double getMembraneTimeConstant() { return membraneTimeConstant; }
+    public void setMembraneTimeConstant(double membraneTimeConstant) { this.membraneTimeConstant = membraneTimeConstant; }
+
+    public int getRefractorySteps() { return refractorySteps; }
+    public void setRefractorySteps(int refractorySteps) { this.refractorySteps = refractorySteps; }
+
+    public double getSlopeFactor() { return slopeFactor; }
+    public void setSlopeFactor(double slopeFactor) { this.slopeFactor = slopeFactor; }
+
+    public double getPeakPotential() { return peakPotential; }
+    public void setPeakPotential(double peakPotential) { this.peakPotential = peakPotential; }
+
+    public double getAdaptationCoupling() { return adaptationCoupling; }
+    public void setAdaptationCoupling(double adaptationCoupling) { this.adaptationCoupling = adaptationCoupling; }
+
+    public double getAdaptationIncrement() { return adaptationIncrement; }
+    public void setAdaptationIncrement(double adaptationIncrement) { this.adaptationIncrement = adaptationIncrement; }
+
+    public double getAdaptationTimeConstant() { return adaptationTimeConstant; }
+    public void setAdaptationTimeConstant(double adaptationTimeConstant) { this.adaptationTimeConstant = adaptationTimeConstant; }
+}
@@ -0,0 +1,65 @@
+package com.boozer.nexus.neuromorphic.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Spike Buffer
+ *
+ * Growable columnar list of spikes (time, neuron, amplitude). Appending is
+ * amortised O(1) and {@link #clear()} keeps the capacity, so a buffer reused
+ * across runs stops allocating once it has grown to the working size.
+ */
+public final class SpikeBuffer {
+
+    private long[] times;
+    private int[] neurons;
+    private double[] amplitudes;
+    private int size;
+
+    public SpikeBuffer() {
+        this(64);
+    }
+
+    public SpikeBuffer(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.times = new long[initial];
+        this.neurons = new int[initial];
+        this.amplitudes = new double[initial];
+    }
+
+    public void add(long time, int neuron, double amplitude) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            neurons = Arrays.copyOf(neurons, capacity);
+            amplitudes = Arrays.copyOf(amplitudes, capacity);
+        }
+        times[size] = time;
+        neurons[size] = neuron;
+        amplitudes[size] = amplitude;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * True if the spikes are in non-decreasing time order
+     */
+    public boolean isTimeOrdered() {
+        for (int k = 1; k < size; k++) {
+            if (times[k] < times[k - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Getters
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public long time(int k) { return times[k]; }
+    public int neuron(int k) { return neurons[k]; }
+    public double amplitude(int k) { return amplitudes[k]; }
+}
@@ -0,0 +1,108 @@
+package com.boozer.nexus.neuromorphic.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Spike Queue
+ *
+ * Calendar queue for delayed synaptic events: a ring of buckets, one per time
+ * step, indexed by arrival time modulo the ring size. The ring is longer than the
+ * largest synaptic delay, so every event scheduled from the current step lands in
+ * a distinct future bucket and scheduling is O(1). Each bucket holds its events
+ * as parallel primitive arrays that grow by doubling and are reused once drained.
+ */
+public final class SpikeQueue {
+
+    private final int mask;
+    private final int[][] neurons;
+    private final double[][] amplitudes;
+    private final int[] sizes;
+    private long currentTime;
+    private long pending;
+
+    /**
+     * Queue for events at most {@code maxDelay} steps ahead of the current time
+     */
+    public SpikeQueue(int maxDelay) {
+        int ring = Integer.highestOneBit(Math.max(1, maxDelay)) << 1;
+        this.mask = ring - 1;
+        this.neurons = new int[ring][8];
+        this.amplitudes = new double[ring][8];
+        this.sizes = new int[ring];
+    }
+
+    /**
+     * Drop every pending event and restart at the given time
+     */
+    public void reset(long time) {
+        Arrays.fill(sizes, 0);
+        pending = 0;
+        currentTime = time;
+    }
+
+    /**
+     * Queue an event; it must fall inside the ring ahead of the current time
+     */
+    public void schedule(long time, int neuron, double amplitude) {
+        long ahead = time - currentTime;
+        if (ahead < 0 || ahead > mask) {
+            throw new IllegalArgumentException("Event at " + time + " is outside the queue window starting at "
+                + currentTime);
+        }
+        int bucket = (int) (time & mask);
+        int size = sizes[bucket];
+        if (size == neurons[bucket].length) {
+            neurons[bucket] = Arrays.copyOf(neurons[bucket], size * 2);
+            amplitudes[bucket] = Arrays.copyOf(amplitudes[bucket], size * 2);
+        }
+        neurons[bucket][size] = neuron;
+        amplitudes[bucket][size] = amplitude;
+        sizes[bucket] = size + 1;
+        pending++;
+    }
+
+    /**
+     * Time of the earliest pending event, or Long.MAX_VALUE if none
+     */
+    public long nextTime() {
+        if (pending == 0) {
+            return Long.MAX_VALUE;
+        }
+        for (long time = currentTime; ; time++) {
+            if (sizes[(int) (time & mask)] > 0) {
+                return time;
+            }
+        }
+    }
+
+    /**
+     * Move the current time forward; no pending event may be earlier than it
+     */
+    public void advanceTo(long time) {
+        if (time < currentTime || time > nextTime()) {
+            throw new IllegalArgumentException("Cannot move queue from " + currentTime + " to " + time);
+        }
+        currentTime = time;
+    }
+
+    /**
+     * Events of the current step are entries [0, currentSize()) of these arrays.
+     * Events scheduled while they are being read land in later buckets, so the
+     * arrays stay valid until {@link #clearCurrent()}.
+     */
+    public int currentSize() { return sizes[(int) (currentTime & mask)]; }
+    public int[] currentNeurons() { return neurons[(int) (currentTime & mask)]; }
+    public double[] currentAmplitudes() { return amplitudes[(int) (currentTime & mask)]; }
+
+    public void clearCurrent() {
+        int bucket = (int) (currentTime & mask);
+        pending -= sizes[bucket];
+        sizes[bucket] = 0;
+    }
+
+    // Getters
+    public boolean isEmpty() { return pending == 0; }
+    public long size() { return pending; }
+    public long getCurrentTime() { return currentTime; }
+    public int getHorizon() { return mask; }
+}
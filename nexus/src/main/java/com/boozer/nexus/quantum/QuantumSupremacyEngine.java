@@ -497,13 +497,7 @@ public class QuantumSupremacyEngine {
     // Helper methods
     
     private QuantumState initializeQuantumState(int qubitCount) {
-        QuantumState state = new QuantumState();
-        state.setQubitCount(qubitCount);
-        state.setStateVector(createInitialStateVector(qubitCount));
-        state.setFidelity(1.0);
-        state.setCoherenceTime(1000.0); // microseconds
-        state.setCreationTime(LocalDateTime.now());
-        return state;
+        return new QuantumState(qubitCount); // |00...0⟩
     }
     
     private void initializeQuantumCircuit(QuantumSession session) {
@@ -517,22 +511,6 @@ public class QuantumSupremacyEngine {
         session.setCurrentCircuit(initialCircuit);
     }
     
-    private ComplexNumber[] createInitialStateVector(int qubitCount) {
-        int stateSize = 1 << qubitCount; // 2^n
-        ComplexNumber[] stateVector = new ComplexNumber[stateSize];
-        
-        // Initialize to |00...0⟩ state
-        for (int i = 0; i < stateSize; i++) {
-            if (i == 0) {
-                stateVector[i] = new ComplexNumber(1.0, 0.0);
-            } else {
-                stateVector[i] = new ComplexNumber(0.0, 0.0);
-            }
-        }
-        
-        return stateVector;
-    }
-    
     private QuantumDataEncoding encodeClassicalData(Map<String, Object> inputData, int qubitCount) {
         QuantumDataEncoding encoding = new QuantumDataEncoding();
         encoding.setEncodingId(UUID.randomUUID().toString());
@@ -543,7 +521,7 @@ public class QuantumSupremacyEngine {
         
         // Simplified encoding - normalize and map to quantum amplitudes
         List<Double> classicalValues = extractNumericalValues(inputData);
-        ComplexNumber[] encodedAmplitudes = normalizeToQuantumAmplitudes(classicalValues, qubitCount);
+        AmplitudeVector encodedAmplitudes = normalizeToQuantumAmplitudes(classicalValues, qubitCount);
         
         encoding.setQuantumAmplitudes(encodedAmplitudes);
         encoding.setEncodingFidelity(0.95);
@@ -567,20 +545,20 @@ public class QuantumSupremacyEngine {
         return values;
     }
     
-    private ComplexNumber[] normalizeToQuantumAmplitudes(List<Double> values, int qubitCount) {
-        int stateSize = 1 << qubitCount;
-        ComplexNumber[] amplitudes = new ComplexNumber[stateSize];
+    private AmplitudeVector normalizeToQuantumAmplitudes(List<Double> values, int qubitCount) {
+        AmplitudeVector amplitudes = new AmplitudeVector(qubitCount);
+        amplitudes.set(0, 0.0, 0.0);
         
         // Normalize values to unit vector
-        double norm = Math.sqrt(values.stream().mapToDouble(v -> v * v).sum());
-        
-        for (int i = 0; i < stateSize; i++) {
-            if (i < values.size()) {
-                double normalizedValue = values.get(i) / Math.max(norm, 1e-10);
-                amplitudes[i] = new ComplexNumber(normalizedValue, 0.0);
-            } else {
-                amplitudes[i] = new ComplexNumber(0.0, 0.0);
-            }
+        double norm = 0.0;
+        for (double value : values) {
+            norm += value * value;
+        }
+        norm = Math.max(Math.sqrt(norm), 1e-10);
+        
+        int count = Math.min(values.size(), amplitudes.size());
+        for (int i = 0; i < count; i++) {
+            amplitudes.set(i, values.get(i) / norm, 0.0);
         }
         
         return amplitudes;
@@ -613,35 +591,22 @@ public class QuantumSupremacyEngine {
     
     private double calculateQuantumAdvantage(QuantumExecutionResult result) {
         // Simplified quantum advantage calculation
-        double quantumComplexity = Math.log(result.getFinalState().getStateVector().length);
-        double classicalComplexity = Math.pow(result.getFinalState().getQubitCount(), 2);
+        double quantumComplexity = Math.log(result.getFinalState().getAmplitudeVector().size());
+        double classicalComplexity = Math.pow(result.getFinalState().getNumQubits(), 2);
         
         return quantumComplexity / Math.max(classicalComplexity, 1.0);
     }
     
     private Map<String, Double> calculateMeasurementProbabilities(QuantumState state) {
-        Map<String, Double> probabilities = new HashMap<>();
-        ComplexNumber[] stateVector = state.getStateVector();
-        
-        for (int i = 0; i < stateVector.length; i++) {
-            double probability = stateVector[i].magnitudeSquared();
-            if (probability > 1e-10) { // Only include significant probabilities
-                String bitstring = Integer.toBinaryString(i);
-                while (bitstring.length() < state.getQubitCount()) {
-                    bitstring = "0" + bitstring;
-                }
-                probabilities.put(bitstring, probability);
-            }
-        }
-        
-        return probabilities;
+        // Only include significant probabilities
+        return state.getAmplitudeVector().probabilityMap(1e-10);
     }
     
     private Map<String, Double> calculateExpectationValues(QuantumState state) {
         Map<String, Double> expectations = new HashMap<>();
         
         // Calculate Pauli-Z expectation values for each qubit
-        for (int qubit = 0; qubit < state.getQubitCount(); qubit++) {
+        for (int qubit = 0; qubit < state.getNumQubits(); qubit++) {
             double expectation = calculatePauliZExpectation(state, qubit);
             expectations.put("pauli_z_" + qubit, expectation);
         }
@@ -650,21 +615,12 @@ public class QuantumSupremacyEngine {
     }
     
     private double calculatePauliZExpectation(QuantumState state, int targetQubit) {
-        ComplexNumber[] stateVector = state.getStateVector();
-        double expectation = 0.0;
-        
-        for (int i = 0; i < stateVector.length; i++) {
-            double probability = stateVector[i].magnitudeSquared();
-            int bitValue = (i >> targetQubit) & 1;
-            expectation += probability * (bitValue == 0 ? 1.0 : -1.0);
-        }
-        
-        return expectation;
+        return state.getAmplitudeVector().expectationZ(1L << targetQubit);
     }
     
     private double calculateEntanglementEntropy(QuantumState state) {
         // Simplified entanglement entropy calculation
-        return Math.log(state.getQubitCount() + 1);
+        return Math.log(state.getNumQubits() + 1);
     }
     
     private void updateSessionMetrics(QuantumSession session, QuantumMLResult result) {
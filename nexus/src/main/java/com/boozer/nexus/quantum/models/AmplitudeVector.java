@@ -0,0 +1,371 @@
+package com.boozer.nexus.quantum.models;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Amplitude Vector
+ *
+ * Pure-state amplitudes as a single interleaved double[] (re0, im0, re1, im1, ...).
+ * Bit q of a basis index is qubit q. Operations work in place or write into a
+ * caller-supplied array, so repeated measurements, expectation values and tensor
+ * products on the same sizes allocate nothing after the first call.
+ */
+public final class AmplitudeVector {
+
+    private final int numQubits;
+    private final int size;
+    private final double[] data;
+
+    /**
+     * |0...0⟩ on numQubits qubits
+     */
+    public AmplitudeVector(int numQubits) {
+        this(numQubits, new double[2 << numQubits]);
+        data[0] = 1.0;
+    }
+
+    private AmplitudeVector(int numQubits, double[] data) {
+        if (numQubits < 0 || numQubits > 29) {
+            throw new IllegalArgumentException("Amplitude vectors hold 0 to 29 qubits, requested " + numQubits);
+        }
+        this.numQubits = numQubits;
+        this.size = 1 << numQubits;
+        this.data = data;
+    }
+
+    /**
+     * Wrap an interleaved array without copying; its length must be 2 · 2^n
+     */
+    public static AmplitudeVector wrap(double[] interleaved) {
+        int size = interleaved.length / 2;
+        if (interleaved.length % 2 != 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Interleaved amplitudes must hold 2^n complex values, got "
+                + interleaved.length + " doubles");
+        }
+        return new AmplitudeVector(Integer.numberOfTrailingZeros(size), interleaved);
+    }
+
+    public double re(int index) { return data[index << 1]; }
+    public double im(int index) { return data[(index << 1) + 1]; }
+
+    public void set(int index, double re, double im) {
+        data[index << 1] = re;
+        data[(index << 1) + 1] = im;
+    }
+
+    public double probability(int index) {
+        double re = data[index << 1];
+        double im = data[(index << 1) + 1];
+        return re * re + im * im;
+    }
+
+    /**
+     * All basis-state probabilities, written into out (allocated when null or too short)
+     */
+    public double[] probabilities(double[] out) {
+        double[] result = out != null && out.length >= size ? out : new double[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = probability(i);
+        }
+        return result;
+    }
+
+    public double normSquared() {
+        double sum = 0.0;
+        for (double value : data) {
+            sum += value * value;
+        }
+        return sum;
+    }
+
+    /**
+     * Scale to unit norm in place; a zero vector is left unchanged
+     */
+    public AmplitudeVector normalize() {
+        double norm = Math.sqrt(normSquared());
+        if (norm > 0.0) {
+            scale(1.0 / norm);
+        }
+        return this;
+    }
+
+    public AmplitudeVector scale(double factor) {
+        for (int k = 0; k < data.length; k++) {
+            data[k] *= factor;
+        }
+        return this;
+    }
+
+    public void copyFrom(AmplitudeVector other) {
+        checkSameSize(other);
+        System.arraycopy(other.data, 0, data, 0, data.length);
+    }
+
+    public AmplitudeVector copy() {
+        return new AmplitudeVector(numQubits, data.clone());
+    }
+
+    /**
+     * ⟨this|other⟩ as {re, im}, written into out (allocated when null)
+     */
+    public double[] innerProduct(AmplitudeVector other, double[] out) {
+        checkSameSize(other);
+        double re = 0.0;
+        double im = 0.0;
+        for (int k = 0; k < data.length; k += 2) {
+            double ar = data[k];
+            double ai = data[k + 1];
+            double br = other.data[k];
+            double bi = other.data[k + 1];
+            re += ar * br + ai * bi;
+            im += ar * bi - ai * br;
+        }
+        double[] result = out != null ? out : new double[2];
+        result[0] = re;
+        result[1] = im;
+        return result;
+    }
+
+    /**
+     * |⟨this|other⟩|²
+     */
+    public double fidelity(AmplitudeVector other) {
+        checkSameSize(other);
+        double re = 0.0;
+        double im = 0.0;
+        for (int k = 0; k < data.length; k += 2) {
+            re += data[k] * other.data[k] + data[k + 1] * other.data[k + 1];
+            im += data[k] * other.data[k + 1] - data[k + 1] * other.data[k];
+        }
+        return re * re + im * im;
+    }
+
+    /**
+     * this ⊗ other written into target, which must hold numQubits + other.numQubits
+     * qubits; this state occupies the high-order qubits
+     */
+    public AmplitudeVector tensorProduct(AmplitudeVector other, AmplitudeVector target) {
+        if (target.numQubits != numQubits + other.numQubits) {
+            throw new IllegalArgumentException("Tensor product needs a " + (numQubits + other.numQubits)
+                + "-qubit target, got " + target.numQubits);
+        }
+        double[] b = other.data;
+        double[] out = target.data;
+        int stride = b.length;
+        for (int i = 0; i < size; i++) {
+            double ar = data[i << 1];
+            double ai = data[(i << 1) + 1];
+            int base = i * stride;
+            for (int k = 0; k < stride; k += 2) {
+                out[base + k] = ar * b[k] - ai * b[k + 1];
+                out[base + k + 1] = ar * b[k + 1] + ai * b[k];
+            }
+        }
+        return target;
+    }
+
+    public AmplitudeVector tensorProduct(AmplitudeVector other) {
+        int total = numQubits + other.numQubits;
+        return tensorProduct(other, new AmplitudeVector(total, new double[2 << total]));
+    }
+
+    /**
+     * Reduced density matrix over the kept qubits, tracing out the rest. Kept qubit
+     * k becomes bit k of the reduced index; the result is a row-major interleaved
+     * d×d matrix with d = 2^keep.length, written into out when it is large enough.
+     */
+    public double[] reducedDensityMatrix(int[] keep, double[] out) {
+        int d = 1 << keep.length;
+        double[] rho = out != null && out.length >= 2 * d * d ? out : new double[2 * d * d];
+        Arrays.fill(rho, 0, 2 * d * d, 0.0);
+
+        int keptMask = 0;
+        for (int q : keep) {
+            keptMask |= 1 << checkQubit(q);
+        }
+        if (Integer.bitCount(keptMask) != keep.length) {
+            throw new IllegalArgumentException("Kept qubits must be distinct: " + Arrays.toString(keep));
+        }
+        int tracedMask = (size - 1) & ~keptMask;
+        int[] keptIndex = new int[d];
+        for (int r = 0; r < d; r++) {
+            keptIndex[r] = deposit(r, keep);
+        }
+
+        // Enumerate the traced-out assignments as subsets of tracedMask
+        int env = 0;
+        do {
+            for (int r = 0; r < d; r++) {
+                int i = (env | keptIndex[r]) << 1;
+                double ar = data[i];
+                double ai = data[i + 1];
+                if (ar == 0.0 && ai == 0.0) {
+                    continue;
+                }
+                int row = 2 * r * d;
+                for (int c = 0; c < d; c++) {
+                    int j = (env | keptIndex[c]) << 1;
+                    double br = data[j];
+                    double bi = data[j + 1];
+                    // ψ_i · conj(ψ_j)
+                    rho[row + 2 * c] += ar * br + ai * bi;
+                    rho[row + 2 * c + 1] += ai * br - ar * bi;
+                }
+            }
+            env = (env - tracedMask) & tracedMask;
+        } while (env != 0);
+        return rho;
+    }
+
+    /**
+     * Probabilities of the kept qubits with the rest marginalised out (the diagonal
+     * of the reduced density matrix), written into out when it is large enough
+     */
+    public double[] marginalProbabilities(int[] keep, double[] out) {
+        int d = 1 << keep.length;
+        double[] result = out != null && out.length >= d ? out : new double[d];
+        Arrays.fill(result, 0, d, 0.0);
+        for (int q : keep) {
+            checkQubit(q);
+        }
+        for (int i = 0; i < size; i++) {
+            double p = probability(i);
+            if (p != 0.0) {
+                result[extract(i, keep)] += p;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ⟨Z_mask⟩ = Σ_i |ψ_i|² (−1)^popcount(i & mask)
+     */
+    public double expectationZ(long mask) {
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            double p = probability(i);
+            sum += (Long.bitCount(i & mask) & 1) == 0 ? p : -p;
+        }
+        return sum;
+    }
+
+    /**
+     * ⟨P⟩ for the Pauli string with X on xMask and Z on zMask (Y where both are set)
+     */
+    public double expectationPauli(long xMask, long zMask) {
+        if (xMask == 0L) {
+            return expectationZ(zMask);
+        }
+        int x = (int) xMask;
+        // P|i⟩ = i^{#Y} (−1)^{popcount(i & z)} |i ⊕ x⟩
+        int yPhase = Long.bitCount(xMask & zMask) & 3;
+        double sumRe = 0.0;
+        double sumIm = 0.0;
+        for (int i = 0; i < size; i++) {
+            int j = i ^ x;
+            double sign = (Long.bitCount(i & zMask) & 1) == 0 ? 1.0 : -1.0;
+            // conj(ψ_j) · ψ_i
+            double re = data[j << 1] * data[i << 1] + data[(j << 1) + 1] * data[(i << 1) + 1];
+            double im = data[j << 1] * data[(i << 1) + 1] - data[(j << 1) + 1] * data[i << 1];
+            sumRe += sign * re;
+            sumIm += sign * im;
+        }
+        switch (yPhase) {
+            case 0: return sumRe;
+            case 1: return -sumIm;
+            case 2: return -sumRe;
+            default: return sumIm;
+        }
+    }
+
+    /**
+     * Shannon entropy (bits) of the measurement distribution
+     */
+    public double measurementEntropy() {
+        double entropy = 0.0;
+        for (int i = 0; i < size; i++) {
+            double p = probability(i);
+            if (p > 0.0) {
+                entropy -= p * Math.log(p);
+            }
+        }
+        return entropy / Math.log(2);
+    }
+
+    /**
+     * Σ_i |ψ_i|
+     */
+    public double l1Norm() {
+        double sum = 0.0;
+        for (int k = 0; k < data.length; k += 2) {
+            sum += Math.sqrt(data[k] * data[k] + data[k + 1] * data[k + 1]);
+        }
+        return sum;
+    }
+
+    /**
+     * Write the numQubits-character bitstring of index into out, qubit 0 last
+     */
+    public static char[] bitstring(int index, int numQubits, char[] out) {
+        for (int k = 0; k < numQubits; k++) {
+            out[numQubits - 1 - k] = ((index >>> k) & 1) == 0 ? '0' : '1';
+        }
+        return out;
+    }
+
+    /**
+     * Bitstring → probability for every basis state above threshold
+     */
+    public Map<String, Double> probabilityMap(double threshold) {
+        Map<String, Double> probabilities = new HashMap<>();
+        char[] buffer = new char[numQubits];
+        for (int i = 0; i < size; i++) {
+            double p = probability(i);
+            if (p > threshold) {
+                probabilities.put(new String(bitstring(i, numQubits, buffer)), p);
+            }
+        }
+        return probabilities;
+    }
+
+    public int getNumQubits() { return numQubits; }
+    public int size() { return size; }
+
+    /**
+     * Backing array, interleaved as re0, im0, re1, im1, ...
+     */
+    public double[] getData() { return data; }
+
+    private int checkQubit(int q) {
+        if (q < 0 || q >= numQubits) {
+            throw new IllegalArgumentException("Qubit " + q + " outside " + numQubits + "-qubit state");
+        }
+        return q;
+    }
+
+    private void checkSameSize(AmplitudeVector other) {
+        if (other.numQubits != numQubits) {
+            throw new IllegalArgumentException("States must have the same number of qubits");
+        }
+    }
+
+    /** Bits keep[k] of index, packed into bit k */
+    private static int extract(int index, int[] keep) {
+        int result = 0;
+        for (int k = 0; k < keep.length; k++) {
+            result |= ((index >>> keep[k]) & 1) << k;
+        }
+        return result;
+    }
+
+    /** Bit k of packed, spread onto bit keep[k] */
+    private static int deposit(int packed, int[] keep) {
+        int result = 0;
+        for (int k = 0; k < keep.length; k++) {
+            result |= ((packed >>> k) & 1) << keep[k];
+        }
+        return result;
+    }
+}
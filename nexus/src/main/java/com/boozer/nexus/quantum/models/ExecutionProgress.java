@@ -0,0 +1,77 @@
+package com.boozer.nexus.quantum.models;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution Progress
+ *
+ * Progress and cancellation shared between a running simulation and whoever
+ * submitted it. Engines announce the gates and shots they are about to run,
+ * count them off as they go, and check for cancellation between gates; a job
+ * made of several circuits accumulates all of them.
+ */
+public class ExecutionProgress {
+
+    private final AtomicLong totalGates = new AtomicLong();
+    private final AtomicLong gatesApplied = new AtomicLong();
+    private final AtomicLong totalShots = new AtomicLong();
+    private final AtomicLong shotsDone = new AtomicLong();
+    private volatile boolean cancelled;
+
+    public ExecutionProgress() {
+    }
+
+    /**
+     * Announce work about to run
+     */
+    public void begin(long gates, long shots) {
+        totalGates.addAndGet(gates);
+        totalShots.addAndGet(shots);
+    }
+
+    public void gateApplied() {
+        gatesApplied.incrementAndGet();
+    }
+
+    public void shotsCompleted(long shots) {
+        shotsDone.addAndGet(shots);
+    }
+
+    /**
+     * Ask the running engine to stop at its next check
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Throw CancellationException if cancellation was requested
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Quantum execution cancelled");
+        }
+    }
+
+    /**
+     * Fraction of the announced gates and shots completed so far, each weighted equally
+     */
+    public double getFraction() {
+        long gates = totalGates.get();
+        long shots = totalShots.get();
+        double gateFraction = gates == 0 ? 1.0 : (double) gatesApplied.get() / gates;
+        double shotFraction = shots == 0 ? 1.0 : (double) shotsDone.get() / shots;
+        if (gates == 0 && shots == 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, (gateFraction + shotFraction) / 2.0);
+    }
+
+    // Getters
+    public long getTotalGates() { return totalGates.get(); }
+    public long getGatesApplied() { return gatesApplied.get(); }
+    public long getTotalShots() { return totalShots.get(); }
+    public long getShotsDone() { return shotsDone.get(); }
+    public boolean isCancelled() { return cancelled; }
+}
@@ -0,0 +1,101 @@
+package com.boozer.nexus.quantum.models;
+
+import java.util.Random;
+
+/**
+ * Noise Model
+ *
+ * Gate and readout noise applied by the noisy simulation engines. After every
+ * gate each qubit it acts on goes through a depolarising channel (probability
+ * {@code singleQubitDepolarizing} for one-qubit gates, {@code multiQubitDepolarizing}
+ * per operand of larger gates) followed by amplitude damping with probability
+ * {@code amplitudeDamping}. Readout flips a measured 0 to 1 with probability
+ * {@code readoutError0} and a 1 to 0 with probability {@code readoutError1}.
+ */
+public class NoiseModel {
+
+    private double singleQubitDepolarizing;
+    private double multiQubitDepolarizing;
+    private double amplitudeDamping;
+    private double readoutError0;
+    private double readoutError1;
+
+    public NoiseModel() {
+    }
+
+    /**
+     * True when no channel has a non-zero probability
+     */
+    public boolean isNoiseless() {
+        return singleQubitDepolarizing == 0.0 && multiQubitDepolarizing == 0.0 && amplitudeDamping == 0.0
+            && readoutError0 == 0.0 && readoutError1 == 0.0;
+    }
+
+    /**
+     * Depolarising probability after a gate with the given number of qubits
+     */
+    public double depolarizing(int gateQubits) {
+        return gateQubits > 1 ? multiQubitDepolarizing : singleQubitDepolarizing;
+    }
+
+    /**
+     * Apply readout error to an outcome distribution over numQubits qubits, in place
+     */
+    public void applyReadoutError(double[] probabilities, int numQubits) {
+        if (readoutError0 == 0.0 && readoutError1 == 0.0) {
+            return;
+        }
+        for (int q = 0; q < numQubits; q++) {
+            int bit = 1 << q;
+            for (int i0 = 0; i0 < probabilities.length; i0++) {
+                if ((i0 & bit) != 0) {
+                    continue;
+                }
+                double p0 = probabilities[i0];
+                double p1 = probabilities[i0 | bit];
+                probabilities[i0] = (1.0 - readoutError0) * p0 + readoutError1 * p1;
+                probabilities[i0 | bit] = readoutError0 * p0 + (1.0 - readoutError1) * p1;
+            }
+        }
+    }
+
+    /**
+     * Apply readout error to a single sampled outcome
+     */
+    public long applyReadoutError(long outcome, int numQubits, Random random) {
+        if (readoutError0 == 0.0 && readoutError1 == 0.0) {
+            return outcome;
+        }
+        long result = outcome;
+        for (int q = 0; q < numQubits; q++) {
+            double flip = ((outcome >>> q) & 1) == 0 ? readoutError0 : readoutError1;
+            if (flip > 0.0 && random.nextDouble() < flip) {
+                result ^= 1L << q;
+            }
+        }
+        return result;
+    }
+
+    // Getters and Setters
+    public double getSingleQubitDepolarizing() { return singleQubitDepolarizing; }
+    public void setSingleQubitDepolarizing(double singleQubitDepolarizing) { this.singleQubitDepolarizing = checkProbability(singleQubitDepolarizing); }
+
+    public double getMultiQubitDepolarizing() { return multiQubitDepolarizing; }
+    public void setMultiQubitDepolarizing(double multiQubitDepolarizing) { this.multiQubitDepolarizing = checkProbability(multiQubitDepolarizing); }
+
+    public double getAmplitudeDamping() { return amplitudeDamping; }
+    public void setAmplitudeDamping(double amplitudeDamping) { this.amplitudeDamping = checkProbability(amplitudeDamping); }
+
+    public double getReadoutError0() { return readoutError0; }
+    public void setReadoutError0(double readoutError0) { this.readoutError0 = checkProbability(readoutError0); }
+
+    public double getReadoutError1() { return readoutError1; }
+    public void setReadoutError1(double readoutError1) { this.readoutError1 = checkProbability(readoutError1); }
+
+    private static double checkProbability(double p) {
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("Noise probability must be in [0, 1]: " + p);
+        }
+        return p;
+    }
+}
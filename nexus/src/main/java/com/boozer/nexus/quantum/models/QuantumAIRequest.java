@@ -18,6 +18,7 @@ public class QuantumAIRequest {
     private long startTime;
     private String userId;
     private LocalDateTime timestamp;
+    private ExecutionProgress progress;
     
     public QuantumAIRequest() {
         this.timestamp = LocalDateTime.now();
@@ -45,6 +46,29 @@ public class QuantumAIRequest {
     
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    
+    public ExecutionProgress getProgress() { return progress; }
+    public void setProgress(ExecutionProgress progress) { this.progress = progress; }
+    
+    /**
+     * Qubits the request will simulate, as the processor lays out its circuits;
+     * annealing runs classically and needs none
+     */
+    public int estimateQubits() {
+        if (problemData instanceof OptimizationProblem) {
+            return ((OptimizationProblem) problemData).getNumVariables();
+        }
+        if (problemData instanceof SearchProblem) {
+            return (int) Math.ceil(Math.log(((SearchProblem) problemData).getSearchSpace()) / Math.log(2));
+        }
+        if (problemData instanceof MLProblem) {
+            return ((MLProblem) problemData).getFeatureDimension();
+        }
+        if (problemData instanceof SimulationProblem) {
+            return ((SimulationProblem) problemData).getSystemSize();
+        }
+        return 0;
+    }
 }
 
 /**
@@ -0,0 +1,72 @@
+package com.boozer.nexus.quantum.models;
+
+/**
+ * Quantum Execution Options
+ *
+ * Execution settings passed to the simulators and to remote quantum backends.
+ */
+public class QuantumExecutionOptions {
+
+    /** Let the simulator pick heap or off-heap storage from the qubit count */
+    public static final String STATE_VECTOR_AUTO = "auto";
+    /** Keep amplitudes in a heap double[] */
+    public static final String STATE_VECTOR_HEAP = "heap";
+    /** Keep amplitudes in direct (off-heap) buffers */
+    public static final String STATE_VECTOR_OFF_HEAP = "off-heap";
+    /** Keep amplitudes in a memory-mapped swap file */
+    public static final String STATE_VECTOR_MAPPED = "mapped";
+
+    /** Let the processor pick the simulation engine from the circuit structure */
+    public static final String ENGINE_AUTO = "auto";
+    /** Dense state-vector simulation */
+    public static final String ENGINE_STATE_VECTOR = "statevector";
+    /** Matrix-product-state (tensor network) simulation */
+    public static final String ENGINE_MPS = "mps";
+    /** Exact noisy simulation on the density matrix */
+    public static final String ENGINE_DENSITY_MATRIX = "density-matrix";
+    /** Noisy simulation by sampling quantum trajectories */
+    public static final String ENGINE_TRAJECTORY = "trajectory";
+
+    private int shots = 1024;
+    private int optimizationLevel = 1;
+    private String backend;
+    private String stateVectorBackend = STATE_VECTOR_AUTO;
+    private String mappedFileDirectory;
+    private String simulationEngine = ENGINE_AUTO;
+    private NoiseModel noiseModel;
+    private Long seed;
+    private ExecutionProgress progress;
+
+    public QuantumExecutionOptions() {
+    }
+
+    // Getters and Setters
+    public int getShots() { return shots; }
+    public void setShots(int shots) { this.shots = shots; }
+
+    public int getOptimizationLevel() { return optimizationLevel; }
+    public void setOptimizationLevel(int optimizationLevel) { this.optimizationLevel = optimizationLevel; }
+
+    public String getBackend() { return backend; }
+    public void setBackend(String backend) { this.backend = backend; }
+
+    public String getStateVectorBackend() { return stateVectorBackend; }
+    public void setStateVectorBackend(String stateVectorBackend) { this.stateVectorBackend = stateVectorBackend; }
+
+    public String getMappedFileDirectory() { return mappedFileDirectory; }
+    public void setMappedFileDirectory(String mappedFileDirectory) { this.mappedFileDirectory = mappedFileDirectory; }
+
+    public String getSimulationEngine() { return simulationEngine; }
+    public void setSimulationEngine(String simulationEngine) { this.simulationEngine = simulationEngine; }
+
+    public NoiseModel getNoiseModel() { return noiseModel; }
+    public void setNoiseModel(NoiseModel noiseModel) { this.noiseModel = noiseModel; }
+
+    /** Sampling seed; null draws fresh randomness on every run */
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    /** Progress and cancellation of the job this run belongs to; null when untracked */
+    public ExecutionProgress getProgress() { return progress; }
+    public void setProgress(ExecutionProgress progress) { this.progress = progress; }
+}
@@ -62,58 +62,56 @@ class ComplexNumber {
 
 /**
  * Quantum State Vector representation
+ *
+ * Amplitudes live in an interleaved {@link AmplitudeVector}; the ComplexNumber
+ * views are built only when a caller asks for them.
  */
 class QuantumState {
-    private final List<ComplexNumber> amplitudes;
+    private final AmplitudeVector amplitudes;
     private final int numQubits;
     private final Map<String, Double> properties;
     
     public QuantumState(int numQubits) {
         this.numQubits = numQubits;
-        this.amplitudes = new ArrayList<>();
+        this.amplitudes = new AmplitudeVector(numQubits); // |0...0⟩
         this.properties = new HashMap<>();
-        
-        // Initialize to |0...0⟩ state
-        int numStates = (int) Math.pow(2, numQubits);
-        for (int i = 0; i < numStates; i++) {
-            if (i == 0) {
-                amplitudes.add(new ComplexNumber(1.0, 0.0));
-            } else {
-                amplitudes.add(new ComplexNumber(0.0, 0.0));
-            }
-        }
     }
     
     public QuantumState(List<ComplexNumber> amplitudes) {
-        this.amplitudes = new ArrayList<>(amplitudes);
-        this.numQubits = (int) Math.round(Math.log(amplitudes.size()) / Math.log(2));
+        this(toVector(amplitudes.toArray(new ComplexNumber[0])));
+    }
+    
+    public QuantumState(ComplexNumber[] amplitudes) {
+        this(toVector(amplitudes));
+    }
+    
+    public QuantumState(AmplitudeVector amplitudes) {
+        this.amplitudes = amplitudes;
+        this.numQubits = amplitudes.getNumQubits();
         this.properties = new HashMap<>();
         calculateProperties();
     }
     
+    private static AmplitudeVector toVector(ComplexNumber[] values) {
+        double[] data = new double[2 * values.length];
+        for (int i = 0; i < values.length; i++) {
+            data[2 * i] = values[i].getReal();
+            data[2 * i + 1] = values[i].getImaginary();
+        }
+        return AmplitudeVector.wrap(data);
+    }
+    
     private void calculateProperties() {
         // Calculate entanglement entropy
-        double entropy = 0.0;
-        for (ComplexNumber amplitude : amplitudes) {
-            double probability = amplitude.magnitude() * amplitude.magnitude();
-            if (probability > 0) {
-                entropy -= probability * Math.log(probability) / Math.log(2);
-            }
-        }
-        properties.put("entropy", entropy);
+        properties.put("entropy", amplitudes.measurementEntropy());
         
         // Calculate coherence
-        double totalMagnitude = 0.0;
-        for (ComplexNumber amplitude : amplitudes) {
-            totalMagnitude += amplitude.magnitude();
-        }
-        properties.put("coherence", totalMagnitude);
+        properties.put("coherence", amplitudes.l1Norm());
     }
     
     public double getProbability(int state) {
         if (state >= 0 && state < amplitudes.size()) {
-            ComplexNumber amplitude = amplitudes.get(state);
-            return amplitude.magnitude() * amplitude.magnitude();
+            return amplitudes.probability(state);
         }
         return 0.0;
     }
@@ -121,7 +119,7 @@ class QuantumState {
     public Map<Integer, Double> measurementProbabilities() {
         Map<Integer, Double> probabilities = new HashMap<>();
         for (int i = 0; i < amplitudes.size(); i++) {
-            double prob = getProbability(i);
+            double prob = amplitudes.probability(i);
             if (prob > 1e-10) { // Only include non-zero probabilities
                 probabilities.put(i, prob);
             }
@@ -133,57 +131,46 @@ class QuantumState {
      * Calculate tensor product with another quantum state
      */
     public QuantumState tensorProduct(QuantumState other) {
-        List<ComplexNumber> newAmplitudes = new ArrayList<>();
-        for (ComplexNumber amp1 : this.amplitudes) {
-            for (ComplexNumber amp2 : other.amplitudes) {
-                newAmplitudes.add(amp1.multiply(amp2));
-            }
-        }
-        return new QuantumState(newAmplitudes);
+        return new QuantumState(amplitudes.tensorProduct(other.amplitudes));
     }
     
     /**
-     * Calculate partial trace over specified qubits
+     * Calculate partial trace over specified qubits. The result carries the
+     * marginal probabilities of the remaining qubits as real amplitudes.
      */
     public QuantumState partialTrace(List<Integer> tracedQubits) {
         if (tracedQubits.isEmpty()) {
-            return new QuantumState(this.amplitudes);
-        }
-        
-        int remainingQubits = numQubits - tracedQubits.size();
-        int newSize = (int) Math.pow(2, remainingQubits);
-        List<ComplexNumber> newAmplitudes = new ArrayList<>();
-        
-        for (int i = 0; i < newSize; i++) {
-            newAmplitudes.add(new ComplexNumber(0.0, 0.0));
+            return new QuantumState(amplitudes.copy());
         }
         
-        // Simplified partial trace calculation
-        for (int i = 0; i < amplitudes.size(); i++) {
-            int mappedIndex = mapToReducedBasis(i, tracedQubits, numQubits);
-            if (mappedIndex < newSize) {
-                ComplexNumber current = newAmplitudes.get(mappedIndex);
-                ComplexNumber prob = amplitudes.get(i).multiply(amplitudes.get(i).conjugate());
-                newAmplitudes.set(mappedIndex, current.add(prob));
+        int[] keep = new int[numQubits - tracedQubits.size()];
+        int position = 0;
+        for (int q = 0; q < numQubits; q++) {
+            if (!tracedQubits.contains(q)) {
+                keep[position++] = q;
             }
         }
         
-        return new QuantumState(newAmplitudes);
+        double[] marginals = amplitudes.marginalProbabilities(keep, null);
+        double[] data = new double[2 * marginals.length];
+        for (int i = 0; i < marginals.length; i++) {
+            data[2 * i] = marginals[i];
+        }
+        return new QuantumState(AmplitudeVector.wrap(data));
     }
     
-    private int mapToReducedBasis(int index, List<Integer> tracedQubits, int totalQubits) {
-        int result = 0;
-        int position = 0;
-        
-        for (int q = 0; q < totalQubits; q++) {
-            if (!tracedQubits.contains(q)) {
-                if ((index & (1 << q)) != 0) {
-                    result |= (1 << position);
-                }
-                position++;
-            }
-        }
-        return result;
+    /**
+     * Reduced density matrix of the kept qubits (row-major, interleaved re/im)
+     */
+    public double[] reducedDensityMatrix(int[] keptQubits) {
+        return amplitudes.reducedDensityMatrix(keptQubits, null);
+    }
+    
+    /**
+     * Expectation value of the Pauli string with X on xMask and Z on zMask
+     */
+    public double expectation(long xMask, long zMask) {
+        return amplitudes.expectationPauli(xMask, zMask);
     }
     
     /**
@@ -201,17 +188,13 @@ class QuantumState {
             return 0.0; // Concurrence only defined for 2-qubit states
         }
         
-        // Simplified concurrence calculation for 2-qubit states
-        ComplexNumber a00 = amplitudes.get(0); // |00⟩
-        ComplexNumber a01 = amplitudes.get(1); // |01⟩
-        ComplexNumber a10 = amplitudes.get(2); // |10⟩
-        ComplexNumber a11 = amplitudes.get(3); // |11⟩
-        
-        ComplexNumber term1 = a00.multiply(a11);
-        ComplexNumber term2 = a01.multiply(a10);
-        ComplexNumber diff = term1.add(new ComplexNumber(-term2.getReal(), -term2.getImaginary()));
+        // Simplified concurrence calculation for 2-qubit states: |a00·a11 − a01·a10|
+        double re = amplitudes.re(0) * amplitudes.re(3) - amplitudes.im(0) * amplitudes.im(3)
+            - (amplitudes.re(1) * amplitudes.re(2) - amplitudes.im(1) * amplitudes.im(2));
+        double im = amplitudes.re(0) * amplitudes.im(3) + amplitudes.im(0) * amplitudes.re(3)
+            - (amplitudes.re(1) * amplitudes.im(2) + amplitudes.im(1) * amplitudes.re(2));
         
-        double concurrence = 2.0 * Math.abs(diff.magnitude());
+        double concurrence = 2.0 * Math.sqrt(re * re + im * im);
         return Math.max(0.0, concurrence - 1.0);
     }
     
@@ -219,18 +202,7 @@ class QuantumState {
      * Calculate fidelity with another quantum state
      */
     public double fidelity(QuantumState other) {
-        if (this.numQubits != other.numQubits) {
-            throw new IllegalArgumentException("States must have the same number of qubits");
-        }
-        
-        ComplexNumber innerProduct = new ComplexNumber(0.0, 0.0);
-        for (int i = 0; i < amplitudes.size(); i++) {
-            ComplexNumber term = this.amplitudes.get(i).conjugate()
-                .multiply(other.amplitudes.get(i));
-            innerProduct = innerProduct.add(term);
-        }
-        
-        return innerProduct.magnitude() * innerProduct.magnitude();
+        return amplitudes.fidelity(other.amplitudes);
     }
     
     /**
@@ -243,9 +215,7 @@ class QuantumState {
         
         double distance = 0.0;
         for (int i = 0; i < amplitudes.size(); i++) {
-            double prob1 = this.getProbability(i);
-            double prob2 = other.getProbability(i);
-            distance += Math.abs(prob1 - prob2);
+            distance += Math.abs(amplitudes.probability(i) - other.amplitudes.probability(i));
         }
         
         return distance / 2.0;
@@ -257,51 +227,26 @@ class QuantumState {
     public Map<String, Double> performTomography() {
         Map<String, Double> tomographyData = new HashMap<>();
         
-        // Calculate Pauli expectation values
-        tomographyData.put("pauli_x_expectation", calculatePauliExpectation("X"));
-        tomographyData.put("pauli_y_expectation", calculatePauliExpectation("Y"));
-        tomographyData.put("pauli_z_expectation", calculatePauliExpectation("Z"));
+        // Pauli expectation values on qubit 0
+        tomographyData.put("pauli_x_expectation", amplitudes.expectationPauli(1L, 0L));
+        tomographyData.put("pauli_y_expectation", amplitudes.expectationPauli(1L, 1L));
+        tomographyData.put("pauli_z_expectation", amplitudes.expectationPauli(0L, 1L));
         
-        // Calculate density matrix elements (simplified)
+        // Density matrix elements ρ_ij = ψ_i · conj(ψ_j)
         for (int i = 0; i < amplitudes.size(); i++) {
+            double ar = amplitudes.re(i);
+            double ai = amplitudes.im(i);
             for (int j = 0; j < amplitudes.size(); j++) {
-                ComplexNumber element = amplitudes.get(i).multiply(amplitudes.get(j).conjugate());
-                tomographyData.put("rho_" + i + "_" + j + "_real", element.getReal());
-                tomographyData.put("rho_" + i + "_" + j + "_imag", element.getImaginary());
+                double br = amplitudes.re(j);
+                double bi = amplitudes.im(j);
+                tomographyData.put("rho_" + i + "_" + j + "_real", ar * br + ai * bi);
+                tomographyData.put("rho_" + i + "_" + j + "_imag", ai * br - ar * bi);
             }
         }
         
         return tomographyData;
     }
     
-    private double calculatePauliExpectation(String pauli) {
-        double expectation = 0.0;
-        
-        for (int i = 0; i < amplitudes.size(); i++) {
-            for (int j = 0; j < amplitudes.size(); j++) {
-                double pauliElement = getPauliMatrixElement(pauli, i, j);
-                ComplexNumber rhoElement = amplitudes.get(i).multiply(amplitudes.get(j).conjugate());
-                expectation += pauliElement * rhoElement.getReal();
-            }
-        }
-        
-        return expectation;
-    }
-    
-    private double getPauliMatrixElement(String pauli, int i, int j) {
-        switch (pauli) {
-            case "X":
-                return (i != j && ((i ^ j) == 1)) ? 1.0 : 0.0;
-            case "Y":
-                if (i == j) return 0.0;
-                return ((i ^ j) == 1) ? (((i < j) ? -1.0 : 1.0)) : 0.0;
-            case "Z":
-                return (i == j) ? ((i % 2 == 0) ? 1.0 : -1.0) : 0.0;
-            default:
-                return 0.0;
-        }
-    }
-    
     /**
      * Check if the state is entangled
      */
@@ -317,8 +262,8 @@ class QuantumState {
      */
     public double purity() {
         double purity = 0.0;
-        for (ComplexNumber amplitude : amplitudes) {
-            double prob = amplitude.magnitude() * amplitude.magnitude();
+        for (int i = 0; i < amplitudes.size(); i++) {
+            double prob = amplitudes.probability(i);
             purity += prob * prob;
         }
         return purity;
@@ -337,8 +282,8 @@ class QuantumState {
         
         // Simplified Schmidt decomposition
         List<Double> schmidtCoefficients = new ArrayList<>();
-        int leftDim = (int) Math.pow(2, partitionQubit);
-        int rightDim = (int) Math.pow(2, numQubits - partitionQubit);
+        int leftDim = 1 << partitionQubit;
+        int rightDim = 1 << (numQubits - partitionQubit);
         
         // Calculate singular values (simplified)
         for (int i = 0; i < Math.min(leftDim, rightDim); i++) {
@@ -346,7 +291,7 @@ class QuantumState {
             for (int j = 0; j < Math.min(leftDim, rightDim); j++) {
                 int index = i * rightDim + j;
                 if (index < amplitudes.size()) {
-                    coeff += amplitudes.get(index).magnitude();
+                    coeff += Math.sqrt(amplitudes.probability(index));
                 }
             }
             if (coeff > 1e-10) {
@@ -377,7 +322,14 @@ class QuantumState {
     }
     
     // Getters
-    public List<ComplexNumber> getAmplitudes() { return new ArrayList<>(amplitudes); }
+    public List<ComplexNumber> getAmplitudes() {
+        List<ComplexNumber> values = new ArrayList<>(amplitudes.size());
+        for (int i = 0; i < amplitudes.size(); i++) {
+            values.add(new ComplexNumber(amplitudes.re(i), amplitudes.im(i)));
+        }
+        return values;
+    }
+    public AmplitudeVector getAmplitudeVector() { return amplitudes; }
     public int getNumQubits() { return numQubits; }
     public Map<String, Double> getProperties() { return new HashMap<>(properties); }
 }
@@ -3733,7 +3685,7 @@ class ConsciousnessQuantumBridge {
      */
     public QuantumState mapConsciousnessToQuantum(Map<String, Object> consciousnessState) {
         int numQubits = calculateRequiredQubits(consciousnessState);
-        List<ComplexNumber> amplitudes = new ArrayList<>();
+        AmplitudeVector amplitudes = new AmplitudeVector(numQubits);
         
         // Extract consciousness parameters
         double attention = (Double) consciousnessState.getOrDefault("attention_level", 0.5);
@@ -3741,16 +3693,18 @@ class ConsciousnessQuantumBridge {
         double memory = (Double) consciousnessState.getOrDefault("memory_activation", 0.5);
         double intuition = (Double) consciousnessState.getOrDefault("intuitive_strength", 0.5);
         
+        double creativity = (Double) consciousnessState.getOrDefault("creativity_level", 0.5);
+        double focus = (Double) consciousnessState.getOrDefault("focus_intensity", 0.5);
+        
         // Create quantum superposition based on consciousness parameters
-        int numStates = (int) Math.pow(2, numQubits);
-        for (int i = 0; i < numStates; i++) {
+        for (int i = 0; i < amplitudes.size(); i++) {
             double amplitude = calculateAmplitudeFromConsciousness(i, attention, emotion, memory, intuition);
-            double phase = calculatePhaseFromConsciousness(i, consciousnessState);
-            amplitudes.add(new ComplexNumber(amplitude * Math.cos(phase), amplitude * Math.sin(phase)));
+            double phase = calculatePhaseFromConsciousness(i, creativity, focus);
+            amplitudes.set(i, amplitude * Math.cos(phase), amplitude * Math.sin(phase));
         }
         
         // Normalize amplitudes
-        amplitudes = normalizeAmplitudes(amplitudes);
+        amplitudes.normalize();
         
         QuantumState quantumState = new QuantumState(amplitudes);
         updateBridgeMetrics(consciousnessState, quantumState);
@@ -3777,32 +3731,10 @@ class ConsciousnessQuantumBridge {
         return base * attentionWeight * emotionWeight * memoryWeight * intuitionWeight;
     }
     
-    private double calculatePhaseFromConsciousness(int stateIndex, Map<String, Object> consciousness) {
-        double creativity = (Double) consciousness.getOrDefault("creativity_level", 0.5);
-        double focus = (Double) consciousness.getOrDefault("focus_intensity", 0.5);
-        
+    private double calculatePhaseFromConsciousness(int stateIndex, double creativity, double focus) {
         return creativity * Math.PI * stateIndex / 8.0 + focus * Math.PI / 4.0;
     }
     
-    private List<ComplexNumber> normalizeAmplitudes(List<ComplexNumber> amplitudes) {
-        double totalMagnitude = 0.0;
-        for (ComplexNumber amp : amplitudes) {
-            totalMagnitude += amp.magnitude() * amp.magnitude();
-        }
-        
-        double normalizationFactor = 1.0 / Math.sqrt(totalMagnitude);
-        List<ComplexNumber> normalized = new ArrayList<>();
-        
-        for (ComplexNumber amp : amplitudes) {
-            normalized.add(new ComplexNumber(
-                amp.getReal() * normalizationFactor,
-                amp.getImaginary() * normalizationFactor
-            ));
-        }
-        
-        return normalized;
-    }
-    
     /**
      * Extract consciousness insights from quantum state
      */
@@ -3869,12 +3801,12 @@ class ConsciousnessQuantumBridge {
     
     private double calculateIntuitiveResonance(QuantumState quantumState) {
         // Calculate resonance based on quantum interference patterns
-        List<ComplexNumber> amplitudes = quantumState.getAmplitudes();
+        AmplitudeVector amplitudes = quantumState.getAmplitudeVector();
         double resonance = 0.0;
         
+        // |ψ_i · conj(ψ_{i+1})| = |ψ_i| · |ψ_{i+1}|
         for (int i = 0; i < amplitudes.size() - 1; i++) {
-            ComplexNumber interference = amplitudes.get(i).multiply(amplitudes.get(i + 1).conjugate());
-            resonance += interference.magnitude();
+            resonance += Math.sqrt(amplitudes.probability(i) * amplitudes.probability(i + 1));
         }
         
         return resonance / (amplitudes.size() - 1);
@@ -3925,7 +3857,7 @@ class ConsciousnessQuantumBridge {
         // Implement temporal correlation analysis
         temporalCorrelations.put("timestamp", LocalDateTime.now());
         temporalCorrelations.put("consciousness_snapshot", new HashMap<>(consciousness));
-        temporalCorrelations.put("quantum_snapshot", quantumState.getAmplitudes());
+        temporalCorrelations.put("quantum_snapshot", quantumState.getAmplitudeVector().getData().clone());
     }
     
     // Getters
@@ -0,0 +1,115 @@
+package com.boozer.nexus.quantum.processor;
+
+import com.boozer.nexus.quantum.models.ExecutionProgress;
+import com.boozer.nexus.quantum.models.QuantumResult;
+import com.boozer.nexus.quantum.simulator.MemoryEstimate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Quantum Job
+ *
+ * Handle on work submitted to the {@link QuantumJobScheduler}: its queue
+ * position inputs (priority, memory estimate), lifecycle and live progress.
+ * Listeners are told about every status change.
+ */
+public class QuantumJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String jobId;
+    private final String name;
+    private final int priority;
+    private final long sequence;
+    private final int numQubits;
+    private final MemoryEstimate memory;
+    private final ExecutionProgress progress = new ExecutionProgress();
+    private final List<Consumer<QuantumJob>> listeners = new CopyOnWriteArrayList<>();
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile QuantumResult result;
+    private volatile String error;
+
+    QuantumJob(String jobId, String name, int priority, long sequence, int numQubits, MemoryEstimate memory) {
+        this.jobId = jobId;
+        this.name = name;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.numQubits = numQubits;
+        this.memory = memory;
+    }
+
+    /**
+     * Register a listener for status changes; it is called at once if the job has
+     * already finished. Listeners run on scheduler threads and should return quickly.
+     */
+    public void addListener(Consumer<QuantumJob> listener) {
+        listeners.add(listener);
+        if (status.isFinished()) {
+            listener.accept(this);
+        }
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        transition(Status.RUNNING);
+    }
+
+    void completed(QuantumResult result) {
+        this.result = result;
+        finish(Status.COMPLETED);
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    void cancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private void finish(Status status) {
+        finishedAt = LocalDateTime.now();
+        transition(status);
+    }
+
+    private void transition(Status status) {
+        this.status = status;
+        for (Consumer<QuantumJob> listener : listeners) {
+            listener.accept(this);
+        }
+    }
+
+    // Getters
+    public String getJobId() { return jobId; }
+    public String getName() { return name; }
+    public int getPriority() { return priority; }
+    long getSequence() { return sequence; }
+    public int getNumQubits() { return numQubits; }
+    public long getEstimatedBytes() { return memory.getTotalBytes(); }
+    public MemoryEstimate getMemoryEstimate() { return memory; }
+    public ExecutionProgress getProgress() { return progress; }
+    public Status getStatus() { return status; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public QuantumResult getResult() { return result; }
+    public String getError() { return error; }
+}
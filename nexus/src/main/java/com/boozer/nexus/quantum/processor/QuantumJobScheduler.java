@@ -0,0 +1,256 @@
+package com.boozer.nexus.quantum.processor;
+
+import com.boozer.nexus.quantum.models.ExecutionProgress;
+import com.boozer.nexus.quantum.models.QuantumResult;
+import com.boozer.nexus.quantum.simulator.MemoryEstimate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quantum Job Scheduler
+ *
+ * Runs quantum jobs off the caller's thread. Jobs wait in a priority queue
+ * (higher priority first, then submission order) and are admitted only while
+ * the memory of the running jobs fits the budgets, so two large jobs never
+ * allocate together. Each job carries an estimate from the engine that will
+ * run it, charged to the pool that engine allocates from: heap arrays against
+ * the heap budget, direct buffers against the off-heap budget. Admission
+ * is strictly in queue order: a large job at the head is not overtaken by
+ * smaller ones, which would otherwise starve it.
+ *
+ * Cancellation is cooperative: a queued job is dropped, and a running job's
+ * progress is flagged so the engine stops at its next gate.
+ */
+public class QuantumJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuantumJobScheduler.class);
+
+    /** Work a job performs, reporting into the given progress tracker */
+    @FunctionalInterface
+    public interface JobTask {
+        QuantumResult run(ExecutionProgress progress) throws Exception;
+    }
+
+    private final int workers;
+    private final long memoryBudgetBytes;
+    private final long offHeapBudgetBytes;
+    private final int retainedJobs;
+    private final ExecutorService executor;
+
+    private final Map<String, QuantumJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, JobTask> tasks = new HashMap<>();
+    private final PriorityQueue<QuantumJob> queue = new PriorityQueue<>(
+        Comparator.comparingInt(QuantumJob::getPriority).reversed().thenComparingLong(QuantumJob::getSequence));
+    private final Deque<String> finished = new ArrayDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private int running;
+    private long reservedBytes;
+    private long reservedOffHeapBytes;
+    private long completedJobs;
+    private long failedJobs;
+    private long cancelledJobs;
+
+    public QuantumJobScheduler(int workers, long memoryBudgetBytes, int retainedJobs) {
+        this(workers, memoryBudgetBytes, memoryBudgetBytes, retainedJobs);
+    }
+
+    /**
+     * Scheduler with separate heap and off-heap (direct buffer) budgets
+     */
+    public QuantumJobScheduler(int workers, long memoryBudgetBytes, long offHeapBudgetBytes, int retainedJobs) {
+        if (workers < 1 || memoryBudgetBytes < 1 || offHeapBudgetBytes < 0 || retainedJobs < 0) {
+            throw new IllegalArgumentException("Scheduler needs workers and a memory budget, got " + workers
+                + " workers, " + memoryBudgetBytes + " heap and " + offHeapBudgetBytes + " off-heap bytes");
+        }
+        this.workers = workers;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.offHeapBudgetBytes = offHeapBudgetBytes;
+        this.retainedJobs = retainedJobs;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "quantum-job-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * State vector size of an n-qubit job: 2^n complex doubles
+     */
+    public static long estimateBytes(int numQubits) {
+        return MemoryEstimate.amplitudeBytes(numQubits);
+    }
+
+    /**
+     * Queue a job that holds one heap state vector
+     */
+    public QuantumJob submit(String name, int numQubits, int priority, JobTask task) {
+        return submit(name, numQubits, MemoryEstimate.heap(estimateBytes(numQubits)), priority, task);
+    }
+
+    /**
+     * Queue a job; returns its handle at once. Jobs that could never fit in the
+     * memory budgets are rejected.
+     */
+    public QuantumJob submit(String name, int numQubits, MemoryEstimate memory, int priority, JobTask task) {
+        if (memory.getHeapBytes() > memoryBudgetBytes || memory.getOffHeapBytes() > offHeapBudgetBytes) {
+            throw new IllegalArgumentException("Job " + name + " needs about " + memory + " for " + numQubits
+                + " qubits, over the " + memoryBudgetBytes + "-byte heap or " + offHeapBudgetBytes
+                + "-byte off-heap budget");
+        }
+        QuantumJob job = new QuantumJob(UUID.randomUUID().toString(), name, priority,
+            sequence.getAndIncrement(), numQubits, memory);
+        jobs.put(job.getJobId(), job);
+        synchronized (this) {
+            tasks.put(job.getJobId(), task);
+            queue.add(job);
+            dispatch();
+        }
+        logger.debug("Queued quantum job {} ({}, {} qubits, priority {})", job.getJobId(), name, numQubits, priority);
+        return job;
+    }
+
+    public QuantumJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Cancel a job; returns false if it is unknown or already finished
+     */
+    public boolean cancel(String jobId) {
+        QuantumJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (job.getStatus().isFinished()) {
+                return false;
+            }
+            job.getProgress().cancel();
+            if (queue.remove(job)) {
+                tasks.remove(jobId);
+                cancelledJobs++;
+                retire(job);
+                job.cancelled();
+                dispatch();
+            }
+        }
+        logger.info("Cancelled quantum job {}", jobId);
+        return true;
+    }
+
+    /**
+     * Queue depth, running jobs, reserved memory and outcome counts
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("queued", queue.size());
+        statistics.put("running", running);
+        statistics.put("workers", workers);
+        statistics.put("reservedBytes", reservedBytes);
+        statistics.put("memoryBudgetBytes", memoryBudgetBytes);
+        statistics.put("reservedOffHeapBytes", reservedOffHeapBytes);
+        statistics.put("offHeapBudgetBytes", offHeapBudgetBytes);
+        statistics.put("completed", completedJobs);
+        statistics.put("failed", failedJobs);
+        statistics.put("cancelled", cancelledJobs);
+        return statistics;
+    }
+
+    /**
+     * Cancel everything and stop the workers
+     */
+    public void shutdown() {
+        for (String jobId : jobs.keySet()) {
+            cancel(jobId);
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start queued jobs in order while workers are free and the head fits in memory
+     */
+    private void dispatch() {
+        while (running < workers && !queue.isEmpty()) {
+            QuantumJob job = queue.peek();
+            MemoryEstimate memory = job.getMemoryEstimate();
+            if (reservedBytes + memory.getHeapBytes() > memoryBudgetBytes
+                    || reservedOffHeapBytes + memory.getOffHeapBytes() > offHeapBudgetBytes) {
+                return;
+            }
+            queue.poll();
+            JobTask task = tasks.remove(job.getJobId());
+            running++;
+            reservedBytes += memory.getHeapBytes();
+            reservedOffHeapBytes += memory.getOffHeapBytes();
+            job.started();
+            executor.execute(() -> run(job, task));
+        }
+    }
+
+    private void run(QuantumJob job, JobTask task) {
+        try {
+            QuantumResult result = task.run(job.getProgress());
+            finish(job, () -> {
+                completedJobs++;
+                job.completed(result);
+            });
+        } catch (Exception e) {
+            if (job.getProgress().isCancelled() || e instanceof CancellationException) {
+                finish(job, () -> {
+                    cancelledJobs++;
+                    job.cancelled();
+                });
+            } else {
+                logger.error("Quantum job {} failed: {}", job.getJobId(), e.getMessage(), e);
+                finish(job, () -> {
+                    failedJobs++;
+                    job.failed(e.getMessage());
+                });
+            }
+        }
+    }
+
+    private synchronized void finish(QuantumJob job, Runnable outcome) {
+        running--;
+        reservedBytes -= job.getMemoryEstimate().getHeapBytes();
+        reservedOffHeapBytes -= job.getMemoryEstimate().getOffHeapBytes();
+        retire(job);
+        outcome.run();
+        dispatch();
+    }
+
+    /**
+     * Keep only the most recent finished jobs available for polling
+     */
+    private void retire(QuantumJob job) {
+        finished.addLast(job.getJobId());
+        while (finished.size() > retainedJobs) {
+            jobs.remove(finished.pollFirst());
+        }
+    }
+}
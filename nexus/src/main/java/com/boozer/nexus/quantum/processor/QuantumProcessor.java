@@ -1,6 +1,19 @@
 package com.boozer.nexus.quantum.processor;
 
 import com.boozer.nexus.quantum.models.*;
+import com.boozer.nexus.quantum.simulator.AdjointGradientEngine;
+import com.boozer.nexus.quantum.simulator.AnnealingResult;
+import com.boozer.nexus.quantum.simulator.CircuitResultCache;
+import com.boozer.nexus.quantum.simulator.CompiledCircuit;
+import com.boozer.nexus.quantum.simulator.DensityMatrixSimulator;
+import com.boozer.nexus.quantum.simulator.HeapStateVector;
+import com.boozer.nexus.quantum.simulator.MatrixProductStateSimulator;
+import com.boozer.nexus.quantum.simulator.MemoryEstimate;
+import com.boozer.nexus.quantum.simulator.PauliHamiltonian;
+import com.boozer.nexus.quantum.simulator.PauliZObservable;
+import com.boozer.nexus.quantum.simulator.QuantumAnnealingSimulator;
+import com.boozer.nexus.quantum.simulator.QuantumSimulator;
+import com.boozer.nexus.quantum.simulator.TrajectorySimulator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -8,9 +21,13 @@ import org.springframework.http.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -28,6 +45,11 @@ public class QuantumProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(QuantumProcessor.class);
     
+    private static final double VQC_LEARNING_RATE = 0.5;
+    
+    /** VQC class readout: Z on qubit 0 */
+    private static final PauliZObservable READOUT = PauliZObservable.of(1L);
+    
     @Value("${nexus.ai.quantum.enabled:false}")
     private boolean quantumEnabled;
     
@@ -40,9 +62,63 @@ public class QuantumProcessor {
     @Value("${nexus.ai.quantum.max-qubits:8}")
     private int maxQubits;
     
+    @Value("${nexus.ai.quantum.offheap-threshold-qubits:26}")
+    private int offHeapThresholdQubits;
+    
+    @Value("${nexus.ai.quantum.mapped-threshold-qubits:32}")
+    private int mappedThresholdQubits;
+    
+    @Value("${nexus.ai.quantum.swap-directory:}")
+    private String swapDirectory;
+    
+    @Value("${nexus.ai.quantum.mps.min-qubits:20}")
+    private int mpsMinQubits;
+    
+    @Value("${nexus.ai.quantum.mps.max-bond-dimension:64}")
+    private int mpsMaxBondDimension;
+    
+    @Value("${nexus.ai.quantum.noise.density-matrix-max-qubits:10}")
+    private int densityMatrixMaxQubits;
+    
+    @Value("${nexus.ai.quantum.noise.trajectories:1000}")
+    private int noiseTrajectories;
+    
+    @Value("${nexus.ai.quantum.result-cache.enabled:true}")
+    private boolean resultCacheEnabled;
+    
+    @Value("${nexus.ai.quantum.result-cache.max-entries:1024}")
+    private int resultCacheMaxEntries;
+    
+    @Value("${nexus.ai.quantum.result-cache.max-bytes:268435456}")
+    private long resultCacheMaxBytes;
+    
+    @Value("${nexus.ai.quantum.result-cache.tolerance:1e-9}")
+    private double resultCacheTolerance;
+    
+    @Value("${nexus.ai.quantum.result-cache.max-qubits:20}")
+    private int resultCacheMaxQubits;
+    
+    @Value("${nexus.ai.quantum.jobs.workers:2}")
+    private int jobWorkers;
+    
+    @Value("${nexus.ai.quantum.jobs.memory-budget-bytes:0}")
+    private long jobMemoryBudgetBytes;
+    
+    @Value("${nexus.ai.quantum.jobs.offheap-budget-bytes:0}")
+    private long jobOffHeapBudgetBytes;
+    
+    @Value("${nexus.ai.quantum.jobs.retained:1000}")
+    private int retainedJobs;
+    
     @Value("${nexus.ai.quantum.enable-annealing:true}")
     private boolean enableAnnealing;
     
+    @Value("${nexus.ai.quantum.annealing.sweeps:1000}")
+    private int annealingSweeps;
+    
+    @Value("${nexus.ai.quantum.annealing.parallel-tempering:false}")
+    private boolean parallelTempering;
+    
     @Value("${nexus.ai.quantum.ibm.api-key:}")
     private String ibmQuantumApiKey;
     
@@ -57,12 +133,49 @@ public class QuantumProcessor {
     
     private final RestTemplate restTemplate;
     private final QuantumSimulator simulator;
+    private final MatrixProductStateSimulator mpsSimulator;
+    private final DensityMatrixSimulator densityMatrixSimulator;
+    private final TrajectorySimulator trajectorySimulator;
+    private final AdjointGradientEngine gradientEngine;
+    private final QuantumAnnealingSimulator annealingSimulator;
     private final Map<String, QuantumCircuit> circuitCache;
+    // Built from the injected settings in configureSimulator
+    private CircuitResultCache resultCache;
+    private QuantumJobScheduler jobScheduler;
     
     public QuantumProcessor() {
         this.restTemplate = new RestTemplate();
         this.simulator = new QuantumSimulator();
-        this.circuitCache = new HashMap<>();
+        this.mpsSimulator = new MatrixProductStateSimulator();
+        this.densityMatrixSimulator = new DensityMatrixSimulator();
+        this.trajectorySimulator = new TrajectorySimulator();
+        this.gradientEngine = new AdjointGradientEngine();
+        this.annealingSimulator = new QuantumAnnealingSimulator();
+        this.circuitCache = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Apply simulator settings and create the result cache and job scheduler
+     * once properties are injected
+     */
+    @PostConstruct
+    public void configureSimulator() {
+        simulator.setOffHeapThresholdQubits(offHeapThresholdQubits);
+        simulator.setMappedThresholdQubits(mappedThresholdQubits);
+        simulator.setSwapDirectory(swapDirectory);
+        mpsSimulator.setMaxBondDimension(mpsMaxBondDimension);
+        densityMatrixSimulator.setMaxQubits(densityMatrixMaxQubits);
+        trajectorySimulator.setTrajectories(noiseTrajectories);
+        annealingSimulator.setSweeps(annealingSweeps);
+        annealingSimulator.setParallelTempering(parallelTempering);
+        resultCache = new CircuitResultCache(resultCacheMaxEntries, resultCacheMaxBytes, resultCacheTolerance);
+        // Without explicit budgets, let running jobs hold three quarters of the heap, and
+        // as much direct memory as the JVM allows by default (MaxDirectMemorySize = max heap)
+        long budget = jobMemoryBudgetBytes > 0 ? jobMemoryBudgetBytes : Runtime.getRuntime().maxMemory() / 4 * 3;
+        long offHeapBudget = jobOffHeapBudgetBytes > 0 ? jobOffHeapBudgetBytes : Runtime.getRuntime().maxMemory();
+        jobScheduler = new QuantumJobScheduler(jobWorkers, budget, offHeapBudget, retainedJobs);
+        logger.info("Quantum simulator configured: max {} qubits, off-heap from {} qubits, mapped from {} qubits",
+            maxQubits, offHeapThresholdQubits, mappedThresholdQubits);
     }
     
     /**
@@ -96,6 +209,94 @@ public class QuantumProcessor {
         }
     }
     
+    /**
+     * Queue a quantum-enhanced AI request and return at once; poll the job for
+     * progress and its result
+     */
+    public QuantumJob submitJob(QuantumAIRequest request, int priority) {
+        if (!quantumEnabled) {
+            throw new RuntimeException("Quantum processing is not enabled");
+        }
+        return jobScheduler.submit(String.valueOf(request.getType()), request.estimateQubits(),
+            estimateMemory(request), priority, progress -> {
+                request.setProgress(progress);
+                return processQuantumEnhancedAI(request);
+            });
+    }
+    
+    /**
+     * Memory the request will hold on the engine selectEngine picks for its circuit:
+     * wide QAOA and Trotter circuits usually run on the MPS engine at n·χ² cost,
+     * VQC training on the gradient engine, everything else on a state vector in
+     * the heap or off-heap pool
+     */
+    private MemoryEstimate estimateMemory(QuantumAIRequest request) {
+        int numQubits = request.estimateQubits();
+        QuantumExecutionOptions options = new QuantumExecutionOptions();
+        QuantumCircuit circuit;
+        switch (request.getType()) {
+            case OPTIMIZATION:
+                circuit = createQAOACircuit((OptimizationProblem) request.getProblemData());
+                break;
+            case SIMULATION:
+                circuit = createHamiltonianSimulation((SimulationProblem) request.getProblemData());
+                break;
+            case MACHINE_LEARNING:
+                return trainingMemory(compileVQCTemplate((MLProblem) request.getProblemData()), readShots(request));
+            default:
+                return simulator.estimateMemory(numQubits, options);
+        }
+        // Built only to choose the engine; the job builds its own
+        circuitCache.remove(circuit.getId());
+        try {
+            CompiledCircuit compiled = CompiledCircuit.compile(circuit);
+            return engineMemory(selectEngine(compiled, options), compiled.getNumQubits(), options);
+        } catch (IllegalArgumentException e) {
+            return simulator.estimateMemory(numQubits, options);
+        }
+    }
+    
+    /**
+     * VQC training takes adjoint steps, or parameter-shift batches with shots > 0,
+     * and always scores the final point with adjoint
+     */
+    private MemoryEstimate trainingMemory(CompiledCircuit template, int shots) {
+        MemoryEstimate adjoint = gradientEngine.estimateAdjointMemory(template.getNumQubits());
+        return shots > 0 ? adjoint.max(gradientEngine.estimateParameterShiftMemory(template)) : adjoint;
+    }
+    
+    private MemoryEstimate engineMemory(String engine, int numQubits, QuantumExecutionOptions options) {
+        switch (engine) {
+            case QuantumExecutionOptions.ENGINE_MPS:
+                return mpsSimulator.estimateMemory(numQubits);
+            case QuantumExecutionOptions.ENGINE_DENSITY_MATRIX:
+                return densityMatrixSimulator.estimateMemory(numQubits);
+            case QuantumExecutionOptions.ENGINE_TRAJECTORY:
+                return trajectorySimulator.estimateMemory(numQubits);
+            default:
+                return simulator.estimateMemory(numQubits, options);
+        }
+    }
+    
+    public QuantumJob getJob(String jobId) {
+        return jobScheduler.getJob(jobId);
+    }
+    
+    public boolean cancelJob(String jobId) {
+        return jobScheduler.cancel(jobId);
+    }
+    
+    public Map<String, Object> getJobStatistics() {
+        return jobScheduler.getStatistics();
+    }
+    
+    @PreDestroy
+    public void shutdownJobs() {
+        if (jobScheduler != null) {
+            jobScheduler.shutdown();
+        }
+    }
+    
     /**
      * Create quantum circuit for specific problem
      */
@@ -132,12 +333,127 @@ public class QuantumProcessor {
         }
         
         if (simulatorOnly || ibmQuantumApiKey == null || ibmQuantumApiKey.isEmpty()) {
-            return simulator.execute(circuit, options);
+            return executeOnSimulator(circuit, options);
         } else {
             return executeOnIBMQuantum(circuit, options);
         }
     }
     
+    /**
+     * Run the circuit on the local engine that suits its structure. Seeded runs are
+     * reproducible and cached whole; unseeded runs on a deterministic engine reuse
+     * a cached outcome distribution and only draw fresh samples from it.
+     */
+    private QuantumResult executeOnSimulator(QuantumCircuit circuit, QuantumExecutionOptions options) {
+        CompiledCircuit compiled = CompiledCircuit.compile(circuit);
+        String engine = selectEngine(compiled, options);
+        if (!resultCacheEnabled) {
+            return simulate(engine, compiled, options);
+        }
+        if (options.getSeed() != null) {
+            return resultCache.result(compiled, null, options, engine, () -> simulate(engine, compiled, options));
+        }
+        
+        boolean densityMatrix = QuantumExecutionOptions.ENGINE_DENSITY_MATRIX.equals(engine);
+        if ((densityMatrix || QuantumExecutionOptions.ENGINE_STATE_VECTOR.equals(engine))
+                && compiled.getNumQubits() <= resultCacheMaxQubits) {
+            try {
+                double[] probabilities = resultCache.distribution(compiled, null, options, engine, () -> densityMatrix
+                    ? densityMatrixSimulator.probabilities(compiled, null,
+                        options.getNoiseModel() != null ? options.getNoiseModel() : new NoiseModel())
+                    : simulator.probabilities(compiled, null, options));
+                return CircuitResultCache.sample(compiled, probabilities, options,
+                    densityMatrix ? "density-matrix-simulator" : "quantum-simulator");
+            } catch (CancellationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                logger.warn("Cached distribution unavailable for circuit {}: {}", compiled.getId(), e.getMessage());
+            }
+        }
+        return simulate(engine, compiled, options);
+    }
+    
+    private QuantumResult simulate(String engine, CompiledCircuit compiled, QuantumExecutionOptions options) {
+        logger.debug("Using {} engine for {}-qubit circuit {}", engine, compiled.getNumQubits(), compiled.getId());
+        switch (engine) {
+            case QuantumExecutionOptions.ENGINE_DENSITY_MATRIX:
+                return densityMatrixSimulator.execute(compiled, null, options);
+            case QuantumExecutionOptions.ENGINE_TRAJECTORY:
+                return trajectorySimulator.execute(compiled, null, options);
+            case QuantumExecutionOptions.ENGINE_MPS:
+                return mpsSimulator.execute(compiled, null, options);
+            default:
+                return simulator.execute(compiled, null, options);
+        }
+    }
+    
+    private String selectEngine(CompiledCircuit compiled, QuantumExecutionOptions options) {
+        String noisyEngine = noisyEngine(compiled, options);
+        if (noisyEngine != null) {
+            return noisyEngine;
+        }
+        return useMatrixProductState(compiled, options)
+            ? QuantumExecutionOptions.ENGINE_MPS : QuantumExecutionOptions.ENGINE_STATE_VECTOR;
+    }
+    
+    /**
+     * Noisy engine for the request, or null for noiseless simulation. A noise model
+     * selects the density matrix up to densityMatrixMaxQubits and trajectories beyond.
+     */
+    private String noisyEngine(CompiledCircuit circuit, QuantumExecutionOptions options) {
+        String engine = options.getSimulationEngine();
+        if (QuantumExecutionOptions.ENGINE_DENSITY_MATRIX.equals(engine)
+                || QuantumExecutionOptions.ENGINE_TRAJECTORY.equals(engine)) {
+            return engine;
+        }
+        NoiseModel noise = options.getNoiseModel();
+        if (noise == null || noise.isNoiseless()) {
+            return null;
+        }
+        return circuit.getNumQubits() <= densityMatrixMaxQubits
+            ? QuantumExecutionOptions.ENGINE_DENSITY_MATRIX : QuantumExecutionOptions.ENGINE_TRAJECTORY;
+    }
+    
+    /**
+     * Wide circuits of one- and two-qubit gates that are mostly nearest-neighbour
+     * (QAOA on sparse graphs, VQC entangling chains, Trotter steps) go to the MPS
+     * engine; beyond 32 qubits a state vector is not an option at all.
+     */
+    private boolean useMatrixProductState(CompiledCircuit circuit, QuantumExecutionOptions options) {
+        String engine = options.getSimulationEngine();
+        if (QuantumExecutionOptions.ENGINE_MPS.equals(engine)) {
+            return true;
+        }
+        if (QuantumExecutionOptions.ENGINE_STATE_VECTOR.equals(engine)) {
+            return false;
+        }
+        if (!MatrixProductStateSimulator.supports(circuit)) {
+            return false;
+        }
+        int numQubits = circuit.getNumQubits();
+        if (numQubits > 32) {
+            return true;
+        }
+        if (numQubits < mpsMinQubits) {
+            return false;
+        }
+        
+        int twoQubitGates = 0;
+        int nearestNeighbour = 0;
+        for (int g = 0; g < circuit.size(); g++) {
+            long mask = circuit.mask(g);
+            if (circuit.op(g) == CompiledCircuit.OP_MEASURE || Long.bitCount(mask) < 2) {
+                continue;
+            }
+            twoQubitGates++;
+            // Two adjacent bits: the mask is 0b11 shifted
+            if (mask >>> Long.numberOfTrailingZeros(mask) == 3L) {
+                nearestNeighbour++;
+            }
+        }
+        return twoQubitGates == 0 || nearestNeighbour * 2 >= twoQubitGates;
+    }
+    
     /**
      * Perform quantum optimization using QAOA
      */
@@ -155,6 +471,7 @@ public class QuantumProcessor {
             QuantumExecutionOptions options = new QuantumExecutionOptions();
             options.setShots(1024);
             options.setOptimizationLevel(2);
+            options.setProgress(request.getProgress());
             
             QuantumResult result = executeCircuit(circuit.getId(), options);
             results.add(result);
@@ -189,6 +506,7 @@ public class QuantumProcessor {
         QuantumExecutionOptions options = new QuantumExecutionOptions();
         options.setShots(1024);
         options.setOptimizationLevel(1);
+        options.setProgress(request.getProgress());
         
         QuantumResult result = executeCircuit(circuit.getId(), options);
         result.setAlgorithm("Grover");
@@ -207,24 +525,30 @@ public class QuantumProcessor {
         
         // Use Variational Quantum Classifier (VQC)
         QuantumCircuit circuit = createVQCCircuit(problem);
+        CompiledCircuit template = compileVQCTemplate(problem);
+        int label = readLabel(request);
+        int shots = readShots(request);
         
-        // Training loop simulation
+        double[] theta = new double[template.getNumParameters()];
+        for (int k = 0; k < theta.length; k++) {
+            theta[k] = ThreadLocalRandom.current().nextDouble(0, 2 * Math.PI);
+        }
+        
+        // Training loop: each epoch takes one gradient-descent step, adjoint when
+        // exact, parameter shift when the readout is estimated from shots
         List<Double> costs = new ArrayList<>();
         for (int epoch = 0; epoch < 50; epoch++) {
-            QuantumExecutionOptions options = new QuantumExecutionOptions();
-            options.setShots(512);
-            options.setOptimizationLevel(2);
-            
-            QuantumResult epochResult = executeCircuit(circuit.getId(), options);
-            costs.add(epochResult.getCost());
-            
-            // Simulate parameter updates
-            updateVQCParameters(circuit, epochResult);
+            if (request.getProgress() != null) {
+                request.getProgress().checkCancelled();
+            }
+            costs.add(updateVQCParameters(template, theta, label, shots));
         }
+        double finalCost = vqcCost(gradientEngine.adjoint(template, theta, READOUT, new double[theta.length]), label);
         
         QuantumResult finalResult = new QuantumResult();
         finalResult.setAlgorithm("VQC");
-        finalResult.setAccuracy(0.85 + ThreadLocalRandom.current().nextDouble(0.0, 0.1));
+        finalResult.setCost(finalCost);
+        finalResult.setAccuracy(1.0 - finalCost);
         finalResult.setTrainingCosts(costs);
         finalResult.setCircuitDepth(circuit.getDepth());
         
@@ -245,11 +569,32 @@ public class QuantumProcessor {
         QuantumExecutionOptions options = new QuantumExecutionOptions();
         options.setShots(2048);
         options.setOptimizationLevel(3);
+        options.setProgress(request.getProgress());
         
         QuantumResult result = executeCircuit(circuit.getId(), options);
         result.setAlgorithm("Hamiltonian Simulation");
         result.setEvolutionTime(problem.getEvolutionTime());
         
+        // Exact energy of the evolved state from its amplitudes rather than from the shot counts;
+        // only where a state vector is affordable, i.e. not for circuits run on the MPS engine
+        if (result.isSuccessful() && problem.getHamiltonian() != null && !problem.getHamiltonian().isEmpty()) {
+            try {
+                CompiledCircuit compiled = CompiledCircuit.compile(circuit);
+                if (compiled.getNumQubits() > HeapStateVector.MAX_QUBITS
+                        || QuantumExecutionOptions.ENGINE_MPS.equals(selectEngine(compiled, options))) {
+                    logger.debug("Skipping exact energy for {}-qubit circuit {}: no state vector",
+                        compiled.getNumQubits(), circuit.getId());
+                } else {
+                    result.setEnergy(simulator.expectation(compiled, null,
+                        PauliHamiltonian.fromPauliStrings(problem.getHamiltonian()), options));
+                }
+            } catch (CancellationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                logger.warn("Cannot evaluate energy for circuit {}: {}", circuit.getId(), e.getMessage());
+            }
+        }
+        
         return result;
     }
     
@@ -266,8 +611,6 @@ public class QuantumProcessor {
         AnnealingProblem problem = (AnnealingProblem) request.getProblemData();
         
         // Simulate quantum annealing process
-        QuantumAnnealingSimulator annealingSimulator = new QuantumAnnealingSimulator();
-        
         AnnealingResult annealingResult = annealingSimulator.anneal(
             problem.getQUBO(),
             problem.getAnnealingTime(),
@@ -279,6 +622,7 @@ public class QuantumProcessor {
         result.setEnergy(annealingResult.getLowestEnergy());
         result.setSolution(annealingResult.getBestSolution());
         result.setChainBreakFraction(annealingResult.getChainBreakFraction());
+        result.setQuantumMetric("sweepsPerSecond", annealingResult.getSweepsPerSecond());
         
         return result;
     }
@@ -315,7 +659,7 @@ public class QuantumProcessor {
             
         } catch (Exception e) {
             logger.warn("IBM Quantum execution failed, falling back to simulator: {}", e.getMessage());
-            return simulator.execute(circuit, options);
+            return executeOnSimulator(circuit, options);
         }
     }
     
@@ -336,6 +680,13 @@ public class QuantumProcessor {
         return status;
     }
     
+    /**
+     * Result cache hit rate and the simulation time it saved
+     */
+    public Map<String, Object> getResultCacheStatistics() {
+        return resultCache.getStatistics();
+    }
+    
     /**
      * Get quantum capabilities
      */
@@ -437,6 +788,43 @@ public class QuantumProcessor {
         return circuit;
     }
     
+    /**
+     * VQC ansatz with the three variational layers bound to parameter slots
+     * (layer * featureDimension + qubit) instead of fixed random angles
+     */
+    private CompiledCircuit compileVQCTemplate(MLProblem problem) {
+        int numQubits = problem.getFeatureDimension();
+        CompiledCircuit template = new CompiledCircuit(numQubits);
+        
+        for (int i = 0; i < numQubits; i++) {
+            template.rotation(CompiledCircuit.OP_RY, problem.getFeatures()[i], i);
+        }
+        for (int layer = 0; layer < 3; layer++) {
+            for (int i = 0; i < numQubits; i++) {
+                template.parameterizedGate(CompiledCircuit.OP_RY, layer * numQubits + i, 1.0, i);
+            }
+            for (int i = 0; i < numQubits - 1; i++) {
+                template.gate(CompiledCircuit.OP_CNOT, i, i + 1);
+            }
+        }
+        return template;
+    }
+    
+    private int readLabel(QuantumAIRequest request) {
+        Map<String, Object> parameters = request.getParameters();
+        Object label = parameters != null ? parameters.get("label") : null;
+        return label instanceof Number && ((Number) label).intValue() != 0 ? 1 : 0;
+    }
+    
+    /**
+     * Measurement shots per expectation during training; 0 means exact expectations
+     */
+    private int readShots(QuantumAIRequest request) {
+        Map<String, Object> parameters = request.getParameters();
+        Object shots = parameters != null ? parameters.get("shots") : null;
+        return shots instanceof Number ? Math.max(0, ((Number) shots).intValue()) : 0;
+    }
+    
     private QuantumCircuit createHamiltonianSimulation(SimulationProblem problem) {
         QuantumCircuit circuit = new QuantumCircuit();
         circuit.setId(UUID.randomUUID().toString());
@@ -546,9 +934,32 @@ public class QuantumProcessor {
         }
     }
     
-    private void updateVQCParameters(QuantumCircuit circuit, QuantumResult result) {
-        // Simulate parameter updates based on gradient descent
-        // In practice, this would use actual quantum gradients
+    /**
+     * One gradient-descent step on ⟨Z0⟩. The exact adjoint gradient costs about
+     * three circuit executions regardless of the parameter count; with shots > 0
+     * the parameter-shift rule batches two sampled executions per gate instead.
+     * Returns the cost before the update.
+     */
+    private double updateVQCParameters(CompiledCircuit template, double[] theta, int label, int shots) {
+        double[] gradient = new double[theta.length];
+        double z = shots > 0
+            ? gradientEngine.parameterShift(template, theta, READOUT, shots,
+                ThreadLocalRandom.current().nextLong(), gradient)
+            : gradientEngine.adjoint(template, theta, READOUT, gradient);
+        
+        // d(cost)/dθ = ∓ d⟨Z0⟩/dθ / 2
+        double sign = label == 0 ? -0.5 : 0.5;
+        for (int k = 0; k < theta.length; k++) {
+            theta[k] -= VQC_LEARNING_RATE * sign * gradient[k];
+        }
+        return vqcCost(z, label);
+    }
+    
+    /**
+     * Probability of misclassifying: qubit 0 reads out the class, |0⟩ for label 0
+     */
+    private static double vqcCost(double expectationZ0, int label) {
+        return label == 0 ? (1.0 - expectationZ0) / 2.0 : (1.0 + expectationZ0) / 2.0;
     }
     
     private double calculateGroverAdvantage(int n) {
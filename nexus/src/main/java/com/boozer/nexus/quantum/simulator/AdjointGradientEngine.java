@@ -0,0 +1,173 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Adjoint Gradient Engine
+ *
+ * Gradients of ⟨ψ(θ)|O|ψ(θ)⟩ with respect to every parameter slot of a compiled
+ * circuit. Adjoint differentiation runs the circuit once forward and then walks it
+ * backwards with three state vectors, giving all P derivatives for about the cost
+ * of three circuit executions. The parameter-shift rule needs two executions per
+ * parameterized gate but works from measurement samples, so it is the fallback
+ * when expectations are estimated from shots.
+ */
+@Component
+public class AdjointGradientEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdjointGradientEngine.class);
+
+    private final BatchCircuitExecutor batchExecutor = new BatchCircuitExecutor();
+
+    /**
+     * Exact expectation value at the given point; the derivative for each
+     * parameter slot is written to gradient
+     */
+    public double adjoint(CompiledCircuit circuit, double[] parameters, Observable observable, double[] gradient) {
+        checkArguments(circuit, parameters, gradient);
+        int numQubits = circuit.getNumQubits();
+
+        try (StateVector psi = allocate(numQubits);
+             StateVector lambda = allocate(numQubits);
+             StateVector mu = allocate(numQubits)) {
+
+            QuantumSimulator.run(psi, circuit, parameters);
+            observable.apply(psi, lambda);
+            double expectation = psi.innerProductRe(lambda);
+
+            // Invariant: psi is the state after gate g, lambda is O|ψ⟩ pulled back to the same point
+            Arrays.fill(gradient, 0, circuit.getNumParameters(), 0.0);
+            for (int g = circuit.size() - 1; g >= 0; g--) {
+                double angle = circuit.angle(g, parameters);
+                applyInverse(psi, circuit, g, angle);
+
+                int slot = circuit.slot(g);
+                if (slot != CompiledCircuit.FIXED) {
+                    // dU/dθ = factor * U(θ + shift) for both rotation families
+                    byte op = circuit.op(g);
+                    boolean parity = op == CompiledCircuit.OP_ZZ;
+                    double shift = parity ? Math.PI / 2 : Math.PI;
+                    double factor = parity ? 1.0 : 0.5;
+
+                    mu.copyFrom(psi);
+                    QuantumSimulator.applyGate(mu, circuit, g, angle + shift);
+                    gradient[slot] += 2.0 * factor * circuit.scale(g) * lambda.innerProductRe(mu);
+                }
+
+                applyInverse(lambda, circuit, g, angle);
+            }
+            return expectation;
+        }
+    }
+
+    /**
+     * Parameter-shift gradient. With shots > 0 every expectation is estimated from
+     * that many samples (seeded, so repeated calls agree); otherwise it is exact.
+     * The unshifted point and both shifts of every parameterized gate run as one
+     * batch on the batch executor, so the circuit must fit a heap state vector.
+     * Returns the expectation value at the unshifted point.
+     */
+    public double parameterShift(CompiledCircuit circuit, double[] parameters, Observable observable,
+                                 int shots, long seed, double[] gradient) {
+        checkArguments(circuit, parameters, gradient);
+
+        // Give every parameterized gate its own slot so a shift moves exactly one gate
+        CompiledCircuit unrolled = new CompiledCircuit(circuit.getNumQubits());
+        int[] shifted = new int[circuit.size()];
+        int gates = 0;
+        for (int g = 0; g < circuit.size(); g++) {
+            int[] targets = new int[circuit.arity(g)];
+            for (int k = 0; k < targets.length; k++) {
+                targets[k] = circuit.qubit(g, k);
+            }
+            byte op = circuit.op(g);
+            if (circuit.slot(g) != CompiledCircuit.FIXED) {
+                unrolled.parameterizedGate(op, gates, 1.0, targets);
+                shifted[gates++] = g;
+            } else if (CompiledCircuit.isRotation(op)) {
+                unrolled.rotation(op, circuit.angle(g, parameters), targets);
+            } else {
+                unrolled.gate(op, targets);
+            }
+        }
+
+        // Row 0 is the unshifted point, rows 2i+1 and 2i+2 shift gate i up and down
+        double[] angles = new double[gates];
+        for (int i = 0; i < gates; i++) {
+            angles[i] = circuit.angle(shifted[i], parameters);
+        }
+        double[][] points = new double[2 * gates + 1][];
+        points[0] = angles;
+        for (int i = 0; i < gates; i++) {
+            double shift = shift(circuit.op(shifted[i]));
+            points[2 * i + 1] = angles.clone();
+            points[2 * i + 1][i] += shift;
+            points[2 * i + 2] = angles.clone();
+            points[2 * i + 2][i] -= shift;
+        }
+        double[] values = batchExecutor.expectation(unrolled, points, observable, shots, seed);
+
+        Arrays.fill(gradient, 0, circuit.getNumParameters(), 0.0);
+        for (int i = 0; i < gates; i++) {
+            int g = shifted[i];
+            // exp(-iθP/2): shift π/2, weight 1/2; exp(iθZZ): shift π/4, weight 1
+            double weight = circuit.op(g) == CompiledCircuit.OP_ZZ ? 1.0 : 0.5;
+            gradient[circuit.slot(g)] += weight * circuit.scale(g) * (values[2 * i + 1] - values[2 * i + 2]);
+        }
+
+        logger.debug("Parameter-shift gradient over {} parameters took {} circuit executions",
+            circuit.getNumParameters(), points.length);
+        return values[0];
+    }
+
+    private static double shift(byte op) {
+        return op == CompiledCircuit.OP_ZZ ? Math.PI / 4 : Math.PI / 2;
+    }
+
+    /**
+     * Peak memory of adjoint: three state vectors, on the heap while they fit it
+     */
+    public MemoryEstimate estimateAdjointMemory(int numQubits) {
+        long bytes = MemoryEstimate.amplitudeBytes(numQubits);
+        long total = bytes > Long.MAX_VALUE / 3 ? Long.MAX_VALUE : 3 * bytes;
+        return numQubits <= HeapStateVector.MAX_QUBITS ? MemoryEstimate.heap(total) : MemoryEstimate.offHeap(total);
+    }
+
+    /**
+     * Peak memory of parameterShift: one batch over the unshifted point and two
+     * shifts per parameterized gate
+     */
+    public MemoryEstimate estimateParameterShiftMemory(CompiledCircuit circuit) {
+        int gates = 0;
+        for (int g = 0; g < circuit.size(); g++) {
+            if (circuit.slot(g) != CompiledCircuit.FIXED) {
+                gates++;
+            }
+        }
+        return BatchCircuitExecutor.estimateMemory(circuit.getNumQubits(), 2 * gates + 1);
+    }
+
+    /**
+     * Undo gate g: rotations run with the negated angle, every other supported gate is self-inverse
+     */
+    private static void applyInverse(StateVector state, CompiledCircuit circuit, int g, double angle) {
+        QuantumSimulator.applyGate(state, circuit, g, CompiledCircuit.isRotation(circuit.op(g)) ? -angle : angle);
+    }
+
+    private static StateVector allocate(int numQubits) {
+        return numQubits <= HeapStateVector.MAX_QUBITS
+            ? new HeapStateVector(numQubits) : OffHeapStateVector.allocate(numQubits);
+    }
+
+    private static void checkArguments(CompiledCircuit circuit, double[] parameters, double[] gradient) {
+        int numParameters = circuit.getNumParameters();
+        if (parameters.length < numParameters || gradient.length < numParameters) {
+            throw new IllegalArgumentException("Circuit has " + numParameters + " parameters, got "
+                + parameters.length + " values and room for " + gradient.length + " derivatives");
+        }
+    }
+}
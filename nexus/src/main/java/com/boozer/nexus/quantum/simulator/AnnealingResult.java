@@ -0,0 +1,26 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Map;
+
+/**
+ * Annealing Result
+ */
+public class AnnealingResult {
+    private double lowestEnergy;
+    private Map<String, Object> bestSolution;
+    private double chainBreakFraction;
+    private double sweepsPerSecond;
+    
+    // Getters and Setters
+    public double getLowestEnergy() { return lowestEnergy; }
+    public void setLowestEnergy(double lowestEnergy) { this.lowestEnergy = lowestEnergy; }
+    
+    public Map<String, Object> getBestSolution() { return bestSolution; }
+    public void setBestSolution(Map<String, Object> bestSolution) { this.bestSolution = bestSolution; }
+    
+    public double getChainBreakFraction() { return chainBreakFraction; }
+    public void setChainBreakFraction(double chainBreakFraction) { this.chainBreakFraction = chainBreakFraction; }
+    
+    public double getSweepsPerSecond() { return sweepsPerSecond; }
+    public void setSweepsPerSecond(double sweepsPerSecond) { this.sweepsPerSecond = sweepsPerSecond; }
+}
@@ -0,0 +1,116 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Batch Circuit Executor
+ *
+ * Evaluates one compiled circuit template at N parameter points (an N x P matrix,
+ * one row per point). Points are split into contiguous chunks that run in parallel
+ * on the common fork-join pool; each chunk reuses a single scratch state vector,
+ * so a sweep allocates one vector per worker rather than one per point. The
+ * worker count is capped by how many vectors fit the maximum heap, so a wide
+ * sweep runs sequentially rather than exhausting memory.
+ */
+@Component
+public class BatchCircuitExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchCircuitExecutor.class);
+
+    /**
+     * ⟨Z...Z⟩ over the qubits in zMask at every parameter point
+     */
+    public double[] expectationZ(CompiledCircuit circuit, double[][] parameters, long zMask) {
+        double[] values = new double[parameters.length];
+        forEachPoint(circuit, parameters, (state, point) -> values[point] = state.expectationZ(zMask));
+        return values;
+    }
+
+    /**
+     * ⟨O⟩ at every parameter point. With shots > 0 each value is estimated from
+     * that many samples, point i seeded with seed + i; otherwise it is exact.
+     */
+    public double[] expectation(CompiledCircuit circuit, double[][] parameters, Observable observable,
+                                int shots, long seed) {
+        double[] values = new double[parameters.length];
+        forEachPoint(circuit, parameters, (state, point) -> values[point] = shots > 0
+            ? observable.estimate(state, shots, new Random(seed + point)) : observable.expectation(state));
+        return values;
+    }
+
+    /**
+     * Sampled basis states at every parameter point, each row in ascending order.
+     * Point i draws from a generator seeded with seed + i, so results do not
+     * depend on how points were split across workers.
+     */
+    public long[][] sample(CompiledCircuit circuit, double[][] parameters, int shots, long seed) {
+        long[][] outcomes = new long[parameters.length][];
+        forEachPoint(circuit, parameters,
+            (state, point) -> outcomes[point] = state.sample(shots, new Random(seed + point)));
+        return outcomes;
+    }
+
+    /**
+     * Scratch state vectors a sweep over the given number of points runs with:
+     * one per worker, no more than the heap can hold, at least one
+     */
+    public static int workers(int numQubits, int points) {
+        long fit = Runtime.getRuntime().maxMemory() / MemoryEstimate.amplitudeBytes(numQubits);
+        return (int) Math.max(1L, Math.min(Math.min(points, ForkJoinPool.getCommonPoolParallelism()), fit));
+    }
+
+    /**
+     * Peak heap a sweep over the given number of points holds
+     */
+    public static MemoryEstimate estimateMemory(int numQubits, int points) {
+        if (numQubits > HeapStateVector.MAX_QUBITS) {
+            return MemoryEstimate.UNBOUNDED;
+        }
+        return MemoryEstimate.heap(workers(numQubits, points) * MemoryEstimate.amplitudeBytes(numQubits));
+    }
+
+    private void forEachPoint(CompiledCircuit circuit, double[][] parameters, PointTask task) {
+        int numQubits = circuit.getNumQubits();
+        if (numQubits > HeapStateVector.MAX_QUBITS) {
+            throw new IllegalArgumentException("Batch execution supports at most "
+                + HeapStateVector.MAX_QUBITS + " qubits, got " + numQubits);
+        }
+        for (double[] point : parameters) {
+            if (point.length < circuit.getNumParameters()) {
+                throw new IllegalArgumentException("Parameter row has " + point.length
+                    + " values, circuit expects " + circuit.getNumParameters());
+            }
+        }
+
+        int points = parameters.length;
+        int chunks = workers(numQubits, points);
+        long startTime = System.nanoTime();
+
+        IntStream range = IntStream.range(0, chunks);
+        (chunks > 1 ? range.parallel() : range).forEach(chunk -> {
+            int from = (int) ((long) points * chunk / chunks);
+            int to = (int) ((long) points * (chunk + 1) / chunks);
+            try (StateVector state = new HeapStateVector(numQubits)) {
+                for (int point = from; point < to; point++) {
+                    state.reset();
+                    QuantumSimulator.run(state, circuit, parameters[point]);
+                    task.accept(state, point);
+                }
+            }
+        });
+
+        logger.debug("Evaluated {} parameter points of a {}-gate circuit on {} workers in {} ms",
+            points, circuit.size(), chunks, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface PointTask {
+        void accept(StateVector state, int point);
+    }
+}
@@ -0,0 +1,287 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.NoiseModel;
+import com.boozer.nexus.quantum.models.QuantumExecutionOptions;
+import com.boozer.nexus.quantum.models.QuantumResult;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Circuit Result Cache
+ *
+ * Bounded LRU cache of simulation outputs keyed on the structure of a compiled
+ * circuit and the options that affect its output. The key is a canonical word
+ * encoding of every gate (opcode, operands in order, angle quantised to
+ * {@code tolerance}) plus the engine, noise model and, for sampled results,
+ * shots and seed; circuit ids are not part of it, so structurally identical
+ * re-submissions hit. Keys compare by their full encoding, so a hash collision
+ * never returns the wrong entry.
+ *
+ * Two kinds of entry are kept: whole results of seeded runs, which are
+ * reproducible, and outcome distributions of deterministic engines, which are
+ * re-sampled for every unseeded run. Entries are bounded by count and by an
+ * estimate of their size. Values are computed outside the lock, so concurrent
+ * misses on one key may both simulate; the later put wins.
+ */
+public class CircuitResultCache {
+
+    /** Angles closer than this are treated as equal */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+
+    private static final long KIND_RESULT = 1L;
+    private static final long KIND_DISTRIBUTION = 2L;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final double tolerance;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long savedNanos;
+
+    public CircuitResultCache(int maxEntries, long maxBytes, double tolerance) {
+        if (maxEntries < 1 || maxBytes < 1 || !(tolerance > 0.0)) {
+            throw new IllegalArgumentException("Cache needs positive bounds and tolerance, got " + maxEntries
+                + " entries, " + maxBytes + " bytes, tolerance " + tolerance);
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Result of a seeded run, simulated on a miss. The caller gets a fresh copy
+     * carrying its own circuit id; failed results are not cached.
+     */
+    public QuantumResult result(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options,
+                                String engine, Supplier<QuantumResult> simulate) {
+        if (options.getSeed() == null) {
+            throw new IllegalArgumentException("Only seeded results are reproducible enough to cache");
+        }
+        long start = System.nanoTime();
+        Key key = key(KIND_RESULT, circuit, parameters, options, engine);
+        QuantumResult cached = (QuantumResult) lookup(key);
+        if (cached != null) {
+            return copy(cached, circuit.getId(), System.nanoTime() - start);
+        }
+
+        QuantumResult result = simulate.get();
+        if (result.isSuccessful()) {
+            long size = 64L + 64L * (result.getCounts() != null ? result.getCounts().size() : 0);
+            store(key, copy(result, result.getCircuitId(), 0L), size, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * Outcome distribution of a deterministic engine, computed on a miss
+     */
+    public double[] distribution(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options,
+                                 String engine, Supplier<double[]> compute) {
+        long start = System.nanoTime();
+        Key key = key(KIND_DISTRIBUTION, circuit, parameters, options, engine);
+        double[] cached = (double[]) lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        double[] probabilities = compute.get();
+        store(key, probabilities, 16L + 8L * probabilities.length, System.nanoTime() - start);
+        return probabilities;
+    }
+
+    /**
+     * Sample a result from an outcome distribution, as the engine that produced
+     * it would have reported it
+     */
+    public static QuantumResult sample(CompiledCircuit circuit, double[] probabilities,
+                                       QuantumExecutionOptions options, String provider) {
+        long startTime = System.currentTimeMillis();
+        Random random = QuantumSimulator.random(options);
+        QuantumResult result = new QuantumResult();
+        result.setCircuitId(circuit.getId());
+        result.setProvider(provider);
+        result.setSuccessful(true);
+        result.setCounts(QuantumSimulator.toCounts(
+            DensityMatrixSimulator.sample(probabilities, options.getShots(), random), circuit.getNumQubits()));
+        if (options.getProgress() != null) {
+            options.getProgress().begin(0, options.getShots());
+            options.getProgress().shotsCompleted(options.getShots());
+        }
+        result.setTimestamp(LocalDateTime.now());
+        result.setCircuitDepth(circuit.getDepth());
+        result.setProcessingTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Canonical structural hash of a circuit and its output-relevant options
+     */
+    public long structuralHash(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options,
+                               String engine) {
+        return key(KIND_RESULT, circuit, parameters, options, engine).hash;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0L;
+    }
+
+    /**
+     * Hit and miss counts, hit rate, evictions, size and simulation time saved by hits
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("hits", hits);
+        statistics.put("misses", misses);
+        statistics.put("hitRate", getHitRate());
+        statistics.put("evictions", evictions);
+        statistics.put("entries", entries.size());
+        statistics.put("bytes", bytes);
+        statistics.put("savedMillis", savedNanos / 1_000_000L);
+        return statistics;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized double getHitRate() { return hits + misses == 0 ? 0.0 : (double) hits / (hits + misses); }
+    public synchronized long getSavedNanos() { return savedNanos; }
+    public synchronized int size() { return entries.size(); }
+
+    private synchronized Object lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        savedNanos += entry.computeNanos;
+        return entry.value;
+    }
+
+    private synchronized void store(Key key, Object value, long size, long computeNanos) {
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(value, size, computeNanos));
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        bytes += size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= eldest.next().size;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private Key key(long kind, CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options,
+                    String engine) {
+        int gates = circuit.size();
+        long[] words = new long[16 + 6 * gates];
+        int w = 0;
+        words[w++] = kind;
+        words[w++] = circuit.getNumQubits();
+        words[w++] = gates;
+        for (int g = 0; g < gates; g++) {
+            int arity = circuit.arity(g);
+            if (w + arity + 3 > words.length) {
+                words = Arrays.copyOf(words, 2 * words.length + arity + 3);
+            }
+            words[w++] = ((long) circuit.op(g) << 32) | arity;
+            for (int k = 0; k < arity; k++) {
+                words[w++] = circuit.qubit(g, k);
+            }
+            if (CompiledCircuit.isRotation(circuit.op(g))) {
+                words[w++] = Math.round(circuit.angle(g, parameters) / tolerance);
+            }
+        }
+        if (w + 8 > words.length) {
+            words = Arrays.copyOf(words, w + 8);
+        }
+        NoiseModel noise = options.getNoiseModel();
+        if (noise != null && !noise.isNoiseless()) {
+            words[w++] = Double.doubleToLongBits(noise.getSingleQubitDepolarizing());
+            words[w++] = Double.doubleToLongBits(noise.getMultiQubitDepolarizing());
+            words[w++] = Double.doubleToLongBits(noise.getAmplitudeDamping());
+            words[w++] = Double.doubleToLongBits(noise.getReadoutError0());
+            words[w++] = Double.doubleToLongBits(noise.getReadoutError1());
+        }
+        if (kind == KIND_RESULT) {
+            words[w++] = options.getShots();
+            words[w++] = options.getSeed() != null ? options.getSeed() : 0L;
+        }
+        return new Key(engine, Arrays.copyOf(words, w));
+    }
+
+    private static QuantumResult copy(QuantumResult source, String circuitId, long lookupNanos) {
+        QuantumResult copy = new QuantumResult();
+        copy.setCircuitId(circuitId);
+        copy.setProvider(source.getProvider());
+        copy.setSuccessful(source.isSuccessful());
+        copy.setCounts(source.getCounts() != null ? new HashMap<>(source.getCounts()) : null);
+        copy.setCircuitDepth(source.getCircuitDepth());
+        copy.setTimestamp(LocalDateTime.now());
+        copy.setProcessingTime(lookupNanos / 1_000_000L);
+        if (source.getQuantumMetrics() != null) {
+            source.getQuantumMetrics().forEach(copy::setQuantumMetric);
+        }
+        return copy;
+    }
+
+    /**
+     * Engine name plus canonical words; the hash is a 64-bit mix of the words
+     */
+    private static final class Key {
+        private final String engine;
+        private final long[] words;
+        private final long hash;
+
+        Key(String engine, long[] words) {
+            this.engine = engine;
+            this.words = words;
+            long h = 0x9E3779B97F4A7C15L ^ engine.hashCode();
+            for (long word : words) {
+                h = (h ^ word) * 0xBF58476D1CE4E5B9L;
+                h ^= h >>> 31;
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hash == key.hash && engine.equals(key.engine) && Arrays.equals(words, key.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long size;
+        private final long computeNanos;
+
+        Entry(Object value, long size, long computeNanos) {
+            this.value = value;
+            this.size = size;
+            this.computeNanos = computeNanos;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.QuantumCircuit;
+import com.boozer.nexus.quantum.models.QuantumGate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled Circuit
+ *
+ * Gate list held as parallel primitive arrays: one opcode byte per gate, the qubit
+ * operands packed into a single int array, and the rotation angle per gate. A gate
+ * angle can be bound to a slot of a parameter vector, so one compiled template is
+ * evaluated at many parameter points without rebuilding or re-parsing anything.
+ *
+ * Conversion to and from {@link QuantumCircuit} is lossless for every gate type
+ * listed here: operands keep their order (controls first, as in the gate list),
+ * angles are copied unchanged and only the case of gate names is normalised.
+ */
+public final class CompiledCircuit {
+
+    public static final byte OP_H = 0;
+    public static final byte OP_X = 1;
+    public static final byte OP_Y = 2;
+    public static final byte OP_Z = 3;
+    public static final byte OP_RX = 4;
+    public static final byte OP_RY = 5;
+    public static final byte OP_RZ = 6;
+    public static final byte OP_CNOT = 7;
+    public static final byte OP_CZ = 8;
+    public static final byte OP_ZZ = 9;
+    public static final byte OP_TOFFOLI = 10;
+    public static final byte OP_MCZ = 11;
+    public static final byte OP_MEASURE = 12;
+
+    /** Marks a gate whose angle does not depend on the parameter vector */
+    public static final int FIXED = -1;
+
+    private static final String[] NAMES = {
+        "H", "X", "Y", "Z", "RX", "RY", "RZ", "CNOT", "CZ", "ZZ", "TOFFOLI", "MCZ", "MEASURE"
+    };
+
+    private final int numQubits;
+    private String id;
+    private int numClassicalBits;
+    private int depth;
+    private int size;
+    private int numParameters;
+
+    private byte[] ops = new byte[16];
+    /** Gate g uses qubits[qubitOffsets[g] .. qubitOffsets[g + 1]) */
+    private int[] qubitOffsets = new int[17];
+    private int[] qubits = new int[32];
+    /** Bit mask of the qubits each gate acts on */
+    private long[] masks = new long[16];
+    /** Fixed angle, or the offset added to a bound parameter */
+    private double[] angles = new double[16];
+    private int[] slots = new int[16];
+    private double[] scales = new double[16];
+
+    public CompiledCircuit(int numQubits) {
+        this.numQubits = numQubits;
+    }
+
+    /**
+     * Compile a gate-list circuit; every angle is fixed
+     */
+    public static CompiledCircuit compile(QuantumCircuit circuit) {
+        CompiledCircuit compiled = new CompiledCircuit(circuit.getNumQubits());
+        compiled.setId(circuit.getId());
+        compiled.setNumClassicalBits(circuit.getNumClassicalBits());
+        compiled.setDepth(circuit.getDepth());
+        for (QuantumGate gate : circuit.getGates()) {
+            byte op = opcode(gate.getType());
+            if (op < 0) {
+                throw new IllegalArgumentException("Unsupported gate type: " + gate.getType());
+            }
+            List<Integer> operands = gate.getQubits();
+            int[] targets = new int[operands.size()];
+            for (int k = 0; k < targets.length; k++) {
+                targets[k] = operands.get(k);
+            }
+            compiled.add(op, gate.getParameter(), FIXED, 0.0, targets);
+        }
+        return compiled;
+    }
+
+    /**
+     * Expand back into a gate-list circuit, binding parameterized angles to the
+     * given point (may be null when the circuit has no parameters)
+     */
+    public QuantumCircuit toCircuit(double[] parameters) {
+        if (numParameters > 0 && (parameters == null || parameters.length < numParameters)) {
+            throw new IllegalArgumentException("Circuit expects " + numParameters + " parameter values");
+        }
+        List<QuantumGate> gates = new ArrayList<>(size);
+        for (int g = 0; g < size; g++) {
+            List<Integer> operands = new ArrayList<>(arity(g));
+            for (int k = 0; k < arity(g); k++) {
+                operands.add(qubit(g, k));
+            }
+            QuantumGate gate = new QuantumGate();
+            gate.setType(NAMES[ops[g]]);
+            gate.setQubits(operands);
+            gate.setParameter(angle(g, parameters));
+            gates.add(gate);
+        }
+
+        QuantumCircuit circuit = new QuantumCircuit();
+        if (id != null) {
+            circuit.setId(id);
+        }
+        circuit.setNumQubits(numQubits);
+        circuit.setNumClassicalBits(numClassicalBits);
+        circuit.setGates(gates);
+        circuit.setDepth(depth);
+        return circuit;
+    }
+
+    /**
+     * Opcode for a gate name, or -1 when the name is unknown
+     */
+    public static byte opcode(String type) {
+        String name = type.toUpperCase();
+        for (byte op = 0; op < NAMES.length; op++) {
+            if (NAMES[op].equals(name)) {
+                return op;
+            }
+        }
+        return -1;
+    }
+
+    public static String name(byte op) {
+        return NAMES[op];
+    }
+
+    /**
+     * True for gates of the form exp(-iθG/2) (RX, RY, RZ) or exp(iθZZ) (ZZ)
+     */
+    public static boolean isRotation(byte op) {
+        return op == OP_RX || op == OP_RY || op == OP_RZ || op == OP_ZZ;
+    }
+
+    /**
+     * Append a gate without an angle; rotations go through {@link #rotation}
+     */
+    public CompiledCircuit gate(byte op, int... targets) {
+        if (isRotation(op)) {
+            throw new IllegalArgumentException(name(op) + " gates need an angle");
+        }
+        return add(op, 0.0, FIXED, 0.0, targets);
+    }
+
+    /**
+     * Append a rotation with a fixed angle
+     */
+    public CompiledCircuit rotation(byte op, double angle, int... targets) {
+        if (!isRotation(op)) {
+            throw new IllegalArgumentException(name(op) + " gates take no angle");
+        }
+        return add(op, angle, FIXED, 0.0, targets);
+    }
+
+    /**
+     * Append a gate whose angle is scale * parameters[slot]
+     */
+    public CompiledCircuit parameterizedGate(byte op, int slot, double scale, int... targets) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("Parameter slot must be non-negative: " + slot);
+        }
+        if (!isRotation(op)) {
+            throw new IllegalArgumentException(name(op) + " gates take no angle");
+        }
+        return add(op, 0.0, slot, scale, targets);
+    }
+
+    private CompiledCircuit add(byte op, double angle, int slot, double scale, int[] targets) {
+        if (op < 0 || op >= NAMES.length) {
+            throw new IllegalArgumentException("Unknown opcode: " + op);
+        }
+        if (targets.length == 0) {
+            throw new IllegalArgumentException(NAMES[op] + " gate needs at least one qubit");
+        }
+        // A measurement may carry a classical bit index after its qubit
+        int quantumOperands = op == OP_MEASURE ? 1 : targets.length;
+        long mask = 0L;
+        for (int k = 0; k < quantumOperands; k++) {
+            if (targets[k] < 0 || targets[k] >= numQubits) {
+                throw new IllegalArgumentException("Qubit " + targets[k] + " outside " + numQubits + "-qubit circuit");
+            }
+            mask |= 1L << targets[k];
+        }
+        if (size == ops.length) {
+            int capacity = size * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            qubitOffsets = Arrays.copyOf(qubitOffsets, capacity + 1);
+            angles = Arrays.copyOf(angles, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+            scales = Arrays.copyOf(scales, capacity);
+            masks = Arrays.copyOf(masks, capacity);
+        }
+        int offset = qubitOffsets[size];
+        if (offset + targets.length > qubits.length) {
+            qubits = Arrays.copyOf(qubits, Math.max(qubits.length * 2, offset + targets.length));
+        }
+        System.arraycopy(targets, 0, qubits, offset, targets.length);
+
+        ops[size] = op;
+        angles[size] = angle;
+        slots[size] = slot;
+        scales[size] = scale;
+        masks[size] = mask;
+        qubitOffsets[size + 1] = offset + targets.length;
+        numParameters = Math.max(numParameters, slot + 1);
+        size++;
+        return this;
+    }
+
+    /**
+     * Angle of gate g at the given parameter point
+     */
+    public double angle(int g, double[] parameters) {
+        int slot = slots[g];
+        if (slot == FIXED) {
+            return angles[g];
+        }
+        if (parameters == null) {
+            throw new IllegalArgumentException("Gate " + g + " is parameterized but no parameters were given");
+        }
+        return angles[g] + scales[g] * parameters[slot];
+    }
+
+    /**
+     * Bit mask of every qubit gate g acts on
+     */
+    public long mask(int g) {
+        return masks[g];
+    }
+
+    public byte op(int g) { return ops[g]; }
+    public int arity(int g) { return qubitOffsets[g + 1] - qubitOffsets[g]; }
+    public int qubit(int g, int k) { return qubits[qubitOffsets[g] + k]; }
+    public int slot(int g) { return slots[g]; }
+    public double scale(int g) { return scales[g]; }
+
+    public int size() { return size; }
+    public int getNumQubits() { return numQubits; }
+    public int getNumParameters() { return numParameters; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getNumClassicalBits() { return numClassicalBits; }
+    public void setNumClassicalBits(int numClassicalBits) { this.numClassicalBits = numClassicalBits; }
+
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+}
@@ -0,0 +1,229 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Truncated singular value decomposition of a complex matrix.
+ *
+ * Matrices are row-major with interleaved real/imaginary parts. The decomposition
+ * uses one-sided (Hestenes) Jacobi rotations on the narrower side of the matrix,
+ * which is accurate for the small, dense blocks produced by tensor-network updates.
+ */
+final class ComplexSvd {
+
+    private static final double EPSILON = 1e-15;
+    private static final double TOLERANCE = 1e-12;
+    private static final int MAX_SWEEPS = 60;
+
+    /** Number of singular values kept */
+    final int rank;
+    /** Left singular vectors, m x rank */
+    final double[] u;
+    /** Singular values in descending order */
+    final double[] s;
+    /** Conjugate-transposed right singular vectors, rank x n */
+    final double[] vh;
+    /** Sum of squared singular values that were dropped, relative to the total */
+    final double discardedWeight;
+
+    private ComplexSvd(int rank, double[] u, double[] s, double[] vh, double discardedWeight) {
+        this.rank = rank;
+        this.u = u;
+        this.s = s;
+        this.vh = vh;
+        this.discardedWeight = discardedWeight;
+    }
+
+    /**
+     * Decompose the m x n matrix a, keeping at most maxRank singular values and
+     * dropping the tail whose relative squared weight stays below cutoff
+     */
+    static ComplexSvd decompose(double[] a, int m, int n, int maxRank, double cutoff) {
+        boolean transposed = n > m;
+        int rows = transposed ? n : m;
+        int cols = transposed ? m : n;
+
+        // Column-major working copy of a (or of a^H when a is wide)
+        double[] w = new double[rows * cols * 2];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                int src = (i * n + j) * 2;
+                if (transposed) {
+                    int dst = (i * rows + j) * 2;
+                    w[dst] = a[src];
+                    w[dst + 1] = -a[src + 1];
+                } else {
+                    int dst = (j * rows + i) * 2;
+                    w[dst] = a[src];
+                    w[dst + 1] = a[src + 1];
+                }
+            }
+        }
+        double[] v = new double[cols * cols * 2];
+        for (int j = 0; j < cols; j++) {
+            v[(j * cols + j) * 2] = 1.0;
+        }
+
+        orthogonalizeColumns(w, rows, cols, v);
+
+        // Singular values are the column norms; order them descending
+        double[] norms = new double[cols];
+        Integer[] order = new Integer[cols];
+        double total = 0.0;
+        for (int j = 0; j < cols; j++) {
+            norms[j] = Math.sqrt(columnNormSquared(w, rows, j));
+            order[j] = j;
+            total += norms[j] * norms[j];
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(norms[y], norms[x]));
+
+        int keep = Math.min(cols, Math.max(1, maxRank));
+        double discarded = 0.0;
+        for (int k = keep; k < cols; k++) {
+            discarded += norms[order[k]] * norms[order[k]];
+        }
+        double floor = norms[order[0]] * EPSILON * cols;
+        while (keep > 1) {
+            double sigma = norms[order[keep - 1]];
+            double weight = sigma * sigma;
+            if (sigma > floor && (total == 0.0 || (discarded + weight) / total > cutoff)) {
+                break;
+            }
+            discarded += weight;
+            keep--;
+        }
+
+        // Left factor of the narrow problem (w normalised) and its right factor (v)
+        double[] left = new double[rows * keep * 2];
+        double[] right = new double[keep * cols * 2];
+        double[] sigma = new double[keep];
+        for (int k = 0; k < keep; k++) {
+            int j = order[k];
+            sigma[k] = norms[j];
+            double scale = norms[j] > 0.0 ? 1.0 / norms[j] : 0.0;
+            for (int i = 0; i < rows; i++) {
+                int src = (j * rows + i) * 2;
+                int dst = (i * keep + k) * 2;
+                left[dst] = w[src] * scale;
+                left[dst + 1] = w[src + 1] * scale;
+            }
+            for (int i = 0; i < cols; i++) {
+                int src = (j * cols + i) * 2;
+                int dst = (k * cols + i) * 2;
+                right[dst] = v[src];
+                right[dst + 1] = -v[src + 1];
+            }
+        }
+
+        double relativeDiscarded = total > 0.0 ? discarded / total : 0.0;
+        if (!transposed) {
+            return new ComplexSvd(keep, left, sigma, right, relativeDiscarded);
+        }
+
+        // a^H = L S R  =>  a = R^H S L^H
+        double[] u = new double[m * keep * 2];
+        for (int k = 0; k < keep; k++) {
+            for (int i = 0; i < m; i++) {
+                int src = (k * cols + i) * 2;
+                int dst = (i * keep + k) * 2;
+                u[dst] = right[src];
+                u[dst + 1] = -right[src + 1];
+            }
+        }
+        double[] vh = new double[keep * n * 2];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < keep; k++) {
+                int src = (i * keep + k) * 2;
+                int dst = (k * n + i) * 2;
+                vh[dst] = left[src];
+                vh[dst + 1] = -left[src + 1];
+            }
+        }
+        return new ComplexSvd(keep, u, sigma, vh, relativeDiscarded);
+    }
+
+    /**
+     * Rotate column pairs of w until all columns are mutually orthogonal,
+     * applying the same rotations to the columns of v
+     */
+    private static void orthogonalizeColumns(double[] w, int rows, int cols, double[] v) {
+        // Squared column norms, refreshed every sweep and updated analytically in between
+        double[] norms = new double[cols];
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            for (int j = 0; j < cols; j++) {
+                norms[j] = columnNormSquared(w, rows, j);
+            }
+            boolean rotated = false;
+            for (int p = 0; p < cols - 1; p++) {
+                for (int q = p + 1; q < cols; q++) {
+                    double alpha = norms[p];
+                    double beta = norms[q];
+                    if (alpha <= 0.0 || beta <= 0.0) {
+                        continue;
+                    }
+
+                    // gamma = w_p^H w_q
+                    double gRe = 0.0;
+                    double gIm = 0.0;
+                    int pOff = p * rows * 2;
+                    int qOff = q * rows * 2;
+                    for (int i = 0; i < rows * 2; i += 2) {
+                        double pr = w[pOff + i], pi = w[pOff + i + 1];
+                        double qr = w[qOff + i], qi = w[qOff + i + 1];
+                        gRe += pr * qr + pi * qi;
+                        gIm += pr * qi - pi * qr;
+                    }
+                    double gamma = Math.hypot(gRe, gIm);
+                    if (gamma <= TOLERANCE * Math.sqrt(alpha * beta)) {
+                        continue;
+                    }
+                    rotated = true;
+
+                    double zeta = (beta - alpha) / (2.0 * gamma);
+                    double t = zeta == 0.0 ? 1.0
+                        : Math.signum(zeta) / (Math.abs(zeta) + Math.sqrt(1.0 + zeta * zeta));
+                    double c = 1.0 / Math.sqrt(1.0 + t * t);
+                    double s = c * t;
+                    // e^{-i phi} with phi = arg(gamma)
+                    double phRe = gRe / gamma;
+                    double phIm = -gIm / gamma;
+
+                    rotate(w, rows, p, q, c, s, phRe, phIm);
+                    rotate(v, cols, p, q, c, s, phRe, phIm);
+                    norms[p] = Math.max(0.0, alpha - t * gamma);
+                    norms[q] = Math.max(0.0, beta + t * gamma);
+                }
+            }
+            if (!rotated) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * x_p' = c x_p - s e^{-i phi} x_q,  x_q' = s x_p + c e^{-i phi} x_q
+     */
+    private static void rotate(double[] x, int rows, int p, int q, double c, double s,
+                               double phRe, double phIm) {
+        int pOff = p * rows * 2;
+        int qOff = q * rows * 2;
+        for (int i = 0; i < rows * 2; i += 2) {
+            double pr = x[pOff + i], pi = x[pOff + i + 1];
+            double qr = x[qOff + i] * phRe - x[qOff + i + 1] * phIm;
+            double qi = x[qOff + i] * phIm + x[qOff + i + 1] * phRe;
+            x[pOff + i] = c * pr - s * qr;
+            x[pOff + i + 1] = c * pi - s * qi;
+            x[qOff + i] = s * pr + c * qr;
+            x[qOff + i + 1] = s * pi + c * qi;
+        }
+    }
+
+    private static double columnNormSquared(double[] w, int rows, int column) {
+        double sum = 0.0;
+        int offset = column * rows * 2;
+        for (int i = 0; i < rows * 2; i++) {
+            sum += w[offset + i] * w[offset + i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,215 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.NoiseModel;
+import com.boozer.nexus.quantum.models.QuantumExecutionOptions;
+import com.boozer.nexus.quantum.models.QuantumResult;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Density Matrix Simulator
+ *
+ * Exact noisy simulation. The n-qubit density matrix ρ is stored as a 2n-qubit
+ * heap vector with ρ_ij at index i + (j << n), so a gate U becomes U on the low
+ * (ket) qubits and conj(U) on the high (bra) qubits and reuses the state-vector
+ * kernels unchanged. Every noise channel in {@link NoiseModel} acts on one qubit
+ * as a map on its 2×2 block: the populations mix and the coherences scale.
+ *
+ * Memory grows as 16 · 4^n bytes, so this engine is for small registers; larger
+ * ones go to {@link TrajectorySimulator}.
+ */
+@Component
+public class DensityMatrixSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DensityMatrixSimulator.class);
+
+    private int maxQubits = 12;
+
+    /**
+     * Outcome distribution of the circuit under the noise model, readout error included
+     */
+    public double[] probabilities(CompiledCircuit circuit, double[] parameters, NoiseModel noise) {
+        int n = circuit.getNumQubits();
+        if (n > maxQubits) {
+            throw new IllegalArgumentException("Density matrix simulation supports at most " + maxQubits
+                + " qubits, got " + n);
+        }
+        try (HeapStateVector rho = new HeapStateVector(2 * n)) {
+            boolean negated = evolve(rho, circuit, parameters, noise);
+            double[] data = rho.getAmplitudes();
+            double[] probabilities = new double[1 << n];
+            for (int i = 0; i < probabilities.length; i++) {
+                double p = data[2 * (i + (i << n))];
+                probabilities[i] = negated ? -p : p;
+            }
+            noise.applyReadoutError(probabilities, n);
+            return probabilities;
+        }
+    }
+
+    /**
+     * Heap of an n-qubit run: the 4^n density matrix and its outcome distribution
+     */
+    public MemoryEstimate estimateMemory(int numQubits) {
+        if (numQubits > maxQubits) {
+            return MemoryEstimate.UNBOUNDED;
+        }
+        return MemoryEstimate.heap(MemoryEstimate.amplitudeBytes(2 * numQubits) + (8L << numQubits));
+    }
+
+    /**
+     * Run the circuit and sample the noisy outcome distribution
+     */
+    public QuantumResult execute(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options) {
+        logger.debug("Executing noisy circuit {} on a {}-qubit density matrix", circuit.getId(), circuit.getNumQubits());
+
+        long startTime = System.currentTimeMillis();
+        NoiseModel noise = options.getNoiseModel() != null ? options.getNoiseModel() : new NoiseModel();
+        QuantumResult result = new QuantumResult();
+        result.setCircuitId(circuit.getId());
+        result.setProvider("density-matrix-simulator");
+        try {
+            double[] probabilities = probabilities(circuit, parameters, noise);
+            long[] outcomes = sample(probabilities, options.getShots(), QuantumSimulator.random(options));
+            result.setCounts(QuantumSimulator.toCounts(outcomes, circuit.getNumQubits()));
+            result.setSuccessful(true);
+            result.setTimestamp(LocalDateTime.now());
+            result.setCircuitDepth(circuit.getDepth());
+            result.setQuantumMetric("densityMatrixBytes", 16.0 * Math.pow(4, circuit.getNumQubits()));
+        } catch (RuntimeException e) {
+            logger.error("Density matrix simulation failed: {}", e.getMessage(), e);
+            result.setSuccessful(false);
+        }
+        result.setProcessingTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Apply every gate and its noise to ρ = |0⟩⟨0|. Returns true when ρ ended up
+     * stored with an overall sign of −1 (each Y gate contributes conj(Y) = −Y on
+     * the bra side; the sign is tracked instead of spending a pass on it).
+     */
+    private boolean evolve(HeapStateVector rho, CompiledCircuit circuit, double[] parameters, NoiseModel noise) {
+        int n = circuit.getNumQubits();
+        CompiledCircuit bra = braCircuit(circuit);
+        double[] data = rho.getAmplitudes();
+        boolean negated = false;
+
+        for (int g = 0; g < circuit.size(); g++) {
+            byte op = circuit.op(g);
+            if (op == CompiledCircuit.OP_MEASURE) {
+                continue;
+            }
+            double angle = circuit.angle(g, parameters);
+            QuantumSimulator.applyGate(rho, circuit, g, angle);
+            // RY is real; RX, RZ and ZZ conjugate to the opposite angle
+            QuantumSimulator.applyGate(rho, bra, g, op == CompiledCircuit.OP_RY ? angle : -angle);
+            if (op == CompiledCircuit.OP_Y) {
+                negated = !negated;
+            }
+
+            int arity = circuit.arity(g);
+            double depolarizing = noise.depolarizing(arity);
+            double damping = noise.getAmplitudeDamping();
+            for (int k = 0; k < arity; k++) {
+                int q = circuit.qubit(g, k);
+                if (depolarizing > 0.0) {
+                    double mix = 2.0 * depolarizing / 3.0;
+                    applyChannel(data, n, q, 1.0 - mix, mix, mix, 1.0 - mix, 1.0 - 2.0 * mix);
+                }
+                if (damping > 0.0) {
+                    applyChannel(data, n, q, 1.0, damping, 0.0, 1.0 - damping, Math.sqrt(1.0 - damping));
+                }
+            }
+        }
+        return negated;
+    }
+
+    /**
+     * Single-qubit channel on qubit q of a vectorised density matrix:
+     * ρ00 ← a00 ρ00 + a01 ρ11, ρ11 ← a10 ρ00 + a11 ρ11, ρ01 and ρ10 scaled by coherence.
+     * Depolarising (p) is a00 = a11 = 1 − 2p/3, a01 = a10 = 2p/3, coherence 1 − 4p/3;
+     * amplitude damping (γ) is a00 = 1, a01 = γ, a10 = 0, a11 = 1 − γ, coherence √(1 − γ).
+     */
+    static void applyChannel(double[] data, int n, int q, double a00, double a01, double a10, double a11,
+                             double coherence) {
+        int ket = 1 << q;
+        int bra = 1 << (q + n);
+        int size = data.length / 2;
+        for (int i = 0; i < size; i++) {
+            if ((i & (ket | bra)) != 0) {
+                continue;
+            }
+            int i00 = i << 1;
+            int i11 = (i | ket | bra) << 1;
+            int i10 = (i | ket) << 1;
+            int i01 = (i | bra) << 1;
+            for (int c = 0; c < 2; c++) {
+                double p0 = data[i00 + c];
+                double p1 = data[i11 + c];
+                data[i00 + c] = a00 * p0 + a01 * p1;
+                data[i11 + c] = a10 * p0 + a11 * p1;
+                data[i10 + c] *= coherence;
+                data[i01 + c] *= coherence;
+            }
+        }
+    }
+
+    /**
+     * The circuit on the bra qubits n .. 2n−1, for applying conj(U)
+     */
+    private static CompiledCircuit braCircuit(CompiledCircuit circuit) {
+        int n = circuit.getNumQubits();
+        CompiledCircuit bra = new CompiledCircuit(2 * n);
+        for (int g = 0; g < circuit.size(); g++) {
+            // A measurement's classical bit is not a qubit, so only its first operand moves
+            int arity = circuit.op(g) == CompiledCircuit.OP_MEASURE ? 1 : circuit.arity(g);
+            int[] targets = new int[arity];
+            for (int k = 0; k < arity; k++) {
+                targets[k] = circuit.qubit(g, k) + n;
+            }
+            if (CompiledCircuit.isRotation(circuit.op(g))) {
+                bra.rotation(circuit.op(g), 0.0, targets);
+            } else {
+                bra.gate(circuit.op(g), targets);
+            }
+        }
+        return bra;
+    }
+
+    /**
+     * Draw outcomes from a distribution in one pass; the result is in ascending order
+     */
+    static long[] sample(double[] probabilities, int shots, Random random) {
+        double total = 0.0;
+        for (double p : probabilities) {
+            total += Math.max(p, 0.0);
+        }
+        double[] targets = new double[shots];
+        for (int s = 0; s < shots; s++) {
+            targets[s] = random.nextDouble() * total;
+        }
+        Arrays.sort(targets);
+
+        long[] outcomes = new long[shots];
+        double cumulative = 0.0;
+        int index = 0;
+        for (int s = 0; s < shots; s++) {
+            while (index < probabilities.length - 1 && cumulative + Math.max(probabilities[index], 0.0) <= targets[s]) {
+                cumulative += Math.max(probabilities[index], 0.0);
+                index++;
+            }
+            outcomes[s] = index;
+        }
+        return outcomes;
+    }
+
+    // Configuration
+    public int getMaxQubits() { return maxQubits; }
+    public void setMaxQubits(int maxQubits) { this.maxQubits = maxQubits; }
+}
@@ -0,0 +1,69 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Heap State Vector
+ *
+ * Interleaved real/imaginary amplitudes in a single double[]. Limited to 29 qubits
+ * by the Java array size; larger states use {@link OffHeapStateVector}.
+ */
+public final class HeapStateVector extends StateVector {
+
+    public static final int MAX_QUBITS = 29;
+
+    private final double[] amplitudes;
+
+    public HeapStateVector(int numQubits) {
+        super(checkQubits(numQubits));
+        this.amplitudes = new double[(int) (size * 2)];
+        this.amplitudes[0] = 1.0;
+    }
+
+    @Override
+    public double re(long index) {
+        return amplitudes[(int) (index << 1)];
+    }
+
+    @Override
+    public double im(long index) {
+        return amplitudes[(int) (index << 1) + 1];
+    }
+
+    @Override
+    public void set(long index, double re, double im) {
+        int offset = (int) (index << 1);
+        amplitudes[offset] = re;
+        amplitudes[offset + 1] = im;
+    }
+
+    @Override
+    protected void clear() {
+        Arrays.fill(amplitudes, 0.0);
+    }
+
+    @Override
+    public void copyFrom(StateVector other) {
+        if (other instanceof HeapStateVector) {
+            checkSameSize(other);
+            System.arraycopy(((HeapStateVector) other).amplitudes, 0, amplitudes, 0, amplitudes.length);
+        } else {
+            super.copyFrom(other);
+        }
+    }
+
+    /**
+     * Backing array, interleaved as re0, im0, re1, im1, ...
+     */
+    public double[] getAmplitudes() {
+        return amplitudes;
+    }
+
+    private static int checkQubits(int numQubits) {
+        if (numQubits > MAX_QUBITS) {
+            throw new IllegalArgumentException("Heap state vector supports at most " + MAX_QUBITS
+                + " qubits, requested " + numQubits);
+        }
+        return numQubits;
+    }
+}
@@ -0,0 +1,349 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.*;
+
+/**
+ * Matrix Product State
+ *
+ * Site tensors are stored row-major as (left, physical, right) with interleaved
+ * real/imaginary parts, so a tensor is simultaneously a (left*2) x right and a
+ * left x (2*right) matrix without copying. The orthogonality centre is tracked so
+ * that every truncation happens in an orthonormal basis.
+ */
+class MatrixProductState {
+
+    private static final double[] SWAP = new double[32];
+
+    static {
+        SWAP[0] = 1.0;
+        SWAP[(1 * 4 + 2) * 2] = 1.0;
+        SWAP[(2 * 4 + 1) * 2] = 1.0;
+        SWAP[(3 * 4 + 3) * 2] = 1.0;
+    }
+
+    private final int numQubits;
+    private final int maxBond;
+    private final double cutoff;
+    private final double[][] tensors;
+    private final int[] bonds; // bonds[k] = dimension between site k-1 and site k
+    private final int[] siteOfQubit;
+    private final int[] qubitAtSite;
+    private int center;
+    private int peakBond = 1;
+    private double truncationError;
+
+    MatrixProductState(int numQubits, int maxBond, double cutoff) {
+        this.numQubits = numQubits;
+        this.maxBond = maxBond;
+        this.cutoff = cutoff;
+        this.tensors = new double[numQubits][];
+        this.bonds = new int[numQubits + 1];
+        this.siteOfQubit = new int[numQubits];
+        this.qubitAtSite = new int[numQubits];
+
+        // Product state |0...0⟩ with unit bonds
+        Arrays.fill(bonds, 1);
+        for (int k = 0; k < numQubits; k++) {
+            tensors[k] = new double[] { 1.0, 0.0, 0.0, 0.0 };
+            siteOfQubit[k] = k;
+            qubitAtSite[k] = k;
+        }
+        this.center = 0;
+    }
+
+    /**
+     * Apply a 2x2 unitary to one qubit; unitaries on the physical index keep the
+     * canonical form, so the centre does not move
+     */
+    void applySingle(int qubit, double[] u) {
+        int site = siteOfQubit[qubit];
+        double[] a = tensors[site];
+        int dl = bonds[site];
+        int dr = bonds[site + 1];
+        for (int l = 0; l < dl; l++) {
+            for (int r = 0; r < dr; r++) {
+                int i0 = ((l * 2) * dr + r) * 2;
+                int i1 = ((l * 2 + 1) * dr + r) * 2;
+                double ar = a[i0], ai = a[i0 + 1];
+                double br = a[i1], bi = a[i1 + 1];
+                a[i0] = u[0] * ar - u[1] * ai + u[2] * br - u[3] * bi;
+                a[i0 + 1] = u[0] * ai + u[1] * ar + u[2] * bi + u[3] * br;
+                a[i1] = u[4] * ar - u[5] * ai + u[6] * br - u[7] * bi;
+                a[i1 + 1] = u[4] * ai + u[5] * ar + u[6] * bi + u[7] * br;
+            }
+        }
+    }
+
+    /**
+     * Apply a 4x4 unitary given in the |q1 q2⟩ basis, routing the qubits next to
+     * each other with SWAPs first
+     */
+    void applyTwo(int q1, int q2, double[] gate) {
+        if (q1 == q2) {
+            throw new IllegalArgumentException("Two-qubit gate needs distinct qubits: " + q1);
+        }
+        // Move the farther qubit towards the nearer one
+        while (Math.abs(siteOfQubit[q1] - siteOfQubit[q2]) > 1) {
+            int s1 = siteOfQubit[q1];
+            int s2 = siteOfQubit[q2];
+            int site = s2 > s1 ? s2 - 1 : s2;
+            applyTwoSite(site, SWAP);
+            swapLayout(site);
+        }
+        int left = Math.min(siteOfQubit[q1], siteOfQubit[q2]);
+        applyTwoSite(left, siteOfQubit[q1] == left ? gate : exchangeQubits(gate));
+    }
+
+    /**
+     * Draw measurement outcomes by sequential conditional sampling from the left,
+     * with the state brought into right-canonical form first
+     */
+    Map<String, Object> sample(int shots, Random random) {
+        moveCenter(0);
+
+        int widest = 1;
+        for (int bond : bonds) {
+            widest = Math.max(widest, bond);
+        }
+        Map<String, Object> counts = new HashMap<>();
+        char[] bits = new char[numQubits];
+        double[] env = new double[widest * 2];
+        double[] next0 = new double[widest * 2];
+        double[] next1 = new double[widest * 2];
+
+        for (int shot = 0; shot < shots; shot++) {
+            env[0] = 1.0;
+            env[1] = 0.0;
+            for (int site = 0; site < numQubits; site++) {
+                double[] a = tensors[site];
+                int dl = bonds[site];
+                int dr = bonds[site + 1];
+                Arrays.fill(next0, 0, dr * 2, 0.0);
+                Arrays.fill(next1, 0, dr * 2, 0.0);
+                for (int l = 0; l < dl; l++) {
+                    double er = env[l * 2], ei = env[l * 2 + 1];
+                    if (er == 0.0 && ei == 0.0) {
+                        continue;
+                    }
+                    int base0 = (l * 2) * dr * 2;
+                    int base1 = (l * 2 + 1) * dr * 2;
+                    for (int r = 0; r < dr * 2; r += 2) {
+                        double ar = a[base0 + r], ai = a[base0 + r + 1];
+                        next0[r] += er * ar - ei * ai;
+                        next0[r + 1] += er * ai + ei * ar;
+                        double br = a[base1 + r], bi = a[base1 + r + 1];
+                        next1[r] += er * br - ei * bi;
+                        next1[r + 1] += er * bi + ei * br;
+                    }
+                }
+                double p0 = 0.0;
+                double p1 = 0.0;
+                for (int r = 0; r < dr * 2; r++) {
+                    p0 += next0[r] * next0[r];
+                    p1 += next1[r] * next1[r];
+                }
+                boolean one = random.nextDouble() * (p0 + p1) >= p0;
+                double[] chosen = one ? next1 : next0;
+                double scale = 1.0 / Math.sqrt(one ? p1 : p0);
+                for (int r = 0; r < dr * 2; r++) {
+                    env[r] = chosen[r] * scale;
+                }
+
+                int qubit = qubitAtSite[site];
+                bits[numQubits - 1 - qubit] = one ? '1' : '0';
+            }
+            String bitstring = new String(bits);
+            counts.merge(bitstring, 1, (x, y) -> (Integer) x + (Integer) y);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Amplitude {re, im} of one basis state (bit q of the index is qubit q)
+     */
+    double[] amplitude(long index) {
+        double[] env = { 1.0, 0.0 };
+        for (int site = 0; site < numQubits; site++) {
+            int s = (int) ((index >>> qubitAtSite[site]) & 1);
+            int dl = bonds[site];
+            int dr = bonds[site + 1];
+            double[] next = new double[dr * 2];
+            for (int l = 0; l < dl; l++) {
+                double er = env[l * 2], ei = env[l * 2 + 1];
+                int base = (l * 2 + s) * dr * 2;
+                for (int r = 0; r < dr * 2; r += 2) {
+                    double ar = tensors[site][base + r], ai = tensors[site][base + r + 1];
+                    next[r] += er * ar - ei * ai;
+                    next[r + 1] += er * ai + ei * ar;
+                }
+            }
+            env = next;
+        }
+        return env;
+    }
+
+    int getPeakBondDimension() { return peakBond; }
+    double getTruncationError() { return truncationError; }
+
+    /**
+     * Contract sites (site, site+1), apply the gate and split with a truncated SVD.
+     * The orthogonality centre ends up on site+1.
+     */
+    private void applyTwoSite(int site, double[] gate) {
+        moveCenter(site);
+
+        int dl = bonds[site];
+        int dm = bonds[site + 1];
+        int dr = bonds[site + 2];
+        double[] a = tensors[site];
+        double[] b = tensors[site + 1];
+
+        // theta[(l,s1),(s2,r)] = sum_m A[(l,s1),m] B[m,(s2,r)]
+        double[] theta = multiply(a, b, dl * 2, dm, 2 * dr);
+
+        // Apply the gate on (s1, s2)
+        double[] gated = new double[theta.length];
+        for (int l = 0; l < dl; l++) {
+            for (int r = 0; r < dr; r++) {
+                for (int out = 0; out < 4; out++) {
+                    double re = 0.0;
+                    double im = 0.0;
+                    for (int in = 0; in < 4; in++) {
+                        double gr = gate[(out * 4 + in) * 2];
+                        double gi = gate[(out * 4 + in) * 2 + 1];
+                        if (gr == 0.0 && gi == 0.0) {
+                            continue;
+                        }
+                        int idx = thetaIndex(l, in >> 1, in & 1, r, dr);
+                        re += gr * theta[idx] - gi * theta[idx + 1];
+                        im += gr * theta[idx + 1] + gi * theta[idx];
+                    }
+                    int idx = thetaIndex(l, out >> 1, out & 1, r, dr);
+                    gated[idx] = re;
+                    gated[idx + 1] = im;
+                }
+            }
+        }
+
+        ComplexSvd svd = ComplexSvd.decompose(gated, dl * 2, 2 * dr, maxBond, cutoff);
+        int chi = svd.rank;
+        truncationError += svd.discardedWeight;
+        peakBond = Math.max(peakBond, chi);
+
+        // Renormalise after truncation and absorb the singular values to the right
+        double kept = 0.0;
+        for (int k = 0; k < chi; k++) {
+            kept += svd.s[k] * svd.s[k];
+        }
+        double renorm = kept > 0.0 ? 1.0 / Math.sqrt(kept) : 1.0;
+        double[] right = svd.vh;
+        for (int k = 0; k < chi; k++) {
+            double scale = svd.s[k] * renorm;
+            for (int j = 0; j < 2 * dr * 2; j++) {
+                right[k * 2 * dr * 2 + j] *= scale;
+            }
+        }
+
+        tensors[site] = svd.u;
+        tensors[site + 1] = right;
+        bonds[site + 1] = chi;
+        center = site + 1;
+    }
+
+    /**
+     * Shift the orthogonality centre with exact (untruncated) SVD steps
+     */
+    private void moveCenter(int target) {
+        while (center < target) {
+            int site = center;
+            int dl = bonds[site];
+            int dr = bonds[site + 1];
+            ComplexSvd svd = ComplexSvd.decompose(tensors[site], dl * 2, dr, Integer.MAX_VALUE, 0.0);
+            int chi = svd.rank;
+            // A = U (S Vh): keep U here, push S Vh into the next site
+            double[] sv = svd.vh;
+            for (int k = 0; k < chi; k++) {
+                for (int j = 0; j < dr * 2; j++) {
+                    sv[k * dr * 2 + j] *= svd.s[k];
+                }
+            }
+            tensors[site] = svd.u;
+            tensors[site + 1] = multiply(sv, tensors[site + 1], chi, dr, 2 * bonds[site + 2]);
+            bonds[site + 1] = chi;
+            center++;
+        }
+        while (center > target) {
+            int site = center;
+            int dl = bonds[site];
+            int dr = bonds[site + 1];
+            ComplexSvd svd = ComplexSvd.decompose(tensors[site], dl, 2 * dr, Integer.MAX_VALUE, 0.0);
+            int chi = svd.rank;
+            // A = (U S) Vh: keep Vh here, pull U S into the previous site
+            double[] us = svd.u;
+            for (int i = 0; i < dl; i++) {
+                for (int k = 0; k < chi; k++) {
+                    us[(i * chi + k) * 2] *= svd.s[k];
+                    us[(i * chi + k) * 2 + 1] *= svd.s[k];
+                }
+            }
+            tensors[site] = svd.vh;
+            tensors[site - 1] = multiply(tensors[site - 1], us, bonds[site - 1] * 2, dl, chi);
+            bonds[site] = chi;
+            center--;
+        }
+    }
+
+    private void swapLayout(int site) {
+        int left = qubitAtSite[site];
+        int right = qubitAtSite[site + 1];
+        qubitAtSite[site] = right;
+        qubitAtSite[site + 1] = left;
+        siteOfQubit[left] = site + 1;
+        siteOfQubit[right] = site;
+    }
+
+    /**
+     * Re-express a |q1 q2⟩ gate in the |q2 q1⟩ basis
+     */
+    private static double[] exchangeQubits(double[] gate) {
+        double[] swapped = new double[32];
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                int r = ((row & 1) << 1) | (row >> 1);
+                int c = ((col & 1) << 1) | (col >> 1);
+                swapped[(r * 4 + c) * 2] = gate[(row * 4 + col) * 2];
+                swapped[(r * 4 + c) * 2 + 1] = gate[(row * 4 + col) * 2 + 1];
+            }
+        }
+        return swapped;
+    }
+
+    private static int thetaIndex(int l, int s1, int s2, int r, int dr) {
+        return (((l * 2 + s1) * 2 + s2) * dr + r) * 2;
+    }
+
+    /**
+     * Complex (m x k) · (k x n) product of row-major interleaved matrices
+     */
+    private static double[] multiply(double[] x, double[] y, int m, int k, int n) {
+        double[] out = new double[m * n * 2];
+        for (int i = 0; i < m; i++) {
+            for (int p = 0; p < k; p++) {
+                double xr = x[(i * k + p) * 2];
+                double xi = x[(i * k + p) * 2 + 1];
+                if (xr == 0.0 && xi == 0.0) {
+                    continue;
+                }
+                int yOff = p * n * 2;
+                int oOff = i * n * 2;
+                for (int j = 0; j < n * 2; j += 2) {
+                    double yr = y[yOff + j], yi = y[yOff + j + 1];
+                    out[oOff + j] += xr * yr - xi * yi;
+                    out[oOff + j + 1] += xr * yi + xi * yr;
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,62 @@
+package com.boozer.nexus.quantum.simulator;
+
+/**
+ * Memory Estimate
+ *
+ * Peak memory one simulation is expected to hold, split by the pool it comes
+ * from: the Java heap, or direct buffers outside it. Memory-mapped state
+ * vectors are backed by a file and count against neither.
+ */
+public final class MemoryEstimate {
+
+    /** Too large for any budget */
+    public static final MemoryEstimate UNBOUNDED = new MemoryEstimate(Long.MAX_VALUE, 0L);
+
+    private final long heapBytes;
+    private final long offHeapBytes;
+
+    private MemoryEstimate(long heapBytes, long offHeapBytes) {
+        this.heapBytes = heapBytes;
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    public static MemoryEstimate heap(long bytes) {
+        return new MemoryEstimate(bytes, 0L);
+    }
+
+    public static MemoryEstimate offHeap(long bytes) {
+        return new MemoryEstimate(0L, bytes);
+    }
+
+    public static MemoryEstimate none() {
+        return new MemoryEstimate(0L, 0L);
+    }
+
+    /**
+     * Bytes of 2^numQubits complex doubles, saturating at Long.MAX_VALUE
+     */
+    public static long amplitudeBytes(int numQubits) {
+        return numQubits >= 59 ? Long.MAX_VALUE : 16L << Math.max(numQubits, 0);
+    }
+
+    /**
+     * Pool by pool, the larger of this and another estimate: the peak of two
+     * phases that never hold their memory at the same time
+     */
+    public MemoryEstimate max(MemoryEstimate other) {
+        return new MemoryEstimate(Math.max(heapBytes, other.heapBytes), Math.max(offHeapBytes, other.offHeapBytes));
+    }
+
+    public long getTotalBytes() {
+        return heapBytes > Long.MAX_VALUE - offHeapBytes ? Long.MAX_VALUE : heapBytes + offHeapBytes;
+    }
+
+    @Override
+    public String toString() {
+        return heapBytes + " heap + " + offHeapBytes + " off-heap bytes";
+    }
+
+    // Getters
+    public long getHeapBytes() { return heapBytes; }
+    public long getOffHeapBytes() { return offHeapBytes; }
+}
@@ -0,0 +1,26 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Random;
+
+/**
+ * Observable
+ *
+ * Hermitian operator whose expectation value a variational circuit optimises.
+ */
+public interface Observable {
+
+    /**
+     * Exact ⟨ψ|O|ψ⟩
+     */
+    double expectation(StateVector state);
+
+    /**
+     * Write O|source⟩ into target; source is left unchanged
+     */
+    void apply(StateVector source, StateVector target);
+
+    /**
+     * Estimate ⟨ψ|O|ψ⟩ from the given number of measurement shots
+     */
+    double estimate(StateVector state, int shots, Random random);
+}
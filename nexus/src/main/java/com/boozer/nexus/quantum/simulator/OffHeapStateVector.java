@@ -0,0 +1,190 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-Heap State Vector
+ *
+ * Amplitudes stored outside the Java heap in 1 GiB direct buffer chunks, optionally
+ * backed by a memory-mapped swap file so that states larger than physical memory can
+ * be paged by the operating system. The heap only holds the chunk table, so garbage
+ * collection cost does not grow with the qubit count.
+ */
+public final class OffHeapStateVector extends StateVector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapStateVector.class);
+
+    /** 2^26 amplitudes of 16 bytes each = 1 GiB per chunk */
+    private static final int MAX_CHUNK_SHIFT = 26;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Exception e) {
+            logger.debug("Explicit buffer release unavailable, off-heap memory will be freed by GC: {}", e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final int chunkShift;
+    private final long chunkMask;
+    private final ByteBuffer[] chunks;
+    private final DoubleBuffer[] views;
+    private final FileChannel channel;
+    private final Path mappedFile;
+    private boolean closed;
+
+    private OffHeapStateVector(int numQubits, ByteBuffer[] chunks, int chunkShift,
+                               FileChannel channel, Path mappedFile) {
+        super(numQubits);
+        this.chunks = chunks;
+        this.views = new DoubleBuffer[chunks.length];
+        for (int c = 0; c < chunks.length; c++) {
+            views[c] = chunks[c].asDoubleBuffer();
+        }
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.channel = channel;
+        this.mappedFile = mappedFile;
+        set(0, 1.0, 0.0);
+    }
+
+    /**
+     * Allocate the state in direct memory (bounded by -XX:MaxDirectMemorySize)
+     */
+    public static OffHeapStateVector allocate(int numQubits) {
+        int shift = Math.min(MAX_CHUNK_SHIFT, numQubits);
+        ByteBuffer[] chunks = new ByteBuffer[1 << (numQubits - shift)];
+        try {
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = ByteBuffer.allocateDirect(16 << shift).order(ByteOrder.nativeOrder());
+            }
+        } catch (OutOfMemoryError e) {
+            releaseAll(chunks);
+            throw new IllegalStateException("Not enough direct memory for a " + numQubits
+                + "-qubit state vector (" + ((16L << numQubits) >> 20) + " MiB)", e);
+        }
+        return new OffHeapStateVector(numQubits, chunks, shift, null, null);
+    }
+
+    /**
+     * Allocate the state in a temporary memory-mapped file inside the given directory.
+     * The file is deleted when the vector is closed.
+     */
+    public static OffHeapStateVector map(int numQubits, Path directory) throws IOException {
+        int shift = Math.min(MAX_CHUNK_SHIFT, numQubits);
+        long chunkBytes = 16L << shift;
+        Path file = Files.createTempFile(directory, "nexus-statevector-", ".amp");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE);
+        ByteBuffer[] chunks = new ByteBuffer[1 << (numQubits - shift)];
+        try {
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, c * chunkBytes, chunkBytes)
+                    .order(ByteOrder.nativeOrder());
+            }
+        } catch (IOException e) {
+            releaseAll(chunks);
+            channel.close();
+            throw e;
+        }
+        logger.debug("Mapped {}-qubit state vector to {}", numQubits, file);
+        return new OffHeapStateVector(numQubits, chunks, shift, channel, file);
+    }
+
+    @Override
+    public double re(long index) {
+        return views[(int) (index >>> chunkShift)].get((int) (index & chunkMask) << 1);
+    }
+
+    @Override
+    public double im(long index) {
+        return views[(int) (index >>> chunkShift)].get(((int) (index & chunkMask) << 1) + 1);
+    }
+
+    @Override
+    public void set(long index, double re, double im) {
+        DoubleBuffer view = views[(int) (index >>> chunkShift)];
+        int offset = (int) (index & chunkMask) << 1;
+        view.put(offset, re);
+        view.put(offset + 1, im);
+    }
+
+    @Override
+    protected void clear() {
+        forEachRange(size, (from, to) -> {
+            for (long i = from; i < to; i++) {
+                set(i, 0.0, 0.0);
+            }
+        });
+    }
+
+    public boolean isMapped() {
+        return channel != null;
+    }
+
+    public Path getMappedFile() {
+        return mappedFile;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        releaseAll(chunks);
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close state vector file {}: {}", mappedFile, e.getMessage());
+            }
+        }
+    }
+
+    private static void releaseAll(ByteBuffer[] chunks) {
+        for (int c = 0; c < chunks.length; c++) {
+            if (chunks[c] != null) {
+                release(chunks[c]);
+                chunks[c] = null;
+            }
+        }
+    }
+
+    /**
+     * Free a direct or mapped buffer immediately instead of waiting for GC
+     */
+    private static void release(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (Exception e) {
+            logger.debug("Failed to release off-heap buffer: {}", e.getMessage());
+        }
+    }
+}
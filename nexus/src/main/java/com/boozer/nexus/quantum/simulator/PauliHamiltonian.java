@@ -0,0 +1,407 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Pauli Hamiltonian
+ *
+ * Weighted sum of Pauli strings, H = Σ c_k P_k with P_k = i^{|x∧z|} X^x Z^z for
+ * bit masks x (X or Y) and z (Z or Y). Terms are grouped by flip mask x: within
+ * a group every term needs only the products conj(ψ_{i⊕x}) ψ_i, weighted by
+ * Σ_t w_t (−1)^{|i∧z_t|}. The exact expectation is one parallel sweep over
+ * aligned blocks of amplitudes, and each group's weights are tabulated once per
+ * block with a Walsh–Hadamard transform rather than summed term by term per
+ * amplitude. Shot-based estimates measure qubit-wise commuting groups together,
+ * one basis rotation and one sample per group.
+ */
+public final class PauliHamiltonian implements Observable {
+
+    private static final int BLOCK_BITS = 13;
+
+    /** Flip mask of each group */
+    private final long[] groupFlips;
+    /** Terms of group g are [groupOffsets[g], groupOffsets[g + 1]) */
+    private final int[] groupOffsets;
+    /** Z mask of each term, in group order */
+    private final long[] groupZ;
+    /** Coefficient times i^{|x∧z|}, as real and imaginary parts */
+    private final double[] weightRe;
+    private final double[] weightIm;
+    /** Weights for apply, with the sign (−1)^{|x∧z|} moved from ψ_{i⊕x} onto i */
+    private final double[] applyRe;
+    private final double[] applyIm;
+
+    private final long[] termX;
+    private final long[] termZ;
+    private final double[] coefficients;
+
+    public PauliHamiltonian(long[] xMasks, long[] zMasks, double[] coefficients) {
+        if (xMasks.length != zMasks.length || xMasks.length != coefficients.length) {
+            throw new IllegalArgumentException("Got " + xMasks.length + " X masks, " + zMasks.length
+                + " Z masks and " + coefficients.length + " coefficients");
+        }
+        this.termX = xMasks.clone();
+        this.termZ = zMasks.clone();
+        this.coefficients = coefficients.clone();
+
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int k = 0; k < xMasks.length; k++) {
+            groups.computeIfAbsent(xMasks[k], key -> new ArrayList<>()).add(k);
+        }
+        this.groupFlips = new long[groups.size()];
+        this.groupOffsets = new int[groups.size() + 1];
+        this.groupZ = new long[xMasks.length];
+        this.weightRe = new double[xMasks.length];
+        this.weightIm = new double[xMasks.length];
+        this.applyRe = new double[xMasks.length];
+        this.applyIm = new double[xMasks.length];
+
+        int g = 0;
+        int t = 0;
+        for (Map.Entry<Long, List<Integer>> group : groups.entrySet()) {
+            groupFlips[g] = group.getKey();
+            for (int k : group.getValue()) {
+                groupZ[t] = termZ[k];
+                int phase = Long.bitCount(xMasks[k] & zMasks[k]) & 3;
+                weightRe[t] = phase == 0 ? coefficients[k] : phase == 2 ? -coefficients[k] : 0.0;
+                weightIm[t] = phase == 1 ? coefficients[k] : phase == 3 ? -coefficients[k] : 0.0;
+                double sign = (Long.bitCount(xMasks[k] & zMasks[k]) & 1) == 0 ? 1.0 : -1.0;
+                applyRe[t] = sign * weightRe[t];
+                applyIm[t] = sign * weightIm[t];
+                t++;
+            }
+            groupOffsets[++g] = t;
+        }
+    }
+
+    /**
+     * Parse the {@code Map<String, Double>} form used for Trotter steps: character
+     * q of each key is the Pauli (I, X, Y or Z) on qubit q
+     */
+    public static PauliHamiltonian fromPauliStrings(Map<String, Double> hamiltonian) {
+        long[] x = new long[hamiltonian.size()];
+        long[] z = new long[hamiltonian.size()];
+        double[] c = new double[hamiltonian.size()];
+        int k = 0;
+        for (Map.Entry<String, Double> term : hamiltonian.entrySet()) {
+            String pauli = term.getKey();
+            if (pauli.length() > 63) {
+                throw new IllegalArgumentException("Pauli strings are limited to 63 qubits: " + pauli);
+            }
+            for (int q = 0; q < pauli.length(); q++) {
+                setPauli(x, z, k, pauli.charAt(q), q, pauli);
+            }
+            c[k++] = term.getValue();
+        }
+        return new PauliHamiltonian(x, z, c);
+    }
+
+    /**
+     * Parse the sum form "0.5*Z0*Z1 + X2 + -1.2*Y0": terms separated by '+', factors
+     * by '*', each factor either a coefficient or a Pauli letter followed by its qubit
+     */
+    public static PauliHamiltonian parse(String hamiltonian) {
+        String[] terms = hamiltonian.split("\\+");
+        long[] x = new long[terms.length];
+        long[] z = new long[terms.length];
+        double[] c = new double[terms.length];
+        for (int k = 0; k < terms.length; k++) {
+            c[k] = 1.0;
+            long used = 0L;
+            for (String factor : terms[k].split("\\*")) {
+                String trimmed = factor.trim();
+                if (trimmed.isEmpty()) {
+                    throw new IllegalArgumentException("Empty factor in Hamiltonian term: " + terms[k]);
+                }
+                char pauli = Character.toUpperCase(trimmed.charAt(0));
+                if (pauli == 'X' || pauli == 'Y' || pauli == 'Z' || pauli == 'I') {
+                    int qubit;
+                    try {
+                        qubit = Integer.parseInt(trimmed.substring(1).trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Bad Pauli factor: " + trimmed);
+                    }
+                    if (qubit < 0 || qubit > 62) {
+                        throw new IllegalArgumentException("Qubit index out of range: " + trimmed);
+                    }
+                    if ((used & (1L << qubit)) != 0) {
+                        throw new IllegalArgumentException("Qubit " + qubit + " repeated in term: " + terms[k]);
+                    }
+                    used |= 1L << qubit;
+                    setPauli(x, z, k, pauli, qubit, trimmed);
+                } else {
+                    try {
+                        c[k] *= Double.parseDouble(trimmed);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Bad Hamiltonian factor: " + trimmed);
+                    }
+                }
+            }
+        }
+        return new PauliHamiltonian(x, z, c);
+    }
+
+    private static void setPauli(long[] x, long[] z, int k, char pauli, int qubit, String source) {
+        long bit = 1L << qubit;
+        switch (Character.toUpperCase(pauli)) {
+            case 'I':
+                break;
+            case 'X':
+                x[k] ^= bit;
+                break;
+            case 'Z':
+                z[k] ^= bit;
+                break;
+            case 'Y':
+                x[k] ^= bit;
+                z[k] ^= bit;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Pauli '" + pauli + "' in " + source);
+        }
+    }
+
+    @Override
+    public double expectation(StateVector state) {
+        checkQubits(state);
+        return StateVector.sumRanges(state.getSize(), (start, end) -> {
+            int bits = blockBits(start, end);
+            int length = 1 << bits;
+            double[] tableRe = new double[length];
+            double[] tableIm = new double[length];
+            double partial = 0.0;
+            for (long base = start; base < end; base += length) {
+                for (int g = 0; g < groupFlips.length; g++) {
+                    long flip = groupFlips[g];
+                    boolean tabulated = tabulate(base, bits, groupOffsets[g], groupOffsets[g + 1],
+                        weightRe, weightIm, tableRe, tableIm);
+                    for (int k = 0; k < length; k++) {
+                        long i = base + k;
+                        double wr = tabulated ? tableRe[k] : weight(i, groupOffsets[g], groupOffsets[g + 1], weightRe);
+                        if (flip == 0L) {
+                            partial += wr * state.probability(i);
+                            continue;
+                        }
+                        double wi = tabulated ? tableIm[k] : weight(i, groupOffsets[g], groupOffsets[g + 1], weightIm);
+                        // Re(w conj(ψ_j) ψ_i) with j = i ⊕ x
+                        long j = i ^ flip;
+                        double re = state.re(j) * state.re(i) + state.im(j) * state.im(i);
+                        double im = state.re(j) * state.im(i) - state.im(j) * state.re(i);
+                        partial += wr * re - wi * im;
+                    }
+                }
+            }
+            return partial;
+        });
+    }
+
+    @Override
+    public void apply(StateVector source, StateVector target) {
+        source.checkSameSize(target);
+        checkQubits(source);
+        StateVector.forEachRange(source.getSize(), (start, end) -> {
+            int bits = blockBits(start, end);
+            int length = 1 << bits;
+            double[] tableRe = new double[length];
+            double[] tableIm = new double[length];
+            double[] outRe = new double[length];
+            double[] outIm = new double[length];
+            for (long base = start; base < end; base += length) {
+                Arrays.fill(outRe, 0.0);
+                Arrays.fill(outIm, 0.0);
+                for (int g = 0; g < groupFlips.length; g++) {
+                    long flip = groupFlips[g];
+                    boolean tabulated = tabulate(base, bits, groupOffsets[g], groupOffsets[g + 1],
+                        applyRe, applyIm, tableRe, tableIm);
+                    for (int k = 0; k < length; k++) {
+                        long i = base + k;
+                        double wr = tabulated ? tableRe[k] : weight(i, groupOffsets[g], groupOffsets[g + 1], applyRe);
+                        double wi = tabulated ? tableIm[k] : weight(i, groupOffsets[g], groupOffsets[g + 1], applyIm);
+                        // (P ψ)_i = w (−1)^{|j∧z|} ψ_j with j = i ⊕ x; the constant (−1)^{|x∧z|} is in applyRe/Im
+                        long j = i ^ flip;
+                        double sr = source.re(j);
+                        double si = source.im(j);
+                        outRe[k] += wr * sr - wi * si;
+                        outIm[k] += wr * si + wi * sr;
+                    }
+                }
+                for (int k = 0; k < length; k++) {
+                    target.set(base + k, outRe[k], outIm[k]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Shot estimate: terms are packed greedily into qubit-wise commuting groups, and
+     * each group is measured once after rotating its X and Y qubits into the Z basis
+     */
+    @Override
+    public double estimate(StateVector state, int shots, Random random) {
+        checkQubits(state);
+        int n = state.getNumQubits();
+        double sum = 0.0;
+        try (StateVector scratch = n <= HeapStateVector.MAX_QUBITS
+                ? new HeapStateVector(n) : OffHeapStateVector.allocate(n)) {
+            for (int[] group : commutingGroups()) {
+                long xBasis = 0L;
+                long yBasis = 0L;
+                for (int k : group) {
+                    xBasis |= termX[k] & ~termZ[k];
+                    yBasis |= termX[k] & termZ[k];
+                }
+                long[] outcomes;
+                if (xBasis == 0L && yBasis == 0L) {
+                    outcomes = state.sample(shots, random);
+                } else {
+                    scratch.copyFrom(state);
+                    for (int q = 0; q < n; q++) {
+                        if ((xBasis >>> q & 1) != 0) {
+                            // RY(−π/2) maps the X eigenbasis onto Z
+                            scratch.applyRotationY(q, -Math.PI / 2);
+                        } else if ((yBasis >>> q & 1) != 0) {
+                            // RX(π/2) maps the Y eigenbasis onto Z
+                            scratch.applyRotationX(q, Math.PI / 2);
+                        }
+                    }
+                    outcomes = scratch.sample(shots, random);
+                }
+                for (int k : group) {
+                    long support = termX[k] | termZ[k];
+                    double total = 0.0;
+                    for (long outcome : outcomes) {
+                        total += (Long.bitCount(outcome & support) & 1) == 0 ? 1.0 : -1.0;
+                    }
+                    sum += coefficients[k] * total / shots;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Greedy partition into groups whose terms agree (or are I) on every qubit
+     */
+    List<int[]> commutingGroups() {
+        List<long[]> bases = new ArrayList<>();
+        List<List<Integer>> members = new ArrayList<>();
+        for (int k = 0; k < termX.length; k++) {
+            long support = termX[k] | termZ[k];
+            int chosen = -1;
+            for (int g = 0; g < bases.size() && chosen < 0; g++) {
+                long[] basis = bases.get(g);
+                long shared = support & (basis[0] | basis[1]);
+                if (((termX[k] ^ basis[0]) & shared) == 0 && ((termZ[k] ^ basis[1]) & shared) == 0) {
+                    chosen = g;
+                }
+            }
+            if (chosen < 0) {
+                bases.add(new long[2]);
+                members.add(new ArrayList<>());
+                chosen = bases.size() - 1;
+            }
+            bases.get(chosen)[0] |= termX[k];
+            bases.get(chosen)[1] |= termZ[k];
+            members.get(chosen).add(k);
+        }
+        List<int[]> groups = new ArrayList<>(members.size());
+        for (List<Integer> group : members) {
+            groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return groups;
+    }
+
+    /**
+     * Σ_t w_t (−1)^{|i∧z_t|} over terms [from, to), term by term
+     */
+    private double weight(long i, int from, int to, double[] weights) {
+        double value = 0.0;
+        for (int t = from; t < to; t++) {
+            value += (Long.bitCount(i & groupZ[t]) & 1) == 0 ? weights[t] : -weights[t];
+        }
+        return value;
+    }
+
+    /**
+     * Tabulate Σ_t w_t (−1)^{|i∧z_t|} for every i in the aligned block starting at
+     * base. The high bits of i only flip each term's sign, and over the low bits
+     * the sum is a Walsh–Hadamard transform of the weights binned by low z bits,
+     * so a block costs O(terms + bits · 2^bits) instead of O(terms · 2^bits).
+     * Returns false, leaving the tables untouched, when too few terms share the
+     * block for the transform to pay off.
+     */
+    private boolean tabulate(long base, int bits, int from, int to, double[] weightsRe, double[] weightsIm,
+                             double[] tableRe, double[] tableIm) {
+        if (to - from <= bits) {
+            return false;
+        }
+        int length = 1 << bits;
+        long low = length - 1;
+        Arrays.fill(tableRe, 0, length, 0.0);
+        Arrays.fill(tableIm, 0, length, 0.0);
+        boolean complex = false;
+        for (int t = from; t < to; t++) {
+            int bin = (int) (groupZ[t] & low);
+            boolean negative = (Long.bitCount(base & groupZ[t]) & 1) != 0;
+            tableRe[bin] += negative ? -weightsRe[t] : weightsRe[t];
+            tableIm[bin] += negative ? -weightsIm[t] : weightsIm[t];
+            complex |= weightsIm[t] != 0.0;
+        }
+        walshHadamard(tableRe, length);
+        if (complex) {
+            walshHadamard(tableIm, length);
+        }
+        return true;
+    }
+
+    /**
+     * In-place unnormalised Walsh–Hadamard transform: v[i] ← Σ_z v[z] (−1)^{|i∧z|}
+     */
+    static void walshHadamard(double[] v, int length) {
+        for (int h = 1; h < length; h <<= 1) {
+            for (int i = 0; i < length; i += h << 1) {
+                for (int j = i; j < i + h; j++) {
+                    double a = v[j];
+                    double b = v[j + h];
+                    v[j] = a + b;
+                    v[j + h] = a - b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Bits of the largest aligned power-of-two block (at most 2^13) that tiles [start, end)
+     */
+    private static int blockBits(long start, long end) {
+        return Math.min(BLOCK_BITS, Long.numberOfTrailingZeros(start | (end - start)));
+    }
+
+    private void checkQubits(StateVector state) {
+        long support = 0L;
+        for (int k = 0; k < termX.length; k++) {
+            support |= termX[k] | termZ[k];
+        }
+        if (support >>> state.getNumQubits() != 0L) {
+            throw new IllegalArgumentException("Hamiltonian acts on qubit "
+                + (63 - Long.numberOfLeadingZeros(support)) + " of a " + state.getNumQubits() + "-qubit state");
+        }
+    }
+
+    public int getNumTerms() { return coefficients.length; }
+    public int getNumFlipGroups() { return groupFlips.length; }
+    public long getXMask(int k) { return termX[k]; }
+    public long getZMask(int k) { return termZ[k]; }
+    public double getCoefficient(int k) { return coefficients[k]; }
+
+    @Override
+    public String toString() {
+        return "PauliHamiltonian[" + coefficients.length + " terms, " + groupFlips.length + " flip groups, "
+            + Arrays.toString(coefficients) + "]";
+    }
+}
@@ -0,0 +1,77 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Random;
+
+/**
+ * Pauli Z Observable
+ *
+ * Weighted sum of Z-strings, O = Σ c_k Z(mask_k), where Z(mask) is the product of
+ * Pauli Z over the qubits set in the mask. The operator is diagonal, so it is
+ * applied and sampled directly in the computational basis.
+ */
+public final class PauliZObservable implements Observable {
+
+    private final long[] masks;
+    private final double[] coefficients;
+
+    public PauliZObservable(long[] masks, double[] coefficients) {
+        if (masks.length != coefficients.length) {
+            throw new IllegalArgumentException("Got " + masks.length + " masks but "
+                + coefficients.length + " coefficients");
+        }
+        this.masks = masks.clone();
+        this.coefficients = coefficients.clone();
+    }
+
+    /**
+     * Single Z-string with unit weight
+     */
+    public static PauliZObservable of(long mask) {
+        return new PauliZObservable(new long[] { mask }, new double[] { 1.0 });
+    }
+
+    /**
+     * Eigenvalue of O on the given basis state
+     */
+    public double eigenvalue(long index) {
+        double value = 0.0;
+        for (int k = 0; k < masks.length; k++) {
+            value += (Long.bitCount(index & masks[k]) & 1) == 0 ? coefficients[k] : -coefficients[k];
+        }
+        return value;
+    }
+
+    @Override
+    public double expectation(StateVector state) {
+        return StateVector.sumRanges(state.getSize(), (from, to) -> {
+            double sum = 0.0;
+            for (long i = from; i < to; i++) {
+                sum += eigenvalue(i) * state.probability(i);
+            }
+            return sum;
+        });
+    }
+
+    @Override
+    public void apply(StateVector source, StateVector target) {
+        source.checkSameSize(target);
+        StateVector.forEachRange(source.getSize(), (from, to) -> {
+            for (long i = from; i < to; i++) {
+                double value = eigenvalue(i);
+                target.set(i, value * source.re(i), value * source.im(i));
+            }
+        });
+    }
+
+    @Override
+    public double estimate(StateVector state, int shots, Random random) {
+        double sum = 0.0;
+        for (long outcome : state.sample(shots, random)) {
+            sum += eigenvalue(outcome);
+        }
+        return sum / shots;
+    }
+
+    public long[] getMasks() { return masks.clone(); }
+    public double[] getCoefficients() { return coefficients.clone(); }
+}
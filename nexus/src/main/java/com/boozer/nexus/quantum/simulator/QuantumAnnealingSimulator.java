@@ -0,0 +1,53 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Quantum Annealing Simulator
+ *
+ * String-keyed front end to {@link QuboAnnealer}: the QUBO is compiled once into
+ * integer form and the reads (or a parallel-tempering run) execute on that.
+ */
+public class QuantumAnnealingSimulator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QuantumAnnealingSimulator.class);
+    
+    private final QuboAnnealer annealer = new QuboAnnealer();
+    private boolean parallelTempering;
+    
+    /**
+     * Anneal the QUBO and return the lowest-energy read. The schedule length is
+     * set by {@link #setSweeps}; annealingTime is kept for API compatibility.
+     */
+    public AnnealingResult anneal(Map<String, Double> qubo, double annealingTime, int numReads) {
+        logger.debug("Performing quantum annealing with {} reads", numReads);
+        
+        QuboModel model = QuboModel.compile(qubo);
+        long seed = ThreadLocalRandom.current().nextLong();
+        QuboSamples samples = parallelTempering
+            ? annealer.temper(model, seed)
+            : annealer.anneal(model, Math.max(1, numReads), seed);
+        
+        AnnealingResult result = new AnnealingResult();
+        result.setLowestEnergy(samples.getBestEnergy());
+        result.setBestSolution(model.toSolution(samples.getBestSolution()));
+        result.setChainBreakFraction(0.0); // No embedding, so no chains to break
+        result.setSweepsPerSecond(samples.getSweepsPerSecond());
+        
+        return result;
+    }
+    
+    // Configuration
+    public int getSweeps() { return annealer.getSweeps(); }
+    public void setSweeps(int sweeps) { annealer.setSweeps(sweeps); }
+    
+    public int getReplicas() { return annealer.getReplicas(); }
+    public void setReplicas(int replicas) { annealer.setReplicas(replicas); }
+    
+    public boolean isParallelTempering() { return parallelTempering; }
+    public void setParallelTempering(boolean parallelTempering) { this.parallelTempering = parallelTempering; }
+}
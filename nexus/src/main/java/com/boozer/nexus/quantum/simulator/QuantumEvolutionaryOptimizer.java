@@ -0,0 +1,149 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Quantum Evolutionary Optimizer
+ *
+ * Quantum-inspired evolutionary algorithm over a compiled {@link QuboModel}. Each
+ * individual is a string of Q-bits, one angle θ_i per variable with P(x_i = 1) =
+ * sin²θ_i. Every generation an individual is observed into a classical assignment,
+ * polished by one-flip descent, and its Q-bits are rotated by a fixed angle towards
+ * its attractor (the best assignment it has seen) wherever the observation lost to
+ * it. Angles are kept a small margin away from 0 and π/2 so no Q-bit collapses for
+ * good. Every {@code migrationInterval} generations all attractors are replaced by
+ * the global best.
+ *
+ * Individuals only share the global best, read between generations, so each
+ * generation evaluates the population in parallel on the common fork-join pool;
+ * work stealing evens out individuals whose descents take uneven time. Every
+ * individual has its own seeded generator, so a seeded run is reproducible.
+ */
+@Component
+public class QuantumEvolutionaryOptimizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuantumEvolutionaryOptimizer.class);
+
+    /** Closest a Q-bit angle may come to a definite 0 or 1 */
+    private static final double ANGLE_MARGIN = 0.02 * Math.PI;
+
+    private int populationSize = 16;
+    private int generations = 200;
+    private double rotationAngle = 0.02 * Math.PI;
+    private int migrationInterval = 20;
+
+    /**
+     * Evolve the population and return every individual's attractor plus the global best
+     */
+    public QuboSamples optimize(QuboModel model, long seed) {
+        int n = model.getNumVariables();
+        int size = Math.max(1, populationSize);
+        SplittableRandom master = new SplittableRandom(seed);
+
+        SplittableRandom[] randoms = new SplittableRandom[size];
+        double[][] angles = new double[size][n];
+        byte[][] observed = new byte[size][n];
+        double[][] fields = new double[size][n];
+        byte[][] attractors = new byte[size][];
+        double[] attractorEnergies = new double[size];
+        for (int k = 0; k < size; k++) {
+            randoms[k] = master.split();
+            Arrays.fill(angles[k], Math.PI / 4);
+        }
+
+        byte[] best = null;
+        double bestEnergy = Double.POSITIVE_INFINITY;
+        long startTime = System.nanoTime();
+        for (int generation = 0; generation < generations; generation++) {
+            boolean first = generation == 0;
+            IntStream.range(0, size).parallel().forEach(k -> {
+                byte[] x = observed[k];
+                observe(angles[k], x, randoms[k]);
+                model.localFields(x, fields[k]);
+                model.descend(x, fields[k]);
+                double energy = model.energy(x);
+                if (first) {
+                    attractors[k] = x.clone();
+                    attractorEnergies[k] = energy;
+                    return;
+                }
+                if (energy < attractorEnergies[k]) {
+                    System.arraycopy(x, 0, attractors[k], 0, n);
+                    attractorEnergies[k] = energy;
+                } else {
+                    rotate(angles[k], x, attractors[k], rotationAngle);
+                }
+            });
+
+            for (int k = 0; k < size; k++) {
+                if (attractorEnergies[k] < bestEnergy) {
+                    bestEnergy = attractorEnergies[k];
+                    best = attractors[k].clone();
+                }
+            }
+            if (migrationInterval > 0 && (generation + 1) % migrationInterval == 0) {
+                for (int k = 0; k < size; k++) {
+                    System.arraycopy(best, 0, attractors[k], 0, n);
+                    attractorEnergies[k] = bestEnergy;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        byte[][] solutions = new byte[size + 1][];
+        double[] energies = new double[size + 1];
+        for (int k = 0; k < size; k++) {
+            solutions[k] = attractors[k] != null ? attractors[k] : new byte[n];
+            energies[k] = model.energy(solutions[k]);
+        }
+        solutions[size] = best != null ? best : new byte[n];
+        energies[size] = model.energy(solutions[size]);
+
+        double evaluationsPerSecond = (double) size * generations / Math.max(seconds, 1e-9);
+        logger.debug("QIEA over {} variables / {} couplings: best energy {} after {} generations, {} evaluations/s",
+            n, model.getNumCouplings(), energies[size], generations, Math.round(evaluationsPerSecond));
+        return new QuboSamples(solutions, energies, solutions[size], energies[size], evaluationsPerSecond);
+    }
+
+    /**
+     * Collapse each Q-bit: x_i = 1 with probability sin²θ_i
+     */
+    private static void observe(double[] angles, byte[] x, SplittableRandom random) {
+        for (int i = 0; i < angles.length; i++) {
+            double sin = Math.sin(angles[i]);
+            x[i] = (byte) (random.nextDouble() < sin * sin ? 1 : 0);
+        }
+    }
+
+    /**
+     * Rotation gate: turn each Q-bit whose observation disagrees with the attractor
+     * towards the attractor's value
+     */
+    private static void rotate(double[] angles, byte[] x, byte[] attractor, double step) {
+        for (int i = 0; i < angles.length; i++) {
+            if (x[i] != attractor[i]) {
+                double angle = angles[i] + (attractor[i] != 0 ? step : -step);
+                angles[i] = Math.max(ANGLE_MARGIN, Math.min(Math.PI / 2 - ANGLE_MARGIN, angle));
+            }
+        }
+    }
+
+    // Configuration
+    public int getPopulationSize() { return populationSize; }
+    public void setPopulationSize(int populationSize) { this.populationSize = populationSize; }
+
+    public int getGenerations() { return generations; }
+    public void setGenerations(int generations) { this.generations = generations; }
+
+    public double getRotationAngle() { return rotationAngle; }
+    public void setRotationAngle(double rotationAngle) { this.rotationAngle = rotationAngle; }
+
+    public int getMigrationInterval() { return migrationInterval; }
+    public void setMigrationInterval(int migrationInterval) { this.migrationInterval = migrationInterval; }
+}
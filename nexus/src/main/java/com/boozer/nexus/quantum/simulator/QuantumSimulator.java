@@ -5,41 +5,71 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Quantum Simulator
  * 
  * High-performance quantum circuit simulator for the NEXUS AI platform.
+ * Small states live in a heap array; beyond {@code offHeapThresholdQubits} the
+ * amplitudes move to direct buffers, and beyond {@code mappedThresholdQubits}
+ * (when a swap directory is configured) to a memory-mapped file.
  */
 @Component
 public class QuantumSimulator {
     
     private static final Logger logger = LoggerFactory.getLogger(QuantumSimulator.class);
     
+    private static final double INV_SQRT2 = 1.0 / Math.sqrt(2.0);
+    private static final double[] HADAMARD = { INV_SQRT2, 0, INV_SQRT2, 0, INV_SQRT2, 0, -INV_SQRT2, 0 };
+    private static final double[] PAULI_Y = { 0, 0, 0, -1, 0, 1, 0, 0 };
+    
+    private int offHeapThresholdQubits = 26;
+    private int mappedThresholdQubits = 32;
+    private String swapDirectory;
+    
     /**
      * Execute quantum circuit on simulator
      */
     public QuantumResult execute(QuantumCircuit circuit, QuantumExecutionOptions options) {
-        logger.debug("Executing quantum circuit {} with {} gates", 
-            circuit.getId(), circuit.getGates().size());
+        CompiledCircuit compiled;
+        try {
+            compiled = CompiledCircuit.compile(circuit);
+        } catch (IllegalArgumentException e) {
+            logger.error("Cannot compile quantum circuit {}: {}", circuit.getId(), e.getMessage());
+            return failedResult(circuit.getId(), 0L);
+        }
+        return execute(compiled, null, options);
+    }
+    
+    /**
+     * Execute compiled circuit on simulator, binding any parameterized angles
+     * to the given point
+     */
+    public QuantumResult execute(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options) {
+        logger.debug("Executing quantum circuit {} with {} gates", circuit.getId(), circuit.size());
         
         long startTime = System.currentTimeMillis();
         
-        try {
-            // Initialize quantum state vector
-            int numQubits = circuit.getNumQubits();
-            double[] stateVector = initializeStateVector(numQubits);
+        // Initialize quantum state vector in |0...0⟩
+        int numQubits = circuit.getNumQubits();
+        try (StateVector stateVector = allocateStateVector(numQubits, options)) {
             
             // Apply quantum gates sequentially
-            for (QuantumGate gate : circuit.getGates()) {
-                applyGate(stateVector, gate, numQubits);
-            }
+            ExecutionProgress progress = options.getProgress();
+            run(stateVector, circuit, parameters, progress, options.getShots());
             
             // Perform measurements
-            Map<String, Object> counts = performMeasurements(stateVector, options.getShots(), numQubits);
+            Map<String, Object> counts = performMeasurements(stateVector, options.getShots(), random(options));
+            if (progress != null) {
+                progress.shotsCompleted(options.getShots());
+            }
             
             // Create result
             QuantumResult result = new QuantumResult();
@@ -50,557 +80,264 @@ public class QuantumSimulator {
             result.setProcessingTime(System.currentTimeMillis() - startTime);
             result.setTimestamp(LocalDateTime.now());
             result.setCircuitDepth(circuit.getDepth());
+            result.setQuantumMetric("stateVectorBytes", stateVector.memoryBytes());
             
             return result;
             
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Quantum simulation failed: {}", e.getMessage(), e);
-            
-            QuantumResult errorResult = new QuantumResult();
-            errorResult.setCircuitId(circuit.getId());
-            errorResult.setProvider("quantum-simulator");
-            errorResult.setSuccessful(false);
-            errorResult.setProcessingTime(System.currentTimeMillis() - startTime);
-            
-            return errorResult;
+            return failedResult(circuit.getId(), System.currentTimeMillis() - startTime);
         }
     }
     
     /**
-     * Initialize quantum state vector in |0...0⟩ state
+     * Exact expectation value of the observable on the circuit's final state,
+     * computed from the amplitudes without sampling
      */
-    private double[] initializeStateVector(int numQubits) {
-        int stateSpaceSize = 1 << numQubits; // 2^numQubits
-        double[] stateVector = new double[stateSpaceSize * 2]; // Real and imaginary parts
-        
-        // Initialize to |0...0⟩ state
-        stateVector[0] = 1.0; // Real part of |0...0⟩
-        stateVector[1] = 0.0; // Imaginary part of |0...0⟩
-        
-        return stateVector;
+    public double expectation(CompiledCircuit circuit, double[] parameters, Observable observable,
+                              QuantumExecutionOptions options) {
+        try (StateVector stateVector = allocateStateVector(circuit.getNumQubits(), options)) {
+            run(stateVector, circuit, parameters);
+            return observable.expectation(stateVector);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot allocate state vector: " + e.getMessage(), e);
+        }
     }
     
     /**
-     * Apply quantum gate to state vector
+     * Outcome distribution of the circuit's final state
      */
-    private void applyGate(double[] stateVector, QuantumGate gate, int numQubits) {
-        String gateType = gate.getType().toUpperCase();
-        List<Integer> qubits = gate.getQubits();
-        double parameter = gate.getParameter();
-        
-        switch (gateType) {
-            case "H":
-                applyHadamard(stateVector, qubits.get(0), numQubits);
-                break;
-            case "X":
-                applyPauliX(stateVector, qubits.get(0), numQubits);
-                break;
-            case "Y":
-                applyPauliY(stateVector, qubits.get(0), numQubits);
-                break;
-            case "Z":
-                applyPauliZ(stateVector, qubits.get(0), numQubits);
-                break;
-            case "RX":
-                applyRotationX(stateVector, qubits.get(0), parameter, numQubits);
-                break;
-            case "RY":
-                applyRotationY(stateVector, qubits.get(0), parameter, numQubits);
-                break;
-            case "RZ":
-                applyRotationZ(stateVector, qubits.get(0), parameter, numQubits);
-                break;
-            case "CNOT":
-                applyCNOT(stateVector, qubits.get(0), qubits.get(1), numQubits);
-                break;
-            case "CZ":
-                applyCZ(stateVector, qubits.get(0), qubits.get(1), numQubits);
-                break;
-            case "ZZ":
-                applyZZ(stateVector, qubits.get(0), qubits.get(1), parameter, numQubits);
-                break;
-            case "TOFFOLI":
-                applyToffoli(stateVector, qubits.get(0), qubits.get(1), qubits.get(2), numQubits);
-                break;
-            case "MCZ":
-                applyMultiControlledZ(stateVector, qubits, numQubits);
-                break;
-            case "MEASURE":
-                // Measurements are handled separately
-                break;
-            default:
-                logger.warn("Unknown gate type: {}", gateType);
+    public double[] probabilities(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options) {
+        int numQubits = circuit.getNumQubits();
+        if (numQubits > HeapStateVector.MAX_QUBITS) {
+            throw new IllegalArgumentException("Outcome distributions are limited to "
+                + HeapStateVector.MAX_QUBITS + " qubits, got " + numQubits);
+        }
+        try (StateVector stateVector = allocateStateVector(numQubits, options)) {
+            run(stateVector, circuit, parameters, options.getProgress(), 0);
+            double[] probabilities = new double[1 << numQubits];
+            StateVector.forEachRange(probabilities.length, (from, to) -> {
+                for (long i = from; i < to; i++) {
+                    probabilities[(int) i] = stateVector.probability(i);
+                }
+            });
+            return probabilities;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot allocate state vector: " + e.getMessage(), e);
         }
     }
     
-    /**
-     * Apply Hadamard gate
-     */
-    private void applyHadamard(double[] state, int qubit, int numQubits) {
-        int stateSize = 1 << numQubits;
-        double[] newState = state.clone();
-        double invSqrt2 = 1.0 / Math.sqrt(2.0);
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            int flippedIndex = i ^ (1 << qubit);
-            
-            if (bit == 0) {
-                // |0⟩ -> (|0⟩ + |1⟩)/√2
-                double real0 = state[i * 2];
-                double imag0 = state[i * 2 + 1];
-                double real1 = state[flippedIndex * 2];
-                double imag1 = state[flippedIndex * 2 + 1];
-                
-                newState[i * 2] = invSqrt2 * (real0 + real1);
-                newState[i * 2 + 1] = invSqrt2 * (imag0 + imag1);
-                newState[flippedIndex * 2] = invSqrt2 * (real0 - real1);
-                newState[flippedIndex * 2 + 1] = invSqrt2 * (imag0 - imag1);
-            }
-        }
-        
-        System.arraycopy(newState, 0, state, 0, state.length);
+    private QuantumResult failedResult(String circuitId, long processingTime) {
+        QuantumResult errorResult = new QuantumResult();
+        errorResult.setCircuitId(circuitId);
+        errorResult.setProvider("quantum-simulator");
+        errorResult.setSuccessful(false);
+        errorResult.setProcessingTime(processingTime);
+        return errorResult;
     }
     
     /**
-     * Apply Pauli-X gate
+     * Memory an n-qubit run will hold, in the pool of the backend it would use
      */
-    private void applyPauliX(double[] state, int qubit, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            if (bit == 0) {
-                int flippedIndex = i ^ (1 << qubit);
-                
-                // Swap amplitudes
-                double tempReal = state[i * 2];
-                double tempImag = state[i * 2 + 1];
-                
-                state[i * 2] = state[flippedIndex * 2];
-                state[i * 2 + 1] = state[flippedIndex * 2 + 1];
-                state[flippedIndex * 2] = tempReal;
-                state[flippedIndex * 2 + 1] = tempImag;
-            }
+    public MemoryEstimate estimateMemory(int numQubits, QuantumExecutionOptions options) {
+        long bytes = MemoryEstimate.amplitudeBytes(numQubits);
+        switch (backend(numQubits, options)) {
+            case QuantumExecutionOptions.STATE_VECTOR_HEAP:
+                return MemoryEstimate.heap(bytes);
+            case QuantumExecutionOptions.STATE_VECTOR_MAPPED:
+                return numQubits >= 59 ? MemoryEstimate.UNBOUNDED : MemoryEstimate.none();
+            default:
+                return bytes == Long.MAX_VALUE ? MemoryEstimate.UNBOUNDED : MemoryEstimate.offHeap(bytes);
         }
     }
     
     /**
-     * Apply Pauli-Y gate
+     * Allocate a |0...0⟩ state vector on the backend requested by the options,
+     * or on the one implied by the qubit count
      */
-    private void applyPauliY(double[] state, int qubit, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            if (bit == 0) {
-                int flippedIndex = i ^ (1 << qubit);
-                
-                // Y = iX (multiply by i and swap)
-                double real0 = state[i * 2];
-                double imag0 = state[i * 2 + 1];
-                double real1 = state[flippedIndex * 2];
-                double imag1 = state[flippedIndex * 2 + 1];
-                
-                state[i * 2] = imag1;
-                state[i * 2 + 1] = -real1;
-                state[flippedIndex * 2] = -imag0;
-                state[flippedIndex * 2 + 1] = real0;
-            }
+    StateVector allocateStateVector(int numQubits, QuantumExecutionOptions options) throws IOException {
+        String backend = backend(numQubits, options);
+        String directory = mappedDirectory(options);
+        
+        switch (backend) {
+            case QuantumExecutionOptions.STATE_VECTOR_HEAP:
+                return new HeapStateVector(numQubits);
+            case QuantumExecutionOptions.STATE_VECTOR_OFF_HEAP:
+                logger.debug("Allocating {}-qubit state vector off-heap", numQubits);
+                return OffHeapStateVector.allocate(numQubits);
+            case QuantumExecutionOptions.STATE_VECTOR_MAPPED:
+                Path path = directory != null && !directory.isEmpty()
+                    ? Paths.get(directory) : Paths.get(System.getProperty("java.io.tmpdir"));
+                logger.debug("Allocating {}-qubit state vector in mapped file under {}", numQubits, path);
+                return OffHeapStateVector.map(numQubits, path);
+            default:
+                throw new IllegalArgumentException("Unknown state vector backend: " + backend);
         }
     }
     
-    /**
-     * Apply Pauli-Z gate
-     */
-    private void applyPauliZ(double[] state, int qubit, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            if (bit == 1) {
-                // Multiply by -1 for |1⟩ states
-                state[i * 2] = -state[i * 2];
-                state[i * 2 + 1] = -state[i * 2 + 1];
-            }
+    private String backend(int numQubits, QuantumExecutionOptions options) {
+        String backend = options.getStateVectorBackend() != null
+            ? options.getStateVectorBackend() : QuantumExecutionOptions.STATE_VECTOR_AUTO;
+        if (!QuantumExecutionOptions.STATE_VECTOR_AUTO.equals(backend)) {
+            return backend;
+        }
+        String directory = mappedDirectory(options);
+        if (numQubits < offHeapThresholdQubits && numQubits <= HeapStateVector.MAX_QUBITS) {
+            return QuantumExecutionOptions.STATE_VECTOR_HEAP;
+        } else if (numQubits >= mappedThresholdQubits && directory != null && !directory.isEmpty()) {
+            return QuantumExecutionOptions.STATE_VECTOR_MAPPED;
         }
+        return QuantumExecutionOptions.STATE_VECTOR_OFF_HEAP;
     }
     
-    /**
-     * Apply rotation around X axis
-     */
-    private void applyRotationX(double[] state, int qubit, double angle, int numQubits) {
-        int stateSize = 1 << numQubits;
-        double[] newState = state.clone();
-        double cos = Math.cos(angle / 2);
-        double sin = Math.sin(angle / 2);
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            int flippedIndex = i ^ (1 << qubit);
-            
-            if (bit == 0) {
-                double real0 = state[i * 2];
-                double imag0 = state[i * 2 + 1];
-                double real1 = state[flippedIndex * 2];
-                double imag1 = state[flippedIndex * 2 + 1];
-                
-                newState[i * 2] = cos * real0 + sin * imag1;
-                newState[i * 2 + 1] = cos * imag0 - sin * real1;
-                newState[flippedIndex * 2] = cos * real1 + sin * imag0;
-                newState[flippedIndex * 2 + 1] = cos * imag1 - sin * real0;
-            }
-        }
-        
-        System.arraycopy(newState, 0, state, 0, state.length);
+    private String mappedDirectory(QuantumExecutionOptions options) {
+        return options.getMappedFileDirectory() != null ? options.getMappedFileDirectory() : swapDirectory;
     }
     
     /**
-     * Apply rotation around Y axis
+     * Apply a compiled circuit to the state, binding its parameterized angles
+     * to the given parameter point
      */
-    private void applyRotationY(double[] state, int qubit, double angle, int numQubits) {
-        int stateSize = 1 << numQubits;
-        double[] newState = state.clone();
-        double cos = Math.cos(angle / 2);
-        double sin = Math.sin(angle / 2);
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            int flippedIndex = i ^ (1 << qubit);
-            
-            if (bit == 0) {
-                double real0 = state[i * 2];
-                double imag0 = state[i * 2 + 1];
-                double real1 = state[flippedIndex * 2];
-                double imag1 = state[flippedIndex * 2 + 1];
-                
-                newState[i * 2] = cos * real0 - sin * real1;
-                newState[i * 2 + 1] = cos * imag0 - sin * imag1;
-                newState[flippedIndex * 2] = sin * real0 + cos * real1;
-                newState[flippedIndex * 2 + 1] = sin * imag0 + cos * imag1;
-            }
+    static void run(StateVector state, CompiledCircuit circuit, double[] parameters) {
+        for (int g = 0; g < circuit.size(); g++) {
+            applyGate(state, circuit, g, circuit.angle(g, parameters));
         }
-        
-        System.arraycopy(newState, 0, state, 0, state.length);
     }
     
     /**
-     * Apply rotation around Z axis
+     * Apply a compiled circuit, reporting each gate to the progress tracker and
+     * stopping between gates once it is cancelled
      */
-    private void applyRotationZ(double[] state, int qubit, double angle, int numQubits) {
-        int stateSize = 1 << numQubits;
-        double cos = Math.cos(angle / 2);
-        double sin = Math.sin(angle / 2);
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit = (i >> qubit) & 1;
-            
-            if (bit == 0) {
-                // e^(-iθ/2) for |0⟩
-                double real = state[i * 2];
-                double imag = state[i * 2 + 1];
-                state[i * 2] = cos * real + sin * imag;
-                state[i * 2 + 1] = cos * imag - sin * real;
-            } else {
-                // e^(iθ/2) for |1⟩
-                double real = state[i * 2];
-                double imag = state[i * 2 + 1];
-                state[i * 2] = cos * real - sin * imag;
-                state[i * 2 + 1] = cos * imag + sin * real;
-            }
+    static void run(StateVector state, CompiledCircuit circuit, double[] parameters, ExecutionProgress progress,
+                    int shots) {
+        if (progress == null) {
+            run(state, circuit, parameters);
+            return;
+        }
+        progress.begin(circuit.size(), shots);
+        for (int g = 0; g < circuit.size(); g++) {
+            progress.checkCancelled();
+            applyGate(state, circuit, g, circuit.angle(g, parameters));
+            progress.gateApplied();
         }
     }
     
     /**
-     * Apply CNOT gate
+     * Apply gate g of a compiled circuit with the given angle (ignored by gates
+     * without one)
      */
-    private void applyCNOT(double[] state, int control, int target, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            int controlBit = (i >> control) & 1;
-            
-            if (controlBit == 1) {
-                int targetBit = (i >> target) & 1;
-                int flippedIndex = i ^ (1 << target);
-                
-                // Swap amplitudes when control is |1⟩
-                double tempReal = state[i * 2];
-                double tempImag = state[i * 2 + 1];
-                
-                state[i * 2] = state[flippedIndex * 2];
-                state[i * 2 + 1] = state[flippedIndex * 2 + 1];
-                state[flippedIndex * 2] = tempReal;
-                state[flippedIndex * 2 + 1] = tempImag;
-            }
+    static void applyGate(StateVector state, CompiledCircuit circuit, int g, double angle) {
+        switch (circuit.op(g)) {
+            case CompiledCircuit.OP_H:
+                state.applySingleQubit(circuit.qubit(g, 0), HADAMARD);
+                break;
+            case CompiledCircuit.OP_X:
+                state.applyControlledX(0L, circuit.qubit(g, 0));
+                break;
+            case CompiledCircuit.OP_Y:
+                state.applySingleQubit(circuit.qubit(g, 0), PAULI_Y);
+                break;
+            case CompiledCircuit.OP_Z:
+            case CompiledCircuit.OP_CZ:
+            case CompiledCircuit.OP_MCZ:
+                state.applyPhase(circuit.mask(g), -1.0, 0.0);
+                break;
+            case CompiledCircuit.OP_RX:
+                state.applyRotationX(circuit.qubit(g, 0), angle);
+                break;
+            case CompiledCircuit.OP_RY:
+                state.applyRotationY(circuit.qubit(g, 0), angle);
+                break;
+            case CompiledCircuit.OP_RZ:
+                state.applyRotationZ(circuit.qubit(g, 0), angle);
+                break;
+            case CompiledCircuit.OP_CNOT:
+                state.applyControlledX(1L << circuit.qubit(g, 0), circuit.qubit(g, 1));
+                break;
+            case CompiledCircuit.OP_ZZ:
+                state.applyParityPhase(circuit.mask(g), angle);
+                break;
+            case CompiledCircuit.OP_TOFFOLI:
+                state.applyControlledX((1L << circuit.qubit(g, 0)) | (1L << circuit.qubit(g, 1)),
+                    circuit.qubit(g, 2));
+                break;
+            default:
+                // MEASURE: sampling happens after the circuit
+                break;
         }
     }
     
     /**
-     * Apply Controlled-Z gate
+     * RX(θ) = [[cos θ/2, -i sin θ/2], [-i sin θ/2, cos θ/2]]
      */
-    private void applyCZ(double[] state, int control, int target, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            int controlBit = (i >> control) & 1;
-            int targetBit = (i >> target) & 1;
-            
-            if (controlBit == 1 && targetBit == 1) {
-                // Multiply by -1 when both qubits are |1⟩
-                state[i * 2] = -state[i * 2];
-                state[i * 2 + 1] = -state[i * 2 + 1];
-            }
-        }
+    static double[] rotationX(double angle) {
+        double cos = Math.cos(angle / 2);
+        double sin = Math.sin(angle / 2);
+        return new double[] { cos, 0, 0, -sin, 0, -sin, cos, 0 };
     }
     
     /**
-     * Apply ZZ interaction
+     * RY(θ) = [[cos θ/2, -sin θ/2], [sin θ/2, cos θ/2]]
      */
-    private void applyZZ(double[] state, int qubit1, int qubit2, double parameter, int numQubits) {
-        int stateSize = 1 << numQubits;
-        double cos = Math.cos(parameter);
-        double sin = Math.sin(parameter);
-        
-        for (int i = 0; i < stateSize; i++) {
-            int bit1 = (i >> qubit1) & 1;
-            int bit2 = (i >> qubit2) & 1;
-            
-            double phase = (bit1 ^ bit2) == 0 ? parameter : -parameter;
-            double cosPhase = Math.cos(phase);
-            double sinPhase = Math.sin(phase);
-            
-            double real = state[i * 2];
-            double imag = state[i * 2 + 1];
-            
-            state[i * 2] = cosPhase * real - sinPhase * imag;
-            state[i * 2 + 1] = cosPhase * imag + sinPhase * real;
-        }
+    static double[] rotationY(double angle) {
+        double cos = Math.cos(angle / 2);
+        double sin = Math.sin(angle / 2);
+        return new double[] { cos, 0, -sin, 0, sin, 0, cos, 0 };
     }
     
     /**
-     * Apply Toffoli gate (CCX)
+     * Perform measurements and return counts
      */
-    private void applyToffoli(double[] state, int control1, int control2, int target, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            int control1Bit = (i >> control1) & 1;
-            int control2Bit = (i >> control2) & 1;
-            
-            if (control1Bit == 1 && control2Bit == 1) {
-                int flippedIndex = i ^ (1 << target);
-                
-                // Swap amplitudes when both controls are |1⟩
-                double tempReal = state[i * 2];
-                double tempImag = state[i * 2 + 1];
-                
-                state[i * 2] = state[flippedIndex * 2];
-                state[i * 2 + 1] = state[flippedIndex * 2 + 1];
-                state[flippedIndex * 2] = tempReal;
-                state[flippedIndex * 2 + 1] = tempImag;
-            }
-        }
+    private Map<String, Object> performMeasurements(StateVector state, int shots, Random random) {
+        return toCounts(state.sample(shots, random), state.getNumQubits());
     }
     
     /**
-     * Apply multi-controlled Z gate
+     * Sampling randomness for a run, seeded when the options fix a seed
      */
-    private void applyMultiControlledZ(double[] state, List<Integer> qubits, int numQubits) {
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            boolean allOnes = true;
-            for (int qubit : qubits) {
-                if (((i >> qubit) & 1) == 0) {
-                    allOnes = false;
-                    break;
-                }
-            }
-            
-            if (allOnes) {
-                // Multiply by -1 when all qubits are |1⟩
-                state[i * 2] = -state[i * 2];
-                state[i * 2 + 1] = -state[i * 2 + 1];
-            }
-        }
+    static Random random(QuantumExecutionOptions options) {
+        return options.getSeed() != null ? new Random(options.getSeed()) : ThreadLocalRandom.current();
     }
     
     /**
-     * Perform measurements and return counts
+     * Bitstring counts of sorted basis-state outcomes
      */
-    private Map<String, Object> performMeasurements(double[] state, int shots, int numQubits) {
-        Map<String, Integer> counts = new HashMap<>();
-        Random random = ThreadLocalRandom.current();
-        
-        for (int shot = 0; shot < shots; shot++) {
-            String measurement = measureState(state, random, numQubits);
-            counts.put(measurement, counts.getOrDefault(measurement, 0) + 1);
-        }
-        
-        // Convert to Object map for compatibility
+    static Map<String, Object> toCounts(long[] outcomes, int numQubits) {
+        // Outcomes are sorted, so equal basis states are adjacent
         Map<String, Object> result = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
-            result.put(entry.getKey(), entry.getValue());
+        int i = 0;
+        while (i < outcomes.length) {
+            int j = i;
+            while (j < outcomes.length && outcomes[j] == outcomes[i]) {
+                j++;
+            }
+            result.put(toBitstring(outcomes[i], numQubits), j - i);
+            i = j;
         }
         
         return result;
     }
     
     /**
-     * Measure quantum state and return classical bitstring
+     * Convert a basis-state index to a bitstring, most significant qubit first
      */
-    private String measureState(double[] state, Random random, int numQubits) {
-        double randomValue = random.nextDouble();
-        double cumulativeProbability = 0.0;
-        
-        int stateSize = 1 << numQubits;
-        
-        for (int i = 0; i < stateSize; i++) {
-            double real = state[i * 2];
-            double imag = state[i * 2 + 1];
-            double probability = real * real + imag * imag;
-            
-            cumulativeProbability += probability;
-            
-            if (randomValue <= cumulativeProbability) {
-                // Convert state index to binary string
-                StringBuilder binaryString = new StringBuilder();
-                for (int bit = numQubits - 1; bit >= 0; bit--) {
-                    binaryString.append((i >> bit) & 1);
-                }
-                return binaryString.toString();
-            }
-        }
-        
-        // Fallback (should not reach here with proper normalization)
-        return "0".repeat(numQubits);
-    }
-}
-
-/**
- * Quantum Annealing Simulator
- */
-class QuantumAnnealingSimulator {
-    
-    private static final Logger logger = LoggerFactory.getLogger(QuantumAnnealingSimulator.class);
-    
-    public AnnealingResult anneal(Map<String, Double> qubo, double annealingTime, int numReads) {
-        logger.debug("Performing quantum annealing with {} reads", numReads);
-        
-        // Simulated annealing approach
-        int numVars = extractNumVariables(qubo);
-        AnnealingResult bestResult = null;
-        double bestEnergy = Double.MAX_VALUE;
-        
-        for (int read = 0; read < numReads; read++) {
-            AnnealingResult result = simulateAnneal(qubo, annealingTime, numVars);
-            
-            if (result.getLowestEnergy() < bestEnergy) {
-                bestEnergy = result.getLowestEnergy();
-                bestResult = result;
-            }
+    static String toBitstring(long index, int numQubits) {
+        char[] bits = new char[numQubits];
+        for (int bit = 0; bit < numQubits; bit++) {
+            bits[numQubits - 1 - bit] = ((index >>> bit) & 1) == 0 ? '0' : '1';
         }
-        
-        return bestResult;
+        return new String(bits);
     }
     
-    private AnnealingResult simulateAnneal(Map<String, Double> qubo, double annealingTime, int numVars) {
-        // Initialize random solution
-        Map<String, Object> solution = new HashMap<>();
-        for (int i = 0; i < numVars; i++) {
-            solution.put("x" + i, ThreadLocalRandom.current().nextBoolean() ? 1 : 0);
-        }
-        
-        // Calculate energy
-        double energy = calculateEnergy(qubo, solution);
-        
-        // Simulated annealing process
-        double temperature = 1.0;
-        double coolingRate = 0.95;
-        
-        for (int step = 0; step < 1000; step++) {
-            // Flip random variable
-            int varToFlip = ThreadLocalRandom.current().nextInt(numVars);
-            String varName = "x" + varToFlip;
-            
-            int currentValue = (Integer) solution.get(varName);
-            solution.put(varName, 1 - currentValue);
-            
-            double newEnergy = calculateEnergy(qubo, solution);
-            double deltaE = newEnergy - energy;
-            
-            // Accept or reject based on Metropolis criterion
-            if (deltaE < 0 || Math.exp(-deltaE / temperature) > ThreadLocalRandom.current().nextDouble()) {
-                energy = newEnergy;
-            } else {
-                // Revert change
-                solution.put(varName, currentValue);
-            }
-            
-            temperature *= coolingRate;
-        }
-        
-        AnnealingResult result = new AnnealingResult();
-        result.setLowestEnergy(energy);
-        result.setBestSolution(solution);
-        result.setChainBreakFraction(0.0); // Simplified
-        
-        return result;
-    }
+    // Configuration
+    public int getOffHeapThresholdQubits() { return offHeapThresholdQubits; }
+    public void setOffHeapThresholdQubits(int offHeapThresholdQubits) { this.offHeapThresholdQubits = offHeapThresholdQubits; }
     
-    private int extractNumVariables(Map<String, Double> qubo) {
-        Set<String> variables = new HashSet<>();
-        for (String key : qubo.keySet()) {
-            String[] parts = key.split(",");
-            for (String part : parts) {
-                variables.add(part.trim());
-            }
-        }
-        return variables.size();
-    }
+    public int getMappedThresholdQubits() { return mappedThresholdQubits; }
+    public void setMappedThresholdQubits(int mappedThresholdQubits) { this.mappedThresholdQubits = mappedThresholdQubits; }
     
-    private double calculateEnergy(Map<String, Double> qubo, Map<String, Object> solution) {
-        double energy = 0.0;
-        
-        for (Map.Entry<String, Double> entry : qubo.entrySet()) {
-            String[] variables = entry.getKey().split(",");
-            double coefficient = entry.getValue();
-            
-            if (variables.length == 1) {
-                // Linear term
-                String var = variables[0].trim();
-                int value = (Integer) solution.get(var);
-                energy += coefficient * value;
-            } else if (variables.length == 2) {
-                // Quadratic term
-                String var1 = variables[0].trim();
-                String var2 = variables[1].trim();
-                int value1 = (Integer) solution.get(var1);
-                int value2 = (Integer) solution.get(var2);
-                energy += coefficient * value1 * value2;
-            }
-        }
-        
-        return energy;
-    }
+    public String getSwapDirectory() { return swapDirectory; }
+    public void setSwapDirectory(String swapDirectory) { this.swapDirectory = swapDirectory; }
 }
-
-/**
- * Annealing Result
- */
-class AnnealingResult {
-    private double lowestEnergy;
-    private Map<String, Object> bestSolution;
-    private double chainBreakFraction;
-    
-    // Getters and Setters
-    public double getLowestEnergy() { return lowestEnergy; }
-    public void setLowestEnergy(double lowestEnergy) { this.lowestEnergy = lowestEnergy; }
-    
-    public Map<String, Object> getBestSolution() { return bestSolution; }
-    public void setBestSolution(Map<String, Object> bestSolution) { this.bestSolution = bestSolution; }
-    
-    public double getChainBreakFraction() { return chainBreakFraction; }
-    public void setChainBreakFraction(double chainBreakFraction) { this.chainBreakFraction = chainBreakFraction; }
-}
\ No newline at end of file
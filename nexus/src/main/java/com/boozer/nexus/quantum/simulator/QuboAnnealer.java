@@ -0,0 +1,199 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * QUBO Annealer
+ *
+ * Metropolis simulated annealing over a compiled {@link QuboModel}. Solutions are
+ * byte arrays with a local field per variable, so a flip proposal is O(1) and an
+ * accepted flip O(degree). Independent reads run in parallel on the common pool,
+ * each with its own seeded generator. Parallel tempering runs a ladder of replicas
+ * at fixed temperatures and exchanges neighbouring replicas between sweeps.
+ *
+ * The inverse-temperature range follows the problem scale: at the hot end the
+ * largest possible flip is accepted half of the time, at the cold end the smallest
+ * non-zero coefficient is accepted one time in a hundred.
+ */
+@Component
+public class QuboAnnealer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuboAnnealer.class);
+
+    /** Variables below which replica sweeps stay on the calling thread */
+    private static final int PARALLEL_SWEEP_THRESHOLD = 256;
+
+    private int sweeps = 1000;
+    private int replicas = 16;
+
+    /**
+     * Run independent annealing reads, each over the full geometric schedule
+     */
+    public QuboSamples anneal(QuboModel model, int numReads, long seed) {
+        int n = model.getNumVariables();
+        double betaHot = hotBeta(model);
+        double betaCold = coldBeta(model);
+        byte[][] solutions = new byte[numReads][];
+        double[] energies = new double[numReads];
+
+        long startTime = System.nanoTime();
+        IntStream.range(0, numReads).parallel().forEach(read -> {
+            SplittableRandom random = new SplittableRandom(seed + read);
+            byte[] x = randomAssignment(n, random);
+            double[] field = new double[n];
+            model.localFields(x, field);
+
+            byte[] best = x.clone();
+            double energy = model.energy(x);
+            double bestEnergy = energy;
+            for (int sweep = 0; sweep < sweeps; sweep++) {
+                double progress = sweeps > 1 ? (double) sweep / (sweeps - 1) : 1.0;
+                double beta = betaHot * Math.pow(betaCold / betaHot, progress);
+                energy += sweep(model, x, field, beta, random);
+                if (energy < bestEnergy) {
+                    bestEnergy = energy;
+                    System.arraycopy(x, 0, best, 0, n);
+                }
+            }
+            solutions[read] = best;
+            // Recompute rather than trust the accumulated deltas
+            energies[read] = model.energy(best);
+        });
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        return collect(solutions, energies, (double) numReads * sweeps / seconds, "annealing", model);
+    }
+
+    /**
+     * Parallel tempering: {@code replicas} copies at geometrically spaced fixed
+     * temperatures, one sweep each per round followed by neighbour exchanges
+     */
+    public QuboSamples temper(QuboModel model, long seed) {
+        int n = model.getNumVariables();
+        int count = Math.max(2, replicas);
+        double betaHot = hotBeta(model);
+        double betaCold = coldBeta(model);
+        double[] betas = new double[count];
+        for (int k = 0; k < count; k++) {
+            betas[k] = betaHot * Math.pow(betaCold / betaHot, (double) k / (count - 1));
+        }
+
+        SplittableRandom exchange = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[count];
+        byte[][] states = new byte[count][];
+        double[][] fields = new double[count][n];
+        double[] energies = new double[count];
+        // Replica currently sitting at temperature slot k
+        int[] replicaAt = new int[count];
+        for (int r = 0; r < count; r++) {
+            randoms[r] = exchange.split();
+            states[r] = randomAssignment(n, randoms[r]);
+            model.localFields(states[r], fields[r]);
+            energies[r] = model.energy(states[r]);
+            replicaAt[r] = r;
+        }
+
+        byte[] best = states[0].clone();
+        double bestEnergy = energies[0];
+        long startTime = System.nanoTime();
+        for (int round = 0; round < sweeps; round++) {
+            IntStream slots = IntStream.range(0, count);
+            if (n >= PARALLEL_SWEEP_THRESHOLD) {
+                slots = slots.parallel();
+            }
+            slots.forEach(k -> {
+                int r = replicaAt[k];
+                energies[r] += sweep(model, states[r], fields[r], betas[k], randoms[r]);
+            });
+
+            for (int k = (round & 1); k + 1 < count; k += 2) {
+                int a = replicaAt[k];
+                int b = replicaAt[k + 1];
+                double log = (betas[k] - betas[k + 1]) * (energies[a] - energies[b]);
+                if (log >= 0.0 || exchange.nextDouble() < Math.exp(log)) {
+                    replicaAt[k] = b;
+                    replicaAt[k + 1] = a;
+                }
+            }
+
+            int coldest = replicaAt[count - 1];
+            if (energies[coldest] < bestEnergy) {
+                bestEnergy = energies[coldest];
+                System.arraycopy(states[coldest], 0, best, 0, n);
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        byte[][] solutions = new byte[count + 1][];
+        double[] finalEnergies = new double[count + 1];
+        for (int k = 0; k < count; k++) {
+            solutions[k] = states[replicaAt[k]];
+            finalEnergies[k] = model.energy(solutions[k]);
+        }
+        solutions[count] = best;
+        finalEnergies[count] = model.energy(best);
+
+        return collect(solutions, finalEnergies, (double) count * sweeps / seconds, "tempering", model);
+    }
+
+    /**
+     * One Metropolis sweep over every variable in index order; returns the energy change
+     */
+    private static double sweep(QuboModel model, byte[] x, double[] field, double beta, SplittableRandom random) {
+        double change = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            double delta = QuboModel.flipDelta(x, field, i);
+            if (delta <= 0.0 || random.nextDouble() < Math.exp(-beta * delta)) {
+                model.flip(x, field, i);
+                change += delta;
+            }
+        }
+        return change;
+    }
+
+    private static byte[] randomAssignment(int n, SplittableRandom random) {
+        byte[] x = new byte[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (byte) (random.nextBoolean() ? 1 : 0);
+        }
+        return x;
+    }
+
+    private static double hotBeta(QuboModel model) {
+        double max = model.maxFlipDelta();
+        return max > 0.0 ? Math.log(2.0) / max : 1.0;
+    }
+
+    private static double coldBeta(QuboModel model) {
+        double min = model.minCoefficient();
+        return Double.isInfinite(min) ? 1.0 : Math.log(100.0) / min;
+    }
+
+    private QuboSamples collect(byte[][] solutions, double[] energies, double sweepsPerSecond,
+                                String mode, QuboModel model) {
+        int best = 0;
+        for (int k = 1; k < energies.length; k++) {
+            if (energies[k] < energies[best]) {
+                best = k;
+            }
+        }
+        byte[] bestSolution = solutions.length > 0 ? solutions[best] : new byte[0];
+        double bestEnergy = energies.length > 0 ? energies[best] : 0.0;
+
+        logger.debug("QUBO {} over {} variables / {} couplings: best energy {}, {} sweeps/s",
+            mode, model.getNumVariables(), model.getNumCouplings(), bestEnergy, Math.round(sweepsPerSecond));
+        return new QuboSamples(solutions, energies, bestSolution, bestEnergy, sweepsPerSecond);
+    }
+
+    // Configuration
+    public int getSweeps() { return sweeps; }
+    public void setSweeps(int sweeps) { this.sweeps = sweeps; }
+
+    public int getReplicas() { return replicas; }
+    public void setReplicas(int replicas) { this.replicas = replicas; }
+}
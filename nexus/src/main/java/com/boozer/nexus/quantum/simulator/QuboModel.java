@@ -0,0 +1,243 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * QUBO Model
+ *
+ * Quadratic unconstrained binary objective E(x) = Σ h_i x_i + Σ_{i<j} J_ij x_i x_j,
+ * compiled once from the string-keyed form ("x3" for a linear term, "x3,x7" for a
+ * coupling) into integer indices. Couplings are held as a symmetric CSR adjacency,
+ * so the energy change of flipping one variable and the local-field update after
+ * the flip both cost O(degree).
+ */
+public final class QuboModel {
+
+    private final String[] names;
+    private final double[] linear;
+    /** Neighbours of variable i are columns[rowOffsets[i] .. rowOffsets[i + 1]) */
+    private final int[] rowOffsets;
+    private final int[] columns;
+    private final double[] weights;
+
+    private QuboModel(String[] names, double[] linear, int[] rowOffsets, int[] columns, double[] weights) {
+        this.names = names;
+        this.linear = linear;
+        this.rowOffsets = rowOffsets;
+        this.columns = columns;
+        this.weights = weights;
+    }
+
+    /**
+     * Compile the string-keyed QUBO. Variables are numbered in order of first
+     * appearance; a diagonal coupling "xi,xi" is folded into the linear term
+     * (x² = x) and repeated pairs are summed.
+     */
+    public static QuboModel compile(Map<String, Double> qubo) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        Map<Long, Double> couplings = new HashMap<>();
+        Map<Integer, Double> fields = new HashMap<>();
+
+        for (Map.Entry<String, Double> entry : qubo.entrySet()) {
+            String[] variables = entry.getKey().split(",");
+            double coefficient = entry.getValue();
+            if (variables.length == 1) {
+                int i = indexOf(index, variables[0]);
+                fields.merge(i, coefficient, Double::sum);
+            } else if (variables.length == 2) {
+                int i = indexOf(index, variables[0]);
+                int j = indexOf(index, variables[1]);
+                if (i == j) {
+                    fields.merge(i, coefficient, Double::sum);
+                } else {
+                    long key = ((long) Math.min(i, j) << 32) | Math.max(i, j);
+                    couplings.merge(key, coefficient, Double::sum);
+                }
+            } else {
+                throw new IllegalArgumentException("QUBO terms have one or two variables: " + entry.getKey());
+            }
+        }
+
+        int n = index.size();
+        double[] linear = new double[n];
+        fields.forEach((i, value) -> linear[i] = value);
+
+        int[] degree = new int[n];
+        for (long key : couplings.keySet()) {
+            degree[(int) (key >>> 32)]++;
+            degree[(int) key]++;
+        }
+        int[] rowOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            rowOffsets[i + 1] = rowOffsets[i] + degree[i];
+        }
+        int[] columns = new int[rowOffsets[n]];
+        double[] weights = new double[rowOffsets[n]];
+        int[] fill = Arrays.copyOf(rowOffsets, n);
+        for (Map.Entry<Long, Double> entry : couplings.entrySet()) {
+            int i = (int) (entry.getKey() >>> 32);
+            int j = (int) (long) entry.getKey();
+            columns[fill[i]] = j;
+            weights[fill[i]++] = entry.getValue();
+            columns[fill[j]] = i;
+            weights[fill[j]++] = entry.getValue();
+        }
+
+        return new QuboModel(index.keySet().toArray(new String[0]), linear, rowOffsets, columns, weights);
+    }
+
+    private static int indexOf(Map<String, Integer> index, String name) {
+        return index.computeIfAbsent(name.trim(), key -> index.size());
+    }
+
+    /**
+     * E(x) for a full assignment
+     */
+    public double energy(byte[] x) {
+        double energy = 0.0;
+        for (int i = 0; i < linear.length; i++) {
+            if (x[i] == 0) {
+                continue;
+            }
+            energy += linear[i];
+            for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+                // Each coupling appears in both rows; count it from the lower index only
+                if (columns[k] > i && x[columns[k]] != 0) {
+                    energy += weights[k];
+                }
+            }
+        }
+        return energy;
+    }
+
+    /**
+     * Fill field with the local fields h_i + Σ_j J_ij x_j of an assignment
+     */
+    public void localFields(byte[] x, double[] field) {
+        for (int i = 0; i < linear.length; i++) {
+            double sum = linear[i];
+            for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+                if (x[columns[k]] != 0) {
+                    sum += weights[k];
+                }
+            }
+            field[i] = sum;
+        }
+    }
+
+    /**
+     * Flip variable i and update the local fields of its neighbours
+     */
+    public void flip(byte[] x, double[] field, int i) {
+        double change = x[i] == 0 ? 1.0 : -1.0;
+        x[i] ^= 1;
+        for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+            field[columns[k]] += change * weights[k];
+        }
+    }
+
+    /**
+     * Energy change of flipping variable i, given current local fields
+     */
+    public static double flipDelta(byte[] x, double[] field, int i) {
+        return x[i] == 0 ? field[i] : -field[i];
+    }
+
+    /**
+     * Greedy one-flip descent: apply improving flips until none is left, so the
+     * assignment ends in a local minimum. Returns the energy change.
+     */
+    public double descend(byte[] x, double[] field) {
+        double change = 0.0;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < x.length; i++) {
+                double delta = flipDelta(x, field, i);
+                if (delta < -1e-12) {
+                    flip(x, field, i);
+                    change += delta;
+                    improved = true;
+                }
+            }
+        }
+        return change;
+    }
+
+    /**
+     * out = J·v for the symmetric coupling matrix J (zero diagonal)
+     */
+    public void multiply(double[] v, double[] out) {
+        for (int i = 0; i < linear.length; i++) {
+            double sum = 0.0;
+            for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+                sum += weights[k] * v[columns[k]];
+            }
+            out[i] = sum;
+        }
+    }
+
+    /**
+     * Sum of squared couplings over ordered pairs, i.e. the squared Frobenius norm of J
+     */
+    public double couplingNormSquared() {
+        double sum = 0.0;
+        for (double weight : weights) {
+            sum += weight * weight;
+        }
+        return sum;
+    }
+
+    /**
+     * Largest energy change any single flip can cause
+     */
+    public double maxFlipDelta() {
+        double max = 0.0;
+        for (int i = 0; i < linear.length; i++) {
+            double sum = Math.abs(linear[i]);
+            for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+                sum += Math.abs(weights[k]);
+            }
+            max = Math.max(max, sum);
+        }
+        return max;
+    }
+
+    /**
+     * Smallest non-zero coefficient magnitude
+     */
+    public double minCoefficient() {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : linear) {
+            if (value != 0.0) {
+                min = Math.min(min, Math.abs(value));
+            }
+        }
+        for (double value : weights) {
+            if (value != 0.0) {
+                min = Math.min(min, Math.abs(value));
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Assignment as a name → 0/1 map, in the form the string-keyed API returns
+     */
+    public Map<String, Object> toSolution(byte[] x) {
+        Map<String, Object> solution = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            solution.put(names[i], (int) x[i]);
+        }
+        return solution;
+    }
+
+    public int getNumVariables() { return names.length; }
+    public double getLinear(int i) { return linear[i]; }
+    public int getNumCouplings() { return columns.length / 2; }
+    public String getName(int i) { return names[i]; }
+    public int degree(int i) { return rowOffsets[i + 1] - rowOffsets[i]; }
+}
@@ -0,0 +1,31 @@
+package com.boozer.nexus.quantum.simulator;
+
+/**
+ * QUBO Samples
+ *
+ * Final assignments and energies of a batch of annealing reads (or of the
+ * replicas of a parallel-tempering run), plus the best assignment seen.
+ */
+public final class QuboSamples {
+
+    private final byte[][] solutions;
+    private final double[] energies;
+    private final byte[] bestSolution;
+    private final double bestEnergy;
+    private final double sweepsPerSecond;
+
+    QuboSamples(byte[][] solutions, double[] energies, byte[] bestSolution, double bestEnergy,
+                double sweepsPerSecond) {
+        this.solutions = solutions;
+        this.energies = energies;
+        this.bestSolution = bestSolution;
+        this.bestEnergy = bestEnergy;
+        this.sweepsPerSecond = sweepsPerSecond;
+    }
+
+    public byte[][] getSolutions() { return solutions; }
+    public double[] getEnergies() { return energies; }
+    public byte[] getBestSolution() { return bestSolution; }
+    public double getBestEnergy() { return bestEnergy; }
+    public double getSweepsPerSecond() { return sweepsPerSecond; }
+}
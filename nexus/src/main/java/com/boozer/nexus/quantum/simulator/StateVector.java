@@ -0,0 +1,337 @@
+package com.boozer.nexus.quantum.simulator;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * State Vector
+ *
+ * Amplitude storage for the state-vector simulator. Amplitudes are addressed by
+ * basis-state index (bit q of the index is qubit q) and every gate kernel in this
+ * class updates them in place, so a backend only has to provide element access.
+ * Large vectors are processed in parallel ranges on the common fork-join pool.
+ */
+public abstract class StateVector implements AutoCloseable {
+
+    /** Below this many index pairs a kernel runs on the calling thread */
+    private static final long PARALLEL_THRESHOLD = 1L << 15;
+
+    /** Index pairs handled by one parallel task */
+    private static final long RANGE_SIZE = 1L << 13;
+
+    protected final int numQubits;
+    protected final long size;
+
+    protected StateVector(int numQubits) {
+        if (numQubits < 1 || numQubits > 62) {
+            throw new IllegalArgumentException("Unsupported qubit count: " + numQubits);
+        }
+        this.numQubits = numQubits;
+        this.size = 1L << numQubits;
+    }
+
+    /**
+     * Real part of the amplitude at the given basis state
+     */
+    public abstract double re(long index);
+
+    /**
+     * Imaginary part of the amplitude at the given basis state
+     */
+    public abstract double im(long index);
+
+    /**
+     * Overwrite the amplitude at the given basis state
+     */
+    public abstract void set(long index, double re, double im);
+
+    /**
+     * Zero every amplitude
+     */
+    protected abstract void clear();
+
+    /**
+     * Bytes of amplitude storage held by this vector
+     */
+    public long memoryBytes() {
+        return size << 4;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release for heap storage
+    }
+
+    /**
+     * Reset to |0...0⟩
+     */
+    public void reset() {
+        clear();
+        set(0, 1.0, 0.0);
+    }
+
+    /**
+     * Apply an arbitrary single-qubit unitary given as
+     * {u00re, u00im, u01re, u01im, u10re, u10im, u11re, u11im}
+     */
+    public void applySingleQubit(int target, double[] u) {
+        applyControlledSingleQubit(0L, target, u);
+    }
+
+    /**
+     * Apply a single-qubit unitary to the target wherever every control bit is set
+     */
+    public void applyControlledSingleQubit(long controlMask, int target, double[] u) {
+        applyMatrix(controlMask, target, u[0], u[1], u[2], u[3], u[4], u[5], u[6], u[7]);
+    }
+
+    /**
+     * Apply RX(θ) = [[cos θ/2, -i sin θ/2], [-i sin θ/2, cos θ/2]]
+     */
+    public void applyRotationX(int target, double theta) {
+        double cos = Math.cos(theta / 2);
+        double sin = Math.sin(theta / 2);
+        applyMatrix(0L, target, cos, 0, 0, -sin, 0, -sin, cos, 0);
+    }
+
+    /**
+     * Apply RY(θ) = [[cos θ/2, -sin θ/2], [sin θ/2, cos θ/2]]
+     */
+    public void applyRotationY(int target, double theta) {
+        double cos = Math.cos(theta / 2);
+        double sin = Math.sin(theta / 2);
+        applyMatrix(0L, target, cos, 0, -sin, 0, sin, 0, cos, 0);
+    }
+
+    private void applyMatrix(long controlMask, int target,
+                             double u00r, double u00i, double u01r, double u01i,
+                             double u10r, double u10i, double u11r, double u11i) {
+        final long bit = 1L << target;
+        forEachRange(size >>> 1, (from, to) -> {
+            for (long p = from; p < to; p++) {
+                long i0 = insertZeroBit(p, target);
+                if ((i0 & controlMask) != controlMask) {
+                    continue;
+                }
+                long i1 = i0 | bit;
+                double ar = re(i0), ai = im(i0);
+                double br = re(i1), bi = im(i1);
+                set(i0, u00r * ar - u00i * ai + u01r * br - u01i * bi,
+                        u00r * ai + u00i * ar + u01r * bi + u01i * br);
+                set(i1, u10r * ar - u10i * ai + u11r * br - u11i * bi,
+                        u10r * ai + u10i * ar + u11r * bi + u11i * br);
+            }
+        });
+    }
+
+    /**
+     * Swap the |0⟩ and |1⟩ amplitudes of the target wherever every control bit is set
+     * (X, CNOT and Toffoli)
+     */
+    public void applyControlledX(long controlMask, int target) {
+        final long bit = 1L << target;
+        forEachRange(size >>> 1, (from, to) -> {
+            for (long p = from; p < to; p++) {
+                long i0 = insertZeroBit(p, target);
+                if ((i0 & controlMask) != controlMask) {
+                    continue;
+                }
+                long i1 = i0 | bit;
+                double ar = re(i0), ai = im(i0);
+                set(i0, re(i1), im(i1));
+                set(i1, ar, ai);
+            }
+        });
+    }
+
+    /**
+     * Multiply by e^{iφ} every amplitude whose index has all mask bits set
+     * (Z, CZ and multi-controlled Z when φ = π)
+     */
+    public void applyPhase(long mask, double cos, double sin) {
+        forEachRange(size, (from, to) -> {
+            for (long i = from; i < to; i++) {
+                if ((i & mask) == mask) {
+                    multiply(i, cos, sin);
+                }
+            }
+        });
+    }
+
+    /**
+     * Multiply by e^{iθ} when the masked bits have even parity and by e^{-iθ} otherwise
+     */
+    public void applyParityPhase(long mask, double theta) {
+        final double cos = Math.cos(theta);
+        final double sin = Math.sin(theta);
+        forEachRange(size, (from, to) -> {
+            for (long i = from; i < to; i++) {
+                multiply(i, cos, (Long.bitCount(i & mask) & 1) == 0 ? sin : -sin);
+            }
+        });
+    }
+
+    /**
+     * Apply RZ(θ) as a diagonal phase: e^{-iθ/2} on |0⟩ and e^{iθ/2} on |1⟩
+     */
+    public void applyRotationZ(int target, double theta) {
+        final double cos = Math.cos(theta / 2);
+        final double sin = Math.sin(theta / 2);
+        final long bit = 1L << target;
+        forEachRange(size, (from, to) -> {
+            for (long i = from; i < to; i++) {
+                multiply(i, cos, (i & bit) == 0 ? -sin : sin);
+            }
+        });
+    }
+
+    /**
+     * Probability of measuring the given basis state
+     */
+    public double probability(long index) {
+        double re = re(index);
+        double im = im(index);
+        return re * re + im * im;
+    }
+
+    /**
+     * Sum of all probabilities
+     */
+    public double normSquared() {
+        return sumRanges(size, (from, to) -> {
+            double sum = 0.0;
+            for (long i = from; i < to; i++) {
+                sum += probability(i);
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Expectation value of the Pauli-Z product over the qubits in the mask
+     */
+    public double expectationZ(long mask) {
+        return sumRanges(size, (from, to) -> {
+            double sum = 0.0;
+            for (long i = from; i < to; i++) {
+                double p = probability(i);
+                sum += (Long.bitCount(i & mask) & 1) == 0 ? p : -p;
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Real part of ⟨this|other⟩
+     */
+    public double innerProductRe(StateVector other) {
+        checkSameSize(other);
+        return sumRanges(size, (from, to) -> {
+            double sum = 0.0;
+            for (long i = from; i < to; i++) {
+                sum += re(i) * other.re(i) + im(i) * other.im(i);
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Overwrite every amplitude with those of another vector of the same size
+     */
+    public void copyFrom(StateVector other) {
+        checkSameSize(other);
+        forEachRange(size, (from, to) -> {
+            for (long i = from; i < to; i++) {
+                set(i, other.re(i), other.im(i));
+            }
+        });
+    }
+
+    /**
+     * Draw measurement outcomes in a single pass over the amplitudes. The returned
+     * basis-state indices are in ascending order.
+     */
+    public long[] sample(int shots, Random random) {
+        double norm = normSquared();
+        double[] targets = new double[shots];
+        for (int s = 0; s < shots; s++) {
+            targets[s] = random.nextDouble() * norm;
+        }
+        Arrays.sort(targets);
+
+        long[] outcomes = new long[shots];
+        double cumulative = 0.0;
+        int next = 0;
+        for (long i = 0; i < size && next < shots; i++) {
+            cumulative += probability(i);
+            while (next < shots && targets[next] < cumulative) {
+                outcomes[next++] = i;
+            }
+        }
+        // Rounding can leave the last few targets just past the final cumulative sum
+        while (next < shots) {
+            outcomes[next++] = size - 1;
+        }
+        return outcomes;
+    }
+
+    public int getNumQubits() { return numQubits; }
+    public long getSize() { return size; }
+
+    protected void checkSameSize(StateVector other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("State vector sizes differ: " + size + " vs " + other.size);
+        }
+    }
+
+    private void multiply(long i, double cos, double sin) {
+        double re = re(i);
+        double im = im(i);
+        set(i, cos * re - sin * im, cos * im + sin * re);
+    }
+
+    /**
+     * Map a pair index to the basis state with a zero at the target bit
+     */
+    static long insertZeroBit(long pair, int target) {
+        long low = pair & ((1L << target) - 1);
+        return ((pair >>> target) << (target + 1)) | low;
+    }
+
+    /**
+     * Run the body over [0, count) split into ranges, in parallel when large enough
+     */
+    protected static void forEachRange(long count, RangeTask body) {
+        if (count < PARALLEL_THRESHOLD) {
+            body.run(0, count);
+            return;
+        }
+        long ranges = (count + RANGE_SIZE - 1) / RANGE_SIZE;
+        LongStream.range(0, ranges).parallel()
+            .forEach(r -> body.run(r * RANGE_SIZE, Math.min(count, (r + 1) * RANGE_SIZE)));
+    }
+
+    /**
+     * Sum the body over [0, count) split into ranges, in parallel when large enough
+     */
+    protected static double sumRanges(long count, RangeSum body) {
+        if (count < PARALLEL_THRESHOLD) {
+            return body.sum(0, count);
+        }
+        long ranges = (count + RANGE_SIZE - 1) / RANGE_SIZE;
+        return LongStream.range(0, ranges).parallel()
+            .mapToDouble(r -> body.sum(r * RANGE_SIZE, Math.min(count, (r + 1) * RANGE_SIZE)))
+            .sum();
+    }
+
+    @FunctionalInterface
+    protected interface RangeTask {
+        void run(long from, long to);
+    }
+
+    @FunctionalInterface
+    protected interface RangeSum {
+        double sum(long from, long to);
+    }
+}
@@ -0,0 +1,269 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.NoiseModel;
+import com.boozer.nexus.quantum.models.QuantumExecutionOptions;
+import com.boozer.nexus.quantum.models.QuantumResult;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Trajectory Simulator
+ *
+ * Monte-Carlo wavefunction simulation of a {@link NoiseModel}. Each trajectory is
+ * a pure state: depolarising noise applies a random Pauli with the channel
+ * probability, and amplitude damping either jumps (|1⟩ → |0⟩) or applies the
+ * no-jump Kraus operator, chosen with the Born probability. The no-jump branch is
+ * left unnormalised and the squared norm is carried alongside the state, so a
+ * damping step costs one pass over half the amplitudes. Averaged over
+ * trajectories this reproduces the density-matrix result with memory linear in
+ * 2^n instead of 4^n.
+ *
+ * Trajectories are split into contiguous chunks that run in parallel on the
+ * common pool, one scratch state vector per chunk. Trajectory t draws from a
+ * generator seeded with seed + t, so results do not depend on the chunking.
+ */
+@Component
+public class TrajectorySimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrajectorySimulator.class);
+
+    private int trajectories = 1000;
+
+    /**
+     * Heap of an n-qubit run: a scratch state vector and a probability sum per
+     * parallel chunk, plus the averaged distribution
+     */
+    public MemoryEstimate estimateMemory(int numQubits) {
+        if (numQubits > HeapStateVector.MAX_QUBITS) {
+            return MemoryEstimate.UNBOUNDED;
+        }
+        long chunk = MemoryEstimate.amplitudeBytes(numQubits) + (8L << numQubits);
+        return MemoryEstimate.heap(chunks(trajectories) * chunk + (8L << numQubits));
+    }
+
+    /**
+     * Outcome distribution averaged over the given number of trajectories,
+     * readout error included
+     */
+    public double[] probabilities(CompiledCircuit circuit, double[] parameters, NoiseModel noise,
+                                  int count, long seed) {
+        int n = checkQubits(circuit);
+        int chunks = chunks(count);
+        double[][] partial = new double[chunks][];
+
+        forEachChunk(count, chunks, (chunk, from, to) -> {
+            double[] sum = new double[1 << n];
+            try (HeapStateVector state = new HeapStateVector(n)) {
+                double[] data = state.getAmplitudes();
+                for (int t = from; t < to; t++) {
+                    double weight = 1.0 / runTrajectory(state, circuit, parameters, noise, new Random(seed + t));
+                    for (int i = 0; i < sum.length; i++) {
+                        sum[i] += weight * (data[2 * i] * data[2 * i] + data[2 * i + 1] * data[2 * i + 1]);
+                    }
+                }
+            }
+            partial[chunk] = sum;
+        });
+
+        double[] probabilities = new double[1 << n];
+        for (double[] sum : partial) {
+            for (int i = 0; i < probabilities.length; i++) {
+                probabilities[i] += sum[i];
+            }
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] /= count;
+        }
+        noise.applyReadoutError(probabilities, n);
+        return probabilities;
+    }
+
+    /**
+     * Sampled outcomes in ascending order, with shots spread evenly over the
+     * trajectories (one shot per trajectory when shots ≤ count)
+     */
+    public long[] sample(CompiledCircuit circuit, double[] parameters, NoiseModel noise,
+                         int shots, int count, long seed) {
+        int n = checkQubits(circuit);
+        int used = Math.max(1, Math.min(count, shots));
+        long[] outcomes = new long[shots];
+
+        forEachChunk(used, chunks(used), (chunk, from, to) -> {
+            try (HeapStateVector state = new HeapStateVector(n)) {
+                for (int t = from; t < to; t++) {
+                    Random random = new Random(seed + t);
+                    runTrajectory(state, circuit, parameters, noise, random);
+                    int first = (int) ((long) shots * t / used);
+                    int last = (int) ((long) shots * (t + 1) / used);
+                    long[] drawn = state.sample(last - first, random);
+                    for (int s = 0; s < drawn.length; s++) {
+                        outcomes[first + s] = noise.applyReadoutError(drawn[s], n, random);
+                    }
+                }
+            }
+        });
+
+        Arrays.sort(outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Run the circuit and sample over {@code trajectories} noisy trajectories
+     */
+    public QuantumResult execute(CompiledCircuit circuit, double[] parameters, QuantumExecutionOptions options) {
+        logger.debug("Executing noisy circuit {} over {} trajectories", circuit.getId(), trajectories);
+
+        long startTime = System.currentTimeMillis();
+        NoiseModel noise = options.getNoiseModel() != null ? options.getNoiseModel() : new NoiseModel();
+        QuantumResult result = new QuantumResult();
+        result.setCircuitId(circuit.getId());
+        result.setProvider("trajectory-simulator");
+        try {
+            long nanos = System.nanoTime();
+            long seed = options.getSeed() != null ? options.getSeed() : ThreadLocalRandom.current().nextLong();
+            long[] outcomes = sample(circuit, parameters, noise, options.getShots(), trajectories, seed);
+            double seconds = (System.nanoTime() - nanos) / 1e9;
+            result.setCounts(QuantumSimulator.toCounts(outcomes, circuit.getNumQubits()));
+            result.setSuccessful(true);
+            result.setTimestamp(LocalDateTime.now());
+            result.setCircuitDepth(circuit.getDepth());
+            result.setQuantumMetric("trajectoriesPerSecond",
+                Math.min(trajectories, options.getShots()) / Math.max(seconds, 1e-9));
+        } catch (RuntimeException e) {
+            logger.error("Trajectory simulation failed: {}", e.getMessage(), e);
+            result.setSuccessful(false);
+        }
+        result.setProcessingTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Reset the state and run one noisy trajectory of the circuit; returns the
+     * squared norm of the (unnormalised) final state
+     */
+    static double runTrajectory(HeapStateVector state, CompiledCircuit circuit, double[] parameters,
+                                NoiseModel noise, Random random) {
+        state.reset();
+        double damping = noise.getAmplitudeDamping();
+        double normSquared = 1.0;
+        for (int g = 0; g < circuit.size(); g++) {
+            if (circuit.op(g) == CompiledCircuit.OP_MEASURE) {
+                continue;
+            }
+            QuantumSimulator.applyGate(state, circuit, g, circuit.angle(g, parameters));
+
+            int arity = circuit.arity(g);
+            double depolarizing = noise.depolarizing(arity);
+            for (int k = 0; k < arity; k++) {
+                int q = circuit.qubit(g, k);
+                if (depolarizing > 0.0 && random.nextDouble() < depolarizing) {
+                    applyRandomPauli(state, q, random.nextInt(3));
+                }
+                if (damping > 0.0) {
+                    normSquared = applyDamping(state, q, damping, normSquared, random);
+                }
+            }
+        }
+        return normSquared;
+    }
+
+    /**
+     * X, Y or Z on qubit q (Y up to a global phase, as XZ)
+     */
+    private static void applyRandomPauli(StateVector state, int q, int pauli) {
+        if (pauli != 0) {
+            state.applyPhase(1L << q, -1.0, 0.0);
+        }
+        if (pauli != 2) {
+            state.applyControlledX(0L, q);
+        }
+    }
+
+    /**
+     * Amplitude-damping jump or no-jump step on a state of the given squared norm;
+     * returns the squared norm afterwards
+     */
+    private static double applyDamping(HeapStateVector state, int q, double gamma, double normSquared,
+                                       Random random) {
+        double[] data = state.getAmplitudes();
+        int size = data.length / 2;
+        int bit = 1 << q;
+
+        double excited = 0.0;
+        for (int base = bit; base < size; base += bit << 1) {
+            for (int k = 2 * base; k < 2 * (base + bit); k++) {
+                excited += data[k] * data[k];
+            }
+        }
+        if (excited == 0.0) {
+            return normSquared;
+        }
+
+        if (random.nextDouble() * normSquared < gamma * excited) {
+            // K1 = √γ |0⟩⟨1|: the |1⟩ half moves onto |0⟩; its weight is already excited
+            for (int base = 0; base < size; base += bit << 1) {
+                System.arraycopy(data, 2 * (base + bit), data, 2 * base, 2 * bit);
+                Arrays.fill(data, 2 * (base + bit), 2 * (base + 2 * bit), 0.0);
+            }
+            return rescale(data, excited);
+        }
+
+        // K0 = diag(1, √(1 − γ)), left unnormalised
+        double keep = Math.sqrt(1.0 - gamma);
+        for (int base = bit; base < size; base += bit << 1) {
+            for (int k = 2 * base; k < 2 * (base + bit); k++) {
+                data[k] *= keep;
+            }
+        }
+        return rescale(data, normSquared - gamma * excited);
+    }
+
+    /**
+     * Renormalise only when the carried norm drifts far from one
+     */
+    private static double rescale(double[] data, double normSquared) {
+        if (normSquared > 1e-100 && normSquared < 1e100) {
+            return normSquared;
+        }
+        double factor = 1.0 / Math.sqrt(normSquared);
+        for (int k = 0; k < data.length; k++) {
+            data[k] *= factor;
+        }
+        return 1.0;
+    }
+
+    private static int checkQubits(CompiledCircuit circuit) {
+        int n = circuit.getNumQubits();
+        if (n > HeapStateVector.MAX_QUBITS) {
+            throw new IllegalArgumentException("Trajectory simulation supports at most "
+                + HeapStateVector.MAX_QUBITS + " qubits, got " + n);
+        }
+        return n;
+    }
+
+    private static int chunks(int count) {
+        return Math.max(1, Math.min(count, ForkJoinPool.getCommonPoolParallelism()));
+    }
+
+    private static void forEachChunk(int count, int chunks, ChunkTask task) {
+        IntStream.range(0, chunks).parallel().forEach(chunk -> task.run(chunk,
+            (int) ((long) count * chunk / chunks), (int) ((long) count * (chunk + 1) / chunks)));
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int chunk, int from, int to);
+    }
+
+    // Configuration
+    public int getTrajectories() { return trajectories; }
+    public void setTrajectories(int trajectories) { this.trajectories = trajectories; }
+}
@@ -1,6 +1,7 @@
 package com.boozer.nexus.quantum.utils;
 
 import com.boozer.nexus.quantum.models.*;
+import com.boozer.nexus.quantum.simulator.CompiledCircuit;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,8 @@ import java.util.stream.IntStream;
  * Quantum Circuit Builder
  * 
  * Utility for building quantum circuits for various algorithms.
+ * Circuits are emitted as {@link CompiledCircuit}s; the {@code build*} methods
+ * expand them into gate lists for callers that still need {@link QuantumCircuit}.
  */
 @Component
 public class QuantumCircuitBuilder {
@@ -22,55 +25,65 @@ public class QuantumCircuitBuilder {
      * Build QAOA circuit for optimization problems
      */
     public QuantumCircuit buildQAOACircuit(int numQubits, int layers, double[] beta, double[] gamma, Map<String, Double> problemHamiltonian) {
+        double[] parameters = new double[2 * layers];
+        System.arraycopy(gamma, 0, parameters, 0, layers);
+        System.arraycopy(beta, 0, parameters, layers, layers);
+        return compileQAOATemplate(numQubits, layers, problemHamiltonian).toCircuit(parameters);
+    }
+    
+    /**
+     * Compile a QAOA template whose parameter vector is (gamma[0..layers), beta[0..layers))
+     */
+    public CompiledCircuit compileQAOATemplate(int numQubits, int layers, Map<String, Double> problemHamiltonian) {
         logger.debug("Building QAOA circuit with {} qubits, {} layers", numQubits, layers);
         
-        QuantumCircuit circuit = new QuantumCircuit();
-        circuit.setId(UUID.randomUUID().toString());
-        circuit.setNumQubits(numQubits);
-        circuit.setGates(new ArrayList<>());
+        CompiledCircuit circuit = new CompiledCircuit(numQubits);
         
         // Initialize superposition
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_H, i);
         }
         
         // QAOA layers
         for (int layer = 0; layer < layers; layer++) {
             // Problem Hamiltonian (Cost function)
-            addProblemHamiltonian(circuit, problemHamiltonian, gamma[layer]);
+            addProblemHamiltonian(circuit, problemHamiltonian, layer);
             
             // Mixer Hamiltonian
-            addMixerHamiltonian(circuit, numQubits, beta[layer]);
+            addMixerHamiltonian(circuit, numQubits, layers + layer);
         }
         
         // Final measurements
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("MEASURE", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_MEASURE, i);
         }
         
-        circuit.setDepth(calculateCircuitDepth(circuit));
-        return circuit;
+        return finish(circuit);
     }
     
     /**
      * Build Grover's search circuit
      */
     public QuantumCircuit buildGroverCircuit(int numQubits, List<String> targetStates, int iterations) {
+        return compileGroverCircuit(numQubits, targetStates, iterations).toCircuit(null);
+    }
+    
+    /**
+     * Compile Grover's search circuit
+     */
+    public CompiledCircuit compileGroverCircuit(int numQubits, List<String> targetStates, int iterations) {
         logger.debug("Building Grover circuit with {} qubits, {} iterations", numQubits, iterations);
         
-        QuantumCircuit circuit = new QuantumCircuit();
-        circuit.setId(UUID.randomUUID().toString());
-        circuit.setNumQubits(numQubits + 1); // +1 for ancilla
-        circuit.setGates(new ArrayList<>());
+        CompiledCircuit circuit = new CompiledCircuit(numQubits + 1); // +1 for ancilla
         
         // Initialize superposition on all qubits except ancilla
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_H, i);
         }
         
         // Initialize ancilla in |1⟩ state for phase kickback
-        circuit.getGates().add(createGate("X", Arrays.asList(numQubits), 0.0));
-        circuit.getGates().add(createGate("H", Arrays.asList(numQubits), 0.0));
+        circuit.gate(CompiledCircuit.OP_X, numQubits);
+        circuit.gate(CompiledCircuit.OP_H, numQubits);
         
         // Grover iterations
         for (int iter = 0; iter < iterations; iter++) {
@@ -83,23 +96,27 @@ public class QuantumCircuitBuilder {
         
         // Measurements on data qubits
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("MEASURE", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_MEASURE, i);
         }
         
-        circuit.setDepth(calculateCircuitDepth(circuit));
-        return circuit;
+        return finish(circuit);
     }
     
     /**
      * Build Variational Quantum Classifier (VQC) circuit
      */
     public QuantumCircuit buildVQCCircuit(int numQubits, int numLayers, double[] parameters, List<Double> inputData) {
+        return compileVQCTemplate(numQubits, numLayers, inputData).toCircuit(parameters);
+    }
+    
+    /**
+     * Compile a VQC template with 3 * numQubits parameter slots per layer, in the
+     * order the {@code parameters} array of {@link #buildVQCCircuit} uses them
+     */
+    public CompiledCircuit compileVQCTemplate(int numQubits, int numLayers, List<Double> inputData) {
         logger.debug("Building VQC circuit with {} qubits, {} layers", numQubits, numLayers);
         
-        QuantumCircuit circuit = new QuantumCircuit();
-        circuit.setId(UUID.randomUUID().toString());
-        circuit.setNumQubits(numQubits);
-        circuit.setGates(new ArrayList<>());
+        CompiledCircuit circuit = new CompiledCircuit(numQubits);
         
         // Data encoding
         addDataEncoding(circuit, inputData, numQubits);
@@ -109,41 +126,44 @@ public class QuantumCircuitBuilder {
         for (int layer = 0; layer < numLayers; layer++) {
             // Rotation gates on each qubit
             for (int i = 0; i < numQubits; i++) {
-                circuit.getGates().add(createGate("RY", Arrays.asList(i), parameters[paramIndex++]));
-                circuit.getGates().add(createGate("RZ", Arrays.asList(i), parameters[paramIndex++]));
+                circuit.parameterizedGate(CompiledCircuit.OP_RY, paramIndex++, 1.0, i);
+                circuit.parameterizedGate(CompiledCircuit.OP_RZ, paramIndex++, 1.0, i);
             }
             
             // Entangling gates
             for (int i = 0; i < numQubits - 1; i++) {
-                circuit.getGates().add(createGate("CNOT", Arrays.asList(i, i + 1), 0.0));
+                circuit.gate(CompiledCircuit.OP_CNOT, i, i + 1);
             }
             
             // Additional rotation layer
             for (int i = 0; i < numQubits; i++) {
-                circuit.getGates().add(createGate("RY", Arrays.asList(i), parameters[paramIndex++]));
+                circuit.parameterizedGate(CompiledCircuit.OP_RY, paramIndex++, 1.0, i);
             }
         }
         
         // Measurements
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("MEASURE", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_MEASURE, i);
         }
         
-        circuit.setDepth(calculateCircuitDepth(circuit));
-        return circuit;
+        return finish(circuit);
     }
     
     /**
      * Build Quantum Machine Learning circuit
      */
     public QuantumCircuit buildQMLCircuit(List<Double> features, double[] weights, String circuitType) {
+        return compileQMLCircuit(features, weights, circuitType).toCircuit(null);
+    }
+    
+    /**
+     * Compile Quantum Machine Learning circuit
+     */
+    public CompiledCircuit compileQMLCircuit(List<Double> features, double[] weights, String circuitType) {
         logger.debug("Building QML circuit of type: {}", circuitType);
         
         int numQubits = features.size();
-        QuantumCircuit circuit = new QuantumCircuit();
-        circuit.setId(UUID.randomUUID().toString());
-        circuit.setNumQubits(numQubits);
-        circuit.setGates(new ArrayList<>());
+        CompiledCircuit circuit = new CompiledCircuit(numQubits);
         
         switch (circuitType.toLowerCase()) {
             case "angle_encoding":
@@ -164,30 +184,33 @@ public class QuantumCircuitBuilder {
         
         // Measurements
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("MEASURE", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_MEASURE, i);
         }
         
-        circuit.setDepth(calculateCircuitDepth(circuit));
-        return circuit;
+        return finish(circuit);
     }
     
     /**
      * Build Quantum Simulation circuit
      */
     public QuantumCircuit buildSimulationCircuit(String hamiltonian, double time, int trotterSteps) {
+        return compileSimulationCircuit(hamiltonian, time, trotterSteps).toCircuit(null);
+    }
+    
+    /**
+     * Compile Quantum Simulation circuit
+     */
+    public CompiledCircuit compileSimulationCircuit(String hamiltonian, double time, int trotterSteps) {
         logger.debug("Building simulation circuit for Hamiltonian: {}", hamiltonian);
         
         // Parse Hamiltonian and determine number of qubits
         int numQubits = parseHamiltonianQubits(hamiltonian);
         
-        QuantumCircuit circuit = new QuantumCircuit();
-        circuit.setId(UUID.randomUUID().toString());
-        circuit.setNumQubits(numQubits);
-        circuit.setGates(new ArrayList<>());
+        CompiledCircuit circuit = new CompiledCircuit(numQubits);
         
         // Initial state preparation
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_H, i);
         }
         
         // Trotter decomposition
@@ -198,28 +221,31 @@ public class QuantumCircuitBuilder {
         
         // Measurements
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("MEASURE", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_MEASURE, i);
         }
         
-        circuit.setDepth(calculateCircuitDepth(circuit));
-        return circuit;
+        return finish(circuit);
     }
     
     /**
      * Build Quantum Fourier Transform circuit
      */
     public QuantumCircuit buildQFTCircuit(int numQubits, boolean inverse) {
+        return compileQFTCircuit(numQubits, inverse).toCircuit(null);
+    }
+    
+    /**
+     * Compile Quantum Fourier Transform circuit
+     */
+    public CompiledCircuit compileQFTCircuit(int numQubits, boolean inverse) {
         logger.debug("Building {}QFT circuit with {} qubits", inverse ? "inverse " : "", numQubits);
         
-        QuantumCircuit circuit = new QuantumCircuit();
-        circuit.setId(UUID.randomUUID().toString());
-        circuit.setNumQubits(numQubits);
-        circuit.setGates(new ArrayList<>());
+        CompiledCircuit circuit = new CompiledCircuit(numQubits);
         
         if (!inverse) {
             // Forward QFT
             for (int i = 0; i < numQubits; i++) {
-                circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+                circuit.gate(CompiledCircuit.OP_H, i);
                 
                 for (int j = i + 1; j < numQubits; j++) {
                     double angle = Math.PI / Math.pow(2, j - i);
@@ -234,7 +260,7 @@ public class QuantumCircuitBuilder {
                     addControlledRotation(circuit, j, i, angle);
                 }
                 
-                circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+                circuit.gate(CompiledCircuit.OP_H, i);
             }
         }
         
@@ -243,45 +269,42 @@ public class QuantumCircuitBuilder {
             addSwapGate(circuit, i, numQubits - 1 - i);
         }
         
-        circuit.setDepth(calculateCircuitDepth(circuit));
-        return circuit;
+        return finish(circuit);
     }
     
     // Helper methods
     
-    private QuantumGate createGate(String type, List<Integer> qubits, double parameter) {
-        QuantumGate gate = new QuantumGate();
-        gate.setType(type);
-        gate.setQubits(qubits);
-        gate.setParameter(parameter);
-        return gate;
+    private CompiledCircuit finish(CompiledCircuit circuit) {
+        circuit.setId(UUID.randomUUID().toString());
+        circuit.setDepth(calculateCircuitDepth(circuit));
+        return circuit;
     }
     
-    private void addProblemHamiltonian(QuantumCircuit circuit, Map<String, Double> hamiltonian, double gamma) {
+    private void addProblemHamiltonian(CompiledCircuit circuit, Map<String, Double> hamiltonian, int gammaSlot) {
         for (Map.Entry<String, Double> term : hamiltonian.entrySet()) {
             String[] qubits = term.getKey().split(",");
-            double coefficient = term.getValue() * gamma;
+            double coefficient = term.getValue();
             
             if (qubits.length == 1) {
                 // Single qubit term
                 int qubit = Integer.parseInt(qubits[0].trim());
-                circuit.getGates().add(createGate("RZ", Arrays.asList(qubit), 2 * coefficient));
+                circuit.parameterizedGate(CompiledCircuit.OP_RZ, gammaSlot, 2 * coefficient, qubit);
             } else if (qubits.length == 2) {
                 // Two qubit term
                 int qubit1 = Integer.parseInt(qubits[0].trim());
                 int qubit2 = Integer.parseInt(qubits[1].trim());
-                circuit.getGates().add(createGate("ZZ", Arrays.asList(qubit1, qubit2), coefficient));
+                circuit.parameterizedGate(CompiledCircuit.OP_ZZ, gammaSlot, coefficient, qubit1, qubit2);
             }
         }
     }
     
-    private void addMixerHamiltonian(QuantumCircuit circuit, int numQubits, double beta) {
+    private void addMixerHamiltonian(CompiledCircuit circuit, int numQubits, int betaSlot) {
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("RX", Arrays.asList(i), 2 * beta));
+            circuit.parameterizedGate(CompiledCircuit.OP_RX, betaSlot, 2.0, i);
         }
     }
     
-    private void addGroverOracle(QuantumCircuit circuit, int numQubits, List<String> targetStates) {
+    private void addGroverOracle(CompiledCircuit circuit, int numQubits, List<String> targetStates) {
         // Simplified oracle - marks target states with phase flip
         for (String target : targetStates) {
             List<Integer> flipQubits = new ArrayList<>();
@@ -289,66 +312,64 @@ public class QuantumCircuitBuilder {
             // Prepare state for multi-controlled Z
             for (int i = 0; i < numQubits; i++) {
                 if (target.charAt(i) == '0') {
-                    circuit.getGates().add(createGate("X", Arrays.asList(i), 0.0));
+                    circuit.gate(CompiledCircuit.OP_X, i);
                     flipQubits.add(i);
                 }
             }
             
             // Multi-controlled Z gate
-            List<Integer> allQubits = IntStream.range(0, numQubits).boxed().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-            circuit.getGates().add(createGate("MCZ", allQubits, 0.0));
+            circuit.gate(CompiledCircuit.OP_MCZ, IntStream.range(0, numQubits).toArray());
             
             // Undo X gates
             for (int qubit : flipQubits) {
-                circuit.getGates().add(createGate("X", Arrays.asList(qubit), 0.0));
+                circuit.gate(CompiledCircuit.OP_X, qubit);
             }
         }
     }
     
-    private void addGroverDiffusion(QuantumCircuit circuit, int numQubits) {
+    private void addGroverDiffusion(CompiledCircuit circuit, int numQubits) {
         // Diffusion operator: 2|s⟩⟨s| - I
         
         // H gates
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_H, i);
         }
         
         // X gates
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("X", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_X, i);
         }
         
         // Multi-controlled Z
-        List<Integer> allQubits = IntStream.range(0, numQubits).boxed().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-        circuit.getGates().add(createGate("MCZ", allQubits, 0.0));
+        circuit.gate(CompiledCircuit.OP_MCZ, IntStream.range(0, numQubits).toArray());
         
         // X gates
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("X", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_X, i);
         }
         
         // H gates
         for (int i = 0; i < numQubits; i++) {
-            circuit.getGates().add(createGate("H", Arrays.asList(i), 0.0));
+            circuit.gate(CompiledCircuit.OP_H, i);
         }
     }
     
-    private void addDataEncoding(QuantumCircuit circuit, List<Double> inputData, int numQubits) {
+    private void addDataEncoding(CompiledCircuit circuit, List<Double> inputData, int numQubits) {
         // Angle encoding
         for (int i = 0; i < Math.min(inputData.size(), numQubits); i++) {
             double angle = inputData.get(i) * Math.PI; // Scale to [0, π]
-            circuit.getGates().add(createGate("RY", Arrays.asList(i), angle));
+            circuit.rotation(CompiledCircuit.OP_RY, angle, i);
         }
     }
     
-    private void addAngleEncoding(QuantumCircuit circuit, List<Double> features) {
+    private void addAngleEncoding(CompiledCircuit circuit, List<Double> features) {
         for (int i = 0; i < features.size(); i++) {
             double angle = features.get(i) * Math.PI;
-            circuit.getGates().add(createGate("RY", Arrays.asList(i), angle));
+            circuit.rotation(CompiledCircuit.OP_RY, angle, i);
         }
     }
     
-    private void addAmplitudeEncoding(QuantumCircuit circuit, List<Double> features) {
+    private void addAmplitudeEncoding(CompiledCircuit circuit, List<Double> features) {
         // Simplified amplitude encoding using rotation gates
         int numQubits = circuit.getNumQubits();
         
@@ -359,33 +380,33 @@ public class QuantumCircuitBuilder {
         // Use rotation gates to encode amplitudes
         for (int i = 0; i < Math.min(normalized.size(), numQubits); i++) {
             double angle = 2 * Math.asin(Math.abs(normalized.get(i)));
-            circuit.getGates().add(createGate("RY", Arrays.asList(i), angle));
+            circuit.rotation(CompiledCircuit.OP_RY, angle, i);
         }
     }
     
-    private void addBasisEncoding(QuantumCircuit circuit, List<Double> features) {
+    private void addBasisEncoding(CompiledCircuit circuit, List<Double> features) {
         // Binary encoding of features
         for (int i = 0; i < features.size(); i++) {
             if (features.get(i) > 0.5) { // Threshold at 0.5
-                circuit.getGates().add(createGate("X", Arrays.asList(i), 0.0));
+                circuit.gate(CompiledCircuit.OP_X, i);
             }
         }
     }
     
-    private void addVariationalLayer(QuantumCircuit circuit, double[] weights, int numQubits) {
+    private void addVariationalLayer(CompiledCircuit circuit, double[] weights, int numQubits) {
         int weightIndex = 0;
         
         // Rotation gates
         for (int i = 0; i < numQubits && weightIndex < weights.length; i++) {
-            circuit.getGates().add(createGate("RY", Arrays.asList(i), weights[weightIndex++]));
+            circuit.rotation(CompiledCircuit.OP_RY, weights[weightIndex++], i);
             if (weightIndex < weights.length) {
-                circuit.getGates().add(createGate("RZ", Arrays.asList(i), weights[weightIndex++]));
+                circuit.rotation(CompiledCircuit.OP_RZ, weights[weightIndex++], i);
             }
         }
         
         // Entangling gates
         for (int i = 0; i < numQubits - 1; i++) {
-            circuit.getGates().add(createGate("CNOT", Arrays.asList(i, i + 1), 0.0));
+            circuit.gate(CompiledCircuit.OP_CNOT, i, i + 1);
         }
     }
     
@@ -410,7 +431,7 @@ public class QuantumCircuitBuilder {
         return qubits.isEmpty() ? 1 : Collections.max(qubits) + 1;
     }
     
-    private void addTrotterStep(QuantumCircuit circuit, String hamiltonian, double stepTime) {
+    private void addTrotterStep(CompiledCircuit circuit, String hamiltonian, double stepTime) {
         // Simplified Trotter step - apply evolution for each Pauli term
         String[] terms = hamiltonian.split("\\+");
         
@@ -418,34 +439,34 @@ public class QuantumCircuitBuilder {
             String trimmed = term.trim();
             if (trimmed.startsWith("Z")) {
                 int qubit = Character.getNumericValue(trimmed.charAt(1));
-                circuit.getGates().add(createGate("RZ", Arrays.asList(qubit), 2 * stepTime));
+                circuit.rotation(CompiledCircuit.OP_RZ, 2 * stepTime, qubit);
             } else if (trimmed.startsWith("X")) {
                 int qubit = Character.getNumericValue(trimmed.charAt(1));
-                circuit.getGates().add(createGate("RX", Arrays.asList(qubit), 2 * stepTime));
+                circuit.rotation(CompiledCircuit.OP_RX, 2 * stepTime, qubit);
             } else if (trimmed.startsWith("Y")) {
                 int qubit = Character.getNumericValue(trimmed.charAt(1));
-                circuit.getGates().add(createGate("RY", Arrays.asList(qubit), 2 * stepTime));
+                circuit.rotation(CompiledCircuit.OP_RY, 2 * stepTime, qubit);
             }
         }
     }
     
-    private void addControlledRotation(QuantumCircuit circuit, int control, int target, double angle) {
+    private void addControlledRotation(CompiledCircuit circuit, int control, int target, double angle) {
         // Implement controlled rotation using decomposition
-        circuit.getGates().add(createGate("RZ", Arrays.asList(target), angle / 2));
-        circuit.getGates().add(createGate("CNOT", Arrays.asList(control, target), 0.0));
-        circuit.getGates().add(createGate("RZ", Arrays.asList(target), -angle / 2));
-        circuit.getGates().add(createGate("CNOT", Arrays.asList(control, target), 0.0));
+        circuit.rotation(CompiledCircuit.OP_RZ, angle / 2, target);
+        circuit.gate(CompiledCircuit.OP_CNOT, control, target);
+        circuit.rotation(CompiledCircuit.OP_RZ, -angle / 2, target);
+        circuit.gate(CompiledCircuit.OP_CNOT, control, target);
     }
     
-    private void addSwapGate(QuantumCircuit circuit, int qubit1, int qubit2) {
+    private void addSwapGate(CompiledCircuit circuit, int qubit1, int qubit2) {
         // SWAP = CNOT(1,2) + CNOT(2,1) + CNOT(1,2)
-        circuit.getGates().add(createGate("CNOT", Arrays.asList(qubit1, qubit2), 0.0));
-        circuit.getGates().add(createGate("CNOT", Arrays.asList(qubit2, qubit1), 0.0));
-        circuit.getGates().add(createGate("CNOT", Arrays.asList(qubit1, qubit2), 0.0));
+        circuit.gate(CompiledCircuit.OP_CNOT, qubit1, qubit2);
+        circuit.gate(CompiledCircuit.OP_CNOT, qubit2, qubit1);
+        circuit.gate(CompiledCircuit.OP_CNOT, qubit1, qubit2);
     }
     
-    private int calculateCircuitDepth(QuantumCircuit circuit) {
+    private int calculateCircuitDepth(CompiledCircuit circuit) {
         // Simplified depth calculation - count layers
-        return circuit.getGates().size(); // Simplified - assumes serial execution
+        return circuit.size(); // Simplified - assumes serial execution
     }
 }
\ No newline at end of file
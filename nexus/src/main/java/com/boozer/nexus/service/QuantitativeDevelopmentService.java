@@ -11,7 +11,9 @@ import com.boozer.nexus.dto.RiskAnalysisResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -44,6 +46,19 @@ public class QuantitativeDevelopmentService {
                 problemSpace.put("strategy", request.getStrategy());
                 problemSpace.put("parameters", request.getParameters());
                 
+                // Candidate sub-strategies with return and covariance estimates are chosen as a selection QUBO
+                Map<String, Object> parameters = request.getParameters();
+                if (parameters != null && parameters.get("strategy_returns") instanceof List
+                        && parameters.get("strategy_covariance") instanceof List) {
+                    double[] returns = toVector((List<?>) parameters.get("strategy_returns"));
+                    problemSpace.put("qubo", selectionQubo(returns,
+                        toMatrix((List<?>) parameters.get("strategy_covariance"), returns.length),
+                        number(parameters.get("risk_aversion"), 1.0),
+                        (int) number(parameters.get("max_strategies"), Math.max(1, returns.length / 2))));
+                    problemSpace.put("method", parameters.getOrDefault("optimizer", QuantumInspiredEngine.METHOD_BIFURCATION));
+                    problemSpace.put("seed", parameters.get("seed"));
+                }
+                
                 // Quantum optimization for trade execution
                 Map<String, Object> optimizationResult = quantumEngine.quantumOptimize(problemSpace).get();
                 
@@ -118,6 +133,12 @@ public class QuantitativeDevelopmentService {
                 // Calculate comprehensive risk metrics
                 Map<String, Object> metrics = calculateAdvancedRiskMetrics(monteCarloResults, scenarios);
                 
+                // Mean-variance asset selection when return and covariance estimates are supplied
+                Map<String, Object> selection = optimizePortfolioSelection(request);
+                if (selection != null) {
+                    metrics.put("portfolio_selection", selection);
+                }
+                
                 return new RiskAnalysisResult(
                     true,
                     "Portfolio risk analysis completed successfully",
@@ -210,6 +231,108 @@ public class QuantitativeDevelopmentService {
     
     // Helper methods
     
+    /**
+     * Choose which portfolio assets to hold by minimising q·xᵀΣx − μᵀx subject to
+     * holding max_assets of them; null unless expected_returns and covariance are given
+     */
+    private Map<String, Object> optimizePortfolioSelection(PortfolioRiskRequest request) throws Exception {
+        Map<String, Object> parameters = request.getParameters();
+        List<PortfolioRiskRequest.PortfolioAsset> portfolio = request.getPortfolio();
+        if (parameters == null || portfolio == null || portfolio.isEmpty()
+                || !(parameters.get("expected_returns") instanceof List) || !(parameters.get("covariance") instanceof List)) {
+            return null;
+        }
+        double[] returns = toVector((List<?>) parameters.get("expected_returns"));
+        if (returns.length != portfolio.size()) {
+            throw new IllegalArgumentException("Expected " + portfolio.size() + " expected returns, got " + returns.length);
+        }
+        
+        Map<String, Object> problem = new HashMap<>();
+        problem.put("type", "portfolio_selection");
+        problem.put("qubo", selectionQubo(returns, toMatrix((List<?>) parameters.get("covariance"), returns.length),
+            number(parameters.get("risk_aversion"), 1.0),
+            (int) number(parameters.get("max_assets"), Math.max(1, returns.length / 2))));
+        problem.put("method", parameters.getOrDefault("optimizer", QuantumInspiredEngine.METHOD_BIFURCATION));
+        problem.put("seed", parameters.get("seed"));
+        Map<String, Object> result = quantumEngine.quantumOptimize(problem).get();
+        if (!"SUCCESS".equals(result.get("status"))) {
+            throw new RuntimeException(String.valueOf(result.get("message")));
+        }
+        
+        Object optimizedValue = result.get("optimized_solution");
+        Object solutionValue = optimizedValue instanceof Map ? ((Map<?, ?>) optimizedValue).get("solution") : null;
+        if (!(solutionValue instanceof Map)) {
+            throw new RuntimeException("Portfolio selection returned no solution");
+        }
+        Map<?, ?> optimized = (Map<?, ?>) optimizedValue;
+        Map<?, ?> solution = (Map<?, ?>) solutionValue;
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < portfolio.size(); i++) {
+            if (Integer.valueOf(1).equals(solution.get("x" + i))) {
+                selected.add(portfolio.get(i).getAsset());
+            }
+        }
+        Map<String, Object> selection = new HashMap<>();
+        selection.put("selected_assets", selected);
+        selection.put("objective", optimized.get("energy"));
+        selection.put("method", optimized.get("method"));
+        selection.put("solve_time_ms", optimized.get("solve_time_ms"));
+        return selection;
+    }
+    
+    /**
+     * Cardinality-constrained mean-variance selection as a QUBO over x0..x(n-1):
+     * q·xᵀΣx − μᵀx + λ(Σx − k)², with λ large enough that missing the target
+     * count by one always costs more than any single asset can gain
+     */
+    static Map<String, Double> selectionQubo(double[] returns, double[][] covariance, double riskAversion, int count) {
+        int n = returns.length;
+        double penalty = 0.0;
+        for (int i = 0; i < n; i++) {
+            double row = 0.0;
+            for (int j = 0; j < n; j++) {
+                row += Math.abs(covariance[i][j]);
+            }
+            penalty = Math.max(penalty, Math.abs(returns[i]) + riskAversion * row);
+        }
+        penalty = penalty > 0.0 ? penalty : 1.0;
+        
+        Map<String, Double> qubo = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            qubo.put("x" + i, riskAversion * covariance[i][i] - returns[i] + penalty * (1 - 2 * count));
+            for (int j = i + 1; j < n; j++) {
+                qubo.put("x" + i + ",x" + j, riskAversion * (covariance[i][j] + covariance[j][i]) + 2 * penalty);
+            }
+        }
+        return qubo;
+    }
+    
+    private static double[] toVector(List<?> values) {
+        double[] vector = new double[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = ((Number) values.get(i)).doubleValue();
+        }
+        return vector;
+    }
+    
+    private static double[][] toMatrix(List<?> rows, int n) {
+        if (rows.size() != n) {
+            throw new IllegalArgumentException("Covariance must be " + n + "x" + n + ", got " + rows.size() + " rows");
+        }
+        double[][] matrix = new double[n][];
+        for (int i = 0; i < n; i++) {
+            matrix[i] = toVector((List<?>) rows.get(i));
+            if (matrix[i].length != n) {
+                throw new IllegalArgumentException("Covariance row " + i + " has " + matrix[i].length + " entries, expected " + n);
+            }
+        }
+        return matrix;
+    }
+    
+    private static double number(Object value, double defaultValue) {
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+    
     private Map<String, Object> calculatePerformanceMetrics(Map<String, Object> executionResult) {
         Map<String, Object> metrics = new HashMap<>();
         // In a real implementation, this would calculate actual performance metrics
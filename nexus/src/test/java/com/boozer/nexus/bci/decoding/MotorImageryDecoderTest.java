@@ -0,0 +1,345 @@
+package com.boozer.nexus.bci.decoding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Decoding tests: the matrix kernels, the CSP generalised eigenproblem, LDA
+ * and its shrinkage, and CSP+LDA accuracy on synthetic motor-imagery EEG, in
+ * which imagining one side suppresses a mu rhythm mixed into every electrode.
+ *
+ * The latency and accuracy benchmark is opt-in:
+ * {@code -Dnexus.benchmark.bci.decoder.trials=200}.
+ */
+class MotorImageryDecoderTest {
+
+    private static final double RATE = 250.0;
+
+    @Test
+    @DisplayName("Jacobi eigenvectors and Cholesky solves are exact")
+    void matrixKernels() {
+        int n = 6;
+        Random random = new Random(1);
+        double[] a = randomSpd(n, random);
+        double[] original = a.clone();
+        double[] values = new double[n];
+        double[] vectors = new double[n * n];
+        Matrices.symmetricEigen(a, n, values, vectors);
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                double product = 0.0;
+                for (int j = 0; j < n; j++) {
+                    product += original[i * n + j] * vectors[j * n + k];
+                }
+                assertEquals(values[k] * vectors[i * n + k], product, 1e-9);
+            }
+        }
+
+        double[] l = original.clone();
+        Matrices.cholesky(l, n);
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = random.nextGaussian();
+        }
+        double[] x = b.clone();
+        Matrices.choleskySolve(l, n, x);
+        for (int i = 0; i < n; i++) {
+            double product = 0.0;
+            for (int j = 0; j < n; j++) {
+                product += original[i * n + j] * x[j];
+            }
+            assertEquals(b[i], product, 1e-9);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Matrices.cholesky(new double[] {1, 2, 2, 1}, 2));
+    }
+
+    @Test
+    @DisplayName("CSP filters solve the generalised eigenproblem")
+    void cspEigenproblem() {
+        int n = 6;
+        Random random = new Random(2);
+        double[] first = randomSpd(n, random);
+        double[] second = randomSpd(n, random);
+        CommonSpatialPatterns csp = CommonSpatialPatterns.fit(new double[][] {first, second}, n, 2);
+        assertEquals(4, csp.getFeatureCount());
+        for (int f = 0; f < 4; f++) {
+            double[] w = csp.getFilter(f);
+            double own = quadratic(first, w, n);
+            double both = own + quadratic(second, w, n);
+            assertEquals(1.0, both, 1e-4);
+            assertEquals(csp.getEigenvalue(f), own, 1e-4);
+        }
+        assertTrue(csp.getEigenvalue(0) >= csp.getEigenvalue(1));
+        assertTrue(csp.getEigenvalue(1) > csp.getEigenvalue(2));
+        assertTrue(csp.getEigenvalue(2) >= csp.getEigenvalue(3));
+
+        // Features from samples match features from their covariance
+        double[] data = new double[200 * n];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextGaussian();
+        }
+        double[] covariance = new double[n * n];
+        for (int t = 0; t < 200; t++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    covariance[i * n + j] += data[t * n + i] * data[t * n + j];
+                }
+            }
+        }
+        double[] fromData = new double[4];
+        double[] fromCovariance = new double[4];
+        csp.features(data, 0, 200, fromData);
+        csp.featuresFromCovariance(covariance, fromCovariance);
+        assertArrayEquals(fromCovariance, fromData, 1e-9);
+
+        assertEquals(12, CommonSpatialPatterns.fit(new double[][] {first, second, first}, n, 2).getFeatureCount());
+        assertThrows(IllegalArgumentException.class, () -> CommonSpatialPatterns.fit(new double[][] {first, second}, n, 4));
+    }
+
+    @Test
+    @DisplayName("LDA separates Gaussian classes and shrinks small samples")
+    void ldaAndShrinkage() {
+        Random random = new Random(3);
+        ShrinkageLda lda = new ShrinkageLda(2, 2);
+        for (int i = 0; i < 2000; i++) {
+            int label = i % 2;
+            lda.add(label, new double[] {(label == 0 ? -1.0 : 1.0) + random.nextGaussian(), 3.0 * random.nextGaussian()});
+        }
+        LinearTemplates templates = lda.compile(0.0);
+        // Fisher direction is along the first axis
+        double[] difference = new double[2];
+        for (int i = 0; i < 2; i++) {
+            difference[i] = templates.getWeights(1)[i] - templates.getWeights(0)[i];
+        }
+        assertEquals(0.0, difference[1] / difference[0], 0.05);
+        double[] posteriors = new double[2];
+        assertEquals(1, templates.classify(new double[] {2.0, 0.0}, posteriors));
+        assertEquals(1.0, posteriors[0] + posteriors[1], 1e-12);
+        assertTrue(posteriors[1] > 0.9);
+        assertEquals(-1.0, lda.getClassMean(0)[0], 0.1);
+
+        lda.compile(ShrinkageLda.AUTOMATIC);
+        double plenty = lda.getShrinkage();
+        ShrinkageLda few = new ShrinkageLda(20, 2);
+        for (int i = 0; i < 12; i++) {
+            double[] x = new double[20];
+            for (int j = 0; j < 20; j++) {
+                x[j] = random.nextGaussian();
+            }
+            few.add(i % 2, x);
+        }
+        few.compile(ShrinkageLda.AUTOMATIC);
+        assertTrue(plenty >= 0 && plenty < 0.1, "shrinkage " + plenty);
+        assertTrue(few.getShrinkage() > 0.5, "shrinkage " + few.getShrinkage());
+        assertThrows(IllegalStateException.class, () -> new ShrinkageLda(2, 3).compile(0.0));
+    }
+
+    @Test
+    @DisplayName("CSP + LDA decodes synthetic left/right imagery")
+    void decodesTwoClasses() {
+        EegSimulator eeg = new EegSimulator(8, 4);
+        MotorImageryDecoder decoder = new MotorImageryDecoder(8, 2, ShrinkageLda.AUTOMATIC);
+        assertFalse(decoder.isTrained());
+        assertThrows(IllegalStateException.class, () -> decoder.decode(new double[16], 0, 2, null));
+        String[] labels = {"LEFT", "RIGHT"};
+        for (int trial = 0; trial < 10; trial++) {
+            decoder.addTrial(labels[trial % 2], eeg.trial(trial % 2, 250), 0, 250);
+        }
+        decoder.train();
+        double early = accuracy(decoder, eeg, 2, 200);
+
+        // Calibration continues; retraining folds in the new trials
+        for (int trial = 10; trial < 120; trial++) {
+            decoder.addTrial(labels[trial % 2], eeg.trial(trial % 2, 250), 0, 250);
+        }
+        decoder.train();
+        double late = accuracy(decoder, eeg, 2, 200);
+
+        assertArrayEquals(labels, decoder.getLabels());
+        assertEquals(120, decoder.getTrialCount());
+        assertTrue(early > 0.8, "accuracy after 10 trials " + early);
+        assertTrue(late > 0.9, "accuracy after 120 trials " + late);
+        assertTrue(decoder.getTrainingAccuracy() > 0.9);
+        double[] posteriors = new double[2];
+        int decoded = decoder.decode(eeg.trial(1, 250), 0, 250, posteriors);
+        assertEquals(posteriors[decoded], Math.max(posteriors[0], posteriors[1]), 0.0);
+    }
+
+    @Test
+    @DisplayName("One-versus-rest CSP decodes three classes")
+    void decodesThreeClasses() {
+        EegSimulator eeg = new EegSimulator(12, 5);
+        MotorImageryDecoder decoder = new MotorImageryDecoder(12, 1, ShrinkageLda.AUTOMATIC);
+        String[] labels = {"LEFT", "RIGHT", "FEET"};
+        for (int trial = 0; trial < 150; trial++) {
+            decoder.addTrial(labels[trial % 3], eeg.trial(trial % 3, 250), 0, 250);
+        }
+        assertThrows(IllegalArgumentException.class, () -> decoder.addTrial("LEFT", new double[12 * 10], 0, 10));
+        decoder.train();
+        assertEquals(6, decoder.getFeatureCount());
+        double accuracy = accuracy(decoder, eeg, 3, 300);
+        assertTrue(accuracy > 0.8, "accuracy " + accuracy);
+    }
+
+    @Test
+    @DisplayName("A model snapshot stays whole when a retrain adds a class")
+    void snapshotAcrossRetrain() {
+        EegSimulator eeg = new EegSimulator(12, 7);
+        MotorImageryDecoder decoder = new MotorImageryDecoder(12, 1, ShrinkageLda.AUTOMATIC);
+        String[] labels = {"LEFT", "RIGHT", "FEET"};
+        for (int trial = 0; trial < 40; trial++) {
+            decoder.addTrial(labels[trial % 2], eeg.trial(trial % 2, 250), 0, 250);
+        }
+        MotorImageryDecoder.Model twoClasses = decoder.train();
+        assertSame(twoClasses, decoder.getModel());
+        for (int trial = 0; trial < 60; trial++) {
+            decoder.addTrial(labels[trial % 3], eeg.trial(trial % 3, 250), 0, 250);
+        }
+        MotorImageryDecoder.Model threeClasses = decoder.train();
+
+        double[] trial = eeg.trial(1, 250);
+        MotorImageryDecoder.Decoding before = twoClasses.classify(trial, 0, 250);
+        assertEquals(2, before.getPosteriors().length);
+        assertEquals(twoClasses.getFeatureCount(), before.getFeatures().length);
+        assertEquals(labels[before.getClassIndex()], before.getLabel());
+
+        MotorImageryDecoder.Decoding after = decoder.classify(trial, 0, 250);
+        assertEquals(3, after.getPosteriors().length);
+        assertEquals(threeClasses.getFeatureCount(), after.getFeatures().length);
+        assertEquals(after.getPosteriors()[after.getClassIndex()], after.getPosterior(), 0.0);
+        assertArrayEquals(labels, threeClasses.getLabels());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.bci.decoder.trials", matches = "\\d+")
+    @DisplayName("Decoder training time, decode latency and accuracy on 64 channels")
+    void benchmarkDecoder() {
+        int trials = Integer.getInteger("nexus.benchmark.bci.decoder.trials");
+        int channels = 64;
+        int frames = 250;
+        String[] labels = {"LEFT", "RIGHT", "FEET"};
+        EegSimulator eeg = new EegSimulator(channels, 6);
+        MotorImageryDecoder decoder = new MotorImageryDecoder(channels, 3, ShrinkageLda.AUTOMATIC);
+        double[][] calibration = new double[trials][];
+        for (int trial = 0; trial < trials; trial++) {
+            calibration[trial] = eeg.trial(trial % 3, frames);
+        }
+
+        long start = System.nanoTime();
+        for (int trial = 0; trial < trials; trial++) {
+            decoder.addTrial(labels[trial % 3], calibration[trial], 0, frames);
+        }
+        double addMicros = (System.nanoTime() - start) / 1e3 / trials;
+        start = System.nanoTime();
+        decoder.train();
+        double trainMillis = (System.nanoTime() - start) / 1e6;
+
+        int tests = 600;
+        double[][] test = new double[tests][];
+        for (int i = 0; i < tests; i++) {
+            test[i] = eeg.trial(i % 3, frames);
+        }
+        double[] posteriors = new double[3];
+        for (int i = 0; i < tests; i++) {
+            decoder.decode(test[i], 0, frames, posteriors);
+        }
+        int correct = 0;
+        start = System.nanoTime();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < tests; i++) {
+                correct += decoder.decode(test[i], 0, frames, posteriors) == i % 3 ? 1 : 0;
+            }
+        }
+        double decodeMicros = (System.nanoTime() - start) / 1e3 / (10 * tests);
+        System.out.printf("CSP+LDA, %d channels x %d frames, 3 classes, %d trials: %.0f us per trial added, "
+                + "%.1f ms to train (shrinkage %.3f), %.1f us per decode, accuracy %.1f%%%n",
+            channels, frames, trials, addMicros, trainMillis, decoder.getShrinkage(), decodeMicros,
+            100.0 * correct / (10 * tests));
+    }
+
+    private static double accuracy(MotorImageryDecoder decoder, EegSimulator eeg, int classes, int trials) {
+        int correct = 0;
+        for (int i = 0; i < trials; i++) {
+            correct += decoder.decode(eeg.trial(i % classes, 250), 0, 250, null) == i % classes ? 1 : 0;
+        }
+        return correct / (double) trials;
+    }
+
+    private static double quadratic(double[] matrix, double[] w, int n) {
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                sum += w[i] * matrix[i * n + j] * w[j];
+            }
+        }
+        return sum;
+    }
+
+    private static double[] randomSpd(int n, Random random) {
+        double[] m = new double[n * n];
+        for (int i = 0; i < m.length; i++) {
+            m[i] = random.nextGaussian();
+        }
+        double[] spd = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                for (int k = 0; k < n; k++) {
+                    spd[i * n + j] += m[i * n + k] * m[j * n + k];
+                }
+            }
+            spd[i * n + i] += 0.1;
+        }
+        return spd;
+    }
+
+    /**
+     * Band-limited EEG: one mu-rhythm source per class plus broadband noise
+     * sources, all mixed into every electrode by a fixed random matrix. Imagery
+     * of class k desynchronises (attenuates) source k.
+     */
+    private static final class EegSimulator {
+        private final int channels;
+        private final double[] mixing;
+        private final Random random;
+
+        EegSimulator(int channels, long seed) {
+            this.channels = channels;
+            this.random = new Random(seed);
+            this.mixing = new double[channels * channels];
+            for (int i = 0; i < mixing.length; i++) {
+                mixing[i] = random.nextGaussian();
+            }
+        }
+
+        double[] trial(int imagined, int frames) {
+            double[] sources = new double[channels];
+            double[] amplitude = new double[3];
+            double[] phase = new double[3];
+            for (int s = 0; s < 3; s++) {
+                amplitude[s] = (s == imagined ? 0.5 : 2.0) * Math.exp(0.2 * random.nextGaussian());
+                phase[s] = 2.0 * Math.PI * random.nextDouble();
+            }
+            double[] data = new double[frames * channels];
+            for (int t = 0; t < frames; t++) {
+                for (int s = 0; s < channels; s++) {
+                    sources[s] = s < 3
+                        ? amplitude[s] * Math.sin(2.0 * Math.PI * (9.0 + s) * t / RATE + phase[s]) + 0.3 * random.nextGaussian()
+                        : random.nextGaussian();
+                }
+                for (int c = 0; c < channels; c++) {
+                    double sum = 0.0;
+                    for (int s = 0; s < channels; s++) {
+                        sum += mixing[c * channels + s] * sources[s];
+                    }
+                    data[t * channels + c] = sum;
+                }
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.boozer.nexus.bci.dsp;
+
+import com.boozer.nexus.bci.signal.SignalRingBuffer;
+import com.boozer.nexus.bci.signal.SignalWindow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DSP pipeline tests: the real FFT against a direct DFT, Welch PSD scaling,
+ * band powers of known sinusoids, one-pass moments, FFT band-limiting, and
+ * features read straight from a ring window.
+ *
+ * The latency benchmark is opt-in: {@code -Dnexus.benchmark.bci.features.windows=20000}.
+ */
+class SpectralFeatureExtractorTest {
+
+    @Test
+    @DisplayName("The real FFT matches a direct DFT and inverts exactly")
+    void fftMatchesDft() {
+        Random random = new Random(1);
+        for (int n : new int[] {4, 8, 64, 512}) {
+            RealFft fft = new RealFft(n);
+            double[] signal = new double[n];
+            for (int i = 0; i < n; i++) {
+                signal[i] = random.nextGaussian();
+            }
+            double[] data = signal.clone();
+            fft.forward(data);
+            for (int k = 0; k <= n / 2; k++) {
+                double re = 0.0;
+                double im = 0.0;
+                for (int i = 0; i < n; i++) {
+                    re += signal[i] * Math.cos(2.0 * Math.PI * k * i / n);
+                    im -= signal[i] * Math.sin(2.0 * Math.PI * k * i / n);
+                }
+                if (k == 0) {
+                    assertEquals(re, data[0], 1e-9);
+                } else if (k == n / 2) {
+                    assertEquals(re, data[1], 1e-9);
+                } else {
+                    assertEquals(re, data[2 * k], 1e-9);
+                    assertEquals(im, data[2 * k + 1], 1e-9);
+                }
+            }
+            fft.inverse(data);
+            assertArrayEquals(signal, data, 1e-12);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new RealFft(12));
+    }
+
+    @Test
+    @DisplayName("Welch PSD peaks at the tone and integrates to the variance")
+    void welchScaling() {
+        double rate = 256.0;
+        double[] signal = new double[1024];
+        for (int i = 0; i < signal.length; i++) {
+            signal[i] = 3.0 + 2.0 * Math.sin(2.0 * Math.PI * 10.0 * i / rate);
+        }
+        WelchEstimator welch = new WelchEstimator(256, rate);
+        double[] psd = new double[welch.getBins()];
+        welch.estimate(signal, 0, signal.length, psd);
+        assertEquals(1.0, welch.getBinWidth(), 0.0);
+
+        int peak = 0;
+        double total = 0.0;
+        for (int k = 0; k < psd.length; k++) {
+            peak = psd[k] > psd[peak] ? k : peak;
+            total += psd[k] * welch.getBinWidth();
+        }
+        assertEquals(10, peak);
+        assertEquals(2.0, total, 0.02);
+        assertEquals(0.0, psd[0], 1e-6);
+    }
+
+    @Test
+    @DisplayName("Band powers split two tones between alpha and beta")
+    void bandPowers() {
+        double rate = 256.0;
+        int channels = 3;
+        int frames = 256;
+        double[] data = new double[channels * frames];
+        for (int i = 0; i < frames; i++) {
+            double alpha = 2.0 * Math.sin(2.0 * Math.PI * 10.5 * i / rate);
+            double beta = Math.sin(2.0 * Math.PI * 21.0 * i / rate + 0.3);
+            data[i * channels] = alpha;
+            data[i * channels + 1] = beta;
+            data[i * channels + 2] = alpha + beta;
+        }
+        SpectralFeatureExtractor extractor = new SpectralFeatureExtractor(channels, rate, frames);
+        assertEquals(128, extractor.getWelch().getSegmentLength());
+        extractor.extractInterleaved(data, 0, frames);
+
+        assertEquals(2.0, extractor.getBandPower(0, SpectralFeatures.ALPHA), 0.2);
+        assertEquals(0.0, extractor.getBandPower(0, SpectralFeatures.GAMMA), 1e-3);
+        assertEquals(0.5, extractor.getBandPower(1, SpectralFeatures.BETA), 0.03);
+        assertEquals(0.0, extractor.getBandPower(1, SpectralFeatures.ALPHA), 1e-3);
+        double total = 0.0;
+        for (int b = 0; b < 5; b++) {
+            total += extractor.getBandPower(2, b);
+        }
+        assertEquals(2.5, total, 0.1);
+
+        // A band narrower than a bin still receives its share
+        double[] psd = {0.0, 1.0, 0.0};
+        double[] out = new double[2];
+        SpectralFeatures.bandPowers(psd, 3, 4.0, new double[] {2.0, 3.0, 6.0}, out);
+        assertEquals(1.0, out[0], 1e-12);
+        assertEquals(3.0, out[1], 1e-12);
+    }
+
+    @Test
+    @DisplayName("One-pass moments agree with two-pass moments, even far from zero")
+    void moments() {
+        Random random = new Random(9);
+        double[] data = new double[200_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1e6 - Math.log(1.0 - random.nextDouble());
+        }
+        double[] out = new double[4];
+        SpectralFeatures.moments(data, 0, data.length, out);
+
+        double mean = 0.0;
+        for (double x : data) {
+            mean += x;
+        }
+        mean /= data.length;
+        double m2 = 0.0;
+        double m3 = 0.0;
+        double m4 = 0.0;
+        for (double x : data) {
+            double d = x - mean;
+            m2 += d * d;
+            m3 += d * d * d;
+            m4 += d * d * d * d;
+        }
+        m2 /= data.length;
+        m3 /= data.length;
+        m4 /= data.length;
+        assertEquals(mean, out[SpectralFeatures.MEAN], 1e-6);
+        assertEquals(m2, out[SpectralFeatures.VARIANCE], 1e-6);
+        assertEquals(m3 / Math.pow(m2, 1.5), out[SpectralFeatures.SKEWNESS], 1e-4);
+        assertEquals(m4 / (m2 * m2) - 3.0, out[SpectralFeatures.KURTOSIS], 1e-3);
+        // Exponential distribution: skewness 2, excess kurtosis 6
+        assertEquals(2.0, out[SpectralFeatures.SKEWNESS], 0.1);
+        assertEquals(6.0, out[SpectralFeatures.KURTOSIS], 1.0);
+    }
+
+    @Test
+    @DisplayName("The band filter keeps the motor band and drops slow drifts")
+    void bandFilter() {
+        double rate = 256.0;
+        int frames = 512;
+        double[] data = new double[2 * frames];
+        for (int i = 0; i < frames; i++) {
+            double slow = 3.0 * Math.sin(2.0 * Math.PI * 1.0 * i / rate);
+            double motor = Math.sin(2.0 * Math.PI * 16.0 * i / rate);
+            data[2 * i] = slow + motor;
+            data[2 * i + 1] = slow;
+        }
+        FftBandFilter filter = new FftBandFilter(frames, rate);
+        double[] out = new double[data.length];
+        filter.apply(data, out, 2, frames, 8.0, 30.0);
+        // Away from the window edges the motor tone is all that is left
+        for (int i = 128; i < frames - 128; i++) {
+            assertEquals(Math.sin(2.0 * Math.PI * 16.0 * i / rate), out[2 * i], 0.1);
+            assertEquals(0.0, out[2 * i + 1], 0.1);
+        }
+    }
+
+    @Test
+    @DisplayName("Ring windows give the same features as interleaved blocks")
+    void ringWindow() {
+        int channels = 4;
+        int frames = 64;
+        Random random = new Random(5);
+        double[] data = new double[channels * frames];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextGaussian();
+        }
+        SignalRingBuffer ring = new SignalRingBuffer(channels, 100);
+        ring.writeInterleaved(new double[channels * 100], 0, 100);
+        ring.writeInterleaved(data, 0, frames);
+        SignalWindow window = new SignalWindow();
+        assertTrue(ring.latest(frames, window));
+
+        SpectralFeatureExtractor fromBlock = new SpectralFeatureExtractor(channels, 256.0, frames);
+        SpectralFeatureExtractor fromRing = new SpectralFeatureExtractor(channels, 256.0, frames);
+        fromBlock.extractInterleaved(data, 0, frames);
+        fromRing.extract(window);
+        assertTrue(window.isValid());
+        for (int c = 0; c < channels; c++) {
+            for (int b = 0; b < 5; b++) {
+                assertEquals(fromBlock.getBandPower(c, b), fromRing.getBandPower(c, b), 1e-12);
+            }
+            for (int m = 0; m < 4; m++) {
+                assertEquals(fromBlock.getMoment(c, m), fromRing.getMoment(c, m), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.bci.features.windows", matches = "\\d+")
+    @DisplayName("Feature latency per 250 ms window on 64 channels")
+    void benchmarkLatency() {
+        int windows = Integer.getInteger("nexus.benchmark.bci.features.windows");
+        int channels = 64;
+        for (double rate : new double[] {256.0, 1000.0, 2000.0}) {
+            int frames = (int) (rate / 4);
+            SignalRingBuffer ring = new SignalRingBuffer(channels, 4 * frames);
+            Random random = new Random(3);
+            double[] block = new double[channels * frames];
+            for (int i = 0; i < block.length; i++) {
+                block[i] = random.nextGaussian() + Math.sin(i * 0.01);
+            }
+            ring.writeInterleaved(block, 0, frames);
+            SignalWindow window = new SignalWindow();
+            ring.latest(frames, window);
+            SpectralFeatureExtractor extractor = new SpectralFeatureExtractor(channels, rate, frames);
+            for (int w = 0; w < Math.min(windows, 2000); w++) {
+                extractor.extract(window);
+            }
+
+            long start = System.nanoTime();
+            double sink = 0.0;
+            for (int w = 0; w < windows; w++) {
+                extractor.extract(window);
+                sink += extractor.meanBandPower(SpectralFeatures.ALPHA);
+            }
+            double micros = (System.nanoTime() - start) / 1e3 / windows;
+            System.out.printf("Features, %d channels x %d samples (250 ms at %.0f Hz, %d-point Welch segments): "
+                    + "%.0f us per window (%.1f)%n",
+                channels, frames, rate, extractor.getWelch().getSegmentLength(), micros, sink > 0 ? 1.0 : 0.0);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.boozer.nexus.bci.dsp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming filter tests: designed responses, state carried across blocks,
+ * parallel channels against one-channel banks, the overlap-save FIR against
+ * direct convolution, glitch-free coefficient swaps, and allocation-free blocks.
+ *
+ * The throughput benchmark is opt-in: {@code -Dnexus.benchmark.bci.filters.seconds=20}.
+ */
+class StreamingFilterBankTest {
+
+    private static final double RATE = 256.0;
+
+    @Test
+    @DisplayName("Designs have the intended magnitude response")
+    void responses() {
+        double[] band = FilterDesign.bandPass(RATE, 8.0, 30.0);
+        assertEquals(20, band.length);
+        assertEquals(1.0, FilterDesign.magnitude(band, RATE, 15.0), 0.05);
+        assertEquals(Math.sqrt(0.5), FilterDesign.magnitude(band, RATE, 30.0), 0.05);
+        assertTrue(FilterDesign.magnitude(band, RATE, 1.0) < 0.01);
+        assertTrue(FilterDesign.magnitude(band, RATE, 100.0) < 0.02);
+
+        double[] notch = FilterDesign.notch(RATE, 50.0, 30.0);
+        assertTrue(FilterDesign.magnitude(notch, RATE, 50.0) < 1e-9);
+        assertTrue(FilterDesign.magnitude(notch, RATE, 40.0) > 0.95);
+
+        assertThrows(IllegalArgumentException.class, () -> FilterDesign.bandPass(RATE, 30.0, 8.0));
+        assertThrows(IllegalArgumentException.class, () -> FilterDesign.lowPass(RATE, 128.0));
+        assertEquals(65, FilterDesign.firBandPass(RATE, 8.0, 30.0, 64).length);
+    }
+
+    @Test
+    @DisplayName("Blocks of any size filter like one continuous signal")
+    void stateCarriesAcrossBlocks() {
+        int channels = 3;
+        int frames = 1000;
+        double[] sections = FilterDesign.cascade(FilterDesign.bandPass(RATE, 1.0, 40.0),
+            FilterDesign.notch(RATE, 50.0, 30.0));
+        double[] whole = randomSignal(channels * frames, 2);
+        double[][] split = new double[channels][frames];
+        for (int i = 0; i < frames; i++) {
+            for (int c = 0; c < channels; c++) {
+                split[c][i] = whole[i * channels + c];
+            }
+        }
+
+        new IirFilterBank(channels, sections).processInterleaved(whole, 0, frames);
+        IirFilterBank blocks = new IirFilterBank(channels, sections);
+        Random random = new Random(4);
+        for (int offset = 0; offset < frames; ) {
+            int length = Math.min(frames - offset, 1 + random.nextInt(50));
+            blocks.process(split, offset, length);
+            offset += length;
+        }
+        for (int i = 0; i < frames; i++) {
+            for (int c = 0; c < channels; c++) {
+                assertEquals(whole[i * channels + c], split[c][i], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Large blocks split across threads match one bank per channel")
+    void parallelChannels() {
+        int channels = 64;
+        int frames = 512;
+        double[] sections = FilterDesign.bandPass(RATE, 8.0, 30.0);
+        double[] data = randomSignal(channels * frames, 6);
+        double[] expected = data.clone();
+
+        new IirFilterBank(channels, sections).processInterleaved(data, 0, frames);
+        double[] channel = new double[frames];
+        for (int c = 0; c < channels; c++) {
+            for (int i = 0; i < frames; i++) {
+                channel[i] = expected[i * channels + c];
+            }
+            new IirFilterBank(1, sections).processInterleaved(channel, 0, frames);
+            for (int i = 0; i < frames; i++) {
+                assertEquals(channel[i], data[i * channels + c], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The notch removes line noise and keeps the rest")
+    void notchRemovesLineNoise() {
+        IirFilterBank line = new IirFilterBank(1, FilterDesign.notch(RATE, 50.0, 30.0));
+        IirFilterBank alpha = new IirFilterBank(1, FilterDesign.notch(RATE, 50.0, 30.0));
+        double[] noise = new double[1024];
+        double[] signal = new double[1024];
+        for (int i = 0; i < noise.length; i++) {
+            noise[i] = Math.sin(2.0 * Math.PI * 50.0 * i / RATE);
+            signal[i] = Math.sin(2.0 * Math.PI * 10.0 * i / RATE);
+        }
+        double[] original = signal.clone();
+        line.processInterleaved(noise, 0, noise.length);
+        alpha.processInterleaved(signal, 0, signal.length);
+        for (int i = 512; i < noise.length; i++) {
+            assertEquals(0.0, noise[i], 0.01);
+            assertEquals(original[i], signal[i], 0.02);
+        }
+    }
+
+    @Test
+    @DisplayName("Overlap-save FIR equals direct convolution, delayed by its latency")
+    void overlapSaveMatchesConvolution() {
+        int channels = 2;
+        int frames = 2000;
+        double[] taps = FilterDesign.firBandPass(RATE, 8.0, 30.0, 63);
+        OverlapSaveFir fir = new OverlapSaveFir(channels, taps);
+        assertEquals(128, fir.getFftSize());
+        assertEquals(66, fir.getLatency());
+
+        double[] input = randomSignal(channels * frames, 8);
+        double[] output = input.clone();
+        for (int offset = 0; offset < frames; offset += 37) {
+            fir.processInterleaved(output, offset * channels, Math.min(37, frames - offset));
+        }
+        int latency = fir.getLatency();
+        for (int n = 0; n < frames; n++) {
+            for (int c = 0; c < channels; c++) {
+                double expected = 0.0;
+                for (int k = 0; k < taps.length; k++) {
+                    int source = n - latency - k;
+                    expected += source >= 0 ? taps[k] * input[source * channels + c] : 0.0;
+                }
+                assertEquals(expected, output[n * channels + c], 1e-9);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> fir.setTaps(new double[10]));
+    }
+
+    @Test
+    @DisplayName("Swapping coefficients mid-stream causes no jump")
+    void hotSwapIsSmooth() {
+        double step = 2.0 * Math.PI * 10.0 / RATE;
+        IirFilterBank iir = new IirFilterBank(1, FilterDesign.bandPass(RATE, 8.0, 30.0), 6, 64);
+        OverlapSaveFir fir = new OverlapSaveFir(1, FilterDesign.firBandPass(RATE, 8.0, 30.0, 63));
+        double[] block = new double[32];
+        double previousIir = 0.0;
+        double previousFir = 0.0;
+        double largestIir = 0.0;
+        double largestFir = 0.0;
+        for (int b = 0; b < 100; b++) {
+            if (b == 40) {
+                iir.setCoefficients(FilterDesign.cascade(FilterDesign.bandPass(RATE, 4.0, 40.0),
+                    FilterDesign.notch(RATE, 50.0, 30.0)));
+                fir.setTaps(FilterDesign.firBandPass(RATE, 4.0, 40.0, 63));
+            }
+            for (int mode = 0; mode < 2; mode++) {
+                for (int i = 0; i < block.length; i++) {
+                    block[i] = Math.sin(step * (b * block.length + i));
+                }
+                if (mode == 0) {
+                    iir.processInterleaved(block, 0, block.length);
+                } else {
+                    fir.processInterleaved(block, 0, block.length);
+                }
+                for (int i = 0; i < block.length; i++) {
+                    // Both filters have settled by block 20; a 10 Hz tone moves at most `step` per sample
+                    if (b >= 20) {
+                        if (mode == 0) {
+                            largestIir = Math.max(largestIir, Math.abs(block[i] - previousIir));
+                        } else {
+                            largestFir = Math.max(largestFir, Math.abs(block[i] - previousFir));
+                        }
+                    }
+                    if (mode == 0) {
+                        previousIir = block[i];
+                    } else {
+                        previousFir = block[i];
+                    }
+                }
+            }
+            if (b == 40) {
+                assertTrue(iir.isFading());
+            }
+        }
+        assertFalse(iir.isFading());
+        assertTrue(largestIir < 1.3 * step, "IIR step " + largestIir);
+        assertTrue(largestFir < 1.3 * step, "FIR step " + largestFir);
+        assertThrows(IllegalArgumentException.class, () -> iir.setCoefficients(new double[35]));
+    }
+
+    @Test
+    @DisplayName("Steady-state blocks allocate nothing")
+    void noAllocation() {
+        int channels = 8;
+        int frames = 64;
+        IirFilterBank iir = new IirFilterBank(channels, FilterDesign.bandPass(RATE, 8.0, 30.0), 6, 64);
+        OverlapSaveFir fir = new OverlapSaveFir(channels, FilterDesign.firBandPass(RATE, 8.0, 30.0, 63));
+        double[] block = randomSignal(channels * frames, 10);
+        for (int b = 0; b < 1000; b++) {
+            iir.processInterleaved(block, 0, frames);
+            fir.processInterleaved(block, 0, frames);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int b = 0; b < 1000; b++) {
+            iir.processInterleaved(block, 0, frames);
+            fir.processInterleaved(block, 0, frames);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.bci.filters.seconds", matches = "\\d+")
+    @DisplayName("Filter throughput for 64 channels at 2 kHz")
+    void benchmarkThroughput() {
+        long seconds = Long.getLong("nexus.benchmark.bci.filters.seconds");
+        int channels = 64;
+        int cores = Math.min(Runtime.getRuntime().availableProcessors(), channels);
+        for (int frames : new int[] {32, 512}) {
+            double[] block = randomSignal(channels * frames, 12);
+            IirFilterBank iir = new IirFilterBank(channels, FilterDesign.cascade(
+                FilterDesign.bandPass(2000.0, 1.0, 40.0), FilterDesign.notch(2000.0, 50.0, 30.0)));
+            OverlapSaveFir fir = new OverlapSaveFir(channels, FilterDesign.firBandPass(2000.0, 1.0, 40.0, 257));
+            long blocks = seconds * 2000 / frames;
+            // Parallel blocks use every core; small blocks stay on one
+            int used = (long) channels * frames < ChannelParallel.PARALLEL_THRESHOLD ? 1 : cores;
+            for (int pass = 0; pass < 2; pass++) {
+                for (long b = 0; b < Math.min(blocks, 5_000); b++) {
+                    iir.processInterleaved(block, 0, frames);
+                    fir.processInterleaved(block, 0, frames);
+                }
+                long start = System.nanoTime();
+                for (long b = 0; b < blocks; b++) {
+                    if (pass == 0) {
+                        iir.processInterleaved(block, 0, frames);
+                    } else {
+                        fir.processInterleaved(block, 0, frames);
+                    }
+                }
+                double elapsed = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%s, %d channels in %d-frame blocks: %.1f s of 2 kHz signal in %.3f s, "
+                        + "%.1f M samples/s per core (%d cores)%n",
+                    pass == 0 ? "IIR 5 biquads" : "FIR 257 taps, overlap-save", channels, frames,
+                    (double) seconds, elapsed, blocks * frames * channels / elapsed / 1e6 / used, used);
+            }
+        }
+    }
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextGaussian();
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,196 @@
+package com.boozer.nexus.bci.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Session scheduler tests: periodic cadence, more sessions than workers, wakes
+ * merged while queued or running, round-robin fairness, cancellation and
+ * failing tasks.
+ *
+ * The many-session benchmark is opt-in: {@code -Dnexus.benchmark.bci.scheduler.sessions=5000}.
+ */
+class SessionSchedulerTest {
+
+    @Test
+    @DisplayName("Periodic sessions run at their period")
+    void periodicCadence() throws InterruptedException {
+        SessionScheduler scheduler = new SessionScheduler("test", 2, 1, 10);
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledSession session = scheduler.schedule("cadence", 10, s -> runs.incrementAndGet());
+        Thread.sleep(505);
+        session.cancel();
+        int count = runs.get();
+        assertTrue(count >= 40 && count <= 51, count + " runs in 500 ms");
+        assertTrue(session.getMeanLagNanos() < TimeUnit.MILLISECONDS.toNanos(10), session.getMeanLagNanos() + " ns lag");
+
+        Thread.sleep(50);
+        assertEquals(count, runs.get());
+        assertEquals(0, scheduler.getSessionCount());
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Far more sessions than workers all get processed")
+    void moreSessionsThanWorkers() throws InterruptedException {
+        SessionScheduler scheduler = new SessionScheduler("test", 2, 1, 10);
+        int sessions = 500;
+        AtomicInteger[] runs = new AtomicInteger[sessions];
+        for (int i = 0; i < sessions; i++) {
+            AtomicInteger counter = new AtomicInteger();
+            runs[i] = counter;
+            scheduler.schedule("session-" + i, 20, s -> counter.incrementAndGet());
+        }
+        assertEquals(sessions, scheduler.getSessionCount());
+        Thread.sleep(300);
+        for (int i = 0; i < sessions; i++) {
+            assertTrue(runs[i].get() >= 5, "session " + i + " ran " + runs[i].get() + " times");
+        }
+        assertTrue(scheduler.getMaxLagNanos() < TimeUnit.MILLISECONDS.toNanos(20));
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Wakes while running queue exactly one more run")
+    void wakesMerge() throws InterruptedException {
+        SessionScheduler scheduler = new SessionScheduler("test", 1, 1, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledSession session = scheduler.register("data", s -> {
+            if (runs.incrementAndGet() == 1) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        session.wake();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            session.wake();
+        }
+        release.countDown();
+        Thread.sleep(100);
+        assertEquals(2, runs.get());
+        assertEquals(2, session.getRuns());
+        assertTrue(session.getLastLagNanos() >= 0);
+
+        session.wake();
+        Thread.sleep(50);
+        assertEquals(3, runs.get());
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Busy sessions share one worker in round robin")
+    void roundRobin() throws InterruptedException {
+        SessionScheduler scheduler = new SessionScheduler("test", 1, 1, 10);
+        int sessions = 20;
+        List<ScheduledSession> handles = new ArrayList<>();
+        long[] runs = new long[sessions];
+        // Hold the first run until every session is queued, so none starts ahead
+        CountDownLatch queued = new CountDownLatch(1);
+        for (int i = 0; i < sessions; i++) {
+            // Always has more data: wakes itself for another slice
+            handles.add(scheduler.register("busy-" + i, session -> {
+                awaitQuietly(queued);
+                session.wake();
+            }));
+        }
+        for (ScheduledSession handle : handles) {
+            handle.wake();
+        }
+        queued.countDown();
+        Thread.sleep(200);
+        // Shutdown stops every session at once, so the counts are one snapshot
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        for (int i = 0; i < sessions; i++) {
+            runs[i] = handles.get(i).getRuns();
+        }
+        long min = Arrays.stream(runs).min().getAsLong();
+        long max = Arrays.stream(runs).max().getAsLong();
+        assertTrue(min > 100, "only " + min + " runs");
+        assertTrue(max - min <= 1, "runs ranged from " + min + " to " + max);
+    }
+
+    @Test
+    @DisplayName("A failing task keeps its schedule")
+    void failingTask() throws InterruptedException {
+        SessionScheduler scheduler = new SessionScheduler("test", 1, 1, 10);
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledSession session = scheduler.schedule("failing", 5, s -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("simulated failure");
+        });
+        Thread.sleep(100);
+        assertTrue(runs.get() >= 5);
+        assertFalse(session.isCancelled());
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("fast", 0, s -> { }));
+        scheduler.shutdown();
+        assertTrue(session.isCancelled());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.bci.scheduler.sessions", matches = "\\d+")
+    @DisplayName("Processing lag for thousands of sessions on a few threads")
+    void benchmarkManySessions() throws InterruptedException {
+        int sessions = Integer.getInteger("nexus.benchmark.bci.scheduler.sessions");
+        int workers = 4;
+        SessionScheduler scheduler = new SessionScheduler("bench", workers, 1, 50);
+        List<ScheduledSession> handles = new ArrayList<>();
+        double[] sink = new double[sessions];
+        for (int i = 0; i < sessions; i++) {
+            int index = i;
+            // A few microseconds of quality assessment per slice
+            handles.add(scheduler.schedule("session-" + i, 50, s -> {
+                double sum = 0.0;
+                for (int k = 0; k < 500; k++) {
+                    sum += Math.sqrt(k + index);
+                }
+                sink[index] = sum;
+            }));
+        }
+        Thread.sleep(2_000);
+        long measureStart = System.nanoTime();
+        long[] runsBefore = handles.stream().mapToLong(ScheduledSession::getRuns).toArray();
+        Thread.sleep(5_000);
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+        long[] lags = handles.stream().mapToLong(ScheduledSession::getMeanLagNanos).sorted().toArray();
+        long maxLag = handles.stream().mapToLong(ScheduledSession::getMaxLagNanos).max().orElse(0);
+        long missed = handles.stream().mapToLong(ScheduledSession::getMissedTicks).sum();
+        long runs = 0;
+        for (int i = 0; i < sessions; i++) {
+            runs += handles.get(i).getRuns() - runsBefore[i];
+        }
+        scheduler.shutdown();
+        System.out.printf("%d sessions every 50 ms on %d workers: %.0f slices/s, mean lag p50 %.2f ms, "
+                + "p99 %.2f ms, max %.2f ms, %d missed ticks (%.1f)%n",
+            sessions, workers, runs / seconds, lags[lags.length / 2] / 1e6, lags[lags.length * 99 / 100] / 1e6,
+            maxLag / 1e6, missed, sink[0] > 0 ? 1.0 : 0.0);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.boozer.nexus.bci.signal;
+
+import com.boozer.nexus.bci.models.NeuralSignalBuffer;
+import com.boozer.nexus.bci.models.NeuralSignalData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sample ring tests: both write layouts across the wrap, in-place windows and
+ * their segments, rejection of overwritten frames, readers racing the producer,
+ * and the session buffer built on the ring.
+ *
+ * The ingest benchmark is opt-in: {@code -Dnexus.benchmark.bci.ring.seconds=600}.
+ */
+class SignalRingBufferTest {
+
+    @Test
+    @DisplayName("Frames come back by sequence through windows that wrap")
+    void windowsAcrossTheWrap() {
+        SignalRingBuffer ring = new SignalRingBuffer(3, 100);
+        assertEquals(128, ring.getCapacity());
+        SignalWindow window = new SignalWindow();
+        assertFalse(ring.latest(1, window));
+
+        double[] interleaved = new double[3 * 90];
+        double[][] channels = new double[3][90];
+        long sequence = 0;
+        for (int block = 0; block < 5; block++) {
+            for (int f = 0; f < 90; f++) {
+                for (int c = 0; c < 3; c++) {
+                    interleaved[f * 3 + c] = value(sequence + f, c);
+                    channels[c][f] = value(sequence + f, c);
+                }
+            }
+            sequence = block % 2 == 0 ? ring.writeInterleaved(interleaved, 0, 90) : ring.writeChannels(channels, 0, 90);
+            assertEquals(90L * (block + 1), sequence);
+        }
+        assertEquals(450, ring.getWriteSequence());
+        assertEquals(450 - 128, ring.getOldestSequence());
+        assertEquals(128, ring.size());
+
+        assertTrue(ring.latest(100, window));
+        assertEquals(350, window.getStart());
+        assertEquals(350 % 128, window.firstOffset());
+        assertEquals(100, window.firstLength() + window.secondLength());
+        assertTrue(window.secondLength() > 0);
+        double[] copy = new double[100];
+        for (int c = 0; c < 3; c++) {
+            window.copyChannel(c, copy, 0);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(value(350 + i, c), window.get(c, i), 0.0);
+                assertEquals(value(350 + i, c), copy[i], 0.0);
+            }
+            assertEquals(value(350, c), window.array(c)[window.firstOffset()], 0.0);
+            assertEquals(value(350 + window.firstLength(), c), window.array(c)[0], 0.0);
+        }
+        assertTrue(window.isValid());
+
+        // Overwritten or unwritten frames are refused
+        assertFalse(ring.view(450 - 129, 10, window));
+        assertFalse(ring.view(445, 10, window));
+        assertTrue(ring.view(450 - 128, 128, window));
+        assertThrows(IllegalArgumentException.class, () -> ring.writeInterleaved(new double[3 * 129], 0, 129));
+        assertThrows(IllegalArgumentException.class, () -> ring.writeInterleaved(new double[5], 0, 2));
+    }
+
+    @Test
+    @DisplayName("A window turns invalid once the producer laps it")
+    void lappedWindow() {
+        SignalRingBuffer ring = new SignalRingBuffer(1, 16);
+        ring.writeChannels(new double[][] {new double[16]}, 0, 16);
+        SignalWindow window = new SignalWindow();
+        assertTrue(ring.view(0, 8, window));
+        ring.writeChannels(new double[][] {new double[4]}, 0, 4);
+        assertFalse(window.isValid());
+        assertTrue(ring.view(4, 8, window));
+        assertTrue(window.isValid());
+    }
+
+    @Test
+    @DisplayName("A short channel array is rejected before any frame is claimed")
+    void shortChannel() {
+        SignalRingBuffer ring = new SignalRingBuffer(2, 16);
+        ring.writeChannels(new double[][] {new double[8], new double[8]}, 0, 8);
+        SignalWindow window = new SignalWindow();
+        assertTrue(ring.view(0, 8, window));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> ring.writeChannels(new double[][] {new double[16], new double[4]}, 0, 16));
+        assertThrows(IllegalArgumentException.class,
+            () -> ring.writeChannels(new double[][] {new double[8], new double[8]}, 4, 8));
+        assertEquals(8, ring.getWriteSequence());
+        assertTrue(window.isValid());
+    }
+
+    @Test
+    @DisplayName("Readers racing the producer never accept torn windows")
+    void concurrentReaders() throws Exception {
+        int channels = 8;
+        SignalRingBuffer ring = new SignalRingBuffer(channels, 512);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong torn = new AtomicLong();
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                SignalWindow window = new SignalWindow();
+                double[] copy = new double[256];
+                while (running.get()) {
+                    if (!ring.latest(256, window)) {
+                        continue;
+                    }
+                    window.copyChannel(channels - 1, copy, 0);
+                    double first = window.get(0, 0);
+                    if (!window.isValid()) {
+                        continue;
+                    }
+                    accepted.incrementAndGet();
+                    for (int i = 0; i < 256; i++) {
+                        if (copy[i] != value(window.getStart() + i, channels - 1)) {
+                            torn.incrementAndGet();
+                        }
+                    }
+                    if (first != value(window.getStart(), 0)) {
+                        torn.incrementAndGet();
+                    }
+                }
+            });
+            readers[r].start();
+        }
+
+        double[] block = new double[channels * 64];
+        long sequence = 0;
+        long deadline = System.nanoTime() + 500_000_000L;
+        while (System.nanoTime() < deadline || accepted.get() < 100) {
+            for (int f = 0; f < 64; f++) {
+                for (int c = 0; c < channels; c++) {
+                    block[f * channels + c] = value(sequence + f, c);
+                }
+            }
+            sequence = ring.writeInterleaved(block, 0, 64);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(0, torn.get());
+    }
+
+    @Test
+    @DisplayName("The session buffer splits interleaved electrode data into channels")
+    void sessionBuffer() {
+        NeuralSignalBuffer buffer = new NeuralSignalBuffer(2, 1000, 256.0);
+        assertEquals(1024, buffer.getRing().getCapacity());
+        buffer.addSignalData(new NeuralSignalData(new double[] {1, -1, 2, -2, 3, -3}, new String[] {"C3", "C4"}, 256.0));
+        buffer.addSignalData(new NeuralSignalData(new double[] {4, -4}, new String[] {"C3", "C4"}, 256.0));
+        assertEquals(4, buffer.getCurrentSize());
+
+        SignalWindow window = new SignalWindow();
+        assertTrue(buffer.getRecentSignals(3, window));
+        assertEquals(3, window.getLength());
+        assertEquals(2.0, window.get(0, 0), 0.0);
+        assertEquals(-4.0, window.get(1, 2), 0.0);
+        assertTrue(buffer.getRecentSignals(10, window));
+        assertEquals(4, window.getLength());
+        assertThrows(IllegalArgumentException.class,
+            () -> buffer.addSignalData(new NeuralSignalData(new double[3], new String[] {"C3"}, 256.0)));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.bci.ring.seconds", matches = "\\d+")
+    @DisplayName("Ingest rate for 64 channels at 2 kHz")
+    void benchmarkIngest() {
+        int channels = 64;
+        int frames = 32;
+        long seconds = Long.getLong("nexus.benchmark.bci.ring.seconds");
+        long blocks = seconds * 2000 / frames;
+        SignalRingBuffer ring = new SignalRingBuffer(channels, 8192);
+        double[] block = new double[channels * frames];
+        for (int k = 0; k < block.length; k++) {
+            block[k] = Math.sin(k);
+        }
+        SignalWindow window = new SignalWindow();
+        for (int b = 0; b < 10_000; b++) {
+            ring.writeInterleaved(block, 0, frames);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        double sink = 0.0;
+        for (long b = 0; b < blocks; b++) {
+            ring.writeInterleaved(block, 0, frames);
+            // A 250 ms feature window every 8 blocks
+            if ((b & 7) == 0 && ring.latest(500, window)) {
+                sink += window.get(channels - 1, 499);
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        System.out.printf("Ring ingest, %d channels x 2 kHz in %d-frame blocks: %.1f s of signal in %.3f s "
+                + "(%.0fx real time, %.1f M samples/s), %d bytes allocated (%.1f)%n",
+            channels, frames, (double) seconds, elapsed, seconds / elapsed, blocks * frames * channels / elapsed / 1e6,
+            allocated, sink);
+    }
+
+    private static double value(long sequence, int channel) {
+        return sequence * 100.0 + channel;
+    }
+}
@@ -0,0 +1,171 @@
+package com.boozer.nexus.neuromorphic.learning;
+
+import com.boozer.nexus.neuromorphic.network.SynapseMatrix;
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Trace-based STDP tests: agreement with the all-pairs STDP sum, the sign of the
+ * timing rule, weight bounds, episode resets and the homeostatic sweeps.
+ *
+ * The throughput benchmark is opt-in: {@code -Dnexus.benchmark.stdp.neurons=100000}.
+ */
+class StdpLearnerTest {
+
+    private static final double A_PLUS = 0.01;
+    private static final double A_MINUS = 0.012;
+    private static final double TAU_PLUS = 15.0;
+    private static final double TAU_MINUS = 25.0;
+
+    @Test
+    @DisplayName("Trace updates equal the all-pairs STDP sum")
+    void matchesPairSum() {
+        int n = 40;
+        Random random = new Random(6);
+        int edges = 300;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = random.nextInt(n);
+            post[e] = random.nextInt(n);
+            delay[e] = 1;
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+        StdpLearner learner = new StdpLearner(matrix, A_PLUS, A_MINUS, TAU_PLUS, TAU_MINUS);
+        learner.setMinWeight(-1e9);
+        learner.setMaxWeight(1e9);
+
+        // One spike per time step, so no pair is simultaneous
+        SpikeBuffer spikes = new SpikeBuffer();
+        List<List<Long>> trains = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            trains.add(new ArrayList<>());
+        }
+        long time = 0;
+        for (int s = 0; s < 600; s++) {
+            time += 1 + random.nextInt(4);
+            int neuron = random.nextInt(n);
+            spikes.add(time, neuron, 1.0);
+            trains.get(neuron).add(time);
+        }
+        learner.learn(spikes);
+        assertEquals(600, learner.getSpikesProcessed());
+
+        int[] rowOffsets = matrix.getRowOffsets();
+        for (int p = 0; p < n; p++) {
+            for (int k = rowOffsets[p]; k < rowOffsets[p + 1]; k++) {
+                double expected = 0.0;
+                for (long tPre : trains.get(p)) {
+                    for (long tPost : trains.get(matrix.getTargets()[k])) {
+                        if (tPost > tPre) {
+                            expected += A_PLUS * Math.exp(-(tPost - tPre) / TAU_PLUS);
+                        } else if (tPre > tPost) {
+                            expected -= A_MINUS * Math.exp(-(tPre - tPost) / TAU_MINUS);
+                        }
+                    }
+                }
+                expected *= SynapseMatrix.INITIAL_PLASTICITY;
+                assertEquals(expected, matrix.getWeights()[k], 1e-12, "synapse " + k);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pre-before-post potentiates, post-before-pre depresses, within bounds")
+    void timingRule() {
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(2,
+            new int[] {0, 1}, new int[] {1, 0}, new double[] {0.5, 0.5}, new int[] {1, 1}, 2);
+        StdpLearner learner = new StdpLearner(matrix);
+        learner.onSpike(0, 100);
+        learner.onSpike(1, 105);
+        double[] weights = matrix.getWeights();
+        assertTrue(weights[0] > 0.5, "0 -> 1 should be potentiated");
+        assertTrue(weights[1] < 0.5, "1 -> 0 should be depressed");
+
+        learner.setMaxWeight(0.501);
+        for (int t = 110; t < 200; t += 5) {
+            learner.onSpike(0, t);
+            learner.onSpike(1, t + 2);
+        }
+        assertEquals(0.501, weights[0], 1e-12);
+        assertTrue(learner.spikesPerSecond() > 0.0);
+    }
+
+    @Test
+    @DisplayName("An earlier spike starts a new episode with cleared traces")
+    void episodeReset() {
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(2,
+            new int[] {0}, new int[] {1}, new double[] {0.2}, new int[] {1}, 1);
+        StdpLearner learner = new StdpLearner(matrix);
+        learner.onSpike(0, 1000);
+        learner.onSpike(1, 10);
+        assertEquals(0.2, matrix.getWeights()[0], 1e-15);
+    }
+
+    @Test
+    @DisplayName("Homeostatic and metaplastic sweeps scale every synapse")
+    void sweeps() {
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(3,
+            new int[] {0, 1, 2}, new int[] {1, 2, 0}, new double[] {0.4, -0.6, 0.95}, new int[] {1, 2, 3}, 3);
+        StdpLearner learner = new StdpLearner(matrix);
+        learner.scaleWeights(1.1);
+        assertArrayEquals(new double[] {0.44, -0.66, 1.0}, matrix.getWeights(), 1e-12);
+
+        matrix.scalePlasticity(1.2);
+        assertEquals(0.6, matrix.meanPlasticity(), 1e-12);
+        matrix.scalePlasticity(10.0);
+        assertEquals(1.0, matrix.meanPlasticity(), 1e-12);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.stdp.neurons", matches = "\\d+")
+    @DisplayName("Learning throughput across network activity")
+    void benchmarkThroughput() {
+        int n = Integer.getInteger("nexus.benchmark.stdp.neurons");
+        int degree = Integer.getInteger("nexus.benchmark.stdp.degree", 100);
+        Random random = new Random(7);
+        int edges = n * degree;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = e / degree;
+            post[e] = random.nextInt(n);
+            weight[e] = random.nextGaussian() * 0.1;
+            delay[e] = 1;
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+
+        // One second of activity at increasing mean rates
+        for (double rate : new double[] {1.0, 5.0, 20.0, 50.0}) {
+            int count = (int) (n * rate);
+            SpikeBuffer spikes = new SpikeBuffer(count);
+            for (int s = 0; s < count; s++) {
+                spikes.add((long) s * 1000 / count, random.nextInt(n), 1.0);
+            }
+            StdpLearner learner = new StdpLearner(matrix);
+            learner.learn(spikes);
+            learner = new StdpLearner(matrix);
+            learner.learn(spikes);
+            double seconds = learner.getLearningNanos() / 1e9;
+            long start = System.nanoTime();
+            learner.scaleWeights(1.0001);
+            double sweepMs = (System.nanoTime() - start) / 1e6;
+            System.out.printf("STDP: %d neurons, %d synapses, %.0f Hz: %d spikes in %.1f ms, "
+                    + "%.0f spikes/s, %.1f ns per synapse update; scaling sweep %.2f ms%n",
+                n, edges, rate, count, seconds * 1e3, learner.spikesPerSecond(),
+                seconds * 1e9 / learner.getSynapsesUpdated(), sweepMs);
+        }
+    }
+}
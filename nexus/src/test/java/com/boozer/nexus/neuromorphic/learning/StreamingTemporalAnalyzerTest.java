@@ -0,0 +1,226 @@
+package com.boozer.nexus.neuromorphic.learning;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming temporal analysis tests: window statistics and bursts against a
+ * brute-force rescan, the dominant frequency of regular and Poisson trains, and
+ * resets when time runs backwards.
+ *
+ * The per-spike cost benchmark is opt-in: {@code -Dnexus.benchmark.temporal.spikes=1000000}.
+ */
+class StreamingTemporalAnalyzerTest {
+
+    @Test
+    @DisplayName("Window statistics and bursts match a rescan of the window")
+    void matchesRescan() {
+        StreamingTemporalAnalyzer analyzer = new StreamingTemporalAnalyzer(500, 5, 8, 3);
+        Random random = new Random(3);
+        List<long[]> spikes = new ArrayList<>();
+        long time = 0;
+        long now = 0;
+        for (int s = 0; s < 20_000; s++) {
+            // Mix of bursts, regular gaps and long pauses that empty the window
+            int kind = random.nextInt(20);
+            time += kind < 8 ? random.nextInt(6) : kind < 19 ? 10 + random.nextInt(60) : 600 + random.nextInt(400);
+            long amplitude = random.nextInt(1000);
+            spikes.add(new long[] {time, amplitude});
+            analyzer.onSpike(time, amplitude / 10.0);
+            // The window end never moves back, even when a spike arrives before it
+            now = Math.max(now, time);
+            if (s % 7 == 0) {
+                now += random.nextInt(300);
+                analyzer.advanceTo(now);
+            }
+            if (s % 13 == 0) {
+                assertWindow(analyzer, spikes, now, 500, 8, 3);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A regular train has its firing rate as dominant frequency")
+    void regularTrain() {
+        StreamingTemporalAnalyzer analyzer = new StreamingTemporalAnalyzer();
+        for (long t = 3; t < 3000; t += 25) {
+            analyzer.onSpike(t, 1.0);
+        }
+        assertEquals(40.0, analyzer.dominantFrequency(), 0.0);
+        assertEquals(40.0, analyzer.intervalRate(), 1e-9);
+        assertEquals(1.0, analyzer.regularity(), 1e-12);
+        assertEquals(-1.0, analyzer.burstiness(), 1e-12);
+        assertEquals(0, analyzer.getBurstCount());
+        double phase = analyzer.dominantPhase();
+        assertTrue(phase >= 0.0 && phase < 2.0 * Math.PI);
+
+        // The bank follows a change of rhythm within one window
+        for (long t = 3000; t < 5000; t += 100) {
+            analyzer.onSpike(t, 1.0);
+        }
+        assertEquals(10.0, analyzer.dominantFrequency(), 0.0);
+        assertEquals(10.0, analyzer.intervalRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Poisson spikes have no dominant oscillation")
+    void poissonTrain() {
+        StreamingTemporalAnalyzer analyzer = new StreamingTemporalAnalyzer();
+        Random random = new Random(8);
+        double time = 0.0;
+        while (time < 10_000) {
+            // 30 Hz
+            time += -Math.log(1.0 - random.nextDouble()) * 1000.0 / 30.0;
+            analyzer.onSpike((long) time, 1.0);
+        }
+        assertEquals(0.0, analyzer.dominantFrequency(), 0.0);
+        assertEquals(30.0, analyzer.intervalRate(), 8.0);
+        assertEquals(0.0, analyzer.burstiness(), 0.15);
+    }
+
+    @Test
+    @DisplayName("Time running backwards starts a new stream")
+    void backwardsReset() {
+        StreamingTemporalAnalyzer analyzer = new StreamingTemporalAnalyzer();
+        for (long t = 0; t < 100; t += 2) {
+            analyzer.onSpike(10_000 + t, 5.0);
+        }
+        assertEquals(1, analyzer.getBurstCount());
+        assertEquals(50, analyzer.getSpikeCount());
+
+        analyzer.onSpike(20, 1.0);
+        analyzer.onSpike(70, 3.0);
+        assertEquals(2, analyzer.getSpikeCount());
+        assertEquals(52, analyzer.getTotalSpikes());
+        assertEquals(50.0, analyzer.meanInterval(), 0.0);
+        assertEquals(3.0, analyzer.maxAmplitude(), 0.0);
+        assertEquals(0, analyzer.getBurstCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new StreamingTemporalAnalyzer(10, 5, 10, 3));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingTemporalAnalyzer(1000, 5, 10, 1));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.temporal.spikes", matches = "\\d+")
+    @DisplayName("Per-spike cost against re-analysing the window")
+    void benchmarkPerSpike() {
+        int spikes = Integer.getInteger("nexus.benchmark.temporal.spikes");
+        long[] times = new long[spikes];
+        Random random = new Random(2);
+        double time = 0.0;
+        for (int s = 0; s < spikes; s++) {
+            // A 2 kHz population stream: about 2000 spikes in the window
+            time += -Math.log(1.0 - random.nextDouble()) * 0.5;
+            times[s] = (long) time;
+        }
+
+        StreamingTemporalAnalyzer analyzer = new StreamingTemporalAnalyzer();
+        double sink = 0.0;
+        long start = System.nanoTime();
+        for (int s = 0; s < spikes; s++) {
+            analyzer.onSpike(times[s], 1.0);
+            sink += analyzer.intervalCv() + analyzer.dominantFrequency();
+        }
+        double streamNanos = (System.nanoTime() - start) / (double) spikes;
+
+        // Previous approach: rescan the window list after every spike
+        int rescans = Math.min(spikes, 100_000);
+        int first = 0;
+        start = System.nanoTime();
+        for (int s = 0; s < rescans; s++) {
+            while (times[first] <= times[s] - StreamingTemporalAnalyzer.DEFAULT_WINDOW) {
+                first++;
+            }
+            sink += rescanCv(times, first, s + 1);
+        }
+        double rescanNanos = (System.nanoTime() - start) / (double) rescans;
+
+        System.out.printf("Temporal analysis at 2 kHz, %d spikes: streaming %.0f ns/spike, window rescan "
+            + "(ISI only) %.0f ns/spike (%.1f)%n", spikes, streamNanos, rescanNanos, sink > 0 ? 1.0 : 0.0);
+    }
+
+    private static double rescanCv(long[] times, int from, int to) {
+        int intervals = to - from - 1;
+        if (intervals < 1) {
+            return 0.0;
+        }
+        double mean = (times[to - 1] - times[from]) / (double) intervals;
+        double variance = 0.0;
+        for (int k = from + 1; k < to; k++) {
+            double d = times[k] - times[k - 1] - mean;
+            variance += d * d;
+        }
+        return mean > 0 ? Math.sqrt(variance / intervals) / mean : 0.0;
+    }
+
+    private static void assertWindow(StreamingTemporalAnalyzer analyzer, List<long[]> spikes, long now,
+            long window, long burstInterval, int minBurst) {
+        List<long[]> inWindow = new ArrayList<>();
+        for (long[] spike : spikes) {
+            if (spike[0] > now - window) {
+                inWindow.add(spike);
+            }
+        }
+        assertEquals(inWindow.size(), analyzer.getSpikeCount());
+        if (inWindow.isEmpty()) {
+            assertEquals(0.0, analyzer.meanAmplitude(), 0.0);
+            assertEquals(0, analyzer.getBurstCount());
+            return;
+        }
+
+        long[] histogram = new long[analyzer.intervalHistogram().length];
+        double sum = 0.0;
+        double amplitudeSum = 0.0;
+        long max = Long.MIN_VALUE;
+        long min = Long.MAX_VALUE;
+        for (int k = 0; k < inWindow.size(); k++) {
+            long amplitude = inWindow.get(k)[1];
+            amplitudeSum += amplitude / 10.0;
+            max = Math.max(max, amplitude);
+            min = Math.min(min, amplitude);
+            if (k > 0) {
+                long interval = inWindow.get(k)[0] - inWindow.get(k - 1)[0];
+                sum += interval;
+                histogram[Math.min(histogram.length - 1, 64 - Long.numberOfLeadingZeros(interval))]++;
+            }
+        }
+        int intervals = inWindow.size() - 1;
+        double mean = intervals > 0 ? sum / intervals : 0.0;
+        double variance = 0.0;
+        for (int k = 1; k < inWindow.size(); k++) {
+            double d = inWindow.get(k)[0] - inWindow.get(k - 1)[0] - mean;
+            variance += d * d;
+        }
+        double cv = intervals > 0 && mean > 0 ? Math.sqrt(variance / intervals) / mean : 0.0;
+        assertEquals(mean, analyzer.meanInterval(), 1e-9);
+        assertEquals(cv, analyzer.intervalCv(), 1e-9);
+        assertArrayEquals(histogram, analyzer.intervalHistogram());
+        assertEquals(amplitudeSum / inWindow.size(), analyzer.meanAmplitude(), 1e-9);
+        assertEquals(max / 10.0, analyzer.maxAmplitude(), 0.0);
+        assertEquals(min / 10.0, analyzer.minAmplitude(), 0.0);
+        assertEquals(inWindow.get(inWindow.size() - 1)[0] - inWindow.get(0)[0], analyzer.span());
+
+        // Runs over the whole stream: a burst counts while its last spike is in the window
+        int bursts = 0;
+        int run = 1;
+        for (int k = 1; k <= spikes.size(); k++) {
+            boolean closes = k == spikes.size() || spikes.get(k)[0] - spikes.get(k - 1)[0] > burstInterval;
+            if (closes) {
+                if (run >= minBurst && spikes.get(k - 1)[0] > now - window) {
+                    bursts++;
+                }
+                run = 1;
+            } else {
+                run++;
+            }
+        }
+        assertEquals(bursts, analyzer.getBurstCount());
+    }
+}
@@ -0,0 +1,175 @@
+package com.boozer.nexus.neuromorphic.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Incremental activity statistics: window expiry, agreement of the running mean
+ * and variance with a full recomputation, and time running backwards.
+ *
+ * The comparison with per-neuron spike histories is opt-in:
+ * {@code -Dnexus.benchmark.activity.neurons=100000}.
+ */
+class ActivityStatisticsTest {
+
+    @Test
+    @DisplayName("Spikes leave the window bucket by bucket")
+    void windowExpiry() {
+        ActivityStatistics stats = new ActivityStatistics(4, 1000, 10);
+        stats.record(0, 0);
+        stats.record(0, 50);
+        stats.record(1, 450);
+        assertEquals(2.0, stats.rate(0), 1e-12);
+        assertEquals(2, stats.getActiveNeurons());
+        assertEquals(0.75, stats.meanRate(), 1e-12);
+
+        stats.advanceTo(1099);
+        assertEquals(0.0, stats.rate(0), 1e-12);
+        assertEquals(1.0, stats.rate(1), 1e-12);
+        assertEquals(1, stats.getActiveNeurons());
+
+        stats.advanceTo(5000);
+        assertEquals(0, stats.getActiveNeurons());
+        assertEquals(0.0, stats.meanRate(), 1e-12);
+        assertEquals(0.0, stats.rateVariance(), 1e-12);
+        assertEquals(3, stats.getTotalSpikes());
+
+        assertThrows(IllegalArgumentException.class, () -> new ActivityStatistics(4, 5, 10));
+    }
+
+    @Test
+    @DisplayName("Running mean and variance match a recomputation over the window")
+    void matchesRecomputation() {
+        int n = 300;
+        long window = 1000;
+        int buckets = 20;
+        long width = window / buckets;
+        ActivityStatistics stats = new ActivityStatistics(n, window, buckets);
+        Random random = new Random(8);
+        List<long[]> spikes = new ArrayList<>();
+        long time = 0;
+        for (int s = 0; s < 50_000; s++) {
+            time += random.nextInt(3);
+            int neuron = random.nextInt(10) < 7 ? random.nextInt(20) : random.nextInt(n);
+            stats.record(neuron, time);
+            spikes.add(new long[] {time, neuron});
+
+            if (s % 5000 == 4999) {
+                // Counted: spikes whose bucket is among the last `buckets` buckets
+                long oldest = Math.floorDiv(time, width) - buckets + 1;
+                int[] counts = new int[n];
+                for (long[] spike : spikes) {
+                    if (Math.floorDiv(spike[0], width) >= oldest) {
+                        counts[(int) spike[1]]++;
+                    }
+                }
+                double mean = 0.0;
+                int active = 0;
+                for (int count : counts) {
+                    mean += count;
+                    active += count > 0 ? 1 : 0;
+                }
+                mean /= n;
+                double variance = 0.0;
+                for (int count : counts) {
+                    variance += (count - mean) * (count - mean);
+                }
+                variance /= n;
+
+                assertEquals(active, stats.getActiveNeurons());
+                assertEquals(mean, stats.meanRate(), 1e-9);
+                assertEquals(variance, stats.rateVariance(), 1e-6 * Math.max(1.0, variance));
+                for (int i = 0; i < n; i++) {
+                    assertEquals(counts[i], stats.rate(i), 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A spike stamped before the current bucket counts in the current bucket")
+    void timeRunsBackwards() {
+        ActivityStatistics stats = new ActivityStatistics(2, 100, 4);
+        stats.record(0, 1_000);
+        stats.record(1, 10);
+        assertEquals(2, stats.getActiveNeurons());
+        stats.advanceTo(1_099);
+        assertEquals(2, stats.getActiveNeurons());
+        stats.advanceTo(1_100);
+        assertEquals(0, stats.getActiveNeurons());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.activity.neurons", matches = "\\d+")
+    @DisplayName("Incremental statistics against per-neuron histories and full rescans")
+    void benchmarkStateUpdate() {
+        int n = Integer.getInteger("nexus.benchmark.activity.neurons");
+        int seconds = 5;
+        double rate = 20.0;
+        int count = (int) (n * rate * seconds);
+        Random random = new Random(9);
+        long[] times = new long[count];
+        int[] neurons = new int[count];
+        for (int s = 0; s < count; s++) {
+            times[s] = (long) s * seconds * 1000 / count;
+            neurons[s] = random.nextInt(n);
+        }
+
+        ActivityStatistics stats = new ActivityStatistics(n, 1000, 10);
+        long start = System.nanoTime();
+        for (int s = 0; s < count; s++) {
+            stats.record(neurons[s], times[s]);
+        }
+        double incrementalMs = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        double sink = 0.0;
+        for (int q = 0; q < 1000; q++) {
+            sink += stats.meanRate() + stats.rateVariance() + stats.getActiveNeurons();
+        }
+        double readNs = (System.nanoTime() - start) / 1000.0;
+
+        // Previous scheme: a spike-time list per neuron, pruned with removeIf on every spike
+        List<List<Long>> histories = new ArrayList<>(n);
+        double[] rates = new double[n];
+        for (int i = 0; i < n; i++) {
+            histories.add(new ArrayList<>());
+        }
+        start = System.nanoTime();
+        for (int s = 0; s < count; s++) {
+            List<Long> history = histories.get(neurons[s]);
+            long now = times[s];
+            history.add(now);
+            history.removeIf(t -> now - t > 1000);
+            rates[neurons[s]] = history.size();
+        }
+        double historyMs = (System.nanoTime() - start) / 1e6;
+
+        // Previous state update: the mean is recomputed inside the variance map, O(N^2)
+        int sample = Math.min(n, 10_000);
+        start = System.nanoTime();
+        double variance = 0.0;
+        for (int i = 0; i < sample; i++) {
+            double avg = 0.0;
+            for (int j = 0; j < n; j++) {
+                avg += rates[j];
+            }
+            avg /= n;
+            variance += (rates[i] - avg) * (rates[i] - avg);
+        }
+        double quadraticMs = (System.nanoTime() - start) / 1e6 * n / sample;
+        assertTrue(sink > 0.0 && variance >= 0.0);
+
+        System.out.printf("Activity statistics, %d neurons, %d spikes: incremental %.1f ms (%.1f ns/spike), "
+                + "state read %.0f ns; spike histories %.1f ms (%.1f ns/spike); O(N^2) state update %.0f ms "
+                + "(est. from %d rows)%n",
+            n, count, incrementalMs, incrementalMs * 1e6 / count, readNs, historyMs, historyMs * 1e6 / count,
+            quadraticMs, sample);
+    }
+}
@@ -0,0 +1,223 @@
+package com.boozer.nexus.neuromorphic.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeded parallel generation and snapshot files: reproducibility across seeds
+ * and thread counts, connection statistics, exact round trips and checksum
+ * failures.
+ *
+ * The generation and restore benchmark is opt-in:
+ * {@code -Dnexus.benchmark.snapshot.neurons=20000}.
+ */
+class NetworkSnapshotTest {
+
+    @Test
+    @DisplayName("Random networks depend on the seed alone")
+    void seededGeneration() throws Exception {
+        SynapseMatrix first = SynapseMatrix.random(3000, 0.02, 42, 0.1, 5);
+        ForkJoinPool single = new ForkJoinPool(1);
+        SynapseMatrix sequential = single.submit(() -> SynapseMatrix.random(3000, 0.02, 42, 0.1, 5)).get();
+        single.shutdown();
+        assertMatrixEquals(first, sequential);
+
+        SynapseMatrix other = SynapseMatrix.random(3000, 0.02, 43, 0.1, 5);
+        assertNotEquals(first.size(), other.size());
+
+        // Erdos-Renyi without self-connections: n(n - 1)p synapses, sorted distinct targets
+        double expected = 3000.0 * 2999 * 0.02;
+        assertEquals(expected, first.size(), 5 * Math.sqrt(expected));
+        int[] offsets = first.getRowOffsets();
+        int[] targets = first.getTargets();
+        double sum = 0.0;
+        double squares = 0.0;
+        for (int i = 0; i < 3000; i++) {
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                assertNotEquals(i, targets[k]);
+                assertTrue(k == offsets[i] || targets[k] > targets[k - 1]);
+                assertTrue(first.getDelays()[k] >= 1 && first.getDelays()[k] <= 5);
+                sum += first.getWeights()[k];
+                squares += first.getWeights()[k] * first.getWeights()[k];
+            }
+        }
+        assertEquals(0.0, sum / first.size(), 0.005);
+        assertEquals(0.1, Math.sqrt(squares / first.size()), 0.005);
+        assertEquals(SynapseMatrix.INITIAL_PLASTICITY, first.meanPlasticity(), 1e-12);
+
+        assertEquals(0, SynapseMatrix.random(100, 0.0, 1, 0.1, 5).size());
+        assertEquals(100 * 99, SynapseMatrix.random(100, 1.0, 1, 0.1, 5).size());
+        assertThrows(IllegalArgumentException.class, () -> SynapseMatrix.random(10, 1.5, 1, 0.1, 5));
+    }
+
+    @Test
+    @DisplayName("A snapshot restores weights, plasticity and neuron state exactly")
+    void roundTrip() throws Exception {
+        NetworkSnapshot snapshot = sample(500, 0.05);
+        Path file = Files.createTempFile("nexus-snapshot", ".nxsn");
+        snapshot.write(file);
+
+        NetworkSnapshot restored = NetworkSnapshot.read(file);
+        assertEquals("small_world", restored.getTopologyType());
+        assertEquals(500, restored.getNeuronCount());
+        assertEquals(0.05, restored.getConnectivity(), 0.0);
+        assertTrue(restored.isPlasticityEnabled());
+        assertEquals(7L, restored.getSeed());
+        assertEquals("leaky_integrate_fire", restored.getNeuronType());
+        assertEquals(-70.0, restored.getRestingPotential(), 0.0);
+        assertEquals(-55.0, restored.getThreshold(), 0.0);
+        assertEquals(0.02, restored.getTimeConstant(), 0.0);
+        assertEquals(Map.of("refractory_period", 2.0), restored.getNeuronParameters());
+        assertMatrixEquals(snapshot.getSynapses(), restored.getSynapses());
+        assertEquals(snapshot.getSynapses().meanPlasticity(), restored.getSynapses().meanPlasticity(), 1e-12);
+        assertArrayEquals(snapshot.getMembranePotentials(), restored.getMembranePotentials(), 0.0);
+        assertArrayEquals(snapshot.getLastSpikeTimes(), restored.getLastSpikeTimes());
+        Files.delete(file);
+    }
+
+    @Test
+    @DisplayName("A corrupted section fails its checksum")
+    void checksumMismatch() throws Exception {
+        NetworkSnapshot snapshot = sample(200, 0.1);
+        Path file = Files.createTempFile("nexus-snapshot", ".nxsn");
+        snapshot.write(file);
+
+        // Flip one byte near the end, inside the last spike times
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = channel.size() - 5;
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0x10));
+            one.rewind();
+            channel.write(one, position);
+        }
+        IOException error = assertThrows(IOException.class, () -> NetworkSnapshot.read(file));
+        assertTrue(error.getMessage().contains("section 7"));
+        assertEquals(200, NetworkSnapshot.read(file, false).getNeuronCount());
+
+        Files.write(file, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> NetworkSnapshot.read(file));
+        Files.delete(file);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.snapshot.neurons", matches = "\\d+")
+    @DisplayName("Generation and restore time against the edge-list build")
+    void benchmarkRestore() throws Exception {
+        int n = Integer.getInteger("nexus.benchmark.snapshot.neurons");
+        double connectivity = 0.1;
+
+        double edgeListMs = edgeListBuildMs(n, connectivity);
+
+        long start = System.nanoTime();
+        SynapseMatrix matrix = SynapseMatrix.random(n, connectivity, 11, 0.1, 5);
+        double seededMs = (System.nanoTime() - start) / 1e6;
+
+        NetworkSnapshot snapshot = new NetworkSnapshot();
+        snapshot.setNeuronCount(n);
+        snapshot.setSynapses(matrix);
+        snapshot.setMembranePotentials(new double[n]);
+        snapshot.setLastSpikeTimes(new long[n]);
+        Path file = Files.createTempFile("nexus-snapshot", ".nxsn");
+        start = System.nanoTime();
+        snapshot.write(file);
+        double writeMs = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        NetworkSnapshot restored = NetworkSnapshot.read(file);
+        double readMs = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        NetworkSnapshot unchecked = NetworkSnapshot.read(file, false);
+        double uncheckedMs = (System.nanoTime() - start) / 1e6;
+        assertEquals(restored.getSynapses().size(), unchecked.getSynapses().size());
+
+        System.out.printf("Network build, %d neurons, %d synapses (%.0f MB snapshot) on %d cores: edge list %.0f ms, "
+                + "seeded parallel %.0f ms; snapshot write %.0f ms, restore %.0f ms (%.0f ms unverified)%n",
+            n, restored.getSynapses().size(), Files.size(file) / 1e6, Runtime.getRuntime().availableProcessors(),
+            edgeListMs, seededMs, writeMs, readMs, uncheckedMs);
+        Files.delete(file);
+    }
+
+    /**
+     * Previous build: N^2 * connectivity random pairs, then a counting sort into CSR
+     */
+    private static double edgeListBuildMs(int n, double connectivity) {
+        long start = System.nanoTime();
+        int pairs = (int) ((long) n * n * connectivity);
+        int[] pre = new int[pairs];
+        int[] post = new int[pairs];
+        double[] weights = new double[pairs];
+        int[] delays = new int[pairs];
+        int count = 0;
+        for (int e = 0; e < pairs; e++) {
+            int a = ThreadLocalRandom.current().nextInt(n);
+            int b = ThreadLocalRandom.current().nextInt(n);
+            if (a != b) {
+                pre[count] = a;
+                post[count] = b;
+                weights[count] = ThreadLocalRandom.current().nextGaussian() * 0.1;
+                delays[count] = (int) (ThreadLocalRandom.current().nextDouble() * 5.0 + 1.0);
+                count++;
+            }
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weights, delays, count);
+        assertEquals(count, matrix.size());
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static NetworkSnapshot sample(int n, double connectivity) {
+        SynapseMatrix matrix = SynapseMatrix.random(n, connectivity, 7, 0.1, 5);
+        // Learned state: weights and plasticity that differ from a fresh build
+        double[] weights = matrix.getWeights();
+        double[] plasticity = matrix.getPlasticity();
+        for (int k = 0; k < weights.length; k++) {
+            weights[k] += 0.01 * (k % 13);
+            plasticity[k] = (k % 7) / 7.0;
+        }
+        matrix.refreshPlasticity();
+
+        NetworkSnapshot snapshot = new NetworkSnapshot();
+        snapshot.setTopologyType("small_world");
+        snapshot.setNeuronCount(n);
+        snapshot.setConnectivity(connectivity);
+        snapshot.setPlasticityEnabled(true);
+        snapshot.setSeed(7);
+        snapshot.setNeuronType("leaky_integrate_fire");
+        snapshot.setRestingPotential(-70.0);
+        snapshot.setThreshold(-55.0);
+        snapshot.setTimeConstant(0.02);
+        snapshot.getNeuronParameters().put("refractory_period", 2.0);
+        snapshot.setSynapses(matrix);
+        double[] potentials = new double[n];
+        long[] lastSpikes = new long[n];
+        for (int i = 0; i < n; i++) {
+            potentials[i] = -70.0 + i * 0.01;
+            lastSpikes[i] = 1000L * i;
+        }
+        snapshot.setMembranePotentials(potentials);
+        snapshot.setLastSpikeTimes(lastSpikes);
+        return snapshot;
+    }
+
+    private static void assertMatrixEquals(SynapseMatrix expected, SynapseMatrix actual) {
+        assertEquals(expected.getNumNeurons(), actual.getNumNeurons());
+        assertArrayEquals(expected.getRowOffsets(), actual.getRowOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+        assertArrayEquals(expected.getWeights(), actual.getWeights(), 0.0);
+        assertArrayEquals(expected.getDelays(), actual.getDelays());
+        assertArrayEquals(expected.getPlasticity(), actual.getPlasticity(), 0.0);
+    }
+}
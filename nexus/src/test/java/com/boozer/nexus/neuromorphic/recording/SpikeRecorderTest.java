@@ -0,0 +1,268 @@
+package com.boozer.nexus.neuromorphic.recording;
+
+import com.boozer.nexus.neuromorphic.network.SynapseMatrix;
+import com.boozer.nexus.neuromorphic.simulator.ClockDrivenSimulator;
+import com.boozer.nexus.neuromorphic.simulator.NeuronParameters;
+import com.boozer.nexus.neuromorphic.simulator.SpikeBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spike-train file tests: round trip across blocks and mapped regions, time-range
+ * queries and counts against a brute-force scan, raster aggregation, reading a
+ * recording that was never closed, and recording straight from the simulator.
+ *
+ * The recording benchmark is opt-in: {@code -Dnexus.benchmark.spikes.recorder=100000000}.
+ */
+class SpikeRecorderTest {
+
+    @Test
+    @DisplayName("Spikes come back unchanged, and windows match a brute-force scan")
+    void roundTripAndQueries() throws Exception {
+        Path file = Files.createTempFile("nexus-spikes", ".nxsp");
+        Random random = new Random(12);
+        int count = 20_000;
+        long[] times = new long[count];
+        int[] neurons = new int[count];
+        long time = -50;
+        for (int s = 0; s < count; s++) {
+            int gap = random.nextInt(10);
+            time += gap < 6 ? 0 : gap < 9 ? 1 : random.nextInt(1_000_000);
+            times[s] = time;
+            neurons[s] = random.nextInt(4) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(500);
+        }
+        // Small blocks and regions, so the file spans many of both
+        try (SpikeRecorder recorder = new SpikeRecorder(file, 0.5, 256, 8)) {
+            for (int s = 0; s < count; s++) {
+                recorder.record(times[s], neurons[s]);
+            }
+            assertThrows(IllegalArgumentException.class, () -> recorder.record(times[count - 1] - 1, 0));
+            assertThrows(IllegalArgumentException.class, () -> recorder.record(times[count - 1], -1));
+        }
+        assertEquals(0, Files.size(file) % 256);
+
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            assertEquals(count, reader.getSpikeCount());
+            assertEquals(0.5, reader.getTimeStep(), 0.0);
+            assertEquals(times[0], reader.getFirstTime());
+            assertEquals(times[count - 1], reader.getLastTime());
+            assertTrue(reader.getBlockCount() > 8 * 4);
+
+            SpikeBuffer all = new SpikeBuffer();
+            assertEquals(count, reader.query(Long.MIN_VALUE, Long.MAX_VALUE, all));
+            for (int s = 0; s < count; s++) {
+                assertEquals(times[s], all.time(s));
+                assertEquals(neurons[s], all.neuron(s));
+            }
+
+            for (int q = 0; q < 300; q++) {
+                long from = times[random.nextInt(count)] + random.nextInt(3) - 1;
+                long to = from + (q % 3 == 0 ? 0 : random.nextInt(q % 2 == 0 ? 50 : 5_000_000));
+                int first = -1;
+                int expected = 0;
+                for (int s = 0; s < count; s++) {
+                    if (times[s] >= from && times[s] < to) {
+                        first = first < 0 ? s : first;
+                        expected++;
+                    }
+                }
+                SpikeBuffer window = new SpikeBuffer();
+                assertEquals(expected, reader.query(from, to, window));
+                assertEquals(expected, reader.count(from, to));
+                for (int k = 0; k < expected; k++) {
+                    assertEquals(times[first + k], window.time(k));
+                    assertEquals(neurons[first + k], window.neuron(k));
+                }
+            }
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    @DisplayName("Rasters and population counts bin spikes by neuron and time")
+    void rasterAggregation() throws Exception {
+        Path file = Files.createTempFile("nexus-spikes", ".nxsp");
+        try (SpikeRecorder recorder = new SpikeRecorder(file, 1.0)) {
+            recorder.record(0, 1);
+            recorder.record(3, 2);
+            recorder.record(4, 1);
+            recorder.record(4, 7);
+            recorder.record(9, 2);
+            recorder.record(10, 1);
+        }
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            int[][] raster = reader.raster(0, 10, 5, 1, 2);
+            assertArrayEquals(new int[] {2, 0}, raster[0]);
+            assertArrayEquals(new int[] {1, 1}, raster[1]);
+            assertArrayEquals(new long[] {4, 1, 1}, reader.populationCounts(0, 11, 5));
+            assertThrows(IllegalArgumentException.class, () -> reader.raster(0, 10, 0, 0, 1));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    @DisplayName("Sealed blocks of a recording that was never closed stay readable")
+    void unclosedRecording() throws Exception {
+        Path file = Files.createTempFile("nexus-spikes", ".nxsp");
+        SpikeRecorder recorder = new SpikeRecorder(file, 1.0, 256, 4);
+        for (int t = 0; t < 1000; t++) {
+            recorder.record(t, t % 100);
+        }
+        long sealed = recorder.getBlockCount();
+        assertTrue(sealed > 0);
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            assertEquals(sealed, reader.getBlockCount());
+            assertTrue(reader.getSpikeCount() < 1000);
+            assertEquals(reader.getSpikeCount(), reader.count(0, 1000));
+        }
+        recorder.flush();
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            assertEquals(1000, reader.count(0, 1000));
+            assertEquals(999, reader.getLastTime());
+        }
+        recorder.close();
+        assertThrows(IllegalStateException.class, () -> recorder.record(1000, 0));
+        Files.delete(file);
+    }
+
+    @Test
+    @DisplayName("Overlapping trains keep the file in time order and count what they drop")
+    void overlappingTrains() throws Exception {
+        Path file = Files.createTempFile("nexus-spikes", ".nxsp");
+        // The first train's delayed tail at 25 outlasts the second train's first outputs
+        long[] first = {10, 12, 25};
+        long[] second = {20, 22, 25, 30};
+        try (SpikeRecorder recorder = new SpikeRecorder(file, 1.0)) {
+            for (long time : first) {
+                assertTrue(recorder.offer(time, 1));
+            }
+            int recorded = 0;
+            for (long time : second) {
+                recorded += recorder.offer(time, 2) ? 1 : 0;
+            }
+            assertEquals(2, recorded);
+            assertEquals(5, recorder.getSpikeCount());
+            assertEquals(2, recorder.getDroppedCount());
+            assertThrows(IllegalArgumentException.class, () -> recorder.record(29, 3));
+        }
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            SpikeBuffer all = new SpikeBuffer();
+            assertEquals(5, reader.query(Long.MIN_VALUE, Long.MAX_VALUE, all));
+            long[] times = {10, 12, 25, 25, 30};
+            for (int k = 0; k < times.length; k++) {
+                assertEquals(times[k], all.time(k));
+            }
+            assertEquals(2, all.neuron(4));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    @DisplayName("The simulator records exactly the spikes it returns")
+    void simulatorRecording() throws Exception {
+        SynapseMatrix matrix = randomNetwork(300, 10, new Random(4));
+        NeuronParameters parameters = NeuronParameters.lif(-70.0, -55.0, 8.0);
+        SpikeBuffer inputs = drive(300, 500, new Random(5));
+
+        SpikeBuffer fired = new SpikeBuffer();
+        new ClockDrivenSimulator(matrix, parameters, 1.0).run(inputs, 500, fired);
+        assertTrue(fired.size() > 500);
+
+        Path file = Files.createTempFile("nexus-spikes", ".nxsp");
+        ClockDrivenSimulator simulator = new ClockDrivenSimulator(matrix, parameters, 1.0);
+        try (SpikeRecorder recorder = new SpikeRecorder(file, simulator.getTimeStep())) {
+            simulator.setRecorder(recorder);
+            assertEquals(fired.size(), simulator.run(inputs, 500, null));
+        }
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            SpikeBuffer recorded = new SpikeBuffer();
+            reader.query(0, 500, recorded);
+            assertEquals(fired.size(), recorded.size());
+            for (int k = 0; k < fired.size(); k++) {
+                assertEquals(fired.time(k), recorded.time(k));
+                assertEquals(fired.neuron(k), recorded.neuron(k));
+            }
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.spikes.recorder", matches = "\\d+")
+    @DisplayName("Recording and query throughput")
+    void benchmarkRecording() throws Exception {
+        long spikes = Long.getLong("nexus.benchmark.spikes.recorder");
+        int neurons = 100_000;
+        Path file = Files.createTempFile("nexus-spikes", ".nxsp");
+        Random random = new Random(6);
+        int[] ids = new int[1 << 16];
+        for (int k = 0; k < ids.length; k++) {
+            ids[k] = random.nextInt(neurons);
+        }
+        // About 20 Hz per neuron with 1 ms steps
+        long perStep = neurons / 50;
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        try (SpikeRecorder recorder = new SpikeRecorder(file, 1.0)) {
+            for (long s = 0; s < spikes; s++) {
+                recorder.record(s / perStep, ids[(int) (s & (ids.length - 1))]);
+            }
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+        long heapGrowth = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+
+        try (SpikeTrainReader reader = new SpikeTrainReader(file)) {
+            long end = reader.getLastTime() + 1;
+            start = System.nanoTime();
+            long scanned = reader.scan(0, end, (time, neuron) -> { });
+            double scanSeconds = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            long windowed = 0;
+            for (int q = 0; q < 1000; q++) {
+                long from = (long) (random.nextDouble() * end);
+                windowed += reader.count(from, from + 10);
+            }
+            double queryMicros = (System.nanoTime() - start) / 1e3 / 1000;
+            assertEquals(spikes, scanned);
+
+            System.out.printf("Spike recorder: %d spikes (%.1f simulated s at %d neurons), %.1f bytes/spike, "
+                    + "write %.1f M spikes/s (heap growth %d KiB), scan %.1f M spikes/s, "
+                    + "10 ms window query %.1f us (%d spikes)%n",
+                spikes, end / 1000.0, neurons, Files.size(file) / (double) spikes, spikes / writeSeconds / 1e6,
+                heapGrowth / 1024, scanned / scanSeconds / 1e6, queryMicros, windowed / 1000);
+        }
+        Files.delete(file);
+    }
+
+    private static SynapseMatrix randomNetwork(int n, int fanOut, Random random) {
+        int edges = n * fanOut;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = random.nextInt(n);
+            post[e] = random.nextInt(n);
+            weight[e] = 1.0 + random.nextDouble() * 3.0;
+            delay[e] = 1 + random.nextInt(5);
+        }
+        return SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+    }
+
+    private static SpikeBuffer drive(int n, int steps, Random random) {
+        SpikeBuffer inputs = new SpikeBuffer();
+        for (int t = 0; t < steps; t++) {
+            for (int s = 0; s < 3; s++) {
+                inputs.add(t, random.nextInt(n), 8.0 + random.nextDouble() * 10.0);
+            }
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,205 @@
+package com.boozer.nexus.neuromorphic.runtime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Actor runtime tests: the MPSC inbox under concurrent producers, one turn at a
+ * time per actor, bounded inbox rejection and re-entrant calls.
+ *
+ * The network-count scaling benchmark is opt-in: {@code -Dnexus.benchmark.actors=8}.
+ */
+class NetworkActorTest {
+
+    @Test
+    @DisplayName("Concurrent producers lose nothing and keep their own order")
+    void queueProducers() throws Exception {
+        MpscBoundedQueue<long[]> queue = new MpscBoundedQueue<>(1000);
+        assertEquals(1024, queue.capacity());
+        int producers = 4;
+        int perProducer = 100_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long id = p;
+            pool.execute(() -> {
+                for (long k = 0; k < perProducer; k++) {
+                    long[] element = {id, k};
+                    while (!queue.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        long[] next = new long[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] element = queue.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(next[(int) element[0]]++, element[1]);
+            received++;
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+
+        MpscBoundedQueue<String> small = new MpscBoundedQueue<>(2);
+        assertTrue(small.offer("a"));
+        assertTrue(small.offer("b"));
+        assertFalse(small.offer("c"));
+        assertEquals("a", small.poll());
+        assertTrue(small.offer("c"));
+    }
+
+    @Test
+    @DisplayName("An actor runs one message at a time on unsynchronised state")
+    void singleTurn() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int[] counter = new int[1];
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        NetworkActor<int[]> actor = new NetworkActor<>("counter", counter, executor, 64, 8);
+
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(callers.submit(() -> {
+                for (int k = 0; k < perThread; k++) {
+                    actor.call(state -> {
+                        if (inside.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        state[0]++;
+                        inside.decrementAndGet();
+                        return state[0];
+                    });
+                }
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        assertEquals(threads * perThread, (int) actor.call(state -> state[0]));
+        assertEquals(0, overlaps.get());
+        assertEquals(threads * perThread + 1, actor.getProcessedMessages());
+        callers.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("A full inbox rejects instead of blocking")
+    void boundedInbox() {
+        Deque<Runnable> pending = new ArrayDeque<>();
+        NetworkActor<StringBuilder> actor = new NetworkActor<>("log", new StringBuilder(), pending::add, 4, 2);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int k = 0; k < 4; k++) {
+            int value = k;
+            futures.add(actor.ask(state -> state.append(value).length()));
+        }
+        CompletableFuture<Integer> overflow = actor.ask(StringBuilder::length);
+        CompletionException rejected = assertThrows(CompletionException.class, overflow::join);
+        assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, actor.getRejectedMessages());
+        assertEquals(1, pending.size(), "one turn scheduled while the actor has mail");
+
+        // Each turn drains at most two messages and reschedules itself
+        pending.poll().run();
+        assertEquals(2, actor.getProcessedMessages());
+        assertFalse(futures.get(2).isDone());
+        pending.poll().run();
+        assertTrue(pending.isEmpty());
+        assertEquals(4, (int) futures.get(3).join());
+
+        CompletableFuture<Integer> failing = actor.ask(state -> {
+            throw new IllegalStateException("boom");
+        });
+        pending.poll().run();
+        assertTrue(failing.isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("A call made during the actor's own turn runs in place")
+    void reentrantCall() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<String> trace = new ArrayList<>();
+        NetworkActor<List<String>> actor = new NetworkActor<>("trace", trace, executor, 8, 4);
+        NetworkActor<List<String>> self = actor;
+        int size = actor.ask(state -> {
+            state.add("outer");
+            return self.call(inner -> {
+                inner.add("inner");
+                return inner.size();
+            });
+        }).get(10, TimeUnit.SECONDS);
+        assertEquals(2, size);
+        assertEquals(List.of("outer", "inner"), trace);
+        executor.shutdown();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.actors", matches = "\\d+")
+    @DisplayName("Throughput as the number of networks grows")
+    void benchmarkScaling() throws Exception {
+        int maxActors = Integer.getInteger("nexus.benchmark.actors");
+        int messages = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        throughput(executor, maxActors, messages);
+        for (int actors = 1; actors <= maxActors; actors *= 2) {
+            System.out.printf("Actors: %d networks on %d threads: %.0f messages/s%n",
+                actors, Runtime.getRuntime().availableProcessors(), throughput(executor, actors, messages));
+        }
+        executor.shutdown();
+    }
+
+    private static double throughput(ExecutorService executor, int actors, int messages) throws Exception {
+        List<NetworkActor<double[]>> group = new ArrayList<>();
+        for (int a = 0; a < actors; a++) {
+            group.add(new NetworkActor<>("net-" + a, new double[4096], executor, 1024, 16));
+        }
+        long start = System.nanoTime();
+        List<CompletableFuture<Double>> futures = new ArrayList<>();
+        for (int m = 0; m < messages; m++) {
+            NetworkActor<double[]> actor = group.get(m % actors);
+            CompletableFuture<Double> future;
+            while ((future = actor.ask(NetworkActorTest::work)).isCompletedExceptionally()) {
+                Thread.onSpinWait();
+            }
+            futures.add(future);
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(120, TimeUnit.SECONDS);
+        return messages / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * A membrane-update-sized piece of work on the actor's state
+     */
+    private static double work(double[] state) {
+        double sum = 0.0;
+        for (int i = 0; i < state.length; i++) {
+            state[i] = state[i] * 0.99 + 0.01;
+            sum += state[i];
+        }
+        return sum;
+    }
+}
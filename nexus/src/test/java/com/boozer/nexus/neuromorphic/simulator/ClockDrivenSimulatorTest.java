@@ -0,0 +1,235 @@
+package com.boozer.nexus.neuromorphic.simulator;
+
+import com.boozer.nexus.neuromorphic.network.SynapseMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clock-driven simulation tests: exact LIF leak, agreement with the event-driven
+ * path on small networks, identical results across partition counts, and AdEx
+ * spike-frequency adaptation.
+ *
+ * The real-time benchmark is opt-in: {@code -Dnexus.benchmark.snn.clock.neurons=1000000}.
+ */
+class ClockDrivenSimulatorTest {
+
+    @Test
+    @DisplayName("LIF potentials relax to rest with the exact exponential decay")
+    void lifDecay() {
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(2, new int[0], new int[0], new double[0], new int[0], 0);
+        NeuronParameters parameters = NeuronParameters.lif(-70.0, -55.0, 10.0);
+        ClockDrivenSimulator simulator = new ClockDrivenSimulator(matrix, parameters, 0.5);
+
+        SpikeBuffer inputs = new SpikeBuffer();
+        inputs.add(0, 1, 8.0);
+        SpikeBuffer fired = new SpikeBuffer();
+        assertEquals(0, simulator.run(inputs, 21, fired));
+        assertEquals(21, simulator.getCurrentStep());
+        assertEquals(-70.0, simulator.getPotentials()[0], 1e-12);
+        assertEquals(-70.0 + 8.0 * Math.exp(-20 * 0.5 / 10.0), simulator.getPotentials()[1], 1e-9);
+
+        SpikeBuffer late = new SpikeBuffer();
+        late.add(5, 0, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(late, 10, fired));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ClockDrivenSimulator(matrix, parameters, 0.0));
+    }
+
+    @Test
+    @DisplayName("A small LIF network fires exactly as on the event-driven path")
+    void matchesEventDriven() {
+        int n = 200;
+        Random random = new Random(3);
+        int edges = n * 8;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = random.nextInt(n);
+            post[e] = random.nextInt(n);
+            weight[e] = 2.0 + random.nextDouble() * 4.0;
+            delay[e] = 1 + random.nextInt(6);
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+        NeuronParameters parameters = NeuronParameters.lif(-70.0, -55.0, 8.0);
+        parameters.setRefractorySteps(2);
+
+        SpikeBuffer inputs = new SpikeBuffer();
+        for (int t = 0; t < 300; t++) {
+            for (int s = 0; s < 3; s++) {
+                inputs.add(t, random.nextInt(n), 6.0 + random.nextDouble() * 12.0);
+            }
+        }
+
+        SpikeBuffer clock = new SpikeBuffer();
+        ClockDrivenSimulator simulator = new ClockDrivenSimulator(matrix, parameters, 1.0);
+        simulator.run(inputs, 310, clock);
+
+        SpikeBuffer event = new SpikeBuffer();
+        EventDrivenPropagator propagator = new EventDrivenPropagator(matrix);
+        propagator.setMaxEvents(1_000_000);
+        propagator.run(inputs, lif(n, parameters), event);
+
+        int compared = 0;
+        for (int k = 0; k < event.size() && event.time(k) < 310; k++) {
+            compared++;
+        }
+        assertTrue(compared > 300, "network should be active");
+        assertEquals(compared, clock.size());
+        assertEquals(raster(event, compared), raster(clock, compared));
+    }
+
+    @Test
+    @DisplayName("Parallel partitions produce the same spikes as a single partition")
+    void partitionsAgree() {
+        int n = 70_000;
+        Random random = new Random(4);
+        int edges = n * 5;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = random.nextInt(n);
+            post[e] = random.nextInt(n);
+            weight[e] = random.nextGaussian() * 4.0 + 1.0;
+            delay[e] = 1 + random.nextInt(4);
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+        NeuronParameters parameters = NeuronParameters.adex(-65.0, -50.0, 10.0);
+        SpikeBuffer inputs = new SpikeBuffer();
+        for (int t = 0; t < 50; t++) {
+            for (int s = 0; s < 500; s++) {
+                inputs.add(t, random.nextInt(n), 20.0);
+            }
+        }
+
+        SpikeBuffer serial = new SpikeBuffer();
+        new ClockDrivenSimulator(matrix, parameters, 1.0, 1).run(inputs, 60, serial);
+        ClockDrivenSimulator parallel = new ClockDrivenSimulator(matrix, parameters, 1.0, 4);
+        assertEquals(4, parallel.getPartitions());
+        SpikeBuffer split = new SpikeBuffer();
+        parallel.run(inputs, 60, split);
+
+        assertTrue(serial.size() > 1000);
+        assertEquals(serial.size(), split.size());
+        assertEquals(raster(serial, serial.size()), raster(split, split.size()));
+    }
+
+    @Test
+    @DisplayName("AdEx neurons under constant drive slow down as adaptation builds")
+    void adexAdaptation() {
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(1, new int[0], new int[0], new double[0], new int[0], 0);
+        NeuronParameters parameters = NeuronParameters.adex(-70.0, -50.0, 20.0);
+        parameters.setAdaptationIncrement(3.0);
+        ClockDrivenSimulator simulator = new ClockDrivenSimulator(matrix, parameters, 0.1);
+
+        SpikeBuffer inputs = new SpikeBuffer();
+        for (int t = 0; t < 20_000; t++) {
+            inputs.add(t, 0, 0.15);
+        }
+        SpikeBuffer fired = new SpikeBuffer();
+        simulator.run(inputs, 20_000, fired);
+
+        assertTrue(fired.size() >= 4, "neuron should fire repeatedly");
+        long first = fired.time(1) - fired.time(0);
+        long last = fired.time(fired.size() - 1) - fired.time(fired.size() - 2);
+        assertTrue(last > first, "inter-spike interval should grow: " + first + " -> " + last);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.snn.clock.neurons", matches = "\\d+")
+    @DisplayName("Simulated time against wall-clock time")
+    void benchmarkRealTime() {
+        int n = Integer.getInteger("nexus.benchmark.snn.clock.neurons");
+        int degree = Integer.getInteger("nexus.benchmark.snn.clock.degree", 10);
+        int steps = Integer.getInteger("nexus.benchmark.snn.clock.steps", 1000);
+        Random random = new Random(5);
+        int edges = n * degree;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = e / degree;
+            post[e] = random.nextInt(n);
+            weight[e] = random.nextDouble() < 0.8 ? 0.5 : -2.0;
+            delay[e] = 1 + random.nextInt(5);
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+        pre = null;
+        post = null;
+
+        // Background drive: 1% of the neurons receive a kick every ms
+        SpikeBuffer inputs = new SpikeBuffer(n / 100 * steps);
+        for (int t = 0; t < steps; t++) {
+            for (int s = 0; s < n / 100; s++) {
+                inputs.add(t, random.nextInt(n), 8.0);
+            }
+        }
+        for (NeuronParameters parameters : new NeuronParameters[] {
+            NeuronParameters.lif(-70.0, -55.0, 20.0), NeuronParameters.adex(-70.0, -50.0, 20.0)}) {
+            parameters.setRefractorySteps(2);
+            ClockDrivenSimulator simulator = new ClockDrivenSimulator(matrix, parameters, 1.0);
+            SpikeBuffer fired = new SpikeBuffer(1 << 20);
+            long start = System.nanoTime();
+            long spikes = simulator.run(inputs, steps, fired);
+            double wallMs = (System.nanoTime() - start) / 1e6;
+            System.out.printf("Clock-driven %s: %d neurons, %d synapses, %d partitions: %d ms simulated in "
+                    + "%.0f ms wall (%.2fx real time), %d spikes (%.1f Hz)%n",
+                parameters.getModel(), n, edges, simulator.getPartitions(), steps, wallMs, steps / wallMs,
+                spikes, spikes * 1000.0 / steps / n);
+        }
+    }
+
+    /**
+     * Exact LIF with refractory clamp, as a target of the event-driven propagator
+     */
+    private static EventDrivenPropagator.SpikeTarget lif(int n, NeuronParameters parameters) {
+        double rest = parameters.getRestingPotential();
+        double decay = Math.exp(-1.0 / parameters.getMembraneTimeConstant());
+        double[] potential = new double[n];
+        long[] updated = new long[n];
+        long[] clampedUntil = new long[n];
+        Arrays.fill(potential, rest);
+        Arrays.fill(clampedUntil, Long.MIN_VALUE);
+        return (neuron, time, amplitude) -> {
+            if (time <= clampedUntil[neuron]) {
+                return false;
+            }
+            double v = rest + (potential[neuron] - rest) * Math.pow(decay, time - updated[neuron]) + amplitude;
+            updated[neuron] = time;
+            if (v >= parameters.getThreshold()) {
+                potential[neuron] = parameters.getResetPotential();
+                clampedUntil[neuron] = time + parameters.getRefractorySteps();
+                updated[neuron] = clampedUntil[neuron];
+                return true;
+            }
+            potential[neuron] = v;
+            return false;
+        };
+    }
+
+    /**
+     * Spikes as "time:neuron" sorted within each step, to compare across paths
+     */
+    private static String raster(SpikeBuffer spikes, int count) {
+        long[] keys = new long[count];
+        for (int k = 0; k < count; k++) {
+            keys[k] = spikes.time(k) << 32 | spikes.neuron(k);
+        }
+        Arrays.sort(keys);
+        StringBuilder raster = new StringBuilder();
+        for (long key : keys) {
+            raster.append(key >>> 32).append(':').append((int) key).append(' ');
+        }
+        return raster.toString();
+    }
+}
@@ -0,0 +1,249 @@
+package com.boozer.nexus.neuromorphic.simulator;
+
+import com.boozer.nexus.neuromorphic.network.SynapseMatrix;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Event-driven propagation tests: CSR construction, calendar queue ordering,
+ * delayed delivery along a chain, and agreement with a straightforward reference
+ * that scans every synapse per spike and orders events with a priority queue.
+ *
+ * The fan-out benchmark is opt-in: {@code -Dnexus.benchmark.snn.neurons=10000}.
+ */
+class EventDrivenPropagatorTest {
+
+    @Test
+    @DisplayName("Edges are grouped into CSR rows in their original order")
+    void csrRows() {
+        int[] pre = {2, 0, 2, 1, 0};
+        int[] post = {0, 1, 1, 2, 2};
+        double[] weight = {0.1, 0.2, 0.3, 0.4, 0.5};
+        int[] delay = {1, 2, 3, 4, 5};
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(3, pre, post, weight, delay, 5);
+
+        assertArrayEquals(new int[] {0, 2, 3, 5}, matrix.getRowOffsets());
+        assertArrayEquals(new int[] {1, 2, 2, 0, 1}, matrix.getTargets());
+        assertArrayEquals(new double[] {0.2, 0.5, 0.4, 0.1, 0.3}, matrix.getWeights());
+        assertArrayEquals(new int[] {2, 5, 4, 1, 3}, matrix.getDelays());
+        assertEquals(5, matrix.getMaxDelay());
+        assertEquals(2, matrix.outDegree(2));
+        assertEquals(SynapseMatrix.INITIAL_PLASTICITY, matrix.meanPlasticity(), 1e-12);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> SynapseMatrix.fromEdges(3, pre, post, weight, new int[] {1, 0, 1, 1, 1}, 5));
+        assertThrows(IllegalArgumentException.class,
+            () -> SynapseMatrix.fromEdges(2, pre, post, weight, delay, 5));
+    }
+
+    @Test
+    @DisplayName("The calendar queue releases buckets in time order")
+    void queueOrder() {
+        SpikeQueue queue = new SpikeQueue(6);
+        queue.reset(100);
+        queue.schedule(104, 7, 0.5);
+        queue.schedule(101, 3, 0.25);
+        queue.schedule(104, 8, 0.75);
+        assertEquals(3, queue.size());
+        assertThrows(IllegalArgumentException.class, () -> queue.schedule(99, 0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> queue.schedule(100 + queue.getHorizon() + 1, 0, 1.0));
+
+        assertEquals(101, queue.nextTime());
+        queue.advanceTo(101);
+        assertEquals(1, queue.currentSize());
+        assertEquals(3, queue.currentNeurons()[0]);
+        queue.clearCurrent();
+
+        assertEquals(104, queue.nextTime());
+        assertThrows(IllegalArgumentException.class, () -> queue.advanceTo(105));
+        queue.advanceTo(104);
+        assertEquals(2, queue.currentSize());
+        assertArrayEquals(new int[] {7, 8}, Arrays.copyOf(queue.currentNeurons(), 2));
+        queue.clearCurrent();
+        assertTrue(queue.isEmpty());
+        assertEquals(Long.MAX_VALUE, queue.nextTime());
+    }
+
+    @Test
+    @DisplayName("A spike travels down a chain after each synaptic delay")
+    void chain() {
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(3,
+            new int[] {0, 1}, new int[] {1, 2}, new double[] {1.0, 1.0}, new int[] {3, 5}, 2);
+        EventDrivenPropagator propagator = new EventDrivenPropagator(matrix);
+        SpikeBuffer inputs = new SpikeBuffer();
+        inputs.add(10, 0, 1.0);
+        SpikeBuffer fired = new SpikeBuffer();
+
+        long delivered = propagator.run(inputs, threshold(new double[3]), fired);
+        assertEquals(3, delivered);
+        assertEquals(3, fired.size());
+        assertEquals(10, fired.time(0));
+        assertEquals(13, fired.time(1));
+        assertEquals(1, fired.neuron(1));
+        assertEquals(18, fired.time(2));
+        assertEquals(2, fired.neuron(2));
+
+        SpikeBuffer unordered = new SpikeBuffer();
+        unordered.add(5, 0, 1.0);
+        unordered.add(4, 1, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> propagator.run(unordered, threshold(new double[3]), fired));
+    }
+
+    @Test
+    @DisplayName("Propagation matches a full-scan reference on a random network")
+    void matchesReference() {
+        int n = 300;
+        Random random = new Random(1);
+        int edges = n * 4;
+        int[] pre = new int[edges];
+        int[] post = new int[edges];
+        double[] weight = new double[edges];
+        int[] delay = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            pre[e] = random.nextInt(n);
+            post[e] = random.nextInt(n);
+            weight[e] = random.nextDouble() * 0.4;
+            delay[e] = 1 + random.nextInt(6);
+        }
+        SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, edges);
+
+        SpikeBuffer inputs = new SpikeBuffer();
+        for (int t = 0; t < 200; t += 2) {
+            inputs.add(t, random.nextInt(n), 0.6 + random.nextDouble() * 0.6);
+        }
+        SpikeBuffer fired = new SpikeBuffer();
+        new EventDrivenPropagator(matrix).run(inputs, threshold(new double[n]), fired);
+        List<long[]> expected = reference(n, pre, post, weight, delay, inputs);
+
+        assertTrue(fired.size() > inputs.size() / 2, "network should be active");
+        assertEquals(expected.size(), fired.size());
+        for (int k = 0; k < fired.size(); k++) {
+            assertEquals(expected.get(k)[0], fired.time(k));
+            assertEquals(expected.get(k)[1], fired.neuron(k));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.snn.neurons", matches = "\\d+")
+    @DisplayName("Fan-out throughput across neuron count and connectivity")
+    void benchmarkFanOut() {
+        int maxNeurons = Integer.getInteger("nexus.benchmark.snn.neurons");
+        int spikes = Integer.getInteger("nexus.benchmark.snn.spikes", 2000);
+        for (int n = 1000; n <= maxNeurons; n *= 10) {
+            for (double connectivity : new double[] {0.001, 0.01, 0.1}) {
+                long edges = (long) (n * (double) n * connectivity);
+                if (edges > 50_000_000L) {
+                    continue;
+                }
+                Random random = new Random(2);
+                int count = (int) edges;
+                int[] pre = new int[count];
+                int[] post = new int[count];
+                double[] weight = new double[count];
+                int[] delay = new int[count];
+                for (int e = 0; e < count; e++) {
+                    pre[e] = random.nextInt(n);
+                    post[e] = random.nextInt(n);
+                    weight[e] = 0.0;
+                    delay[e] = 1 + random.nextInt(5);
+                }
+                SynapseMatrix matrix = SynapseMatrix.fromEdges(n, pre, post, weight, delay, count);
+                SpikeBuffer inputs = new SpikeBuffer(spikes);
+                for (int s = 0; s < spikes; s++) {
+                    inputs.add(s, random.nextInt(n), 1.0);
+                }
+
+                // Every input fires and fans out; zero weights keep the targets silent
+                EventDrivenPropagator propagator = new EventDrivenPropagator(matrix);
+                SpikeBuffer fired = new SpikeBuffer(spikes);
+                EventDrivenPropagator.SpikeTarget fire = (neuron, time, amplitude) -> amplitude > 0.0;
+                propagator.run(inputs, fire, fired);
+                long start = System.nanoTime();
+                fired.clear();
+                long delivered = propagator.run(inputs, fire, fired);
+                double csrSeconds = (System.nanoTime() - start) / 1e9;
+
+                int scanned = Math.min(spikes, 200);
+                start = System.nanoTime();
+                long matches = 0;
+                for (int s = 0; s < scanned; s++) {
+                    int source = inputs.neuron(s);
+                    for (int e = 0; e < count; e++) {
+                        if (pre[e] == source) {
+                            matches++;
+                        }
+                    }
+                }
+                double scanSeconds = (System.nanoTime() - start) / 1e9 * spikes / scanned;
+                System.out.printf("SNN fan-out: %7d neurons, connectivity %.3f, %9d synapses: "
+                        + "CSR %8.2f ms (%d deliveries), full scan %10.2f ms (est. from %d hits), speedup %.0fx%n",
+                    n, connectivity, count, csrSeconds * 1e3, delivered, scanSeconds * 1e3, matches,
+                    scanSeconds / csrSeconds);
+            }
+        }
+    }
+
+    /**
+     * Integrate-and-fire without leak: fire and reset at a potential of 1
+     */
+    private static EventDrivenPropagator.SpikeTarget threshold(double[] potential) {
+        return (neuron, time, amplitude) -> {
+            potential[neuron] += amplitude;
+            if (potential[neuron] >= 1.0) {
+                potential[neuron] = 0.0;
+                return true;
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Object-per-event reference: scan every edge per spike; queued events before
+     * inputs within a step, then scheduling order
+     */
+    private static List<long[]> reference(int n, int[] pre, int[] post, double[] weight, int[] delay,
+                                          SpikeBuffer inputs) {
+        // {time, phase, sequence, neuron, amplitude bits}
+        PriorityQueue<long[]> events = new PriorityQueue<>((a, b) -> {
+            for (int i = 0; i < 3; i++) {
+                int c = Long.compare(a[i], b[i]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        });
+        long sequence = 0;
+        for (int k = 0; k < inputs.size(); k++) {
+            events.add(new long[] {inputs.time(k), 1, sequence++, inputs.neuron(k),
+                Double.doubleToLongBits(inputs.amplitude(k))});
+        }
+        double[] potential = new double[n];
+        List<long[]> fired = new ArrayList<>();
+        while (!events.isEmpty()) {
+            long[] event = events.poll();
+            int neuron = (int) event[3];
+            potential[neuron] += Double.longBitsToDouble(event[4]);
+            if (potential[neuron] >= 1.0) {
+                potential[neuron] = 0.0;
+                fired.add(new long[] {event[0], neuron});
+                for (int e = 0; e < pre.length; e++) {
+                    if (pre[e] == neuron) {
+                        events.add(new long[] {event[0] + delay[e], 0, sequence++, post[e],
+                            Double.doubleToLongBits(weight[e])});
+                    }
+                }
+            }
+        }
+        return fired;
+    }
+}
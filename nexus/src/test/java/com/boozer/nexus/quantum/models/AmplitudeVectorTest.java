@@ -0,0 +1,164 @@
+package com.boozer.nexus.quantum.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Amplitude vector tests: tensor products, partial traces and Pauli expectations
+ * checked against explicit small-state constructions.
+ *
+ * The allocation-free probability benchmark is opt-in:
+ * {@code -Dnexus.benchmark.amplitudes.qubits=20}.
+ */
+class AmplitudeVectorTest {
+
+    private static final double EPSILON = 1e-12;
+
+    @Test
+    @DisplayName("Tensor product places the left factor on the high-order qubits")
+    void tensorProduct() {
+        AmplitudeVector a = random(2, 1);
+        AmplitudeVector b = random(3, 2);
+        AmplitudeVector product = a.tensorProduct(b);
+
+        assertEquals(5, product.getNumQubits());
+        for (int i = 0; i < a.size(); i++) {
+            for (int j = 0; j < b.size(); j++) {
+                int index = i * b.size() + j;
+                assertEquals(a.re(i) * b.re(j) - a.im(i) * b.im(j), product.re(index), EPSILON);
+                assertEquals(a.re(i) * b.im(j) + a.im(i) * b.re(j), product.im(index), EPSILON);
+            }
+        }
+        assertEquals(1.0, product.normSquared(), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Tracing out one factor of a product state returns the other factor")
+    void partialTraceOfProduct() {
+        AmplitudeVector a = random(2, 3);
+        AmplitudeVector b = random(2, 4);
+        AmplitudeVector product = a.tensorProduct(b);
+
+        // b occupies qubits 0 and 1 of the product
+        double[] rho = product.reducedDensityMatrix(new int[] { 0, 1 }, null);
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                assertEquals(b.re(r) * b.re(c) + b.im(r) * b.im(c), rho[2 * (r * 4 + c)], EPSILON);
+                assertEquals(b.im(r) * b.re(c) - b.re(r) * b.im(c), rho[2 * (r * 4 + c) + 1], EPSILON);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Bell state reduces to the maximally mixed state")
+    void bellStateTrace() {
+        AmplitudeVector bell = new AmplitudeVector(2);
+        bell.set(0, Math.sqrt(0.5), 0.0);
+        bell.set(3, Math.sqrt(0.5), 0.0);
+
+        double[] rho = bell.reducedDensityMatrix(new int[] { 1 }, null);
+        assertArrayEquals(new double[] { 0.5, 0, 0, 0, 0, 0, 0.5, 0 }, rho, EPSILON);
+        assertArrayEquals(new double[] { 0.5, 0.5 }, bell.marginalProbabilities(new int[] { 0 }, null), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Marginals equal the diagonal of the reduced density matrix")
+    void marginalsMatchDiagonal() {
+        AmplitudeVector state = random(5, 5);
+        int[] keep = { 4, 1 };
+        double[] rho = state.reducedDensityMatrix(keep, null);
+        double[] marginals = state.marginalProbabilities(keep, null);
+        for (int r = 0; r < 4; r++) {
+            assertEquals(rho[2 * (r * 4 + r)], marginals[r], EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Pauli expectations match single-qubit Bloch components")
+    void pauliExpectation() {
+        // |ψ⟩ = cos(θ/2)|0⟩ + e^{iφ} sin(θ/2)|1⟩ has Bloch vector (sinθ cosφ, sinθ sinφ, cosθ)
+        double theta = 1.1;
+        double phi = 0.7;
+        AmplitudeVector state = new AmplitudeVector(1);
+        state.set(0, Math.cos(theta / 2), 0.0);
+        state.set(1, Math.sin(theta / 2) * Math.cos(phi), Math.sin(theta / 2) * Math.sin(phi));
+
+        assertEquals(Math.sin(theta) * Math.cos(phi), state.expectationPauli(1L, 0L), EPSILON);
+        assertEquals(Math.sin(theta) * Math.sin(phi), state.expectationPauli(1L, 1L), EPSILON);
+        assertEquals(Math.cos(theta), state.expectationPauli(0L, 1L), EPSILON);
+        assertEquals(Math.cos(theta), state.expectationZ(1L), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Two-qubit Pauli strings factor over product states")
+    void pauliStringOnProduct() {
+        AmplitudeVector high = random(1, 6);
+        AmplitudeVector low = random(1, 7);
+        AmplitudeVector product = high.tensorProduct(low);
+
+        // X on qubit 1 (high factor), Y on qubit 0 (low factor)
+        double expected = high.expectationPauli(1L, 0L) * low.expectationPauli(1L, 1L);
+        assertEquals(expected, product.expectationPauli(0b11L, 0b01L), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Probability map keys are fixed-width bitstrings with qubit 0 last")
+    void probabilityMap() {
+        AmplitudeVector state = new AmplitudeVector(4);
+        state.set(0, 0.0, 0.0);
+        state.set(0b0010, Math.sqrt(0.25), 0.0);
+        state.set(0b1000, 0.0, Math.sqrt(0.75));
+
+        Map<String, Double> probabilities = state.probabilityMap(1e-10);
+        assertEquals(2, probabilities.size());
+        assertEquals(0.25, probabilities.get("0010"), EPSILON);
+        assertEquals(0.75, probabilities.get("1000"), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Fidelity and wrapping")
+    void fidelityAndWrap() {
+        AmplitudeVector state = random(3, 8);
+        assertEquals(1.0, state.fidelity(state.copy()), EPSILON);
+        assertSame(state.getData(), AmplitudeVector.wrap(state.getData()).getData());
+        assertThrows(IllegalArgumentException.class, () -> AmplitudeVector.wrap(new double[6]));
+        assertThrows(IllegalArgumentException.class, () -> state.reducedDensityMatrix(new int[] { 1, 1 }, null));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.amplitudes.qubits", matches = "\\d+")
+    @DisplayName("Probability and expectation throughput")
+    void benchmarkExtraction() {
+        int n = Integer.getInteger("nexus.benchmark.amplitudes.qubits");
+        AmplitudeVector state = random(n, 9);
+        double[] probabilities = new double[state.size()];
+        int rounds = 20;
+
+        long start = System.nanoTime();
+        double sink = 0.0;
+        for (int round = 0; round < rounds; round++) {
+            state.probabilities(probabilities);
+            for (int q = 0; q < n; q++) {
+                sink += state.expectationZ(1L << q);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Amplitude extraction: %d qubits, %d rounds of probabilities + %d ⟨Z⟩ in %.3f s (%.1f M amplitudes/s) [%f]%n",
+            n, rounds, n, seconds, rounds * (n + 1.0) * state.size() / seconds / 1e6, sink);
+    }
+
+    private static AmplitudeVector random(int numQubits, long seed) {
+        Random random = new Random(seed);
+        AmplitudeVector state = new AmplitudeVector(numQubits);
+        for (int i = 0; i < state.size(); i++) {
+            state.set(i, random.nextGaussian(), random.nextGaussian());
+        }
+        return state.normalize();
+    }
+}
@@ -0,0 +1,214 @@
+package com.boozer.nexus.quantum.processor;
+
+import com.boozer.nexus.quantum.models.ExecutionProgress;
+import com.boozer.nexus.quantum.models.QuantumExecutionOptions;
+import com.boozer.nexus.quantum.models.QuantumResult;
+import com.boozer.nexus.quantum.simulator.CompiledCircuit;
+import com.boozer.nexus.quantum.simulator.MatrixProductStateSimulator;
+import com.boozer.nexus.quantum.simulator.MemoryEstimate;
+import com.boozer.nexus.quantum.simulator.QuantumSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Quantum job scheduler tests: priority order, memory admission, cancellation
+ * of queued and running jobs, and progress reporting from the simulator.
+ */
+class QuantumJobSchedulerTest {
+
+    private QuantumJobScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Higher priority jobs start first, equal priorities in submission order")
+    void priorityOrder() throws Exception {
+        scheduler = new QuantumJobScheduler(1, 1L << 30, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        QuantumJob blocker = scheduler.submit("blocker", 4, 0, progress -> {
+            release.await();
+            return new QuantumResult();
+        });
+        QuantumJob low = scheduler.submit("low", 4, 1, recording(order, "low"));
+        QuantumJob highFirst = scheduler.submit("high-1", 4, 5, recording(order, "high-1"));
+        QuantumJob highSecond = scheduler.submit("high-2", 4, 5, recording(order, "high-2"));
+        assertEquals(QuantumJob.Status.RUNNING, blocker.getStatus());
+        assertEquals(QuantumJob.Status.QUEUED, low.getStatus());
+
+        release.countDown();
+        await(low);
+        await(highFirst);
+        await(highSecond);
+        assertEquals(List.of("high-1", "high-2", "low"), order);
+    }
+
+    @Test
+    @DisplayName("Jobs are admitted only while their state vectors fit the memory budget")
+    void memoryAdmission() throws Exception {
+        // Room for two 20-qubit state vectors but not three
+        long budget = 2 * QuantumJobScheduler.estimateBytes(20) + 1000;
+        scheduler = new QuantumJobScheduler(4, budget, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        QuantumJob[] jobs = new QuantumJob[3];
+        for (int k = 0; k < jobs.length; k++) {
+            jobs[k] = scheduler.submit("large-" + k, 20, 0, progress -> {
+                peak.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                release.await();
+                concurrent.decrementAndGet();
+                return new QuantumResult();
+            });
+        }
+        assertEquals(2, scheduler.getStatistics().get("running"));
+        assertEquals(1, scheduler.getStatistics().get("queued"));
+        assertEquals(QuantumJob.Status.QUEUED, jobs[2].getStatus());
+
+        release.countDown();
+        for (QuantumJob job : jobs) {
+            await(job);
+            assertEquals(QuantumJob.Status.COMPLETED, job.getStatus());
+        }
+        assertTrue(peak.get() <= 2);
+        assertEquals(0L, scheduler.getStatistics().get("reservedBytes"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> scheduler.submit("too-large", 22, 0, progress -> new QuantumResult()));
+    }
+
+    @Test
+    @DisplayName("Queued jobs are dropped and running jobs stop at their next check")
+    void cancellation() throws Exception {
+        scheduler = new QuantumJobScheduler(1, 1L << 30, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger queuedRuns = new AtomicInteger();
+
+        QuantumJob running = scheduler.submit("spinning", 4, 0, progress -> {
+            started.countDown();
+            while (true) {
+                progress.checkCancelled();
+                Thread.sleep(1);
+            }
+        });
+        QuantumJob queued = scheduler.submit("queued", 4, 0, progress -> {
+            queuedRuns.incrementAndGet();
+            return new QuantumResult();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertTrue(scheduler.cancel(queued.getJobId()));
+        assertEquals(QuantumJob.Status.CANCELLED, queued.getStatus());
+        assertTrue(scheduler.cancel(running.getJobId()));
+        await(running);
+        assertEquals(QuantumJob.Status.CANCELLED, running.getStatus());
+        assertEquals(0, queuedRuns.get());
+        assertFalse(scheduler.cancel(running.getJobId()));
+        assertFalse(scheduler.cancel("unknown"));
+    }
+
+    @Test
+    @DisplayName("Simulator runs report gates and shots through the job's progress")
+    void simulatorProgress() throws Exception {
+        scheduler = new QuantumJobScheduler(1, 1L << 30, 100);
+        QuantumSimulator simulator = new QuantumSimulator();
+        CompiledCircuit circuit = new CompiledCircuit(6);
+        for (int q = 0; q < 6; q++) {
+            circuit.gate(CompiledCircuit.OP_H, q);
+            circuit.rotation(CompiledCircuit.OP_RZ, 0.1 * q, q);
+        }
+        List<QuantumJob.Status> transitions = new CopyOnWriteArrayList<>();
+
+        QuantumJob job = scheduler.submit("circuit", 6, 0, progress -> {
+            QuantumExecutionOptions options = new QuantumExecutionOptions();
+            options.setShots(300);
+            options.setProgress(progress);
+            return simulator.execute(circuit, null, options);
+        });
+        job.addListener(j -> transitions.add(j.getStatus()));
+        await(job);
+
+        ExecutionProgress progress = job.getProgress();
+        assertEquals(QuantumJob.Status.COMPLETED, job.getStatus());
+        assertTrue(job.getResult().isSuccessful());
+        assertEquals(circuit.size(), progress.getGatesApplied());
+        assertEquals(circuit.size(), progress.getTotalGates());
+        assertEquals(300L, progress.getShotsDone());
+        assertEquals(1.0, progress.getFraction(), 1e-12);
+        assertTrue(transitions.contains(QuantumJob.Status.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("A 40-qubit ring QAOA job is priced at its MPS cost, not a state vector")
+    void wideQaoaJob() throws Exception {
+        int n = 40;
+        CompiledCircuit circuit = new CompiledCircuit(n);
+        for (int q = 0; q < n; q++) {
+            circuit.gate(CompiledCircuit.OP_H, q);
+        }
+        for (int q = 0; q < n; q++) {
+            circuit.rotation(CompiledCircuit.OP_ZZ, 0.4, q, (q + 1) % n);
+        }
+        for (int q = 0; q < n; q++) {
+            circuit.rotation(CompiledCircuit.OP_RX, 1.4, q);
+        }
+        MatrixProductStateSimulator mps = new MatrixProductStateSimulator();
+        MemoryEstimate memory = mps.estimateMemory(n);
+        MemoryEstimate stateVector = new QuantumSimulator().estimateMemory(n, new QuantumExecutionOptions());
+        assertEquals(0L, memory.getOffHeapBytes());
+        assertTrue(memory.getHeapBytes() < 64L << 20, "MPS estimate " + memory);
+        assertEquals(16L << n, stateVector.getOffHeapBytes());
+
+        // 256 MiB heap, no direct memory: only the MPS estimate is admissible
+        scheduler = new QuantumJobScheduler(1, 256L << 20, 0L, 100);
+        assertThrows(IllegalArgumentException.class,
+            () -> scheduler.submit("qaoa-state-vector", n, stateVector, 0, progress -> new QuantumResult()));
+        QuantumJob job = scheduler.submit("qaoa", n, memory, 0, progress -> {
+            QuantumExecutionOptions options = new QuantumExecutionOptions();
+            options.setShots(256);
+            options.setProgress(progress);
+            return mps.execute(circuit, null, options);
+        });
+        assertEquals(memory.getHeapBytes(), job.getMemoryEstimate().getHeapBytes());
+        await(job);
+
+        assertEquals(QuantumJob.Status.COMPLETED, job.getStatus());
+        assertTrue(job.getResult().isSuccessful());
+        assertEquals(256, job.getResult().getCounts().values().stream().mapToInt(v -> (Integer) v).sum());
+        assertEquals(0L, scheduler.getStatistics().get("reservedBytes"));
+        assertEquals(0L, scheduler.getStatistics().get("reservedOffHeapBytes"));
+    }
+
+    private static QuantumJobScheduler.JobTask recording(List<String> order, String name) {
+        return progress -> {
+            order.add(name);
+            return new QuantumResult();
+        };
+    }
+
+    private static void await(QuantumJob job) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        job.addListener(j -> {
+            if (j.getStatus().isFinished()) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS), "job " + job.getName() + " did not finish");
+    }
+}
@@ -0,0 +1,174 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Gradient engine tests: adjoint and parameter-shift derivatives against central
+ * finite differences, including shared parameter slots and ZZ gates.
+ *
+ * The throughput benchmark over increasing P is opt-in:
+ * {@code -Dnexus.benchmark.gradient.qubits=12}.
+ */
+class AdjointGradientEngineTest {
+
+    private static final double STEP = 1e-5;
+
+    private final AdjointGradientEngine engine = new AdjointGradientEngine();
+
+    @Test
+    @DisplayName("Adjoint gradient matches finite differences")
+    void adjointMatchesFiniteDifferences() {
+        CompiledCircuit circuit = ansatz(5, 3);
+        Observable observable = new PauliZObservable(new long[] { 0b1, 0b110, 0b10001 }, new double[] { 0.7, -1.3, 0.4 });
+        double[] theta = randomPoint(circuit.getNumParameters(), 21);
+
+        double[] gradient = new double[circuit.getNumParameters()];
+        double value = engine.adjoint(circuit, theta, observable, gradient);
+
+        assertEquals(expectation(circuit, theta, observable), value, 1e-12);
+        assertArrayEquals(finiteDifferences(circuit, theta, observable), gradient, 1e-7);
+    }
+
+    @Test
+    @DisplayName("Shared slots and scaled angles accumulate into one derivative")
+    void sharedSlots() {
+        CompiledCircuit circuit = new CompiledCircuit(3);
+        for (int q = 0; q < 3; q++) {
+            circuit.gate(CompiledCircuit.OP_H, q);
+        }
+        circuit.parameterizedGate(CompiledCircuit.OP_ZZ, 0, 2.0, 0, 1)
+            .parameterizedGate(CompiledCircuit.OP_ZZ, 0, 2.0, 1, 2)
+            .parameterizedGate(CompiledCircuit.OP_RX, 1, -1.0, 0)
+            .parameterizedGate(CompiledCircuit.OP_RX, 1, -1.0, 1)
+            .parameterizedGate(CompiledCircuit.OP_RX, 1, -1.0, 2);
+        Observable observable = new PauliZObservable(new long[] { 0b011, 0b110 }, new double[] { 1.0, 1.0 });
+        double[] theta = { 0.37, 1.1 };
+
+        double[] adjoint = new double[2];
+        double[] shift = new double[2];
+        engine.adjoint(circuit, theta, observable, adjoint);
+        engine.parameterShift(circuit, theta, observable, 0, 0L, shift);
+
+        double[] expected = finiteDifferences(circuit, theta, observable);
+        assertArrayEquals(expected, adjoint, 1e-7);
+        assertArrayEquals(expected, shift, 1e-7);
+    }
+
+    @Test
+    @DisplayName("Sampled parameter shift converges on the exact gradient")
+    void sampledParameterShift() {
+        CompiledCircuit circuit = ansatz(3, 2);
+        Observable observable = PauliZObservable.of(0b1);
+        double[] theta = randomPoint(circuit.getNumParameters(), 4);
+
+        double[] exact = new double[theta.length];
+        double[] sampled = new double[theta.length];
+        engine.adjoint(circuit, theta, observable, exact);
+        engine.parameterShift(circuit, theta, observable, 20000, 9L, sampled);
+
+        // Each derivative is a difference of two means over 20000 shots
+        assertArrayEquals(exact, sampled, 0.03);
+    }
+
+    @Test
+    @DisplayName("Memory estimates charge every vector each gradient method holds")
+    void memoryEstimates() {
+        MemoryEstimate small = engine.estimateAdjointMemory(10);
+        assertEquals(3 * (16L << 10), small.getHeapBytes());
+        assertEquals(0L, small.getOffHeapBytes());
+
+        int wide = HeapStateVector.MAX_QUBITS + 1;
+        MemoryEstimate offHeap = engine.estimateAdjointMemory(wide);
+        assertEquals(0L, offHeap.getHeapBytes());
+        assertEquals(3 * (16L << wide), offHeap.getOffHeapBytes());
+
+        // 5 qubits, 3 layers: 4 parameterized gates per qubit and 2 per layer
+        CompiledCircuit circuit = ansatz(5, 3);
+        int points = 2 * 3 * (2 * 5 + 2) + 1;
+        assertEquals(BatchCircuitExecutor.workers(5, points) * (16L << 5),
+            engine.estimateParameterShiftMemory(circuit).getHeapBytes());
+        assertEquals(MemoryEstimate.UNBOUNDED, engine.estimateParameterShiftMemory(new CompiledCircuit(wide)));
+
+        MemoryEstimate peak = small.max(offHeap);
+        assertEquals(small.getHeapBytes(), peak.getHeapBytes());
+        assertEquals(offHeap.getOffHeapBytes(), peak.getOffHeapBytes());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.gradient.qubits", matches = "\\d+")
+    @DisplayName("Gradient throughput against parameter count")
+    void benchmarkGradientThroughput() {
+        int n = Integer.getInteger("nexus.benchmark.gradient.qubits");
+        Observable observable = PauliZObservable.of(1L);
+        for (int layers = 1; layers <= 16; layers *= 2) {
+            CompiledCircuit circuit = ansatz(n, layers);
+            double[] theta = randomPoint(circuit.getNumParameters(), layers);
+            double[] gradient = new double[theta.length];
+
+            long start = System.nanoTime();
+            engine.adjoint(circuit, theta, observable, gradient);
+            double adjointMs = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            engine.parameterShift(circuit, theta, observable, 0, 0L, gradient);
+            double shiftMs = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf("Gradient: %d qubits, P=%d, adjoint %.1f ms, parameter shift %.1f ms (%.1fx)%n",
+                n, theta.length, adjointMs, shiftMs, shiftMs / adjointMs);
+        }
+    }
+
+    /**
+     * RY/RZ on every qubit, a CNOT ladder and one parameterized ZZ per layer
+     */
+    private static CompiledCircuit ansatz(int n, int layers) {
+        CompiledCircuit circuit = new CompiledCircuit(n);
+        int slot = 0;
+        for (int layer = 0; layer < layers; layer++) {
+            for (int q = 0; q < n; q++) {
+                circuit.parameterizedGate(CompiledCircuit.OP_RY, slot++, 1.0, q);
+                circuit.parameterizedGate(CompiledCircuit.OP_RZ, slot++, 1.0, q);
+            }
+            for (int q = 0; q < n - 1; q++) {
+                circuit.gate(CompiledCircuit.OP_CNOT, q, q + 1);
+            }
+            circuit.parameterizedGate(CompiledCircuit.OP_ZZ, slot++, 1.0, 0, n - 1);
+            circuit.parameterizedGate(CompiledCircuit.OP_RX, slot++, 1.0, layer % n);
+        }
+        return circuit;
+    }
+
+    private static double expectation(CompiledCircuit circuit, double[] theta, Observable observable) {
+        try (StateVector state = new HeapStateVector(circuit.getNumQubits())) {
+            QuantumSimulator.run(state, circuit, theta);
+            return observable.expectation(state);
+        }
+    }
+
+    private static double[] finiteDifferences(CompiledCircuit circuit, double[] theta, Observable observable) {
+        double[] gradient = new double[theta.length];
+        for (int k = 0; k < theta.length; k++) {
+            double[] plus = theta.clone();
+            double[] minus = theta.clone();
+            plus[k] += STEP;
+            minus[k] -= STEP;
+            gradient[k] = (expectation(circuit, plus, observable) - expectation(circuit, minus, observable)) / (2 * STEP);
+        }
+        return gradient;
+    }
+
+    private static double[] randomPoint(int numParameters, long seed) {
+        Random random = new Random(seed);
+        double[] point = new double[numParameters];
+        for (int k = 0; k < numParameters; k++) {
+            point[k] = random.nextDouble() * 2 * Math.PI;
+        }
+        return point;
+    }
+}
@@ -0,0 +1,148 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch executor tests: every point of a sweep must match a one-off run of the
+ * same circuit, and seeded sampling must not depend on how points are chunked.
+ *
+ * The sweep throughput benchmark is opt-in: {@code -Dnexus.benchmark.batch.points=4096}.
+ */
+class BatchCircuitExecutorTest {
+
+    private static final double EPSILON = 1e-12;
+
+    private final BatchCircuitExecutor executor = new BatchCircuitExecutor();
+
+    @Test
+    @DisplayName("Batched expectation values match single-point execution")
+    void matchesSinglePoint() {
+        int n = 6;
+        CompiledCircuit circuit = ansatz(n, 2);
+        double[][] points = randomPoints(37, circuit.getNumParameters(), 11);
+
+        double[] batched = executor.expectationZ(circuit, points, 0b101);
+        for (int i = 0; i < points.length; i++) {
+            try (StateVector state = new HeapStateVector(n)) {
+                QuantumSimulator.run(state, circuit, points[i]);
+                assertEquals(state.expectationZ(0b101), batched[i], EPSILON, "point " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Observable expectations agree with the Z-mask shortcut")
+    void observableExpectation() {
+        CompiledCircuit circuit = ansatz(5, 2);
+        double[][] points = randomPoints(13, circuit.getNumParameters(), 5);
+
+        double[] exact = executor.expectation(circuit, points, PauliZObservable.of(0b11), 0, 0L);
+        double[] sampled = executor.expectation(circuit, points, PauliZObservable.of(0b11), 20000, 8L);
+        double[] masked = executor.expectationZ(circuit, points, 0b11);
+        assertArrayEquals(masked, exact, EPSILON);
+        assertArrayEquals(masked, sampled, 0.03);
+    }
+
+    @Test
+    @DisplayName("Bound parameters reproduce fixed-angle gates")
+    void parameterBinding() {
+        CompiledCircuit fixed = new CompiledCircuit(1).rotation(CompiledCircuit.OP_RY, 0.8, 0);
+        CompiledCircuit bound = new CompiledCircuit(1).parameterizedGate(CompiledCircuit.OP_RY, 0, 2.0, 0);
+
+        double expected = executor.expectationZ(fixed, new double[][] { {} }, 1L)[0];
+        double actual = executor.expectationZ(bound, new double[][] { { 0.4 } }, 1L)[0];
+        assertEquals(Math.cos(0.8), expected, EPSILON);
+        assertEquals(expected, actual, EPSILON);
+    }
+
+    @Test
+    @DisplayName("Seeded sampling is reproducible per point")
+    void seededSampling() {
+        CompiledCircuit circuit = ansatz(4, 1);
+        double[][] points = randomPoints(9, circuit.getNumParameters(), 3);
+
+        long[][] all = executor.sample(circuit, points, 256, 42L);
+        long[][] last = executor.sample(circuit, new double[][] { points[8] }, 256, 50L);
+        assertArrayEquals(all[8], last[0]);
+    }
+
+    @Test
+    @DisplayName("Rows shorter than the parameter count are rejected")
+    void rejectsShortRows() {
+        CompiledCircuit circuit = ansatz(3, 1);
+        assertThrows(IllegalArgumentException.class,
+            () -> executor.expectationZ(circuit, new double[][] { new double[1] }, 1L));
+    }
+
+    @Test
+    @DisplayName("Scratch vectors never outgrow the heap")
+    void workersFitTheHeap() {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        assertEquals(1, BatchCircuitExecutor.workers(4, 1));
+        assertEquals(Math.max(1, ForkJoinPool.getCommonPoolParallelism()), BatchCircuitExecutor.workers(4, 1000));
+        for (int n = 20; n <= HeapStateVector.MAX_QUBITS; n++) {
+            int workers = BatchCircuitExecutor.workers(n, 1000);
+            long bytes = BatchCircuitExecutor.estimateMemory(n, 1000).getHeapBytes();
+            assertEquals(workers * MemoryEstimate.amplitudeBytes(n), bytes);
+            assertTrue(workers == 1 || bytes <= maxMemory, n + " qubits on " + workers + " workers");
+        }
+        assertEquals(MemoryEstimate.UNBOUNDED, BatchCircuitExecutor.estimateMemory(HeapStateVector.MAX_QUBITS + 1, 8));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.batch.points", matches = "\\d+")
+    @DisplayName("Parameter sweep throughput")
+    void benchmarkSweep() {
+        int points = Integer.getInteger("nexus.benchmark.batch.points");
+        int n = Integer.getInteger("nexus.benchmark.batch.qubits", 10);
+        CompiledCircuit circuit = ansatz(n, 3);
+        double[][] sweep = randomPoints(points, circuit.getNumParameters(), 7);
+
+        executor.expectationZ(circuit, randomPoints(64, circuit.getNumParameters(), 1), 1L);
+        long start = System.nanoTime();
+        executor.expectationZ(circuit, sweep, 1L);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Batch sweep: %d qubits, %d gates, %d points in %.3f s (%.0f evaluations/s)%n",
+            n, circuit.size(), points, seconds, points / seconds);
+    }
+
+    /**
+     * Hardware-efficient ansatz: RY and RZ per qubit, then a CNOT chain, per layer
+     */
+    private static CompiledCircuit ansatz(int n, int layers) {
+        CompiledCircuit circuit = new CompiledCircuit(n);
+        for (int q = 0; q < n; q++) {
+            circuit.gate(CompiledCircuit.OP_H, q);
+        }
+        int slot = 0;
+        for (int layer = 0; layer < layers; layer++) {
+            for (int q = 0; q < n; q++) {
+                circuit.parameterizedGate(CompiledCircuit.OP_RY, slot++, 1.0, q);
+                circuit.parameterizedGate(CompiledCircuit.OP_RZ, slot++, 1.0, q);
+            }
+            for (int q = 0; q < n - 1; q++) {
+                circuit.gate(CompiledCircuit.OP_CNOT, q, q + 1);
+            }
+            circuit.rotation(CompiledCircuit.OP_ZZ, 0.3, 0, n - 1);
+        }
+        return circuit;
+    }
+
+    private static double[][] randomPoints(int count, int numParameters, long seed) {
+        Random random = new Random(seed);
+        double[][] points = new double[count][numParameters];
+        for (double[] point : points) {
+            for (int k = 0; k < numParameters; k++) {
+                point[k] = random.nextDouble() * 2 * Math.PI;
+            }
+        }
+        return points;
+    }
+}
@@ -0,0 +1,179 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.NoiseModel;
+import com.boozer.nexus.quantum.models.QuantumExecutionOptions;
+import com.boozer.nexus.quantum.models.QuantumResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Circuit result cache tests: structural keys, tolerance quantisation, seeded
+ * result reuse, distribution reuse, bounds and statistics.
+ */
+class CircuitResultCacheTest {
+
+    private final QuantumSimulator simulator = new QuantumSimulator();
+
+    @Test
+    @DisplayName("Structurally identical circuits share a key regardless of id")
+    void structuralKeys() {
+        CircuitResultCache cache = new CircuitResultCache(16, 1L << 20, 1e-6);
+        QuantumExecutionOptions options = seeded(7L);
+
+        CompiledCircuit first = ghz(3, 0.4);
+        CompiledCircuit second = ghz(3, 0.4 + 1e-9);
+        second.setId("another-submission");
+        assertEquals(cache.structuralHash(first, null, options, "statevector"),
+            cache.structuralHash(second, null, options, "statevector"));
+
+        assertNotEquals(cache.structuralHash(first, null, options, "statevector"),
+            cache.structuralHash(ghz(3, 0.5), null, options, "statevector"));
+        assertNotEquals(cache.structuralHash(first, null, options, "statevector"),
+            cache.structuralHash(first, null, options, "mps"));
+        assertNotEquals(cache.structuralHash(first, null, options, "statevector"),
+            cache.structuralHash(first, null, seeded(8L), "statevector"));
+
+        // Operand order distinguishes control from target
+        CompiledCircuit forward = new CompiledCircuit(2).gate(CompiledCircuit.OP_H, 0).gate(CompiledCircuit.OP_CNOT, 0, 1);
+        CompiledCircuit backward = new CompiledCircuit(2).gate(CompiledCircuit.OP_H, 0).gate(CompiledCircuit.OP_CNOT, 1, 0);
+        assertNotEquals(cache.structuralHash(forward, null, options, "statevector"),
+            cache.structuralHash(backward, null, options, "statevector"));
+    }
+
+    @Test
+    @DisplayName("Seeded results are simulated once and returned as copies")
+    void seededResults() {
+        CircuitResultCache cache = new CircuitResultCache(16, 1L << 20, CircuitResultCache.DEFAULT_TOLERANCE);
+        QuantumExecutionOptions options = seeded(42L);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompiledCircuit circuit = ghz(4, 0.3);
+        QuantumResult first = cache.result(circuit, null, options, "statevector", () -> {
+            runs.incrementAndGet();
+            return simulator.execute(circuit, null, options);
+        });
+        CompiledCircuit resubmitted = ghz(4, 0.3);
+        resubmitted.setId("resubmitted");
+        QuantumResult second = cache.result(resubmitted, null, options, "statevector", () -> {
+            runs.incrementAndGet();
+            return simulator.execute(resubmitted, null, options);
+        });
+
+        assertEquals(1, runs.get());
+        assertEquals(first.getCounts(), second.getCounts());
+        assertEquals("resubmitted", second.getCircuitId());
+        assertNotSame(first.getCounts(), second.getCounts());
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-12);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.result(circuit, null, new QuantumExecutionOptions(), "statevector", () -> first));
+    }
+
+    @Test
+    @DisplayName("A fixed seed makes every engine reproducible")
+    void seededEngines() {
+        CompiledCircuit circuit = ghz(4, 0.7);
+        QuantumExecutionOptions options = seeded(3L);
+        assertEquals(simulator.execute(circuit, null, options).getCounts(),
+            simulator.execute(circuit, null, options).getCounts());
+
+        NoiseModel noise = new NoiseModel();
+        noise.setSingleQubitDepolarizing(0.05);
+        options.setNoiseModel(noise);
+        DensityMatrixSimulator densityMatrix = new DensityMatrixSimulator();
+        assertEquals(densityMatrix.execute(circuit, null, options).getCounts(),
+            densityMatrix.execute(circuit, null, options).getCounts());
+        TrajectorySimulator trajectories = new TrajectorySimulator();
+        trajectories.setTrajectories(50);
+        assertEquals(trajectories.execute(circuit, null, options).getCounts(),
+            trajectories.execute(circuit, null, options).getCounts());
+    }
+
+    @Test
+    @DisplayName("Distributions are reused and re-sampled for unseeded runs")
+    void distributions() {
+        CircuitResultCache cache = new CircuitResultCache(16, 1L << 20, CircuitResultCache.DEFAULT_TOLERANCE);
+        QuantumExecutionOptions options = new QuantumExecutionOptions();
+        options.setShots(4000);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompiledCircuit circuit = ghz(5, 0.0);
+        double[] first = cache.distribution(circuit, null, options, "statevector", () -> {
+            runs.incrementAndGet();
+            return simulator.probabilities(circuit, null, options);
+        });
+        options.setShots(100);
+        double[] second = cache.distribution(circuit, null, options, "statevector", () -> {
+            runs.incrementAndGet();
+            return simulator.probabilities(circuit, null, options);
+        });
+        assertEquals(1, runs.get());
+        assertSame(first, second);
+        assertEquals(0.5, first[0], 1e-12);
+        assertEquals(0.5, first[31], 1e-12);
+
+        QuantumResult result = CircuitResultCache.sample(circuit, first, options, "quantum-simulator");
+        assertTrue(result.isSuccessful());
+        int total = 0;
+        for (Object count : result.getCounts().values()) {
+            total += (Integer) count;
+        }
+        assertEquals(100, total);
+        assertTrue(result.getCounts().keySet().stream().allMatch(k -> k.equals("00000") || k.equals("11111")));
+    }
+
+    @Test
+    @DisplayName("Entries are evicted least recently used first, by count and by size")
+    void bounds() {
+        QuantumExecutionOptions options = new QuantumExecutionOptions();
+        CircuitResultCache byCount = new CircuitResultCache(2, 1L << 20, CircuitResultCache.DEFAULT_TOLERANCE);
+        byCount.distribution(ghz(2, 0.0), null, options, "statevector", () -> new double[4]);
+        byCount.distribution(ghz(2, 1.0), null, options, "statevector", () -> new double[4]);
+        // Touch the first entry so the second becomes the eldest
+        byCount.distribution(ghz(2, 0.0), null, options, "statevector", () -> new double[4]);
+        byCount.distribution(ghz(2, 2.0), null, options, "statevector", () -> new double[4]);
+        assertEquals(2, byCount.size());
+        AtomicInteger runs = new AtomicInteger();
+        byCount.distribution(ghz(2, 0.0), null, options, "statevector", () -> {
+            runs.incrementAndGet();
+            return new double[4];
+        });
+        assertEquals(0, runs.get());
+        assertEquals(1L, byCount.getStatistics().get("evictions"));
+
+        CircuitResultCache bySize = new CircuitResultCache(100, 1000L, CircuitResultCache.DEFAULT_TOLERANCE);
+        bySize.distribution(ghz(6, 0.0), null, options, "statevector", () -> new double[64]);
+        bySize.distribution(ghz(6, 1.0), null, options, "statevector", () -> new double[64]);
+        assertEquals(1, bySize.size());
+        // Larger than the whole budget: returned but never stored
+        bySize.distribution(ghz(8, 0.0), null, options, "statevector", () -> new double[256]);
+        assertEquals(1, bySize.size());
+        assertTrue((Long) bySize.getStatistics().get("bytes") <= 1000L);
+    }
+
+    private static QuantumExecutionOptions seeded(long seed) {
+        QuantumExecutionOptions options = new QuantumExecutionOptions();
+        options.setShots(512);
+        options.setSeed(seed);
+        return options;
+    }
+
+    /**
+     * GHZ preparation followed by an RZ on the last qubit
+     */
+    private static CompiledCircuit ghz(int n, double angle) {
+        CompiledCircuit circuit = new CompiledCircuit(n).gate(CompiledCircuit.OP_H, 0);
+        for (int q = 0; q < n - 1; q++) {
+            circuit.gate(CompiledCircuit.OP_CNOT, q, q + 1);
+        }
+        circuit.rotation(CompiledCircuit.OP_RZ, angle, n - 1);
+        circuit.setId("ghz-" + n);
+        return circuit;
+    }
+}
@@ -0,0 +1,155 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.QuantumCircuit;
+import com.boozer.nexus.quantum.models.QuantumGate;
+import com.boozer.nexus.quantum.utils.QuantumCircuitBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiled IR tests: lossless conversion to and from gate lists, operand layout,
+ * and builder templates binding to the same circuits as the gate-list builders.
+ *
+ * The deep-circuit dispatch benchmark is opt-in: {@code -Dnexus.benchmark.ir.gates=1000000}.
+ */
+class CompiledCircuitTest {
+
+    @Test
+    @DisplayName("Gate-list circuits survive a round trip unchanged")
+    void roundTrip() {
+        QuantumCircuit circuit = new QuantumCircuit();
+        circuit.setId("round-trip");
+        circuit.setNumQubits(4);
+        circuit.setNumClassicalBits(2);
+        circuit.setDepth(7);
+        circuit.addGate(gate("H", 0.0, 0));
+        circuit.addGate(gate("rz", 0.125, 3));
+        circuit.addGate(gate("CNOT", 0.0, 2, 1));
+        circuit.addGate(gate("ZZ", -1.5, 0, 3));
+        circuit.addGate(gate("TOFFOLI", 0.0, 3, 0, 2));
+        circuit.addGate(gate("MCZ", 0.0, 0, 1, 2, 3));
+        circuit.addGate(gate("MEASURE", 0.0, 1, 1));
+
+        QuantumCircuit copy = CompiledCircuit.compile(circuit).toCircuit(null);
+
+        assertEquals(circuit.getId(), copy.getId());
+        assertEquals(circuit.getNumQubits(), copy.getNumQubits());
+        assertEquals(circuit.getNumClassicalBits(), copy.getNumClassicalBits());
+        assertEquals(circuit.getDepth(), copy.getDepth());
+        assertEquals(circuit.getGates().size(), copy.getGates().size());
+        for (int g = 0; g < circuit.getGates().size(); g++) {
+            QuantumGate expected = circuit.getGates().get(g);
+            QuantumGate actual = copy.getGates().get(g);
+            assertEquals(expected.getType().toUpperCase(), actual.getType());
+            assertEquals(expected.getQubits(), actual.getQubits());
+            assertEquals(expected.getParameter(), actual.getParameter());
+        }
+    }
+
+    @Test
+    @DisplayName("Operands, masks and angles are laid out per gate")
+    void operandLayout() {
+        CompiledCircuit circuit = new CompiledCircuit(5)
+            .gate(CompiledCircuit.OP_CNOT, 4, 1)
+            .rotation(CompiledCircuit.OP_RX, 0.5, 2)
+            .parameterizedGate(CompiledCircuit.OP_ZZ, 1, -2.0, 0, 3);
+
+        assertEquals(2, circuit.arity(0));
+        assertEquals(4, circuit.qubit(0, 0));
+        assertEquals(1, circuit.qubit(0, 1));
+        assertEquals(0b10010, circuit.mask(0));
+        assertEquals(0.5, circuit.angle(1, null));
+        assertEquals(2, circuit.getNumParameters());
+        assertEquals(-0.5, circuit.angle(2, new double[] { 9.0, 0.25 }));
+        assertThrows(IllegalArgumentException.class, () -> circuit.angle(2, null));
+        assertThrows(IllegalArgumentException.class, () -> circuit.gate(CompiledCircuit.OP_H, 5));
+        assertThrows(IllegalArgumentException.class, () -> circuit.parameterizedGate(CompiledCircuit.OP_CNOT, 0, 1.0, 0, 1));
+        // An integer angle must not pass as a qubit, nor an angle reach a gate without one
+        assertThrows(IllegalArgumentException.class, () -> circuit.gate(CompiledCircuit.OP_RY, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> circuit.rotation(CompiledCircuit.OP_H, 0.5, 0));
+        assertEquals(3, circuit.size());
+        assertThrows(IllegalArgumentException.class, () -> CompiledCircuit.compile(circuitWith(gate("SWAP", 0.0, 0, 1))));
+    }
+
+    @Test
+    @DisplayName("Builder templates bind to the same gates as the gate-list builders")
+    void builderTemplates() {
+        QuantumCircuitBuilder builder = new QuantumCircuitBuilder();
+        Map<String, Double> hamiltonian = new HashMap<>();
+        hamiltonian.put("0,1", 0.7);
+        hamiltonian.put("1,2", -0.4);
+        hamiltonian.put("2", 0.3);
+        double[] gamma = { 0.2, 0.5 };
+        double[] beta = { 0.9, 0.1 };
+
+        QuantumCircuit built = builder.buildQAOACircuit(3, 2, beta, gamma, hamiltonian);
+        CompiledCircuit template = builder.compileQAOATemplate(3, 2, hamiltonian);
+        double[] parameters = { gamma[0], gamma[1], beta[0], beta[1] };
+
+        assertEquals(4, template.getNumParameters());
+        assertEquals(built.getGates().size(), template.size());
+        for (int g = 0; g < template.size(); g++) {
+            assertEquals(built.getGates().get(g).getParameter(), template.angle(g, parameters), 1e-15);
+        }
+
+        // Executing the template and the expanded circuit gives the same state
+        try (StateVector fromTemplate = new HeapStateVector(3);
+             StateVector fromCircuit = new HeapStateVector(3)) {
+            QuantumSimulator.run(fromTemplate, template, parameters);
+            QuantumSimulator.run(fromCircuit, CompiledCircuit.compile(built), null);
+            for (long i = 0; i < fromTemplate.getSize(); i++) {
+                assertEquals(fromCircuit.re(i), fromTemplate.re(i), 1e-15);
+                assertEquals(fromCircuit.im(i), fromTemplate.im(i), 1e-15);
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.ir.gates", matches = "\\d+")
+    @DisplayName("Dispatch throughput on a deep, narrow circuit")
+    void benchmarkDeepCircuit() {
+        int gates = Integer.getInteger("nexus.benchmark.ir.gates");
+        int n = 4;
+        CompiledCircuit circuit = new CompiledCircuit(n);
+        for (int g = 0; g < gates; g++) {
+            int q = g % n;
+            switch (g % 4) {
+                case 0: circuit.gate(CompiledCircuit.OP_H, q); break;
+                case 1: circuit.rotation(CompiledCircuit.OP_RZ, 0.01 * g, q); break;
+                case 2: circuit.gate(CompiledCircuit.OP_CNOT, q, (q + 1) % n); break;
+                default: circuit.rotation(CompiledCircuit.OP_RY, 0.3, q);
+            }
+        }
+        try (StateVector state = new HeapStateVector(n)) {
+            QuantumSimulator.run(state, circuit, null);
+            state.reset();
+            long start = System.nanoTime();
+            QuantumSimulator.run(state, circuit, null);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Compiled dispatch: %d gates on %d qubits in %.3f s (%.1f M gates/s)%n",
+                gates, n, seconds, gates / seconds / 1e6);
+        }
+    }
+
+    private static QuantumGate gate(String type, double parameter, Integer... qubits) {
+        QuantumGate gate = new QuantumGate();
+        gate.setType(type);
+        gate.setQubits(Arrays.asList(qubits));
+        gate.setParameter(parameter);
+        return gate;
+    }
+
+    private static QuantumCircuit circuitWith(QuantumGate gate) {
+        QuantumCircuit circuit = new QuantumCircuit();
+        circuit.setNumQubits(2);
+        circuit.addGate(gate);
+        return circuit;
+    }
+}
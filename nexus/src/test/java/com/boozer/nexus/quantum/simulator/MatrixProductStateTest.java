@@ -0,0 +1,148 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MPS engine tests: exactness against the state-vector kernels when nothing is
+ * truncated, and QAOA runs at qubit counts no state vector can hold.
+ *
+ * The 100-qubit QAOA benchmark is opt-in: {@code -Dnexus.benchmark.mps.qubits=100}.
+ */
+class MatrixProductStateTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    @DisplayName("Untruncated MPS matches the state vector, including non-adjacent gates")
+    void matchesStateVector() {
+        int n = 7;
+        MatrixProductState mps = new MatrixProductState(n, 1 << n, 0.0);
+        try (StateVector state = new HeapStateVector(n)) {
+            Random random = new Random(5);
+            for (int layer = 0; layer < 4; layer++) {
+                for (int q = 0; q < n; q++) {
+                    double[] ry = QuantumSimulator.rotationY(random.nextDouble() * Math.PI);
+                    double[] rx = QuantumSimulator.rotationX(random.nextDouble() * Math.PI);
+                    mps.applySingle(q, ry);
+                    mps.applySingle(q, rx);
+                    state.applySingleQubit(q, ry);
+                    state.applySingleQubit(q, rx);
+                }
+                int a = random.nextInt(n);
+                int b = (a + 2 + random.nextInt(n - 2)) % n;
+                double theta = random.nextDouble();
+                mps.applyTwo(a, b, zz(theta));
+                state.applyParityPhase((1L << a) | (1L << b), theta);
+
+                mps.applyTwo(b, a, cnot());
+                state.applyControlledX(1L << b, a);
+                for (int q = 0; q < n - 1; q++) {
+                    mps.applyTwo(q, q + 1, cnot());
+                    state.applyControlledX(1L << q, q + 1);
+                }
+            }
+
+            for (long i = 0; i < state.getSize(); i++) {
+                double[] amplitude = mps.amplitude(i);
+                assertEquals(state.re(i), amplitude[0], EPSILON, "re at " + i);
+                assertEquals(state.im(i), amplitude[1], EPSILON, "im at " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("GHZ sampling yields only all-zeros and all-ones")
+    void ghzSampling() {
+        int n = 40;
+        MatrixProductState mps = new MatrixProductState(n, 8, 1e-12);
+        double s = 1.0 / Math.sqrt(2.0);
+        mps.applySingle(0, new double[] { s, 0, s, 0, s, 0, -s, 0 });
+        for (int q = 0; q < n - 1; q++) {
+            mps.applyTwo(q, q + 1, cnot());
+        }
+
+        Map<String, Object> counts = mps.sample(500, new Random(3));
+        assertEquals(2, mps.getPeakBondDimension());
+        assertTrue(counts.keySet().stream().allMatch(k -> k.equals("0".repeat(n)) || k.equals("1".repeat(n))));
+        assertEquals(500, counts.values().stream().mapToInt(v -> (Integer) v).sum());
+    }
+
+    @Test
+    @DisplayName("50-qubit ring QAOA stays within the bond budget")
+    void ringQaoa50() {
+        MatrixProductState mps = ringQaoa(50, 2, 64);
+        Map<String, Object> counts = mps.sample(1024, new Random(1));
+        assertEquals(1024, counts.values().stream().mapToInt(v -> (Integer) v).sum());
+        assertTrue(counts.keySet().stream().allMatch(k -> k.length() == 50));
+        assertTrue(counts.size() > 1);
+        assertTrue(mps.getPeakBondDimension() > 2 && mps.getPeakBondDimension() <= 64,
+            "peak bond " + mps.getPeakBondDimension());
+        assertTrue(mps.getTruncationError() < 1e-3, "truncation " + mps.getTruncationError());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.mps.qubits", matches = "\\d+")
+    @DisplayName("Ring QAOA benchmark at large qubit counts")
+    void benchmarkRingQaoa() {
+        int qubits = Integer.getInteger("nexus.benchmark.mps.qubits");
+        for (int layers = 1; layers <= 3; layers++) {
+            long start = System.currentTimeMillis();
+            MatrixProductState mps = ringQaoa(qubits, layers, 64);
+            Map<String, Object> counts = mps.sample(1024, new Random(1));
+            long elapsed = System.currentTimeMillis() - start;
+            System.out.printf("MPS QAOA: %d qubits, p=%d, peak bond %d, truncation %.2e, %d distinct outcomes, %d ms%n",
+                qubits, layers, mps.getPeakBondDimension(), mps.getTruncationError(), counts.size(), elapsed);
+        }
+    }
+
+    /**
+     * MaxCut QAOA on a ring: H, ZZ cost on every edge (the closing edge is routed
+     * with SWAPs), then the RX mixer
+     */
+    private static MatrixProductState ringQaoa(int n, int layers, int maxBond) {
+        MatrixProductState mps = new MatrixProductState(n, maxBond, 1e-10);
+        double s = 1.0 / Math.sqrt(2.0);
+        for (int q = 0; q < n; q++) {
+            mps.applySingle(q, new double[] { s, 0, s, 0, s, 0, -s, 0 });
+        }
+        for (int layer = 0; layer < layers; layer++) {
+            double gamma = 0.4 + 0.1 * layer;
+            double beta = 0.7 - 0.1 * layer;
+            for (int q = 0; q < n; q++) {
+                mps.applyTwo(q, (q + 1) % n, zz(gamma));
+            }
+            for (int q = 0; q < n; q++) {
+                mps.applySingle(q, QuantumSimulator.rotationX(2 * beta));
+            }
+        }
+        return mps;
+    }
+
+    private static double[] cnot() {
+        double[] gate = new double[32];
+        gate[0] = 1;
+        gate[(1 * 4 + 1) * 2] = 1;
+        gate[(2 * 4 + 3) * 2] = 1;
+        gate[(3 * 4 + 2) * 2] = 1;
+        return gate;
+    }
+
+    private static double[] zz(double theta) {
+        double[] gate = new double[32];
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        for (int d = 0; d < 4; d++) {
+            boolean even = d == 0 || d == 3;
+            gate[(d * 4 + d) * 2] = cos;
+            gate[(d * 4 + d) * 2 + 1] = even ? sin : -sin;
+        }
+        return gate;
+    }
+}
@@ -0,0 +1,163 @@
+package com.boozer.nexus.quantum.simulator;
+
+import com.boozer.nexus.quantum.models.NoiseModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Noisy simulation tests: the density-matrix engine against closed-form channel
+ * results and the noiseless state vector, and the trajectory engine against the
+ * density matrix within sampling error.
+ *
+ * The trajectory throughput benchmark is opt-in:
+ * {@code -Dnexus.benchmark.noise.trajectories=10000} (qubits via
+ * {@code nexus.benchmark.noise.qubits}).
+ */
+class NoiseSimulationTest {
+
+    private static final double EPSILON = 1e-10;
+
+    private final DensityMatrixSimulator densityMatrix = new DensityMatrixSimulator();
+    private final TrajectorySimulator trajectories = new TrajectorySimulator();
+
+    @Test
+    @DisplayName("Without noise the density matrix reproduces the state vector")
+    void noiselessMatchesStateVector() {
+        CompiledCircuit circuit = mixedCircuit(4);
+        double[] probabilities = densityMatrix.probabilities(circuit, null, new NoiseModel());
+
+        try (StateVector state = new HeapStateVector(4)) {
+            QuantumSimulator.run(state, circuit, null);
+            for (int i = 0; i < probabilities.length; i++) {
+                assertEquals(state.probability(i), probabilities[i], EPSILON, "basis state " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Single-qubit channels match their closed forms")
+    void closedFormChannels() {
+        CompiledCircuit flip = new CompiledCircuit(1).gate(CompiledCircuit.OP_X, 0);
+
+        NoiseModel depolarizing = new NoiseModel();
+        depolarizing.setSingleQubitDepolarizing(0.3);
+        assertEquals(1.0 - 2.0 * 0.3 / 3.0, densityMatrix.probabilities(flip, null, depolarizing)[1], EPSILON);
+
+        NoiseModel damping = new NoiseModel();
+        damping.setAmplitudeDamping(0.2);
+        assertEquals(0.8, densityMatrix.probabilities(flip, null, damping)[1], EPSILON);
+
+        NoiseModel readout = new NoiseModel();
+        readout.setReadoutError1(0.1);
+        readout.setReadoutError0(0.05);
+        double[] read = densityMatrix.probabilities(flip, null, readout);
+        assertEquals(0.1, read[0], EPSILON);
+        assertEquals(0.9, read[1], EPSILON);
+    }
+
+    @Test
+    @DisplayName("Depolarising noise decays coherence of a superposition")
+    void coherenceDecay() {
+        // H · Y · Y · H is the identity; depolarising after each gate shrinks the Bloch vector by 1 − 4p/3
+        CompiledCircuit circuit = new CompiledCircuit(1)
+            .gate(CompiledCircuit.OP_H, 0)
+            .gate(CompiledCircuit.OP_Y, 0)
+            .gate(CompiledCircuit.OP_Y, 0)
+            .gate(CompiledCircuit.OP_H, 0);
+        NoiseModel noise = new NoiseModel();
+        noise.setSingleQubitDepolarizing(0.1);
+
+        double shrink = 1.0 - 4.0 * 0.1 / 3.0;
+        assertEquals((1.0 + Math.pow(shrink, 4)) / 2.0, densityMatrix.probabilities(circuit, null, noise)[0], EPSILON);
+    }
+
+    @Test
+    @DisplayName("Trajectories converge to the density matrix")
+    void trajectoriesMatchDensityMatrix() {
+        CompiledCircuit circuit = mixedCircuit(4);
+        NoiseModel noise = new NoiseModel();
+        noise.setSingleQubitDepolarizing(0.02);
+        noise.setMultiQubitDepolarizing(0.05);
+        noise.setAmplitudeDamping(0.03);
+        noise.setReadoutError0(0.01);
+        noise.setReadoutError1(0.02);
+
+        double[] exact = densityMatrix.probabilities(circuit, null, noise);
+        double[] estimate = trajectories.probabilities(circuit, null, noise, 4000, 17L);
+        double sum = 0.0;
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals(exact[i], estimate[i], 0.02, "basis state " + i);
+            sum += estimate[i];
+        }
+        assertEquals(1.0, sum, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Seeded trajectory sampling is reproducible")
+    void seededSampling() {
+        CompiledCircuit circuit = mixedCircuit(5);
+        NoiseModel noise = new NoiseModel();
+        noise.setMultiQubitDepolarizing(0.1);
+        noise.setAmplitudeDamping(0.05);
+        noise.setReadoutError1(0.05);
+
+        long[] first = trajectories.sample(circuit, null, noise, 300, 100, 5L);
+        long[] second = trajectories.sample(circuit, null, noise, 300, 100, 5L);
+        assertEquals(300, first.length);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Registers beyond the density-matrix limit are rejected")
+    void rejectsLargeRegisters() {
+        densityMatrix.setMaxQubits(3);
+        assertThrows(IllegalArgumentException.class,
+            () -> densityMatrix.probabilities(mixedCircuit(4), null, new NoiseModel()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.noise.trajectories", matches = "\\d+")
+    @DisplayName("Trajectory throughput")
+    void benchmarkTrajectories() {
+        int count = Integer.getInteger("nexus.benchmark.noise.trajectories");
+        NoiseModel noise = new NoiseModel();
+        noise.setSingleQubitDepolarizing(0.001);
+        noise.setMultiQubitDepolarizing(0.01);
+        noise.setAmplitudeDamping(0.002);
+
+        for (String qubits : System.getProperty("nexus.benchmark.noise.qubits", "8,12,16").split(",")) {
+            int n = Integer.parseInt(qubits.trim());
+            CompiledCircuit circuit = mixedCircuit(n);
+            trajectories.sample(circuit, null, noise, 64, 64, 1L);
+            long start = System.nanoTime();
+            trajectories.sample(circuit, null, noise, count, count, 2L);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Noisy trajectories: %d qubits, %d gates, %d trajectories in %.3f s (%.0f trajectories/s)%n",
+                n, circuit.size(), count, seconds, count / seconds);
+        }
+    }
+
+    /**
+     * Layer of H and RY, a CNOT chain, then RZ, ZZ and a Y
+     */
+    private static CompiledCircuit mixedCircuit(int n) {
+        CompiledCircuit circuit = new CompiledCircuit(n);
+        for (int q = 0; q < n; q++) {
+            circuit.gate(CompiledCircuit.OP_H, q);
+            circuit.rotation(CompiledCircuit.OP_RY, 0.3 + 0.1 * q, q);
+        }
+        for (int q = 0; q < n - 1; q++) {
+            circuit.gate(CompiledCircuit.OP_CNOT, q, q + 1);
+        }
+        for (int q = 0; q < n; q++) {
+            circuit.rotation(CompiledCircuit.OP_RZ, 0.7, q);
+            circuit.rotation(CompiledCircuit.OP_RX, 0.4, q);
+        }
+        circuit.rotation(CompiledCircuit.OP_ZZ, 0.5, 0, n - 1);
+        circuit.gate(CompiledCircuit.OP_Y, n / 2);
+        return circuit;
+    }
+}
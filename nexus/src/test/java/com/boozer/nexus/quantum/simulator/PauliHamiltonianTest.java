@@ -0,0 +1,229 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pauli Hamiltonian tests: grouped expectation values against a term-by-term
+ * reference built from single-qubit Pauli matrices, consistency of apply with
+ * expectation, shot estimates within sampling error, and both parse formats.
+ *
+ * The expectation throughput benchmark is opt-in:
+ * {@code -Dnexus.benchmark.hamiltonian.terms=200} (qubits via
+ * {@code nexus.benchmark.hamiltonian.qubits}).
+ */
+class PauliHamiltonianTest {
+
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    @DisplayName("Grouped expectation matches term-by-term evaluation")
+    void expectationMatchesReference() {
+        Map<String, Double> terms = new LinkedHashMap<>();
+        terms.put("ZZII", 0.7);
+        terms.put("XXII", -0.4);
+        terms.put("YYII", 0.25);
+        terms.put("IXYZ", 1.3);
+        terms.put("IYYI", -0.6);
+        terms.put("ZIIZ", 0.9);
+        terms.put("IIII", 0.5);
+        terms.put("YIXI", 0.2);
+        PauliHamiltonian hamiltonian = PauliHamiltonian.fromPauliStrings(terms);
+
+        try (StateVector state = new HeapStateVector(4)) {
+            QuantumSimulator.run(state, entangledCircuit(4), null);
+            double reference = 0.0;
+            for (Map.Entry<String, Double> term : terms.entrySet()) {
+                reference += term.getValue() * referenceExpectation(state, term.getKey());
+            }
+            assertEquals(reference, hamiltonian.expectation(state), EPSILON);
+        }
+        assertEquals(4, hamiltonian.getNumFlipGroups());
+    }
+
+    @Test
+    @DisplayName("Apply is consistent with the expectation value")
+    void applyMatchesExpectation() {
+        PauliHamiltonian hamiltonian = PauliHamiltonian.parse("0.3*X0*Y2 + -1.1*Z1*Z3 + 0.8*Y1 + 0.45*X0*X1*Z2*Y3");
+        try (StateVector state = new HeapStateVector(4); StateVector image = new HeapStateVector(4)) {
+            QuantumSimulator.run(state, entangledCircuit(4), null);
+            hamiltonian.apply(state, image);
+            assertEquals(hamiltonian.expectation(state), state.innerProductRe(image), EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Tabulated group weights match single-term evaluation")
+    void tabulatedMatchesSingleTerms() {
+        // Many terms over few flip masks, so every group is tabulated per block
+        int n = 5;
+        Random random = new Random(11L);
+        long[] flips = { 0L, 0b00011L, 0b10100L };
+        long[] x = new long[60];
+        long[] z = new long[60];
+        double[] c = new double[60];
+        for (int k = 0; k < x.length; k++) {
+            x[k] = flips[k % flips.length];
+            z[k] = random.nextInt(1 << n);
+            c[k] = random.nextGaussian();
+        }
+        PauliHamiltonian hamiltonian = new PauliHamiltonian(x, z, c);
+
+        try (StateVector state = new HeapStateVector(n);
+             StateVector image = new HeapStateVector(n);
+             StateVector term = new HeapStateVector(n)) {
+            QuantumSimulator.run(state, entangledCircuit(n), null);
+            hamiltonian.apply(state, image);
+
+            double expected = 0.0;
+            double[] re = new double[1 << n];
+            double[] im = new double[1 << n];
+            for (int k = 0; k < x.length; k++) {
+                PauliHamiltonian single = new PauliHamiltonian(new long[] { x[k] }, new long[] { z[k] },
+                    new double[] { c[k] });
+                expected += single.expectation(state);
+                single.apply(state, term);
+                for (int i = 0; i < re.length; i++) {
+                    re[i] += term.re(i);
+                    im[i] += term.im(i);
+                }
+            }
+            assertEquals(expected, hamiltonian.expectation(state), EPSILON);
+            for (int i = 0; i < re.length; i++) {
+                assertEquals(re[i], image.re(i), EPSILON, "re " + i);
+                assertEquals(im[i], image.im(i), EPSILON, "im " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Shot estimates converge to the exact value")
+    void estimateMatchesExact() {
+        PauliHamiltonian hamiltonian = PauliHamiltonian.parse("0.5*Z0*Z1 + 0.8*X0*X1 + -0.6*Y1*Y2 + 0.3*X2 + 0.4*Y0");
+        try (StateVector state = new HeapStateVector(3)) {
+            QuantumSimulator.run(state, entangledCircuit(3), null);
+            double exact = hamiltonian.expectation(state);
+            double estimate = hamiltonian.estimate(state, 40000, new Random(3L));
+            assertEquals(exact, estimate, 0.05);
+        }
+    }
+
+    @Test
+    @DisplayName("Single-qubit eigenstates have the expected eigenvalues")
+    void eigenstates() {
+        // RY(π/2)|0⟩ = |+⟩ and RX(−π/2)|0⟩ = |+i⟩
+        try (StateVector plus = new HeapStateVector(1); StateVector plusI = new HeapStateVector(1)) {
+            plus.applyRotationY(0, Math.PI / 2);
+            plusI.applyRotationX(0, -Math.PI / 2);
+            assertEquals(1.0, PauliHamiltonian.parse("X0").expectation(plus), EPSILON);
+            assertEquals(1.0, PauliHamiltonian.parse("Y0").expectation(plusI), EPSILON);
+            assertEquals(1.0, PauliHamiltonian.parse("X0").estimate(plus, 200, new Random(1L)), EPSILON);
+            assertEquals(1.0, PauliHamiltonian.parse("Y0").estimate(plusI, 200, new Random(1L)), EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Both input formats describe the same operator")
+    void parseFormats() {
+        Map<String, Double> terms = new LinkedHashMap<>();
+        terms.put("ZIY", 0.5);
+        terms.put("IXI", 2.0);
+        PauliHamiltonian fromMap = PauliHamiltonian.fromPauliStrings(terms);
+        PauliHamiltonian fromString = PauliHamiltonian.parse("Z0*0.5*Y2 + 2*X1");
+        for (int k = 0; k < 2; k++) {
+            assertEquals(fromMap.getXMask(k), fromString.getXMask(k));
+            assertEquals(fromMap.getZMask(k), fromString.getZMask(k));
+            assertEquals(fromMap.getCoefficient(k), fromString.getCoefficient(k), EPSILON);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> PauliHamiltonian.parse("Q0 + Z1"));
+        assertThrows(IllegalArgumentException.class, () -> PauliHamiltonian.parse("X0*Z0"));
+        try (StateVector state = new HeapStateVector(2)) {
+            assertThrows(IllegalArgumentException.class, () -> PauliHamiltonian.parse("Z2").expectation(state));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.hamiltonian.terms", matches = "\\d+")
+    @DisplayName("Expectation throughput")
+    void benchmarkExpectation() {
+        int count = Integer.getInteger("nexus.benchmark.hamiltonian.terms");
+        int n = Integer.getInteger("nexus.benchmark.hamiltonian.qubits", 20);
+        Random random = new Random(7L);
+        long[] x = new long[count];
+        long[] z = new long[count];
+        double[] c = new double[count];
+        for (int k = 0; k < count; k++) {
+            // Mostly diagonal terms plus a few flip masks, as in molecular Hamiltonians
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            z[k] = (1L << a) | (1L << b);
+            x[k] = k % 8 == 0 ? (1L << a) | (1L << b) : 0L;
+            c[k] = random.nextGaussian();
+        }
+        PauliHamiltonian hamiltonian = new PauliHamiltonian(x, z, c);
+
+        try (StateVector state = new HeapStateVector(n)) {
+            QuantumSimulator.run(state, entangledCircuit(n), null);
+            hamiltonian.expectation(state);
+            long start = System.nanoTime();
+            hamiltonian.expectation(state);
+            double grouped = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            for (int k = 0; k < count; k++) {
+                new PauliHamiltonian(new long[] { x[k] }, new long[] { z[k] }, new double[] { c[k] })
+                    .expectation(state);
+            }
+            double perTerm = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Hamiltonian expectation: %d qubits, %d terms in %d flip groups: grouped %.3f s, per term %.3f s%n",
+                n, count, hamiltonian.getNumFlipGroups(), grouped, perTerm);
+        }
+    }
+
+    /**
+     * ⟨ψ|P|ψ⟩ for one Pauli string, applying each factor as a 2×2 matrix to a copy
+     */
+    private static double referenceExpectation(StateVector state, String pauli) {
+        try (StateVector image = new HeapStateVector(state.getNumQubits())) {
+            image.copyFrom(state);
+            for (int q = 0; q < pauli.length(); q++) {
+                switch (pauli.charAt(q)) {
+                    case 'X':
+                        image.applySingleQubit(q, new double[] { 0, 0, 1, 0, 1, 0, 0, 0 });
+                        break;
+                    case 'Y':
+                        image.applySingleQubit(q, new double[] { 0, 0, 0, -1, 0, 1, 0, 0 });
+                        break;
+                    case 'Z':
+                        image.applySingleQubit(q, new double[] { 1, 0, 0, 0, 0, 0, -1, 0 });
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return state.innerProductRe(image);
+        }
+    }
+
+    private static CompiledCircuit entangledCircuit(int n) {
+        CompiledCircuit circuit = new CompiledCircuit(n);
+        for (int q = 0; q < n; q++) {
+            circuit.gate(CompiledCircuit.OP_H, q);
+            circuit.rotation(CompiledCircuit.OP_RY, 0.2 + 0.15 * q, q);
+        }
+        for (int q = 0; q < n - 1; q++) {
+            circuit.gate(CompiledCircuit.OP_CNOT, q, q + 1);
+            circuit.rotation(CompiledCircuit.OP_RX, 0.3 * (q + 1), q);
+        }
+        circuit.rotation(CompiledCircuit.OP_RZ, 0.9, n - 1);
+        return circuit;
+    }
+}
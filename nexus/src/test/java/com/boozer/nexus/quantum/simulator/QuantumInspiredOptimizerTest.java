@@ -0,0 +1,177 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Quantum-inspired optimiser tests: the evolutionary algorithm and both
+ * bifurcation variants must reach the brute-force ground state of a small QUBO,
+ * report energies that match their assignments, and be reproducible when seeded.
+ *
+ * The quality-versus-time benchmark against the annealer is opt-in:
+ * {@code -Dnexus.benchmark.qio.variables=2000}.
+ */
+class QuantumInspiredOptimizerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    @DisplayName("Descent ends in a one-flip local minimum")
+    void descentReachesLocalMinimum() {
+        QuboModel model = QuboModel.compile(randomQubo(30, 0.3, 1));
+        int n = model.getNumVariables();
+        byte[] x = new byte[n];
+        double[] field = new double[n];
+        model.localFields(x, field);
+
+        double before = model.energy(x);
+        double change = model.descend(x, field);
+        assertEquals(model.energy(x), before + change, EPSILON);
+        for (int i = 0; i < n; i++) {
+            assertTrue(QuboModel.flipDelta(x, field, i) >= -1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Coupling product matches the local fields it is built from")
+    void couplingProduct() {
+        QuboModel model = QuboModel.compile(randomQubo(20, 0.4, 2));
+        int n = model.getNumVariables();
+        Random random = new Random(3);
+        byte[] x = new byte[n];
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (byte) random.nextInt(2);
+            v[i] = x[i];
+        }
+        double[] field = new double[n];
+        double[] product = new double[n];
+        model.localFields(x, field);
+        model.multiply(v, product);
+        for (int i = 0; i < n; i++) {
+            assertEquals(field[i], model.getLinear(i) + product[i], EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Evolutionary search and bifurcation find the brute-force ground state")
+    void findsGroundState() {
+        QuboModel model = QuboModel.compile(randomQubo(14, 0.4, 4));
+        double ground = bruteForceMinimum(model);
+
+        QuantumEvolutionaryOptimizer evolution = new QuantumEvolutionaryOptimizer();
+        evolution.setGenerations(100);
+        QuboSamples evolved = evolution.optimize(model, 5L);
+        assertEquals(ground, evolved.getBestEnergy(), EPSILON);
+        assertEquals(model.energy(evolved.getBestSolution()), evolved.getBestEnergy(), EPSILON);
+
+        SimulatedBifurcationSolver bifurcation = new SimulatedBifurcationSolver();
+        bifurcation.setSteps(500);
+        QuboSamples discrete = bifurcation.solve(model, 6L);
+        assertEquals(ground, discrete.getBestEnergy(), EPSILON);
+        bifurcation.setDiscrete(false);
+        QuboSamples ballistic = bifurcation.solve(model, 7L);
+        assertEquals(ground, ballistic.getBestEnergy(), EPSILON);
+        for (int a = 0; a < ballistic.getSolutions().length; a++) {
+            assertEquals(model.energy(ballistic.getSolutions()[a]), ballistic.getEnergies()[a], EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Seeded runs are reproducible")
+    void seededReproducibility() {
+        QuboModel model = QuboModel.compile(randomQubo(40, 0.2, 8));
+
+        QuantumEvolutionaryOptimizer evolution = new QuantumEvolutionaryOptimizer();
+        evolution.setGenerations(30);
+        assertArrayEquals(evolution.optimize(model, 9L).getEnergies(), evolution.optimize(model, 9L).getEnergies());
+
+        SimulatedBifurcationSolver bifurcation = new SimulatedBifurcationSolver();
+        bifurcation.setSteps(200);
+        QuboSamples first = bifurcation.solve(model, 10L);
+        QuboSamples second = bifurcation.solve(model, 10L);
+        assertArrayEquals(first.getEnergies(), second.getEnergies());
+        assertArrayEquals(first.getBestSolution(), second.getBestSolution());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.qio.variables", matches = "\\d+")
+    @DisplayName("Solution quality against wall-clock time, compared with annealing")
+    void benchmarkQualityAgainstTime() {
+        int n = Integer.getInteger("nexus.benchmark.qio.variables");
+        int degree = Integer.getInteger("nexus.benchmark.qio.degree", 8);
+        QuboModel model = QuboModel.compile(sparseQubo(n, degree, 11));
+
+        QuboAnnealer annealer = new QuboAnnealer();
+        QuantumEvolutionaryOptimizer evolution = new QuantumEvolutionaryOptimizer();
+        SimulatedBifurcationSolver bifurcation = new SimulatedBifurcationSolver();
+        System.out.printf("Quantum-inspired optimisers: %d variables, %d couplings%n", n, model.getNumCouplings());
+        for (int budget : new int[] {50, 200, 800}) {
+            annealer.setSweeps(budget);
+            evolution.setGenerations(budget / 10);
+            bifurcation.setSteps(budget);
+            report("annealing", budget, () -> annealer.anneal(model, 16, 12L));
+            report("tempering", budget, () -> annealer.temper(model, 13L));
+            report("qiea", budget, () -> evolution.optimize(model, 14L));
+            report("bifurcation", budget, () -> bifurcation.solve(model, 15L));
+        }
+    }
+
+    private static void report(String name, int budget, Supplier<QuboSamples> run) {
+        long start = System.nanoTime();
+        QuboSamples samples = run.get();
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("  %-12s budget %4d: best energy %12.4f in %8.1f ms%n",
+            name, budget, samples.getBestEnergy(), millis);
+    }
+
+    private static Map<String, Double> randomQubo(int n, double density, long seed) {
+        Random random = new Random(seed);
+        Map<String, Double> qubo = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            qubo.put("x" + i, random.nextGaussian());
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextDouble() < density) {
+                    qubo.put("x" + i + ",x" + j, random.nextGaussian());
+                }
+            }
+        }
+        return qubo;
+    }
+
+    private static Map<String, Double> sparseQubo(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        Map<String, Double> qubo = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            qubo.put("x" + i, random.nextGaussian());
+            for (int k = 0; k < degree / 2; k++) {
+                int j = random.nextInt(n);
+                if (j != i) {
+                    qubo.merge("x" + Math.min(i, j) + ",x" + Math.max(i, j), random.nextGaussian(), Double::sum);
+                }
+            }
+        }
+        return qubo;
+    }
+
+    private static double bruteForceMinimum(QuboModel model) {
+        int n = model.getNumVariables();
+        byte[] x = new byte[n];
+        double min = Double.POSITIVE_INFINITY;
+        for (int bits = 0; bits < (1 << n); bits++) {
+            for (int i = 0; i < n; i++) {
+                x[i] = (byte) ((bits >>> i) & 1);
+            }
+            min = Math.min(min, model.energy(x));
+        }
+        return min;
+    }
+}
@@ -0,0 +1,190 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QUBO annealer tests: the compiled model must agree with the string-keyed energy,
+ * incremental local fields must stay exact under flips, and both annealing modes
+ * must reach the brute-force ground state of a small instance.
+ *
+ * The sweep throughput benchmark is opt-in: {@code -Dnexus.benchmark.qubo.variables=10000}.
+ */
+class QuboAnnealerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    @DisplayName("Compiled energy matches the string-keyed definition")
+    void compiledEnergy() {
+        Map<String, Double> qubo = randomQubo(10, 0.5, 1);
+        qubo.put("x3,x3", 0.75);
+        QuboModel model = QuboModel.compile(qubo);
+
+        Random random = new Random(2);
+        for (int trial = 0; trial < 50; trial++) {
+            byte[] x = randomBits(model.getNumVariables(), random);
+            assertEquals(mapEnergy(qubo, model.toSolution(x)), model.energy(x), EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental local fields stay equal to recomputed fields")
+    void incrementalFields() {
+        QuboModel model = QuboModel.compile(randomQubo(40, 0.2, 3));
+        int n = model.getNumVariables();
+        Random random = new Random(4);
+        byte[] x = randomBits(n, random);
+        double[] field = new double[n];
+        model.localFields(x, field);
+
+        double energy = model.energy(x);
+        double[] expected = new double[n];
+        for (int step = 0; step < 500; step++) {
+            int i = random.nextInt(n);
+            energy += QuboModel.flipDelta(x, field, i);
+            model.flip(x, field, i);
+        }
+        model.localFields(x, expected);
+        assertArrayEquals(expected, field, EPSILON);
+        assertEquals(model.energy(x), energy, EPSILON);
+    }
+
+    @Test
+    @DisplayName("Annealing and tempering find the brute-force ground state")
+    void findsGroundState() {
+        QuboModel model = QuboModel.compile(randomQubo(12, 0.4, 5));
+        double ground = bruteForceMinimum(model);
+
+        QuboAnnealer annealer = new QuboAnnealer();
+        annealer.setSweeps(500);
+        annealer.setReplicas(8);
+        assertEquals(ground, annealer.anneal(model, 8, 6L).getBestEnergy(), EPSILON);
+        assertEquals(ground, annealer.temper(model, 7L).getBestEnergy(), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Seeded runs are reproducible")
+    void seededReproducibility() {
+        QuboModel model = QuboModel.compile(randomQubo(30, 0.3, 8));
+        QuboAnnealer annealer = new QuboAnnealer();
+        annealer.setSweeps(50);
+
+        QuboSamples first = annealer.anneal(model, 4, 9L);
+        QuboSamples second = annealer.anneal(model, 4, 9L);
+        assertArrayEquals(first.getEnergies(), second.getEnergies());
+        assertArrayEquals(first.getBestSolution(), second.getBestSolution());
+
+        assertArrayEquals(annealer.temper(model, 10L).getEnergies(), annealer.temper(model, 10L).getEnergies());
+    }
+
+    @Test
+    @DisplayName("Simulator reports the energy of the solution it returns")
+    void simulatorSolution() {
+        Map<String, Double> qubo = randomQubo(16, 0.3, 11);
+        QuantumAnnealingSimulator simulator = new QuantumAnnealingSimulator();
+        simulator.setSweeps(200);
+
+        AnnealingResult result = simulator.anneal(qubo, 20.0, 4);
+        assertEquals(16, result.getBestSolution().size());
+        assertEquals(mapEnergy(qubo, result.getBestSolution()), result.getLowestEnergy(), EPSILON);
+
+        simulator.setParallelTempering(true);
+        result = simulator.anneal(qubo, 20.0, 4);
+        assertEquals(mapEnergy(qubo, result.getBestSolution()), result.getLowestEnergy(), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Malformed terms are rejected")
+    void rejectsMalformedTerms() {
+        Map<String, Double> qubo = new LinkedHashMap<>();
+        qubo.put("x0,x1,x2", 1.0);
+        assertThrows(IllegalArgumentException.class, () -> QuboModel.compile(qubo));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.qubo.variables", matches = "\\d+")
+    @DisplayName("Annealing sweep throughput")
+    void benchmarkSweeps() {
+        int n = Integer.getInteger("nexus.benchmark.qubo.variables");
+        int degree = Integer.getInteger("nexus.benchmark.qubo.degree", 8);
+        QuboModel model = QuboModel.compile(sparseQubo(n, degree, 12));
+
+        QuboAnnealer annealer = new QuboAnnealer();
+        annealer.setSweeps(200);
+        annealer.anneal(model, 2, 1L);
+        QuboSamples reads = annealer.anneal(model, 8, 13L);
+        QuboSamples tempering = annealer.temper(model, 14L);
+        System.out.printf("QUBO annealing: %d variables, %d couplings: %.0f sweeps/s (reads), %.0f sweeps/s (tempering)%n",
+            n, model.getNumCouplings(), reads.getSweepsPerSecond(), tempering.getSweepsPerSecond());
+    }
+
+    private static Map<String, Double> randomQubo(int n, double density, long seed) {
+        Random random = new Random(seed);
+        Map<String, Double> qubo = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            qubo.put("x" + i, random.nextGaussian());
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextDouble() < density) {
+                    qubo.put("x" + i + ",x" + j, random.nextGaussian());
+                }
+            }
+        }
+        return qubo;
+    }
+
+    private static Map<String, Double> sparseQubo(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        Map<String, Double> qubo = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            qubo.put("x" + i, random.nextGaussian());
+            for (int k = 0; k < degree / 2; k++) {
+                int j = random.nextInt(n);
+                if (j != i) {
+                    qubo.merge("x" + Math.min(i, j) + ",x" + Math.max(i, j), random.nextGaussian(), Double::sum);
+                }
+            }
+        }
+        return qubo;
+    }
+
+    private static double mapEnergy(Map<String, Double> qubo, Map<String, Object> solution) {
+        double energy = 0.0;
+        for (Map.Entry<String, Double> term : qubo.entrySet()) {
+            double product = term.getValue();
+            for (String variable : term.getKey().split(",")) {
+                product *= (Integer) solution.get(variable);
+            }
+            energy += product;
+        }
+        return energy;
+    }
+
+    private static double bruteForceMinimum(QuboModel model) {
+        int n = model.getNumVariables();
+        byte[] x = new byte[n];
+        double min = Double.POSITIVE_INFINITY;
+        for (int bits = 0; bits < (1 << n); bits++) {
+            for (int i = 0; i < n; i++) {
+                x[i] = (byte) ((bits >>> i) & 1);
+            }
+            min = Math.min(min, model.energy(x));
+        }
+        return min;
+    }
+
+    private static byte[] randomBits(int n, Random random) {
+        byte[] x = new byte[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (byte) random.nextInt(2);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,163 @@
+package com.boozer.nexus.quantum.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * State vector backend tests.
+ *
+ * The large-state benchmark is opt-in: run with
+ * {@code -Dnexus.benchmark.statevector.qubits=30} (and a matching -XX:MaxDirectMemorySize).
+ */
+class StateVectorTest {
+
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    @DisplayName("Heap and off-heap backends evolve identically")
+    void backendsAgree() {
+        try (StateVector heap = new HeapStateVector(12);
+             StateVector offHeap = OffHeapStateVector.allocate(12)) {
+            applyLayers(heap, 4, 7L);
+            applyLayers(offHeap, 4, 7L);
+
+            assertEquals(1.0, heap.normSquared(), EPSILON);
+            for (long i = 0; i < heap.getSize(); i++) {
+                assertEquals(heap.re(i), offHeap.re(i), EPSILON);
+                assertEquals(heap.im(i), offHeap.im(i), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Bell state samples only |00⟩ and |11⟩")
+    void bellStateSampling() {
+        try (StateVector state = new HeapStateVector(2)) {
+            state.applySingleQubit(0, hadamard());
+            state.applyControlledX(1L, 1);
+
+            assertEquals(0.5, state.probability(0), EPSILON);
+            assertEquals(0.5, state.probability(3), EPSILON);
+
+            long[] outcomes = state.sample(2000, new Random(42));
+            int ones = 0;
+            for (long outcome : outcomes) {
+                assertTrue(outcome == 0 || outcome == 3);
+                if (outcome == 3) {
+                    ones++;
+                }
+            }
+            assertTrue(ones > 850 && ones < 1150, "Unbalanced Bell sampling: " + ones);
+        }
+    }
+
+    @Test
+    @DisplayName("Memory-mapped backend resets and removes its swap file")
+    void mappedBackend() throws Exception {
+        Path directory = Files.createTempDirectory("nexus-sv-test");
+        Path file;
+        try (OffHeapStateVector state = OffHeapStateVector.map(10, directory)) {
+            file = state.getMappedFile();
+            assertTrue(state.isMapped());
+            assertNotNull(file);
+
+            state.applySingleQubit(3, hadamard());
+            assertEquals(0.5, state.probability(8), EPSILON);
+
+            state.reset();
+            assertEquals(1.0, state.probability(0), EPSILON);
+            assertEquals(1.0, state.normSquared(), EPSILON);
+        }
+        assertFalse(Files.exists(file));
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Heap backend rejects states beyond the array limit")
+    void heapLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new HeapStateVector(HeapStateVector.MAX_QUBITS + 1));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "nexus.benchmark.statevector.qubits", matches = "\\d+")
+    @DisplayName("Large off-heap state vector - throughput and GC benchmark")
+    void benchmarkLargeStateVector() throws Exception {
+        int qubits = Integer.getInteger("nexus.benchmark.statevector.qubits");
+        String swap = System.getProperty("nexus.benchmark.statevector.swap");
+
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long start = System.nanoTime();
+
+        try (StateVector state = swap != null
+                ? OffHeapStateVector.map(qubits, Path.of(swap))
+                : OffHeapStateVector.allocate(qubits)) {
+            long allocated = System.nanoTime();
+            applyLayers(state, 1, 11L);
+            long elapsed = System.nanoTime() - allocated;
+
+            int gates = 3 * qubits - 1;
+            double amplitudeUpdates = (double) gates * state.getSize();
+            System.out.printf("State vector: %d qubits, %d MiB off-heap, heap used %d MiB%n",
+                qubits, state.memoryBytes() >> 20,
+                (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20);
+            System.out.printf("Allocation: %.2f s, %d gates: %.2f s (%.1f M amplitudes/s)%n",
+                (allocated - start) / 1e9, gates, elapsed / 1e9, amplitudeUpdates / (elapsed / 1e9) / 1e6);
+            System.out.printf("GC during run: %d collections, %d ms total pause%n",
+                gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+
+            assertEquals(1.0, state.normSquared(), 1e-6);
+        }
+    }
+
+    /**
+     * Hardware-efficient layers: H and RX on every qubit followed by a CNOT chain
+     */
+    private static void applyLayers(StateVector state, int layers, long seed) {
+        Random random = new Random(seed);
+        int n = state.getNumQubits();
+        for (int layer = 0; layer < layers; layer++) {
+            for (int q = 0; q < n; q++) {
+                state.applySingleQubit(q, hadamard());
+                state.applySingleQubit(q, QuantumSimulator.rotationX(random.nextDouble() * Math.PI));
+            }
+            for (int q = 0; q < n - 1; q++) {
+                state.applyControlledX(1L << q, q + 1);
+            }
+            if (layers > 1) {
+                state.applyRotationZ(random.nextInt(n), random.nextDouble());
+                state.applyParityPhase(3L, random.nextDouble());
+            }
+        }
+    }
+
+    private static double[] hadamard() {
+        double s = 1.0 / Math.sqrt(2.0);
+        return new double[] { s, 0, s, 0, s, 0, -s, 0 };
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}